@@ -73,6 +73,53 @@ CREATE TABLE IF NOT EXISTS ranking (
 CREATE INDEX IF NOT EXISTS idx_ranking_points     ON ranking(points DESC);
 CREATE INDEX IF NOT EXISTS idx_ranking_reached_at ON ranking(reached_at DESC);
 
+-- RANKING_BEST (mejor snapshot de cada user, lo mantiene el trigger de abajo)
+-- Mejor = mas puntos; con empate el mas reciente y despues el de mayor ranking_id.
+
+CREATE TABLE IF NOT EXISTS ranking_best (
+    user_id      BIGINT      PRIMARY KEY,
+    ranking_id   INTEGER     NOT NULL,
+    points       INTEGER     NOT NULL,
+    reached_at   TIMESTAMPTZ NOT NULL,
+
+    CONSTRAINT fk_ranking_best_ranking
+      FOREIGN KEY (ranking_id) REFERENCES ranking(ranking_id)
+      ON DELETE CASCADE,
+
+    CONSTRAINT fk_ranking_best_user
+      FOREIGN KEY (user_id) REFERENCES users(user_id)
+      ON DELETE CASCADE
+);
+
+-- Orden del top: points DESC, reached_at ASC, ranking_id ASC
+CREATE INDEX IF NOT EXISTS idx_ranking_best_top ON ranking_best(points DESC, reached_at ASC, ranking_id ASC);
+
+CREATE OR REPLACE FUNCTION ranking_best_on_insert() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO ranking_best (user_id, ranking_id, points, reached_at)
+    VALUES (NEW.user_id, NEW.ranking_id, NEW.points, NEW.reached_at)
+    ON CONFLICT (user_id) DO UPDATE
+        SET ranking_id = EXCLUDED.ranking_id,
+            points     = EXCLUDED.points,
+            reached_at = EXCLUDED.reached_at
+        WHERE (EXCLUDED.points, EXCLUDED.reached_at, EXCLUDED.ranking_id)
+            > (ranking_best.points, ranking_best.reached_at, ranking_best.ranking_id);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_ranking_best ON ranking;
+CREATE TRIGGER trg_ranking_best
+    AFTER INSERT ON ranking
+    FOR EACH ROW EXECUTE FUNCTION ranking_best_on_insert();
+
+-- Carga inicial desde el historial existente (no hace nada si ya esta cargada)
+INSERT INTO ranking_best (user_id, ranking_id, points, reached_at)
+SELECT DISTINCT ON (user_id) user_id, ranking_id, points, reached_at
+FROM ranking
+ORDER BY user_id, points DESC, reached_at DESC, ranking_id DESC
+ON CONFLICT (user_id) DO NOTHING;
+
 
 
 -- GAME
@@ -0,0 +1,22 @@
+-- Prueba de carga del ranking: 10.000 usuarios y 1.000.000 de snapshots.
+-- Correr sobre una base de prueba despues de Create_tables.sql (el trigger llena ranking_best).
+-- Despues comparar:
+--   EXPLAIN ANALYZE de la consulta vieja (RankingRepository.findTopUniquePlayersWithUsername)
+--   contra  SELECT * FROM ranking_best ORDER BY points DESC, reached_at ASC, ranking_id ASC LIMIT 10;
+
+SET search_path TO public;
+
+INSERT INTO users (username, password_hash, email, wins, losses, score)
+SELECT 'load_' || g, 'x', 'load_' || g || '@test.local', 0, 0, 0
+FROM generate_series(1, 10000) AS g
+ON CONFLICT DO NOTHING;
+
+INSERT INTO ranking (user_id, points, reached_at)
+SELECT u.user_id,
+       (random() * 5000)::int,
+       now() - (random() * interval '365 days')
+FROM generate_series(1, 100) AS g
+CROSS JOIN (SELECT user_id FROM users WHERE username LIKE 'load\_%') AS u;
+
+ANALYZE ranking;
+ANALYZE ranking_best;
@@ -4,9 +4,12 @@ import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import com.example.proyect.metrics.GameMetrics;
+
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -20,6 +23,13 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long EXPIRATION;
 
+    private GameMetrics metrics;
+
+    @Autowired(required = false)
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
     private Key getSigningKey() {
         return Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
     }
@@ -53,11 +63,17 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token) {
+        long started = System.nanoTime();
+        boolean valid;
         try {
             extractAllClaims(token);
-            return true;
+            valid = true;
         } catch (Exception e) {
-            return false;
+            valid = false;
+        }
+        if (metrics != null) {
+            metrics.recordJwtValidation(valid, started);
         }
+        return valid;
     }
 }
@@ -15,6 +15,7 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
@@ -36,9 +37,15 @@ public class SecurityConfig {
             .authorizeHttpRequests(auth -> auth
                 // Preflight siempre permitido
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
+
+                // Redespacho async de respuestas ya autorizadas (SSE de /api/lobby/events, replay en streaming)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
+
+                // Scrape de Prometheus: el puerto de management solo escucha en localhost
+                .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                 
                 // Public page routes
                 .requestMatchers("/", "/login").permitAll()
@@ -121,7 +128,7 @@ public class SecurityConfig {
         cfg.setAllowedHeaders(List.of(
             "Authorization", "Content-Type", "X-Requested-With", "Accept", "Origin"
         ));
-        cfg.setExposedHeaders(List.of("Authorization", "Location", "Set-Cookie"));
+        cfg.setExposedHeaders(List.of("Authorization", "Location", "Set-Cookie", "X-Next-Cursor"));
         cfg.setAllowCredentials(true);
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
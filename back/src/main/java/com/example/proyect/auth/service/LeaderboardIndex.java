@@ -0,0 +1,264 @@
+package com.example.proyect.auth.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Indice en memoria del mejor snapshot de cada usuario, ordenado como el top global.
+ *
+ * Es un treap con tamanio de subarbol en cada nodo (order-statistic), asi offer/remove,
+ * rankOf y el acceso al k-esimo son O(log n) esperado y top(n) es O(log n + n).
+ *
+ * Orden del top (igual que la consulta original): points DESC, reachedAt ASC, rankingId ASC.
+ * Mejor snapshot de un usuario: el de mas puntos; con empate el mas reciente y despues el de
+ * mayor rankingId.
+ */
+public final class LeaderboardIndex {
+
+    /**
+     * Mejor snapshot de un usuario.
+     */
+    public record Entry(long userId, int points, Instant reachedAt, long rankingId) {
+
+        /** true si este snapshot reemplaza a other como mejor del usuario. */
+        boolean betterThan(Entry other) {
+            if (points != other.points) {
+                return points > other.points;
+            }
+            int byTime = reachedAt.compareTo(other.reachedAt);
+            if (byTime != 0) {
+                return byTime > 0;
+            }
+            return rankingId > other.rankingId;
+        }
+    }
+
+    private static final class Node {
+        private final Entry entry;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private int size = 1;
+
+        private Node(Entry entry, int priority) {
+            this.entry = entry;
+            this.priority = priority;
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> byUser = new HashMap<>();
+    private final SplittableRandom random;
+    private Node root;
+
+    public LeaderboardIndex() {
+        this(new SplittableRandom());
+    }
+
+    LeaderboardIndex(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Registra un snapshot. Solo cambia el indice si es mejor que el actual del usuario, asi el
+     * orden en que llegan la carga inicial y los snapshots nuevos no importa.
+     *
+     * @return true si el snapshot quedo como el mejor del usuario
+     */
+    public boolean offer(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byUser.get(entry.userId());
+            if (current != null) {
+                if (!entry.betterThan(current)) {
+                    return false;
+                }
+                root = delete(root, current);
+            }
+            byUser.put(entry.userId(), entry);
+            root = insert(root, new Node(entry, random.nextInt()));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Entry current = byUser.remove(userId);
+            if (current != null) {
+                root = delete(root, current);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Los primeros limit usuarios del top, en orden.
+     */
+    public List<Entry> top(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Entry> result = new ArrayList<>(Math.max(0, Math.min(limit, size(root))));
+            collect(root, limit, result);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Posicion del usuario en el top (1 = primero), o -1 si no tiene snapshots.
+     */
+    public int rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Entry entry = byUser.get(userId);
+            if (entry == null) {
+                return -1;
+            }
+            int before = 0;
+            Node node = root;
+            while (node != null) {
+                int cmp = compare(entry, node.entry);
+                if (cmp < 0) {
+                    node = node.left;
+                } else {
+                    before += size(node.left);
+                    if (cmp == 0) {
+                        break;
+                    }
+                    before += 1;
+                    node = node.right;
+                }
+            }
+            return before + 1;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Entry get(long userId) {
+        lock.readLock().lock();
+        try {
+            return byUser.get(userId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return byUser.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ========== Treap ==========
+
+    /** Orden del top: negativo si a va antes que b. */
+    private static int compare(Entry a, Entry b) {
+        if (a.points() != b.points()) {
+            return Integer.compare(b.points(), a.points());
+        }
+        int byTime = a.reachedAt().compareTo(b.reachedAt());
+        if (byTime != 0) {
+            return byTime;
+        }
+        int byId = Long.compare(a.rankingId(), b.rankingId());
+        return byId != 0 ? byId : Long.compare(a.userId(), b.userId());
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = update(node);
+        return update(left);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = update(node);
+        return update(right);
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.entry, node.entry) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, Entry entry) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(entry, node.entry);
+        if (cmp < 0) {
+            node.left = delete(node.left, entry);
+        } else if (cmp > 0) {
+            node.right = delete(node.right, entry);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    /** Une dos subarboles donde todo left va antes que right. */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static void collect(Node node, int limit, List<Entry> out) {
+        if (node == null || out.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, out);
+        if (out.size() < limit) {
+            out.add(node.entry);
+            collect(node.right, limit, out);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.proyect.auth.service;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.proyect.persistence.classes.Ranking;
+import com.example.proyect.persistence.classes.RankingBest;
+import com.example.proyect.persistence.repos.RankingBestRepository;
+
+/**
+ * Top global en memoria (LeaderboardIndex) cargado desde ranking_best la primera vez que se usa
+ * y actualizado con cada snapshot nuevo una vez confirmada la transaccion que lo inserta.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger log = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private final RankingBestRepository rankingBestRepository;
+    private final LeaderboardIndex index = new LeaderboardIndex();
+    private volatile boolean loaded;
+
+    public LeaderboardService(RankingBestRepository rankingBestRepository) {
+        this.rankingBestRepository = rankingBestRepository;
+    }
+
+    public List<LeaderboardIndex.Entry> top(int limit) {
+        ensureLoaded();
+        return index.top(limit);
+    }
+
+    /** Posicion del usuario en el top (1 = primero), o -1 si no tiene snapshots. */
+    public int rankOf(Long userId) {
+        ensureLoaded();
+        return userId != null ? index.rankOf(userId) : -1;
+    }
+
+    public void recordSnapshot(Ranking ranking) {
+        if (ranking == null || ranking.getId() == null) {
+            return;
+        }
+        OffsetDateTime reachedAt = ranking.getReachedAt() != null ? ranking.getReachedAt() : OffsetDateTime.now();
+        recordSnapshot(ranking.getUserId(), ranking.getPoints(), reachedAt, ranking.getId());
+    }
+
+    /**
+     * Registra un snapshot en el indice. Dentro de una transaccion se aplica recien en el commit,
+     * asi un rollback no deja puntajes que no existen en la base.
+     */
+    public void recordSnapshot(long userId, int points, OffsetDateTime reachedAt, long rankingId) {
+        LeaderboardIndex.Entry entry = new LeaderboardIndex.Entry(userId, points, reachedAt.toInstant(), rankingId);
+        afterCommit(() -> index.offer(entry));
+    }
+
+    public void removeUser(Long userId) {
+        if (userId != null) {
+            afterCommit(() -> index.remove(userId));
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            List<RankingBest> rows = rankingBestRepository.findAll();
+            // offer se queda con el mejor: los snapshots que llegaron mientras se cargaba no se pisan
+            for (RankingBest row : rows) {
+                index.offer(new LeaderboardIndex.Entry(
+                    row.getUserId(), row.getPoints(), row.getReachedAt().toInstant(), row.getRankingId()
+                ));
+            }
+            loaded = true;
+            log.info("Leaderboard loaded with {} users", rows.size());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.proyect.auth.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.proyect.config.MatchResultProperties;
+import com.example.proyect.persistence.classes.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind de resultados de partida (victorias, derrotas y snapshot de ranking).
+ *
+ * Con game.match-results.enabled=true el hilo que termina la partida solo agrega una linea al
+ * journal local y encola el resultado; un unico hilo de escritura junta los pendientes, los
+ * agrupa por usuario (varias partidas del mismo usuario = un UPDATE y un snapshot) y los vuelca
+ * con batches JDBC en una transaccion. Al arrancar se reencolan las lineas que quedaron en el
+ * journal. La entrega es al-menos-una-vez: si el proceso cae entre el commit y la compactacion
+ * del journal, esos resultados se vuelven a aplicar.
+ *
+ * Deshabilitado, record() escribe en el hilo llamador igual que antes.
+ */
+@Component
+public class MatchResultRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(MatchResultRecorder.class);
+
+    /**
+     * Cambios acumulados de un usuario en un lote.
+     */
+    public record UserResultDelta(long userId, int wins, int losses) {
+    }
+
+    /**
+     * Destino de los lotes. Se aplica completo o falla completo (el lote se reintenta).
+     */
+    @FunctionalInterface
+    public interface ResultSink {
+        void apply(List<UserResultDelta> batch);
+    }
+
+    private record PendingResult(Long winnerUserId, Long loserUserId) {
+    }
+
+    private final boolean enabled;
+    private final ResultSink sink;
+    private final Path journalPath;
+    private final long flushIntervalMs;
+    private final int maxBatchSize;
+    private final boolean fsync;
+
+    private final Object lock = new Object();
+    private final List<PendingResult> pending = new ArrayList<>();
+    private FileChannel journal;
+    private ScheduledExecutorService writer;
+
+    @Autowired
+    public MatchResultRecorder(MatchResultProperties properties,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               LeaderboardService leaderboardService) {
+        this(properties, new JdbcResultSink(jdbcTemplate, new TransactionTemplate(transactionManager), leaderboardService));
+    }
+
+    public MatchResultRecorder(MatchResultProperties properties, ResultSink sink) {
+        this.enabled = properties.isEnabled();
+        this.sink = sink;
+        this.journalPath = Paths.get(properties.getJournalPath());
+        this.flushIntervalMs = Math.max(1, properties.getFlushIntervalMs());
+        this.maxBatchSize = Math.max(1, properties.getMaxBatchSize());
+        this.fsync = properties.isFsync();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Path parent = journalPath.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            List<PendingResult> recovered = readJournal();
+            synchronized (lock) {
+                pending.addAll(recovered);
+                journal = openJournal();
+            }
+            if (!recovered.isEmpty()) {
+                log.info("Recovered {} match results from {}", recovered.size(), journalPath);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open match result journal " + journalPath, ex);
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "match-result-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Match result write-behind enabled (journal={}, interval={}ms)", journalPath, flushIntervalMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Registra el resultado de una partida. Cualquiera de los dos ids puede ser null (invitado o
+     * usuario desconocido).
+     */
+    public void record(Long winnerUserId, Long loserUserId) {
+        if (winnerUserId == null && loserUserId == null) {
+            return;
+        }
+        if (!enabled) {
+            sink.apply(coalesce(List.of(new PendingResult(winnerUserId, loserUserId))));
+            return;
+        }
+
+        int size;
+        synchronized (lock) {
+            appendToJournal(winnerUserId, loserUserId);
+            pending.add(new PendingResult(winnerUserId, loserUserId));
+            size = pending.size();
+        }
+        if (size >= maxBatchSize) {
+            submit(this::flushSafely);
+        }
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Vuelca todos los resultados pendientes. Si el destino falla, quedan pendientes y en el journal.
+     */
+    public void flush() {
+        List<PendingResult> batch;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+        }
+
+        sink.apply(coalesce(batch));
+
+        synchronized (lock) {
+            pending.subList(0, batch.size()).clear();
+            if (enabled) {
+                compactJournal();
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Match result flush failed, {} results stay queued: {}", pendingCount(), ex.getMessage());
+        }
+    }
+
+    private boolean submit(Runnable task) {
+        ScheduledExecutorService current = writer;
+        if (current == null) {
+            return false;
+        }
+        try {
+            current.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException ex) {
+                    log.error("Write-behind task failed", ex);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    private static List<UserResultDelta> coalesce(List<PendingResult> results) {
+        Map<Long, int[]> byUser = new LinkedHashMap<>();
+        for (PendingResult result : results) {
+            if (result.winnerUserId() != null) {
+                byUser.computeIfAbsent(result.winnerUserId(), id -> new int[2])[0]++;
+            }
+            if (result.loserUserId() != null) {
+                byUser.computeIfAbsent(result.loserUserId(), id -> new int[2])[1]++;
+            }
+        }
+        List<UserResultDelta> deltas = new ArrayList<>(byUser.size());
+        byUser.forEach((userId, counts) -> deltas.add(new UserResultDelta(userId, counts[0], counts[1])));
+        return deltas;
+    }
+
+    // ========== Journal ==========
+    // Una linea por resultado: "<winnerId|-> <loserId|->"
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void appendToJournal(Long winnerUserId, Long loserUserId) {
+        try {
+            journal.write(ByteBuffer.wrap(formatLine(new PendingResult(winnerUserId, loserUserId))));
+            if (fsync) {
+                journal.force(false);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot append to match result journal", ex);
+        }
+    }
+
+    /** Reescribe el journal solo con lo que sigue pendiente (archivo temporal + move atomico). */
+    private void compactJournal() {
+        try {
+            Path tmp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (PendingResult result : pending) {
+                    out.write(ByteBuffer.wrap(formatLine(result)));
+                }
+                out.force(false);
+            }
+            journal.close();
+            Files.move(tmp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            journal = openJournal();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot compact match result journal", ex);
+        }
+    }
+
+    private List<PendingResult> readJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return Collections.emptyList();
+        }
+        List<PendingResult> results = new ArrayList<>();
+        for (String line : Files.readAllLines(journalPath, StandardCharsets.UTF_8)) {
+            String[] parts = line.trim().split(" ");
+            if (parts.length != 2) {
+                // linea cortada por una caida a mitad de escritura
+                log.warn("Skipping malformed match result journal line: '{}'", line);
+                continue;
+            }
+            try {
+                results.add(new PendingResult(parseId(parts[0]), parseId(parts[1])));
+            } catch (NumberFormatException ex) {
+                log.warn("Skipping malformed match result journal line: '{}'", line);
+            }
+        }
+        return results;
+    }
+
+    private static byte[] formatLine(PendingResult result) {
+        String line = formatId(result.winnerUserId()) + " " + formatId(result.loserUserId()) + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String formatId(Long id) {
+        return id != null ? id.toString() : "-";
+    }
+
+    private static Long parseId(String value) {
+        return "-".equals(value) ? null : Long.valueOf(value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+        synchronized (lock) {
+            try {
+                journal.close();
+            } catch (IOException ex) {
+                log.warn("Cannot close match result journal: {}", ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Vuelca un lote con JDBC: lee wins/losses con bloqueo, actualiza users y agrega un snapshot
+     * de ranking por usuario, todo en batch y en una transaccion.
+     */
+    static final class JdbcResultSink implements ResultSink {
+
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+        private final LeaderboardService leaderboardService;
+
+        JdbcResultSink(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                       LeaderboardService leaderboardService) {
+            this.jdbcTemplate = jdbcTemplate;
+            this.transactionTemplate = transactionTemplate;
+            this.leaderboardService = leaderboardService;
+        }
+
+        @Override
+        public void apply(List<UserResultDelta> batch) {
+            if (batch.isEmpty()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> applyInTransaction(batch));
+        }
+
+        private void applyInTransaction(List<UserResultDelta> batch) {
+            String placeholders = String.join(",", Collections.nCopies(batch.size(), "?"));
+            Object[] ids = batch.stream().map(UserResultDelta::userId).toArray();
+            Map<Long, int[]> current = new LinkedHashMap<>();
+            jdbcTemplate.query(
+                "SELECT user_id, wins, losses FROM users WHERE user_id IN (" + placeholders + ") ORDER BY user_id FOR UPDATE",
+                rs -> {
+                    current.put(rs.getLong("user_id"), new int[] {rs.getInt("wins"), rs.getInt("losses")});
+                },
+                ids
+            );
+
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> snapshots = new ArrayList<>();
+            OffsetDateTime reachedAt = OffsetDateTime.now();
+            Timestamp now = Timestamp.from(reachedAt.toInstant());
+            for (UserResultDelta delta : batch) {
+                int[] row = current.get(delta.userId());
+                if (row == null) {
+                    // usuario borrado mientras el resultado estaba encolado
+                    continue;
+                }
+                int wins = row[0] + delta.wins();
+                int losses = row[1] + delta.losses();
+                int score = User.scoreFor(wins, losses);
+                updates.add(new Object[] {wins, losses, score, delta.userId()});
+                snapshots.add(new Object[] {delta.userId(), score, now});
+            }
+            if (updates.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate("UPDATE users SET wins = ?, losses = ?, score = ? WHERE user_id = ?", updates);
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(
+                    "INSERT INTO ranking (user_id, points, reached_at) VALUES (?, ?, ?)", new String[] {"ranking_id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = snapshots.get(i);
+                        ps.setLong(1, (Long) row[0]);
+                        ps.setInt(2, (Integer) row[1]);
+                        ps.setTimestamp(3, (Timestamp) row[2]);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return snapshots.size();
+                    }
+                },
+                keys
+            );
+
+            if (leaderboardService != null) {
+                List<Map<String, Object>> generated = keys.getKeyList();
+                for (int i = 0; i < snapshots.size() && i < generated.size(); i++) {
+                    Number rankingId = (Number) generated.get(i).get("ranking_id");
+                    Object[] row = snapshots.get(i);
+                    // se aplica en el commit de esta transaccion
+                    leaderboardService.recordSnapshot((Long) row[0], (Integer) row[1], reachedAt, rankingId.longValue());
+                }
+            }
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.proyect.auth.service;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,11 +29,21 @@ public class RankingService {
 
     private final RankingRepository rankingRepository;
     private final UserRepository userRepository;
+    // null = el top sale de la consulta sobre todo ranking (sin indice en memoria)
+    private final LeaderboardService leaderboardService;
 
     public RankingService(RankingRepository rankingRepository,
                           UserRepository userRepository) {
+        this(rankingRepository, userRepository, null);
+    }
+
+    @Autowired
+    public RankingService(RankingRepository rankingRepository,
+                          UserRepository userRepository,
+                          LeaderboardService leaderboardService) {
         this.rankingRepository = rankingRepository;
         this.userRepository = userRepository;
+        this.leaderboardService = leaderboardService;
     }
 
   //vseverio esta clase guarda y consulta el historial de puntajes por usuario
@@ -43,7 +58,11 @@ public class RankingService {
         ranking.setPoints(user.getScore());
         ranking.setReachedAt(OffsetDateTime.now());
 
-        return rankingRepository.save(ranking);
+        Ranking saved = rankingRepository.save(ranking);
+        if (leaderboardService != null) {
+            leaderboardService.recordSnapshot(saved);
+        }
+        return saved;
     }
 
 
@@ -60,12 +79,37 @@ public class RankingService {
     }
 
     public List<RankingTopDTO> getTop(int limit) { //trae top N global del ranking con paginacion simple
-        return rankingRepository.findTopUniquePlayersWithUsername(PageRequest.of(0, limit));
+        if (leaderboardService == null) {
+            return rankingRepository.findTopUniquePlayersWithUsername(PageRequest.of(0, limit));
+        }
+        // el orden sale del indice; de la base solo username/wins/losses de esos N usuarios
+        List<LeaderboardIndex.Entry> top = leaderboardService.top(limit);
+        Map<Long, User> users = userRepository.findAllById(top.stream().map(LeaderboardIndex.Entry::userId).toList())
+                .stream()
+                .collect(Collectors.toMap(User::getUserId, Function.identity()));
+        List<RankingTopDTO> result = new ArrayList<>(top.size());
+        for (LeaderboardIndex.Entry entry : top) {
+            User user = users.get(entry.userId());
+            if (user != null) {
+                result.add(new RankingTopDTO(entry.userId(), user.getUsername(), user.getWins(), user.getLosses(), entry.points()));
+            }
+        }
+        return result;
+    }
+
+    public int getRankOfUser(Long userId) { //posicion del usuario en el top global, -1 si no tiene ranking
+        if (leaderboardService == null) {
+            throw new IllegalStateException("Leaderboard index not available");
+        }
+        return leaderboardService.rankOf(userId);
     }
 
     @Transactional
     public void deleteByUserId(Long userId) { //borra registros de ranking de usuario
         List<Ranking> rankings = rankingRepository.findByUserId(userId);
         rankingRepository.deleteAll(rankings);
+        if (leaderboardService != null) {
+            leaderboardService.removeUser(userId);
+        }
     }
 }
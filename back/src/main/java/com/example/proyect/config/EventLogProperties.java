@@ -0,0 +1,80 @@
+package com.example.proyect.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.event-log")
+public class EventLogProperties {
+
+    // false = no se arranca el hilo de escritura y los eventos se descartan sin costo
+    private boolean enabled = true;
+    private String path = "data/event-log/game-events.log";
+    // eventos en vuelo entre el hilo del juego y el escritor (se redondea a potencia de 2)
+    private int bufferSize = 65_536;
+    private long flushIntervalMs = 200;
+    // al pasar este tamano se rota: game-events.log -> game-events.log.1 -> ... -> .maxFiles
+    private long maxFileSizeMb = 64;
+    private int maxFiles = 5;
+    // 1 de cada N eventos por categoria (1 = todos, 0 = ninguno); las que no estan usan 1
+    private Map<String, Integer> sampleEvery = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public long getMaxFileSizeMb() {
+        return maxFileSizeMb;
+    }
+
+    public void setMaxFileSizeMb(long maxFileSizeMb) {
+        this.maxFileSizeMb = maxFileSizeMb;
+    }
+
+    public int getMaxFiles() {
+        return maxFiles;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        this.maxFiles = maxFiles;
+    }
+
+    public Map<String, Integer> getSampleEvery() {
+        return sampleEvery;
+    }
+
+    public void setSampleEvery(Map<String, Integer> sampleEvery) {
+        this.sampleEvery = sampleEvery;
+    }
+}
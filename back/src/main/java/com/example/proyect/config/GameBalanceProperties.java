@@ -13,8 +13,20 @@ public class GameBalanceProperties {
     private int missileMaxDistance = 15;
     private int aerialAttackFuelCost = 2;
     private int carrierHitsToDestroy = 5;
+    // true = el servidor filtra por vision lo que recibe cada jugador
+    private boolean fogOfWar = false;
+    // 0 = sin limite; al vencer el turno se termina solo
+    private long turnTimeoutMs = 0;
     private Units units = new Units();
 
+    public long getTurnTimeoutMs() {
+        return turnTimeoutMs;
+    }
+
+    public void setTurnTimeoutMs(long turnTimeoutMs) {
+        this.turnTimeoutMs = turnTimeoutMs;
+    }
+
     public int getActionsPerTurn() {
         return actionsPerTurn;
     }
@@ -47,6 +59,14 @@ public class GameBalanceProperties {
         this.carrierHitsToDestroy = carrierHitsToDestroy;
     }
 
+    public boolean isFogOfWar() {
+        return fogOfWar;
+    }
+
+    public void setFogOfWar(boolean fogOfWar) {
+        this.fogOfWar = fogOfWar;
+    }
+
     public Units getUnits() {
         return units;
     }
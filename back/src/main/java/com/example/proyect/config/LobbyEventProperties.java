@@ -0,0 +1,40 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.lobby-events")
+public class LobbyEventProperties {
+
+    // ventana de agrupado: los cambios de este intervalo salen en un solo evento por suscriptor
+    private long coalesceMs = 150;
+    // comentario SSE para mantener viva la conexion y detectar clientes caidos
+    private long heartbeatMs = 25_000;
+    // el navegador reconecta solo al vencer (EventSource)
+    private long emitterTimeoutMs = 30 * 60_000L;
+
+    public long getCoalesceMs() {
+        return coalesceMs;
+    }
+
+    public void setCoalesceMs(long coalesceMs) {
+        this.coalesceMs = coalesceMs;
+    }
+
+    public long getHeartbeatMs() {
+        return heartbeatMs;
+    }
+
+    public void setHeartbeatMs(long heartbeatMs) {
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    public long getEmitterTimeoutMs() {
+        return emitterTimeoutMs;
+    }
+
+    public void setEmitterTimeoutMs(long emitterTimeoutMs) {
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.match-results")
+public class MatchResultProperties {
+
+    // false = victorias/derrotas y ranking se guardan en el hilo que termina la partida
+    private boolean enabled = false;
+    // journal local append-only con los resultados aun no volcados a la base
+    private String journalPath = "data/match-results.journal";
+    private long flushIntervalMs = 500;
+    // a partir de este numero de resultados pendientes se vuelca sin esperar el intervalo
+    private int maxBatchSize = 256;
+    // fsync del journal en cada resultado
+    private boolean fsync = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getJournalPath() {
+        return journalPath;
+    }
+
+    public void setJournalPath(String journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+}
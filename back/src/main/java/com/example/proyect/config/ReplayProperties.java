@@ -0,0 +1,50 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.replay")
+public class ReplayProperties {
+
+    // pausa entre comandos a velocidad 1 (se divide por speed)
+    private long frameIntervalMs = 500;
+    // speed maximo que se acepta en /api/games/{id}/replay
+    private double maxSpeed = 16.0;
+    // timeout de cada respuesta de replay (no cambia el de las demas respuestas async)
+    private long timeoutMs = 3_600_000;
+    // hilos que arman y mandan los frames de todos los replays
+    private int threads = 2;
+
+    public long getFrameIntervalMs() {
+        return frameIntervalMs;
+    }
+
+    public void setFrameIntervalMs(long frameIntervalMs) {
+        this.frameIntervalMs = frameIntervalMs;
+    }
+
+    public double getMaxSpeed() {
+        return maxSpeed;
+    }
+
+    public void setMaxSpeed(double maxSpeed) {
+        this.maxSpeed = maxSpeed;
+    }
+
+    public long getTimeoutMs() {
+        return timeoutMs;
+    }
+
+    public void setTimeoutMs(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.room-executor")
+public class RoomExecutorProperties {
+
+    // false = los comandos se procesan en el hilo de Tomcat que recibe el mensaje
+    private boolean enabled = false;
+    // 0 = un shard por procesador disponible
+    private int shards = 0;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public int resolveShardCount() {
+        return shards > 0 ? shards : Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+}
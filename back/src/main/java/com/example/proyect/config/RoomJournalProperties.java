@@ -0,0 +1,60 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.room-journal")
+public class RoomJournalProperties {
+
+    // false = no se journalizan comandos; la partida solo se recupera desde un save explicito
+    private boolean enabled = false;
+    // un segmento append-only por partida: <directory>/game-<id>.journal
+    private String directory = "data/room-journal";
+    // cada cuanto se vuelcan a disco los eventos en memoria
+    private long flushIntervalMs = 200;
+    // fsync de cada segmento al volcar
+    private boolean fsync = true;
+    // dias sin escrituras tras los que se borra un segmento (partida terminada o abandonada); 0 = nunca
+    private int retentionDays = 7;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    public void setFlushIntervalMs(long flushIntervalMs) {
+        this.flushIntervalMs = flushIntervalMs;
+    }
+
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public void setFsync(boolean fsync) {
+        this.fsync = fsync;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.spectators")
+public class SpectatorProperties {
+
+    private boolean enabled = true;
+    // retraso con el que los espectadores ven la partida (evita que un jugador use la vista completa)
+    private long delayMs = 0;
+    private int maxPerRoom = 256;
+    // false: solo se puede seguir a un bando, con su niebla de guerra
+    private boolean allowFullView = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getDelayMs() {
+        return delayMs;
+    }
+
+    public void setDelayMs(long delayMs) {
+        this.delayMs = delayMs;
+    }
+
+    public int getMaxPerRoom() {
+        return maxPerRoom;
+    }
+
+    public void setMaxPerRoom(int maxPerRoom) {
+        this.maxPerRoom = maxPerRoom;
+    }
+
+    public boolean isAllowFullView() {
+        return allowFullView;
+    }
+
+    public void setAllowFullView(boolean allowFullView) {
+        this.allowFullView = allowFullView;
+    }
+}
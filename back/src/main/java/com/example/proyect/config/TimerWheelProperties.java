@@ -0,0 +1,30 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.timers")
+public class TimerWheelProperties {
+
+    // resolucion de los timers: un timer vence como mucho un tick tarde
+    private long tickMs = 50;
+    // cantidad de buckets (se redondea a potencia de 2); una vuelta dura tickMs * wheelSize
+    private int wheelSize = 512;
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    public void setTickMs(long tickMs) {
+        this.tickMs = tickMs;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+}
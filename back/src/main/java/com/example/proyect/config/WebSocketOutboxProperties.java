@@ -0,0 +1,83 @@
+package com.example.proyect.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "game.websocket.outbox")
+public class WebSocketOutboxProperties {
+
+    /**
+     * Que hacer cuando la cola de salida de una sesion supera sus limites.
+     */
+    public enum OverflowPolicy {
+        // descarta los stateDelta mas viejos (cada delta es acumulativo desde el ultimo ack)
+        DROP_OLDEST_DELTA,
+        // vacia la cola y manda un stateSnapshot (solo sesiones con protocolo de deltas)
+        RESYNC,
+        // cierra la sesion
+        DISCONNECT
+    }
+
+    // false = se escribe en el socket desde el hilo que genera el paquete
+    private boolean enabled = true;
+    // hilos que vacian las colas; 0 = uno por procesador disponible
+    private int senderThreads = 0;
+    // si un envio lleva mas que esto, el cliente se considera trabado y se desconecta
+    private long sendTimeLimitMs = 5_000L;
+    private int bufferSizeLimitBytes = 512 * 1024;
+    private int maxQueuedMessages = 256;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_OLDEST_DELTA;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+
+    public long getSendTimeLimitMs() {
+        return sendTimeLimitMs;
+    }
+
+    public void setSendTimeLimitMs(long sendTimeLimitMs) {
+        this.sendTimeLimitMs = sendTimeLimitMs;
+    }
+
+    public int getBufferSizeLimitBytes() {
+        return bufferSizeLimitBytes;
+    }
+
+    public void setBufferSizeLimitBytes(int bufferSizeLimitBytes) {
+        this.bufferSizeLimitBytes = bufferSizeLimitBytes;
+    }
+
+    public int getMaxQueuedMessages() {
+        return maxQueuedMessages;
+    }
+
+    public void setMaxQueuedMessages(int maxQueuedMessages) {
+        this.maxQueuedMessages = maxQueuedMessages;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public int resolveSenderThreads() {
+        return senderThreads > 0 ? senderThreads : Math.max(1, Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -1,28 +1,45 @@
 package com.example.proyect.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import com.example.proyect.VOs.GameResult;
 import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.MatchResultRecorder;
 import com.example.proyect.auth.service.RankingService;
 import com.example.proyect.config.GameBalanceProperties;
 import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.GameStateJsonConverter;
+import com.example.proyect.game.HexGrid;
 import com.example.proyect.game.PlayerState;
+import com.example.proyect.game.ReachableHexCache;
+import com.example.proyect.game.RoomCommandDispatcher;
+import com.example.proyect.game.RoomEvent;
+import com.example.proyect.game.RoomJournal;
+import com.example.proyect.game.StateDeltaTracker;
+import com.example.proyect.game.TimerWheel;
+import com.example.proyect.game.eventlog.GameEvent;
+import com.example.proyect.game.eventlog.GameEventLog;
+import com.example.proyect.game.VisibilityTracker;
 import com.example.proyect.game.config.UnitBalanceRegistry;
 import com.example.proyect.game.units.Unit.HexCoord;
 import com.example.proyect.game.units.drone.AerialDrone;
@@ -31,12 +48,17 @@ import com.example.proyect.game.units.drone.NavalDrone;
 import com.example.proyect.game.units.weapons.MissileWeapon;
 import com.example.proyect.lobby.Lobby;
 import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.metrics.GameMetrics;
+import com.example.proyect.metrics.GameMetrics.DbOperation;
+import com.example.proyect.metrics.jfr.GameSavedEvent;
 import com.example.proyect.persistence.classes.Game;
 import com.example.proyect.persistence.classes.GameState;
 import com.example.proyect.persistence.classes.GameStatus;
 import com.example.proyect.persistence.classes.User;
 import com.example.proyect.persistence.repos.UserRepository;
 import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketBody;
+import com.example.proyect.websocket.packet.PacketType;
 
 //vseverio Clase principal controladora de partida en tiempo real, salas, turnos, movimientos, ataques, guardado/cargado y estado por sesion
 @Service
@@ -46,15 +68,22 @@ public class GameController {
     private static final int DEFAULT_ATTACK_ACTION_COST = 1;
     private static final int NAVAL_ATTACK_ACTION_COST = 2;
     private static final double NAVAL_ATTACK_VERTICAL_OFFSET = 90.0;
+    private static final double MISSILE_OUT_OF_REACH = -1.0;
+    // mide el tamano del snapshot guardado para GameSavedEvent (mismo JSON que va a la columna)
+    private static final GameStateJsonConverter SNAPSHOT_SIZE_CONVERTER = new GameStateJsonConverter();
 
     private final int actionsPerTurn;
     private final int missileMaxDistance;
     private final int aerialAttackFuelCost;
     private final int carrierHitsToDestroy;
+    private final boolean fogOfWarEnabled;
+    private final int aerialCarrierVisionRange;
+    private final int navalCarrierVisionRange;
+    // 0 = sin reloj de turno
+    private final long turnTimeoutMs;
 
-    // Must match frontend HexGrid size (front/scenes/MainScene.js -> new HexGrid(this, 35, ...))
-    private static final double HEX_SIZE_PX = 35.0;
-    private static final double HEX_WIDTH_PX = Math.sqrt(3.0) * HEX_SIZE_PX;
+    // Tablero de GameRoom; el tamaño del hex coincide con el front (MainScene.js -> new HexGrid(this, 35, ...))
+    private static final HexGrid BOARD = GameRoom.BOARD;
 
     private final LobbyService lobbyService;
 
@@ -66,6 +95,9 @@ public class GameController {
     
     // T trackea en que room esta cada sesion
     private final Map<String, String> sessionToRoom = new ConcurrentHashMap<>();
+
+    // Indice inverso room -> sesiones, evita recorrer sessionToRoom en cada broadcast
+    private final Map<String, Set<String>> roomToSessions = new ConcurrentHashMap<>();
     
     // Trackea user id por sesion
     private final Map<String, Long> sessionToUserId = new ConcurrentHashMap<>();
@@ -77,9 +109,31 @@ public class GameController {
     private final Map<Long, String> gameToRoom = new ConcurrentHashMap<>();
     private final Map<String, Long> roomToGame = new ConcurrentHashMap<>();
     private final Map<Long, Lock> gameLocks = new ConcurrentHashMap<>();
-    private final Map<String, ScheduledFuture<?>> pendingDisconnectForfeits = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService disconnectForfeitScheduler = Executors.newSingleThreadScheduledExecutor();
+    // gracia de desconexion y reloj de turno por room, sobre la rueda de timers compartida
+    private final Map<String, RoomTimers> timersByRoom = new ConcurrentHashMap<>();
+    private TimerWheel timerWheel;
     private long disconnectForfeitGraceMs = 8_000L;
+    // recibe el fin de turno por tiempo (roomId, resultado) para difundirlo
+    private BiConsumer<String, GameResult> turnTimeoutListener;
+    // visibilidad por room, solo con niebla de guerra en el servidor
+    private final Map<String, VisibilityTracker> visibilityByRoom = new ConcurrentHashMap<>();
+    // hexes alcanzables por dron para previewMoves
+    private final Map<String, ReachableHexCache> reachByRoom = new ConcurrentHashMap<>();
+    // estado versionado por room para las sesiones que usan deltas (mandaron ack)
+    private final Map<String, StateDeltaTracker> stateSyncByRoom = new ConcurrentHashMap<>();
+    // opcional: si esta, el forfeit por desconexion corre en el shard de la room
+    private RoomCommandDispatcher roomCommandDispatcher;
+    // opcional: si esta habilitado, resultados y cierre de partida se guardan en segundo plano
+    private MatchResultRecorder matchResultRecorder;
+    // opcional: si esta habilitado, cada comando aceptado se agrega al journal de la partida
+    private RoomJournal roomJournal;
+    // opcional: tiempos de base para /actuator/prometheus
+    private GameMetrics metrics;
+    // opcional: auditoria por accion (ver GameEventLog), con muestreo por categoria
+    private GameEventLog eventLog;
+    // rooms temporales que se estan reconstruyendo desde el journal (sin reloj de turno)
+    private final Set<String> replayingRooms = ConcurrentHashMap.newKeySet();
+    private final AtomicLong replaySequence = new AtomicLong();
 
     public GameController(
             LobbyService lobbyService,
@@ -96,7 +150,69 @@ public class GameController {
         this.missileMaxDistance = gameBalanceProperties.getMissileMaxDistance();
         this.aerialAttackFuelCost = gameBalanceProperties.getAerialAttackFuelCost();
         this.carrierHitsToDestroy = gameBalanceProperties.getCarrierHitsToDestroy();
+        this.fogOfWarEnabled = gameBalanceProperties.isFogOfWar();
+        this.turnTimeoutMs = gameBalanceProperties.getTurnTimeoutMs();
+        GameBalanceProperties.Units units = gameBalanceProperties.getUnits();
+        this.aerialCarrierVisionRange = units != null
+            ? units.getAereo().getCarrierVisionRange()
+            : UnitBalanceRegistry.DEFAULT_AERIAL_DRONE_VISION_RANGE;
+        this.navalCarrierVisionRange = units != null
+            ? units.getNaval().getCarrierVisionRange()
+            : UnitBalanceRegistry.DEFAULT_NAVAL_DRONE_VISION_RANGE;
+    }
+
+    @Autowired(required = false)
+    public void setRoomCommandDispatcher(RoomCommandDispatcher roomCommandDispatcher) {
+        this.roomCommandDispatcher = roomCommandDispatcher;
+    }
+
+    @Autowired(required = false)
+    public void setMatchResultRecorder(MatchResultRecorder matchResultRecorder) {
+        this.matchResultRecorder = matchResultRecorder;
+    }
+
+    @Autowired(required = false)
+    public void setRoomJournal(RoomJournal roomJournal) {
+        this.roomJournal = roomJournal;
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Autowired(required = false)
+    public void setEventLog(GameEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    @Autowired(required = false)
+    public void setTimerWheel(TimerWheel timerWheel) {
+        this.timerWheel = timerWheel;
+    }
+
+    public void setTurnTimeoutListener(BiConsumer<String, GameResult> turnTimeoutListener) {
+        this.turnTimeoutListener = turnTimeoutListener;
     }
+
+    // sin Spring (tests, benchmarks) se crea una rueda propia la primera vez que hace falta
+    private synchronized TimerWheel timers() {
+        if (timerWheel == null) {
+            timerWheel = new TimerWheel(50, 512);
+        }
+        return timerWheel;
+    }
+
+    private boolean isWriteBehindEnabled() {
+        return matchResultRecorder != null && matchResultRecorder.isEnabled();
+    }
+
+    // el estado FINISHED se guarda en el hilo de la room, que es el que modifico el Game: si se
+    // encolara en el write-behind se perderia con una caida. Solo los resultados por usuario van diferidos.
+    private void saveFinishedGame(Game game) {
+        gameService.saveGame(game.getPlayer1Id(), game.getPlayer2Id(), game);
+    }
+
     public void bindSessionUser(String sessionId, Long userId) { //vincula sesion websocket con userid para trazabilidad
         if (sessionId != null && userId != null) {
             sessionToUserId.put(sessionId, userId);
@@ -163,6 +279,37 @@ public class GameController {
 }
  
 
+    private void bindSessionToRoom(String sessionId, String roomId) {
+        String previousRoomId = sessionToRoom.put(sessionId, roomId);
+        if (previousRoomId != null && !previousRoomId.equals(roomId)) {
+            removeFromRoomIndex(previousRoomId, sessionId);
+        }
+        roomToSessions.compute(roomId, (ignored, sessions) -> {
+            Set<String> target = sessions != null ? sessions : ConcurrentHashMap.newKeySet();
+            target.add(sessionId);
+            return target;
+        });
+    }
+
+    private String unbindSessionFromRoom(String sessionId) {
+        String roomId = sessionToRoom.remove(sessionId);
+        if (roomId != null) {
+            removeFromRoomIndex(roomId, sessionId);
+            StateDeltaTracker stateSync = stateSyncByRoom.get(roomId);
+            if (stateSync != null) {
+                stateSync.forget(sessionId);
+            }
+        }
+        return roomId;
+    }
+
+    private void removeFromRoomIndex(String roomId, String sessionId) {
+        roomToSessions.computeIfPresent(roomId, (ignored, sessions) -> {
+            sessions.remove(sessionId);
+            return sessions.isEmpty() ? null : sessions;
+        });
+    }
+
     private GameRoom getRoomForSession(String sessionId) { //obtiene el room de una sesion, o null si no hay rooms
         String roomId = sessionToRoom.get(sessionId);
         if (roomId == null) return null;
@@ -191,6 +338,16 @@ public class GameController {
             }
             return false;
         });
+        visibilityByRoom.keySet().retainAll(rooms.keySet());
+        reachByRoom.keySet().retainAll(rooms.keySet());
+        stateSyncByRoom.keySet().retainAll(rooms.keySet());
+        timersByRoom.entrySet().removeIf(entry -> {
+            if (rooms.containsKey(entry.getKey())) {
+                return false;
+            }
+            entry.getValue().cancelAll();
+            return true;
+        });
     }
 
    public GameResult joinGame(String sessionId, String lobbyId, Long userId) { //mete al jugador en el lobby y devuelve packet de bienvenida
@@ -243,7 +400,7 @@ public class GameController {
             }
         }
 
-        sessionToRoom.put(sessionId, room.getRoomId());
+        bindSessionToRoom(sessionId, room.getRoomId());
         cancelPendingDisconnectForfeit(room.getRoomId(), player.getPlayerIndex());
 
         Packet welcome = Packet.welcome(
@@ -259,7 +416,8 @@ public class GameController {
 
         if (room.allPlayersConnected()) {
             if (isLoadGame) {
-                lobby.markStarted();
+                lobbyService.markStarted(lobby);
+                armTurnClock(room);
                 return GameResult.gameReady(welcome);
             }
         }
@@ -328,19 +486,27 @@ public class GameController {
    @SuppressWarnings("unchecked")
     private void loadSavedGameIntoRoom(Long gameId, GameRoom room) { //carga partida en un room
 
-        log.info("[GameController] -> begin loadSavedGameIntoRoom ");
+        log.debug("[GameController] -> begin loadSavedGameIntoRoom ");
         Game game = gameService.getById(gameId);
        
         if (game.getState() == null || game.getState().getStatus() != GameStatus.IN_PROGRESS) {
             throw new IllegalStateException("Game is not in IN_PROGRESS state");
         }
 
-        Map<String, Object> meta = game.getState().getMeta();
-        Map<String, Object> snapshot = (Map<String, Object>) meta.get("snapshot");
+        // el journal tiene todo lo jugado despues del ultimo save (o la partida entera si nunca se guardo)
+        GameRoom restoredRoom = rebuildRoomFromJournal(gameId, room.getRoomId());
+        if (restoredRoom == null) {
+            Map<String, Object> meta = game.getState().getMeta();
+            Map<String, Object> snapshot = meta != null ? (Map<String, Object>) meta.get("snapshot") : null;
+            if (snapshot == null) {
+                throw new IllegalStateException("Game has no saved snapshot");
+            }
+            restoredRoom = GameRoom.fromStateMap(room.getRoomId(), snapshot);
+        }
 
         // reconstruye el estado dentro de la room actual
-        GameRoom restoredRoom = GameRoom.fromStateMap(room.getRoomId(), snapshot);
         room.restoreFrom(restoredRoom);
+        markAllStateDirty(room);
 
         // Vincular estructuras internas
         gameToRoom.put(gameId, room.getRoomId());
@@ -348,8 +514,9 @@ public class GameController {
         games.put(gameId, game);
 
         gameLocks.putIfAbsent(gameId, new ReentrantLock());
+        appendToJournal(room, new RoomEvent.Snapshot(room.toPersistedStateMap()));
 
-        log.info("[GameController] -> end loadSavedGameIntoRoom ");
+        log.debug("[GameController] -> end loadSavedGameIntoRoom ");
         
 
     }   
@@ -357,8 +524,8 @@ public class GameController {
     
 
     public GameResult selectSide(String sessionId, String side) { //manejador de seleccion de lados para jugador
-        log.info("[GameController] -> begin selectSide");
-        log.info("[GameController] -> selectSide, sessionId {}, side {}", sessionId, side);
+        log.debug("[GameController] -> begin selectSide");
+        log.debug("[GameController] -> selectSide, sessionId {}, side {}", sessionId, side);
         
         // valida lado
         if (!"Naval".equals(side) && !"Aereo".equals(side)) {
@@ -366,14 +533,14 @@ public class GameController {
         }
         
         GameRoom room = getRoomForSession(sessionId);
-        log.info("[GameController] -> room {}", room);
+        log.debug("[GameController] -> room {}", room);
 
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
         
         PlayerState player = room.getPlayerBySession(sessionId);
-        log.info("[GameController] -> player {}", player);
+        log.debug("[GameController] -> player {}", player);
 
         if (player == null) {
             return GameResult.error("You are not in the game");
@@ -396,15 +563,18 @@ public class GameController {
         // esto revisa que ambos jugadores tengan lado
         if (room.bothSidesSelected() && room.isFull()) {
             room.startGame();
+            armTurnClock(room);
+            markAllStateDirty(room);
             lobbyService.getLobbyById(room.getRoomId()).ifPresent(lobby -> {
-                lobby.markStarted();
+                lobbyService.markStarted(lobby);
                 createGameFromLobby(lobby);
             });
+            appendToJournal(room, new RoomEvent.Snapshot(room.toPersistedStateMap()));
             log.info("Both sides selected! Game started in room {}. Player 0's turn", room.getRoomId());
             return GameResult.gameReady(Packet.sideChosen(playerIndex, side));
         }
 
-        log.info("[GameController] -> End selectSide");
+        log.debug("[GameController] -> End selectSide");
 
         return GameResult.ok(Packet.sideChosen(playerIndex, side));
     }
@@ -451,7 +621,7 @@ public class GameController {
             } else {
             // Grace window for transient disconnects (refresh/F5, short network drops).
                 room.assignSessionToPlayer(leavingPlayer.getPlayerIndex(), null);
-                sessionToRoom.remove(sessionId);
+                unbindSessionFromRoom(sessionId);
                 sessionToUserId.remove(sessionId);
                 scheduleDisconnectForfeit(room.getRoomId(), leavingPlayer.getPlayerIndex());
                 return -1;
@@ -461,9 +631,10 @@ public class GameController {
         PlayerState removed = room.removePlayer(sessionId);
         if (removed != null) {
             log.info("Player {} (index {}) left room {}", sessionId, removed.getPlayerIndex(), room.getRoomId());
-            sessionToRoom.remove(sessionId);
+            unbindSessionFromRoom(sessionId);
             sessionToUserId.remove(sessionId);
             clearLoadedGameMapping(linkedGameId, room.getRoomId());
+            cancelTurnClock(room.getRoomId());
             room.reset();
             
             // limpa rooms
@@ -475,23 +646,27 @@ public class GameController {
     }
 
     private void scheduleDisconnectForfeit(String roomId, int disconnectedPlayerIndex) {
-        String key = disconnectForfeitKey(roomId, disconnectedPlayerIndex);
-        ScheduledFuture<?> previous = pendingDisconnectForfeits.remove(key);
-        if (previous != null) {
-            previous.cancel(false);
-        }
-
-        ScheduledFuture<?> scheduled = disconnectForfeitScheduler.schedule(
-            () -> processDisconnectForfeit(roomId, disconnectedPlayerIndex),
-            disconnectForfeitGraceMs,
-            TimeUnit.MILLISECONDS
+        RoomTimers timers = timersByRoom.computeIfAbsent(roomId, ignored -> new RoomTimers());
+        TimerWheel.Timeout scheduled = timers().schedule(
+            () -> runOnRoom(roomId, () -> processDisconnectForfeit(roomId, disconnectedPlayerIndex)),
+            disconnectForfeitGraceMs
         );
-        pendingDisconnectForfeits.put(key, scheduled);
+        timers.replaceDisconnectForfeit(disconnectedPlayerIndex, scheduled);
+    }
+
+    private void runOnRoom(String roomId, Runnable command) {
+        if (roomCommandDispatcher != null) {
+            roomCommandDispatcher.dispatch(roomId, command);
+        } else {
+            command.run();
+        }
     }
 
     private void processDisconnectForfeit(String roomId, int disconnectedPlayerIndex) {
-        String key = disconnectForfeitKey(roomId, disconnectedPlayerIndex);
-        pendingDisconnectForfeits.remove(key);
+        RoomTimers timers = timersByRoom.get(roomId);
+        if (timers != null) {
+            timers.replaceDisconnectForfeit(disconnectedPlayerIndex, null);
+        }
 
         GameRoom room = rooms.get(roomId);
         if (room == null || !room.isGameStarted() || isPersistedGameFinished(room)) {
@@ -529,31 +704,144 @@ public class GameController {
     }
 
     private void clearSessionMappingsForRoom(String roomId) {
-        List<String> sessionsInRoom = sessionToRoom.entrySet().stream()
-            .filter(entry -> roomId.equals(entry.getValue()))
-            .map(Map.Entry::getKey)
-            .toList();
-        sessionToRoom.entrySet().removeIf(entry -> roomId.equals(entry.getValue()));
+        Set<String> sessionsInRoom = roomToSessions.remove(roomId);
+        if (sessionsInRoom == null) {
+            return;
+        }
         for (String sid : sessionsInRoom) {
+            sessionToRoom.remove(sid, roomId);
             sessionToUserId.remove(sid);
         }
     }
 
     private void cancelPendingDisconnectForfeit(String roomId, int playerIndex) {
-        String key = disconnectForfeitKey(roomId, playerIndex);
-        ScheduledFuture<?> pending = pendingDisconnectForfeits.remove(key);
-        if (pending != null) {
-            pending.cancel(false);
+        RoomTimers timers = timersByRoom.get(roomId);
+        if (timers != null) {
+            timers.replaceDisconnectForfeit(playerIndex, null);
         }
     }
 
-    private String disconnectForfeitKey(String roomId, int playerIndex) {
-        return roomId + ":" + playerIndex;
+    /**
+     * Arranca el reloj del turno actual; al vencer, el turno se termina solo.
+     */
+    private void armTurnClock(GameRoom room) {
+        if (turnTimeoutMs <= 0 || !room.isGameStarted() || isReplaying(room)) {
+            return;
+        }
+        String roomId = room.getRoomId();
+        RoomTimers timers = timersByRoom.computeIfAbsent(roomId, ignored -> new RoomTimers());
+        synchronized (timers) {
+            long epoch = ++timers.turnEpoch;
+            TimerWheel.Timeout scheduled = timers().schedule(
+                () -> runOnRoom(roomId, () -> processTurnTimeout(roomId, epoch)),
+                turnTimeoutMs
+            );
+            if (timers.turnClock != null) {
+                timers.turnClock.cancel();
+            }
+            timers.turnClock = scheduled;
+        }
+    }
+
+    private void cancelTurnClock(String roomId) {
+        RoomTimers timers = timersByRoom.get(roomId);
+        if (timers == null) {
+            return;
+        }
+        synchronized (timers) {
+            timers.turnEpoch++;
+            if (timers.turnClock != null) {
+                timers.turnClock.cancel();
+                timers.turnClock = null;
+            }
+        }
+    }
+
+    private void advanceTurn(GameRoom room) {
+        room.endTurn();
+        markStateDirty(room, StateDeltaTracker.ROOM_UNIT);
+        armTurnClock(room);
+    }
+
+    private void processTurnTimeout(String roomId, long epoch) {
+        RoomTimers timers = timersByRoom.get(roomId);
+        if (timers == null) {
+            return;
+        }
+        synchronized (timers) {
+            // el turno ya cambio (o se rearmo) despues de programar este timer
+            if (timers.turnEpoch != epoch) {
+                return;
+            }
+            timers.turnClock = null;
+        }
+
+        GameRoom room = rooms.get(roomId);
+        if (room == null || !room.isGameStarted() || isPersistedGameFinished(room)) {
+            return;
+        }
+
+        int timedOutPlayer = room.getCurrentTurn();
+        GameResult result = endCurrentTurn(room);
+        appendToJournal(room, new RoomEvent.EndTurn(timedOutPlayer, true));
+        if (sampled(GameEvent.END_TURN)) {
+            eventLog.record(GameEvent.END_TURN, roomId, null, result.isSuccess(), "timeout",
+                timedOutPlayer, room.getCurrentTurn(), 0, 0, 0, 0);
+        }
+        log.info("Turn of player {} timed out in room {} after {} ms", timedOutPlayer, roomId, turnTimeoutMs);
+
+        if (turnTimeoutListener != null) {
+            turnTimeoutListener.accept(roomId, result);
+        }
+    }
+
+    // timers de una room: gracia de desconexion por jugador y reloj del turno actual
+    private static final class RoomTimers {
+        private final TimerWheel.Timeout[] disconnectForfeits = new TimerWheel.Timeout[GameRoom.MAX_PLAYERS];
+        private TimerWheel.Timeout turnClock;
+        private long turnEpoch;
+
+        private synchronized void replaceDisconnectForfeit(int playerIndex, TimerWheel.Timeout next) {
+            if (playerIndex < 0 || playerIndex >= disconnectForfeits.length) {
+                if (next != null) {
+                    next.cancel();
+                }
+                return;
+            }
+            TimerWheel.Timeout previous = disconnectForfeits[playerIndex];
+            if (previous != null && previous != next) {
+                previous.cancel();
+            }
+            disconnectForfeits[playerIndex] = next;
+        }
+
+        private synchronized int pendingDisconnectForfeits() {
+            int pending = 0;
+            for (TimerWheel.Timeout timeout : disconnectForfeits) {
+                if (timeout != null) {
+                    pending++;
+                }
+            }
+            return pending;
+        }
+
+        private synchronized void cancelAll() {
+            for (int i = 0; i < disconnectForfeits.length; i++) {
+                replaceDisconnectForfeit(i, null);
+            }
+            turnEpoch++;
+            if (turnClock != null) {
+                turnClock.cancel();
+                turnClock = null;
+            }
+        }
     }
 
     public GameResult save(String sessionId) { //funcionalidad e guardado y salida en base
 
-        log.info("[GameController] -> begin save ");
+        log.debug("[GameController] -> begin save ");
+        GameSavedEvent savedEvent = new GameSavedEvent();
+        savedEvent.begin();
      
         GameResult firstValidation = saveFirstValidation(sessionId);
         if (firstValidation != null) {
@@ -569,13 +857,15 @@ public class GameController {
         Long player1Id = sessionToUserId.get(p0.getSessionId());
         Long player2Id = sessionToUserId.get(p1.getSessionId());
         
-        log.info("[GameController] -> player1Id {}, player2Id {}", player1Id, player2Id);
+        log.debug("[GameController] -> player1Id {}, player2Id {}", player1Id, player2Id);
 
         if (player1Id == null || player2Id == null) {
             return GameResult.error("Cannot resolve players for persistence");
         }
          
+        long serializeStarted = System.nanoTime();
         GameState persistedState = buildPersistedState(room,  actor,  sessionId);
+        long serializeNanos = System.nanoTime() - serializeStarted;
 
         String roomId = room.getRoomId();
         Long gameId = resolveGameId(roomId, player1Id, player2Id);
@@ -587,6 +877,7 @@ public class GameController {
         Lock gameLock = getGameLock(gameId);
         gameLock.lock();
         Game gameToSave;
+        long dbStarted = System.nanoTime();
 
         try {
             gameToSave = gameService.getById(gameId);
@@ -595,6 +886,21 @@ public class GameController {
             gameToSave = gameService.saveGame(player1Id, player2Id, gameToSave);
         } finally {
             gameLock.unlock();
+            recordDb(DbOperation.SAVE, dbStarted);
+        }
+        long dbNanos = System.nanoTime() - dbStarted;
+        appendToJournal(room, new RoomEvent.Snapshot(room.toPersistedStateMap()));
+
+        savedEvent.end();
+        if (savedEvent.shouldCommit()) {
+            savedEvent.roomId = roomId;
+            savedEvent.gameId = gameToSave.getId() != null ? gameToSave.getId() : gameId;
+            // se serializa de nuevo solo para medir: pasa unicamente con el evento habilitado
+            savedEvent.snapshotBytes = SNAPSHOT_SIZE_CONVERTER.convertToDatabaseColumn(persistedState)
+                .getBytes(StandardCharsets.UTF_8).length;
+            savedEvent.serializeTime = serializeNanos;
+            savedEvent.dbTime = dbNanos;
+            savedEvent.commit();
         }
 
         
@@ -639,12 +945,7 @@ public class GameController {
         String roomId = room.getRoomId();
         Long linkedGameId = roomToGame.get(roomId);
         clearLoadedGameMapping(linkedGameId, roomId);
-
-        List<String> sessionsInRoom = getSessionsInSameRoom(sessionId);
-        sessionToRoom.entrySet().removeIf(entry -> roomId.equals(entry.getValue()));
-        for (String sid : sessionsInRoom) {
-            sessionToUserId.remove(sid);
-        }
+        clearSessionMappingsForRoom(roomId);
 
         room.reset();
         cleanupEmptyRooms();
@@ -656,14 +957,14 @@ public class GameController {
     private GameResult saveFirstValidation(String sessionId ) { //valida antes de guardar
 
         GameRoom room = getRoomForSession(sessionId);
-        log.info("[GameController] -> saveFirstValidation, sessionId {}", sessionId);
+        log.debug("[GameController] -> saveFirstValidation, sessionId {}", sessionId);
         
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
         
         PlayerState actor = room.getPlayerBySession(sessionId);
-        log.info("[GameController] -> saveFirstValidation, actor {}", actor);
+        log.debug("[GameController] -> saveFirstValidation, actor {}", actor);
 
         if (actor == null) {
             return GameResult.error("You are not in the game");
@@ -679,7 +980,7 @@ public class GameController {
     }
 
     private GameState buildPersistedState(GameRoom room, PlayerState actor, String sessionId){
-        log.info("[GameController] -> begin buildPersistedState, room {}, actor {}, sessionId {}", room, actor, sessionId);
+        log.debug("[GameController] -> begin buildPersistedState, room {}, actor {}, sessionId {}", room, actor, sessionId);
 
         GameState persistedState = new GameState();
 
@@ -692,11 +993,11 @@ public class GameController {
         meta.put("savedByPlayerIndex", actor.getPlayerIndex());
         meta.put("savedByUserId", sessionToUserId.get(sessionId));
         meta.put("savedAt", java.time.Instant.now().toString());
-        meta.put("snapshot", room.toStateMap()); //esta es la partida en si
+        meta.put("snapshot", room.toPersistedStateMap()); //esta es la partida en si, con la semilla del azar
         meta.put("schemaVersion", 1);
         persistedState.setMeta(meta);
 
-        log.info("[GameController] -> end buildPersistedState, persistedState {} ", persistedState);
+        log.debug("[GameController] -> end buildPersistedState, persistedState {} ", persistedState);
 
         return persistedState;
     }
@@ -721,16 +1022,28 @@ public class GameController {
 
 
     public GameResult processMove(String sessionId, int droneIndex, double x, double y) { //procesa un movimiento
-        log.info("[GameController] -> processMove sessionId {}, droneIndex {} ", sessionId, droneIndex);
+        log.debug("[GameController] -> processMove sessionId {}, droneIndex {} ", sessionId, droneIndex);
 
         GameRoom room = getRoomForSession(sessionId);
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
-        log.info("[GameController] -> room {}", room);
+        int playerIndex = playerIndexOf(room, sessionId);
+        GameResult result = applyMove(room, sessionId, droneIndex, x, y);
+        if (result.isSuccess()) {
+            appendToJournal(room, new RoomEvent.Move(playerIndex, droneIndex, x, y));
+            markStateDirty(room, StateDeltaTracker.ROOM_UNIT);
+            markStateDirty(room, StateDeltaTracker.droneUnit(playerIndex, droneIndex));
+        }
+        if (sampled(GameEvent.MOVE)) {
+            eventLog.record(GameEvent.MOVE, room.getRoomId(), sessionId, result.isSuccess(), result.getErrorMessage(),
+                playerIndex, droneIndex, room.getActionsRemaining(), 0, x, y);
+        }
+        return result;
+    }
 
+    private GameResult applyMove(GameRoom room, String sessionId, int droneIndex, double x, double y) {
         PlayerState player = room.getPlayerBySession(sessionId);//player llega en null al cargar partida
-        log.info("[GameController] -> player  {}", player );
         
         if (player == null) {
             return GameResult.error("You are not in the game");
@@ -749,6 +1062,26 @@ public class GameController {
             return GameResult.error("Cannot move a destroyed drone");
         }
 
+        // rango y obstaculos sobre el tablero hexagonal. Con niebla solo se explica el choque con
+        // unidades que el jugador ve; uno con algo oculto se rechaza sin decir que habia ahi
+        GameRoom.BlockerFilter visibleBlockers = blockerFilterFor(room, player.getPlayerIndex());
+        switch (room.checkDroneMove(player.getPlayerIndex(), droneIndex, x, y, visibleBlockers)) {
+            case OUT_OF_BOARD -> {
+                return GameResult.error("Target is outside the board");
+            }
+            case OUT_OF_RANGE -> {
+                return GameResult.error("Target out of movement range");
+            }
+            case BLOCKED -> {
+                return GameResult.error("Path to target is blocked");
+            }
+            case HIDDEN_BLOCKED -> {
+                return GameResult.error("Invalid move");
+            }
+            case OK -> {
+            }
+        }
+
         // aplica movimiento
         if (!room.moveDrone(sessionId, droneIndex, x, y)) {
             return GameResult.error("Invalid move");
@@ -770,12 +1103,10 @@ public class GameController {
         
         // revisa si deberia pasar de turno
         if (room.getActionsRemaining() <= 0) {
-            room.endTurn();
+            advanceTurn(room);
             return GameResult.turnEnded(movePacket, room.getCurrentTurn(), room.getActionsRemaining());
         }
 
-        log.info("[GameController] -> End processMove", room);
-
         return GameResult.withActionsRemaining(movePacket, room.getActionsRemaining());
     }
 
@@ -786,7 +1117,21 @@ public class GameController {
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
+        int playerIndex = playerIndexOf(room, sessionId);
+        GameResult result = applyCarrierMove(room, sessionId, x, y);
+        if (result.isSuccess()) {
+            appendToJournal(room, new RoomEvent.CarrierMove(playerIndex, x, y));
+            markStateDirty(room, StateDeltaTracker.ROOM_UNIT);
+            markStateDirty(room, StateDeltaTracker.playerUnit(playerIndex));
+        }
+        if (sampled(GameEvent.CARRIER_MOVE)) {
+            eventLog.record(GameEvent.CARRIER_MOVE, room.getRoomId(), sessionId, result.isSuccess(), result.getErrorMessage(),
+                playerIndex, room.getActionsRemaining(), 0, 0, x, y);
+        }
+        return result;
+    }
 
+    private GameResult applyCarrierMove(GameRoom room, String sessionId, double x, double y) {
         PlayerState player = room.getPlayerBySession(sessionId);
         if (player == null) {
             return GameResult.error("You are not in the game");
@@ -804,7 +1149,7 @@ public class GameController {
         Packet movedPacket = Packet.carrierMoved(player.getPlayerIndex(), x, y, room.getActionsRemaining());
 
         if (room.getActionsRemaining() <= 0) {
-            room.endTurn();
+            advanceTurn(room);
             return GameResult.turnEnded(movedPacket, room.getCurrentTurn(), room.getActionsRemaining());
         }
 
@@ -820,10 +1165,32 @@ public class GameController {
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
+        int playerIndex = playerIndexOf(room, sessionId);
+        GameResult result = applyAttack(room, sessionId, attackerIndex, targetPlayerIndex, targetDroneIndex,
+            manualLineX, manualLineY, destinationX, destinationY, targetType);
+        if (result.isSuccess()) {
+            appendToJournal(room, new RoomEvent.Attack(playerIndex, attackerIndex, targetPlayerIndex, targetDroneIndex,
+                manualLineX, manualLineY, destinationX, destinationY, targetType, room.getRngDraws()));
+            // el objetivo puede ser el carrier, que al caer se lleva a sus drones
+            markStateDirty(room, StateDeltaTracker.ROOM_UNIT);
+            markStateDirty(room, StateDeltaTracker.droneUnit(playerIndex, attackerIndex));
+            markStateDirty(room, StateDeltaTracker.playerUnit(targetPlayerIndex));
+            markDronesStateDirty(room, targetPlayerIndex);
+        }
+        if (sampled(GameEvent.ATTACK)) {
+            eventLog.record(GameEvent.ATTACK, room.getRoomId(), sessionId, result.isSuccess(), result.getErrorMessage(),
+                playerIndex, attackerIndex, targetPlayerIndex, targetDroneIndex, 0, 0);
+        }
+        return result;
+    }
 
+    private GameResult applyAttack(GameRoom room, String sessionId, int attackerIndex,
+                                   int targetPlayerIndex, int targetDroneIndex,
+                                   Double manualLineX, Double manualLineY,
+                                   Double destinationX, Double destinationY, String targetType) {
         PlayerState attacker = room.getPlayerBySession(sessionId);
         GameResult validation = validateAttackContext(room, sessionId, attacker);
-        log.info("[GameController] ->  validation {}", validation);
+        log.debug("[GameController] ->  validation {}", validation);
         if (validation != null) return validation;
                 
         Drone attackerDrone = room.getDrone(attacker.getPlayerIndex(), attackerIndex);
@@ -832,9 +1199,13 @@ public class GameController {
         boolean carrierTarget = "carrier".equalsIgnoreCase(targetType);
                                         
         GameResult droneValidation = validateDrones(room, attacker, attackerDrone, targetDrone, targetPlayerIndex, manualBlindShot, carrierTarget);
-        log.info("[GameController] ->  droneValidation {}", droneValidation);
+        log.debug("[GameController] ->  droneValidation {}", droneValidation);
         if (droneValidation != null) return droneValidation;
 
+        if (isTargetHidden(room, attacker.getPlayerIndex(), targetPlayerIndex, targetDroneIndex, carrierTarget)) {
+            return GameResult.error("Target is not visible");
+        }
+
         int actionCost = getAttackActionCost(attackerDrone);
         if (room.getActionsRemaining() < actionCost) {
             return GameResult.error("Not enough actions remaining for this attack");
@@ -844,18 +1215,18 @@ public class GameController {
             return GameResult.error("Manual shot requires target coordinates");
         }
 
-        double lineX = manualLineX != null ? manualLineX : (targetDrone != null ? targetDrone.getPosition().getX() : 0.0);
-        double lineY = manualLineY != null ? manualLineY : (targetDrone != null ? targetDrone.getPosition().getY() : 0.0);
+        double lineX = manualLineX != null ? manualLineX : (targetDrone != null ? targetDrone.getX() : 0.0);
+        double lineY = manualLineY != null ? manualLineY : (targetDrone != null ? targetDrone.getY() : 0.0);
 
         if (attackerDrone instanceof AerialDrone) {
             if (attackerDrone.getWeapon() == null) {
                 return GameResult.error("Attacker has no weapon configured");
             }
-            double targetX = targetDrone != null ? targetDrone.getPosition().getX() : lineX;
-            double targetY = targetDrone != null ? targetDrone.getPosition().getY() : lineY;
-            double targetDistance = hexDistanceBetween(
-                attackerDrone.getPosition().getX(),
-                attackerDrone.getPosition().getY(),
+            double targetX = targetDrone != null ? targetDrone.getX() : lineX;
+            double targetY = targetDrone != null ? targetDrone.getY() : lineY;
+            int targetDistance = hexDistanceBetween(
+                attackerDrone.getX(),
+                attackerDrone.getY(),
                 targetX,
                 targetY
             );
@@ -887,7 +1258,7 @@ public class GameController {
             attackerDrone.setPosition(attackerFinalPosition);
         }
 
-        AttackResolution attackResolution = resolveAttack(attackerDrone, targetDrone, lineX, lineY);
+        AttackResolution attackResolution = resolveAttack(room, attackerDrone, targetDrone, lineX, lineY);
         int attackerAmmo = getAttackerAmmoForPacket(attackerDrone);
         if (!attackResolution.hit()) {
             room.useActions(actionCost);
@@ -921,7 +1292,7 @@ public class GameController {
         // Consume una accion
         room.useActions(actionCost);
 
-        log.info("Player {} drone {} attacked player {} drone {} for {} damage (remaining HP: {}) in room {}",
+        log.debug("Player {} drone {} attacked player {} drone {} for {} damage (remaining HP: {}) in room {}",
             attacker.getPlayerIndex(), attackerIndex, 
             targetPlayerIndex, targetDroneIndex,
             damage, targetDrone != null ? targetDrone.getCurrentHp() : 0, room.getRoomId());
@@ -941,18 +1312,10 @@ public class GameController {
 
         MatchOutcome outcome = resolveMatchOutcome(room);
         if (outcome.finished()) {
-            if (!isPersistedGameFinished(room)) {
-                if (outcome.isDraw()) {
-                    markGameAsDraw(room);
-                } else {
-                    int winnerPlayerIndex = outcome.winnerPlayerIndex();
-                    markGameAsFinished(room, winnerPlayerIndex);
-                    PlayerState winner = room.getPlayerByIndex(winnerPlayerIndex);
-                    PlayerState loser = room.getPlayerByIndex(winnerPlayerIndex == 0 ? 1 : 0);
-                    registerMatchResult(resolveUserId(room, winner), resolveUserId(room, loser));
-                }
+            if (!isReplaying(room) && !isPersistedGameFinished(room)) {
+                recordMatchOutcome(room, outcome);
+                log.info("Match finished in room {}. draw={}, winner={}", room.getRoomId(), outcome.isDraw(), outcome.winnerPlayerIndex());
             }
-            log.info("Match finished in room {}. draw={}, winner={}", room.getRoomId(), outcome.isDraw(), outcome.winnerPlayerIndex());
             Packet finishedAttackPacket = Packet.attackResult(
                 attacker.getPlayerIndex(), attackerIndex,
                 targetPlayerIndex, targetDroneIndex,
@@ -975,7 +1338,7 @@ public class GameController {
     }
 
     private GameResult validateAttackContext(GameRoom room, String sessionId, PlayerState attacker) {
-        log.info("[GameController] -> validateAttackContext, room {}, sessionId {}, playerState {}", room, sessionId, attacker);
+        log.debug("[GameController] -> validateAttackContext, room {}, sessionId {}, playerState {}", room, sessionId, attacker);
 
         if (room == null) {
             return GameResult.error("You are not in a game room");
@@ -989,14 +1352,14 @@ public class GameController {
             return GameResult.error("Not your turn");
         }
 
-        log.info("[GameController] -> End validateAttackContext");
+        log.debug("[GameController] -> End validateAttackContext");
         return null;
     }
 
     private GameResult validateDrones(GameRoom room, PlayerState attacker, Drone attackerDrone,
             Drone targetDrone,int targetPlayerIndex, boolean manualBlindShot, boolean carrierTarget) {
                 
-    log.info("[GameController] -> begin validateDrones, attacker {}, attackerDrone {}", attacker, attackerDrone);
+    log.debug("[GameController] -> begin validateDrones, attacker {}, attackerDrone {}", attacker, attackerDrone);
     
         if (attacker.getPlayerIndex() == targetPlayerIndex) {
             return GameResult.error("Cannot attack your own drones");
@@ -1047,7 +1410,7 @@ public class GameController {
             return GameResult.error("Target drone is already destroyed");
         }
 
-        log.info("[GameController] -> End validateDrones");
+        log.debug("[GameController] -> End validateDrones");
         
         return null;
     }
@@ -1058,17 +1421,11 @@ public class GameController {
             return requestedDestination;
         }
 
-        double step = HEX_WIDTH_PX;
-        double[][] offsets = {
-            {step, 0}, {-step, 0},
-            {step / 2.0, (Math.sqrt(3.0) / 2.0) * step},
-            {-step / 2.0, (Math.sqrt(3.0) / 2.0) * step},
-            {step / 2.0, -(Math.sqrt(3.0) / 2.0) * step},
-            {-step / 2.0, -(Math.sqrt(3.0) / 2.0) * step}
-        };
-
-        for (double[] offset : offsets) {
-            HexCoord candidate = new HexCoord(requestedDestination.getX() + offset[0], requestedDestination.getY() + offset[1]);
+        // primer hex vecino libre del destino pedido
+        int requested = BOARD.keyAt(requestedDestination.getX(), requestedDestination.getY());
+        for (int direction = 0; direction < HexGrid.DIRECTIONS; direction++) {
+            int neighbor = HexGrid.neighbor(requested, direction);
+            HexCoord candidate = new HexCoord(BOARD.centerX(neighbor), BOARD.centerY(neighbor));
             if (!room.isPositionOccupied(candidate, attackerDrone)) {
                 return candidate;
             }
@@ -1079,7 +1436,7 @@ public class GameController {
 
     private GameResult finalizeTurn(GameRoom room, Packet packet) { //fin de turno
         if (room.getActionsRemaining() <= 0) {
-            room.endTurn();
+            advanceTurn(room);
             return GameResult.turnEnded(packet,
                     room.getCurrentTurn(),
                     room.getActionsRemaining());
@@ -1089,7 +1446,7 @@ public class GameController {
                 room.getActionsRemaining());
     }
 
-    private AttackResolution resolveAttack(Drone attackerDrone, Drone targetDrone, double lineX, double lineY) {
+    private AttackResolution resolveAttack(GameRoom room, Drone attackerDrone, Drone targetDrone, double lineX, double lineY) {
         if (attackerDrone.getWeapon() == null) {
             return new AttackResolution(0, false);
         }
@@ -1099,7 +1456,7 @@ public class GameController {
                 return new AttackResolution(0, false);
             }
             attackerDrone.getWeapon().consumeAmmo(1);
-            boolean hit = Math.random() <= attackerDrone.getWeapon().getAccuracy();
+            boolean hit = room.nextCombatRoll() <= attackerDrone.getWeapon().getAccuracy();
             if (!hit) {
                 return new AttackResolution(0, false);
             }
@@ -1114,26 +1471,13 @@ public class GameController {
             return new AttackResolution(0, false);
         }
 
-        double traveledDistance = hexDistanceBetween(
-            attackerDrone.getPosition().getX(),
-            attackerDrone.getPosition().getY(),
-            lineX,
-            lineY
-        );
-        if (!missileWeapon.canReach(traveledDistance) || traveledDistance > missileMaxDistance) {
+        double effectiveAccuracy = missileHitChance(missileWeapon, attackerDrone.getX(), attackerDrone.getY(), targetDrone, lineX, lineY);
+        if (effectiveAccuracy == MISSILE_OUT_OF_REACH) {
             navalDrone.consumeMissile();
             return new AttackResolution(0, false);
         }
 
-        double effectiveAccuracy = missileWeapon.getEffectiveAccuracy(traveledDistance);
-
-        if (targetDrone instanceof NavalDrone) {
-            double targetOffset = distanceBetween(lineX, lineY, targetDrone.getPosition().getX(), targetDrone.getPosition().getY());
-            double alignmentFactor = Math.max(0.0, 1.0 - (targetOffset / 120.0));
-            effectiveAccuracy *= alignmentFactor;
-        }
-
-        boolean hit = Math.random() <= effectiveAccuracy;
+        boolean hit = room.nextCombatRoll() <= effectiveAccuracy;
         navalDrone.consumeMissile();
         if (!hit) {
             return new AttackResolution(0, false);
@@ -1146,18 +1490,36 @@ public class GameController {
         return new AttackResolution(attackerDrone.getWeapon().getDamage(), true);
     }
 
+    /**
+     * Probabilidad de impacto de un misil lanzado desde (fromX, fromY) hacia (lineX, lineY), o
+     * MISSILE_OUT_OF_REACH si no llega. Contra un dron naval se multiplica por lo alineado que
+     * quedo el tiro con el objetivo.
+     */
+    private double missileHitChance(MissileWeapon missileWeapon, double fromX, double fromY, Drone targetDrone,
+                                    double lineX, double lineY) {
+        int traveledDistance = hexDistanceBetween(fromX, fromY, lineX, lineY);
+        if (!missileWeapon.canReach(traveledDistance) || traveledDistance > missileMaxDistance) {
+            return MISSILE_OUT_OF_REACH;
+        }
+
+        double effectiveAccuracy = missileWeapon.getEffectiveAccuracy(traveledDistance);
+
+        if (targetDrone instanceof NavalDrone) {
+            double targetOffset = distanceBetween(lineX, lineY, targetDrone.getX(), targetDrone.getY());
+            double alignmentFactor = Math.max(0.0, 1.0 - (targetOffset / 120.0));
+            effectiveAccuracy *= alignmentFactor;
+        }
+        return effectiveAccuracy;
+    }
+
     private double distanceBetween(double x1, double y1, double x2, double y2) {
         double dx = x1 - x2;
         double dy = y1 - y2;
         return Math.sqrt(dx * dx + dy * dy);
     }
 
-    private double hexDistanceBetween(double x1, double y1, double x2, double y2) { //convierte pixels en distancia efectiva
-        double pixelDistance = distanceBetween(x1, y1, x2, y2);
-        if (HEX_WIDTH_PX <= 0) {
-            return pixelDistance;
-        }
-        return pixelDistance / HEX_WIDTH_PX;
+    private int hexDistanceBetween(double x1, double y1, double x2, double y2) { //distancia entera en hexes sobre el tablero
+        return BOARD.distance(x1, y1, x2, y2);
     }
 
     private int getAttackActionCost(Drone attackerDrone) {
@@ -1166,8 +1528,8 @@ public class GameController {
 
     private HexCoord getNavalAttackPosition(Drone targetDrone) {
         return new HexCoord(
-            targetDrone.getPosition().getX(),
-            targetDrone.getPosition().getY() - NAVAL_ATTACK_VERTICAL_OFFSET
+            targetDrone.getX(),
+            targetDrone.getY() - NAVAL_ATTACK_VERTICAL_OFFSET
         );
     }
 
@@ -1190,7 +1552,7 @@ public class GameController {
     public GameResult endTurn(String sessionId) {
         
         GameRoom room = getRoomForSession(sessionId);
-        log.info("[GameController] -> endTurn, room {}, sessionId {}", room, sessionId);
+        log.debug("[GameController] -> endTurn, room {}, sessionId {}", room, sessionId);
 
         if (room == null) {
             return GameResult.error("You are not in a game room");
@@ -1200,11 +1562,24 @@ public class GameController {
             return GameResult.error("Not your turn");
         }
 
+        int endingPlayer = room.getCurrentTurn();
+        GameResult result = endCurrentTurn(room);
+        appendToJournal(room, new RoomEvent.EndTurn(endingPlayer, false));
+        if (sampled(GameEvent.END_TURN)) {
+            eventLog.record(GameEvent.END_TURN, room.getRoomId(), sessionId, result.isSuccess(), null,
+                endingPlayer, room.getCurrentTurn(), 0, 0, 0, 0);
+        }
+        return result;
+    }
+
+    // fin de turno pedido por el jugador o por el reloj de turno
+    private GameResult endCurrentTurn(GameRoom room) {
         int endingPlayer = room.getCurrentTurn();
         room.consumeIdleFuelForCurrentPlayer();
-        room.endTurn();
+        markDronesStateDirty(room, endingPlayer);
+        advanceTurn(room);
 
-        log.info("Turn ended in room {}. Now player {}'s turn with {} actions",
+        log.debug("Turn ended in room {}. Now player {}'s turn with {} actions",
             room.getRoomId(), room.getCurrentTurn(), room.getActionsRemaining());
 
         Packet turnPacket = Packet.turnStart(room.getCurrentTurn(), room.getActionsRemaining());
@@ -1213,7 +1588,7 @@ public class GameController {
             return GameResult.ok(turnPacket);
         }
 
-        List<Map<String, Object>> fuelUpdates = new ArrayList<>();
+        List<PacketBody.MoveDrone> fuelUpdates = new ArrayList<>();
         PlayerState endingPlayerState = room.getPlayerByIndex(endingPlayer);
         if (endingPlayerState != null) {
             List<Drone> endingDrones = endingPlayerState.getDrones();
@@ -1223,12 +1598,14 @@ public class GameController {
                 if (!drone.isDeployed()) {
                     continue;
                 }
-                fuelUpdates.add(Packet.fuelUpdate(
+                fuelUpdates.add(new PacketBody.MoveDrone(
                     endingPlayer,
                     droneIndex,
+                    false, 0.0, 0.0,
                     drone.getFuel(),
-                    !drone.isAlive()
-                ).toMap());
+                    !drone.isAlive(),
+                    null
+                ));
             }
         }
 
@@ -1236,9 +1613,8 @@ public class GameController {
             return GameResult.turnStarted(room.getCurrentTurn(), room.getActionsRemaining());
         }
 
-        Map<String, Object> payload = new LinkedHashMap<>(turnPacket.getPayload());
-        payload.put("fuelUpdates", fuelUpdates);
-        Packet turnWithFuelUpdates = Packet.of(turnPacket.getType(), payload);
+        PacketBody.TurnStart turnStart = (PacketBody.TurnStart) turnPacket.getBody();
+        Packet turnWithFuelUpdates = new Packet(turnStart.withFuelUpdates(fuelUpdates));
         turnWithFuelUpdates = finalizeByEliminationIfNeeded(room, turnWithFuelUpdates);
         return GameResult.ok(turnWithFuelUpdates);
     }
@@ -1249,7 +1625,21 @@ public class GameController {
         if (room == null) {
             return GameResult.error("You are not in a game room");
         }
+        int playerIndex = playerIndexOf(room, sessionId);
+        GameResult result = applyRecall(room, sessionId, droneIndex);
+        if (result.isSuccess()) {
+            appendToJournal(room, new RoomEvent.Recall(playerIndex, droneIndex));
+            markStateDirty(room, StateDeltaTracker.ROOM_UNIT);
+            markStateDirty(room, StateDeltaTracker.droneUnit(playerIndex, droneIndex));
+        }
+        if (sampled(GameEvent.RECALL)) {
+            eventLog.record(GameEvent.RECALL, room.getRoomId(), sessionId, result.isSuccess(), result.getErrorMessage(),
+                playerIndex, droneIndex, 0, 0, 0, 0);
+        }
+        return result;
+    }
 
+    private GameResult applyRecall(GameRoom room, String sessionId, int droneIndex) {
         PlayerState player = room.getPlayerBySession(sessionId);
         if (player == null) {
             return GameResult.error("You are not in the game");
@@ -1283,17 +1673,797 @@ public class GameController {
             room.getActionsRemaining()
         );
 
-        log.info("Player {} recalled drone {} in room {}", player.getPlayerIndex(), droneIndex, room.getRoomId());
+        log.debug("Player {} recalled drone {} in room {}", player.getPlayerIndex(), droneIndex, room.getRoomId());
 
         return finalizeTurn(room, recallPacket);
     }
 
+    // ========== Journal y replay ==========
+
+    private static final String REPLAY_ROOM_PREFIX = "replay:";
+
+    private int playerIndexOf(GameRoom room, String sessionId) {
+        PlayerState player = room.getPlayerBySession(sessionId);
+        return player != null ? player.getPlayerIndex() : -1;
+    }
+
+    private void appendToJournal(GameRoom room, RoomEvent event) {
+        if (roomJournal == null || !roomJournal.isEnabled()) {
+            return;
+        }
+        Long gameId = roomToGame.get(room.getRoomId());
+        if (gameId == null) {
+            // room sin partida persistida (todavia eligiendo lados): no hay a que asociar el evento
+            return;
+        }
+        roomJournal.append(gameId, event);
+    }
+
+    /**
+     * Reconstruye la room de una partida desde el journal: ultimo snapshot mas los comandos
+     * posteriores, aplicados con la misma logica que los comandos en vivo. Devuelve null si la
+     * partida no tiene journal. Si un comando no se puede volver a aplicar (o el RNG diverge) el
+     * replay se corta ahi y se devuelve el estado hasta el ultimo comando valido.
+     */
+    public GameRoom rebuildRoomFromJournal(Long gameId, String roomId) {
+        if (gameId == null || roomJournal == null || !roomJournal.isEnabled()) {
+            return null;
+        }
+        List<RoomEvent> events = roomJournal.readFromLastSnapshot(gameId);
+        if (events.isEmpty()) {
+            return null;
+        }
+
+        // id propio: sin partida asociada, el replay no toca la base ni el ranking
+        String replayRoomId = REPLAY_ROOM_PREFIX + roomId;
+        Map<String, Object> snapshot = ((RoomEvent.Snapshot) events.get(0)).state();
+        GameRoom replayRoom = openReplayRoom(replayRoomId, snapshot);
+
+        replayingRooms.add(replayRoomId);
+        int applied = 0;
+        try {
+            for (RoomEvent event : events.subList(1, events.size())) {
+                GameResult result = applyReplayedEvent(replayRoom, event);
+                if (!result.isSuccess()) {
+                    log.warn("Journal replay of game {} stopped at event {} ({}): {}",
+                        gameId, applied + 1, event, result.getErrorMessage());
+                    break;
+                }
+                if (event instanceof RoomEvent.Attack attack && attack.rngDraws() != replayRoom.getRngDraws()) {
+                    log.warn("Journal replay of game {} diverged at event {}: rng draws {} != {}",
+                        gameId, applied + 1, replayRoom.getRngDraws(), attack.rngDraws());
+                    break;
+                }
+                applied++;
+            }
+        } finally {
+            replayingRooms.remove(replayRoomId);
+            forgetReplayRoom(replayRoomId);
+        }
+
+        // las sesiones reales se vinculan al entrar cada jugador
+        for (int i = 0; i < GameRoom.MAX_PLAYERS; i++) {
+            replayRoom.assignSessionToPlayer(i, null);
+        }
+        log.info("Rebuilt game {} from journal: snapshot + {}/{} events", gameId, applied, events.size() - 1);
+        return replayRoom;
+    }
+
+    public boolean hasReplay(Long gameId) {
+        return gameId != null && roomJournal != null && roomJournal.hasJournal(gameId);
+    }
+
+    /**
+     * Abre el replay de una partida, o null si no hay journal. Los frames se arman de a uno con
+     * nextFrame(), leyendo el journal a demanda, asi quien lo reproduce decide el ritmo. Hay que cerrarlo.
+     */
+    public Replay openReplay(Long gameId) {
+        if (!hasReplay(gameId)) {
+            return null;
+        }
+        String replayRoomId = REPLAY_ROOM_PREFIX + "game-" + gameId + "-" + replaySequence.incrementAndGet();
+        replayingRooms.add(replayRoomId);
+        try {
+            return new Replay(gameId, replayRoomId, roomJournal.readAll(gameId));
+        } catch (RuntimeException ex) {
+            replayingRooms.remove(replayRoomId);
+            throw ex;
+        }
+    }
+
+    /**
+     * Una partida completa reproducida desde su journal. El primer frame es gameStart + turnStart
+     * con el estado inicial; despues, un frame por comando con los mismos paquetes que se mandaron
+     * a la room (moveDrone, attackResult, turnStart...). Los snapshots posteriores (save o carga)
+     * solo resincronizan el estado.
+     */
+    public final class Replay implements AutoCloseable {
+
+        private final Long gameId;
+        private final String roomId;
+        private final Stream<RoomEvent> events;
+        private final Iterator<RoomEvent> iterator;
+        private GameRoom room;
+        private boolean closed;
+
+        private Replay(Long gameId, String roomId, Stream<RoomEvent> events) {
+            this.gameId = gameId;
+            this.roomId = roomId;
+            this.events = events;
+            this.iterator = events.iterator();
+        }
+
+        /** Proximo frame, o null cuando la partida termino (o un comando no se pudo aplicar). */
+        public synchronized List<Packet> nextFrame() {
+            while (!closed && iterator.hasNext()) {
+                RoomEvent event = iterator.next();
+                if (event instanceof RoomEvent.Snapshot snapshot) {
+                    boolean first = room == null;
+                    room = openReplayRoom(roomId, snapshot.state());
+                    if (first) {
+                        return List.of(
+                            Packet.gameStart(room.toStateMap()),
+                            Packet.turnStart(room.getCurrentTurn(), room.getActionsRemaining())
+                        );
+                    }
+                    continue;
+                }
+                if (room == null) {
+                    continue;
+                }
+                GameResult result = applyReplayedEvent(room, event);
+                if (!result.isSuccess()) {
+                    log.warn("Replay of game {} stopped at {}: {}", gameId, event, result.getErrorMessage());
+                    return null;
+                }
+                return replayFrame(result);
+            }
+            return null;
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            events.close();
+            replayingRooms.remove(roomId);
+            forgetReplayRoom(roomId);
+        }
+    }
+
+    // las rooms de replay no se registran en rooms: sus caches no las limpia cleanupEmptyRooms
+    private void forgetReplayRoom(String replayRoomId) {
+        visibilityByRoom.remove(replayRoomId);
+        reachByRoom.remove(replayRoomId);
+    }
+
+    // mismos paquetes y en el mismo orden que GameWebSocketHandler manda a la room
+    private List<Packet> replayFrame(GameResult result) {
+        Packet packet = result.getPacket();
+        List<Packet> frame = new ArrayList<>();
+        if (packet.getBody() instanceof PacketBody.TurnStart turnStart) {
+            for (PacketBody.MoveDrone update : turnStart.fuelUpdates()) {
+                frame.add(new Packet(update));
+            }
+            frame.add(turnStart.fuelUpdates().isEmpty() ? packet : new Packet(turnStart.withFuelUpdates(List.of())));
+            return frame;
+        }
+        frame.add(packet);
+        if (result.isTurnEnded()) {
+            frame.add(Packet.turnStart(result.getNextPlayer(), result.getActionsRemaining()));
+        }
+        return frame;
+    }
+
+    // room suelta a partir de un snapshot, con una sesion sintetica por jugador para aplicar comandos
+    private GameRoom openReplayRoom(String replayRoomId, Map<String, Object> snapshot) {
+        GameRoom replayRoom = GameRoom.fromStateMap(replayRoomId, snapshot);
+        for (int i = 0; i < GameRoom.MAX_PLAYERS; i++) {
+            replayRoom.assignSessionToPlayer(i, replayRoomId + "#" + i);
+        }
+        return replayRoom;
+    }
+
+    private GameResult applyReplayedEvent(GameRoom room, RoomEvent event) {
+        if (!(event instanceof RoomEvent.Command command)) {
+            return GameResult.error("Unexpected journal event");
+        }
+        PlayerState player = room.getPlayerByIndex(command.playerIndex());
+        if (player == null) {
+            return GameResult.error("Unknown player " + command.playerIndex());
+        }
+        String sessionId = player.getSessionId();
+
+        if (command instanceof RoomEvent.Move move) {
+            return applyMove(room, sessionId, move.droneIndex(), move.x(), move.y());
+        }
+        if (command instanceof RoomEvent.CarrierMove carrierMove) {
+            return applyCarrierMove(room, sessionId, carrierMove.x(), carrierMove.y());
+        }
+        if (command instanceof RoomEvent.Attack attack) {
+            return applyAttack(room, sessionId, attack.attackerIndex(), attack.targetPlayerIndex(), attack.targetDroneIndex(),
+                attack.lineX(), attack.lineY(), attack.destinationX(), attack.destinationY(), attack.targetType());
+        }
+        if (command instanceof RoomEvent.Recall recall) {
+            return applyRecall(room, sessionId, recall.droneIndex());
+        }
+        if (!room.isPlayerTurn(sessionId)) {
+            return GameResult.error("Not your turn");
+        }
+        return endCurrentTurn(room);
+    }
+
     public Map<String, Object> getGameState(String sessionId) {
         GameRoom room = getRoomForSession(sessionId);
         if (room == null) return Map.of();
         return room.toStateMap();
     }
 
+    // ========== Niebla de guerra ==========
+
+    public boolean isFogOfWarEnabled() {
+        return fogOfWarEnabled;
+    }
+
+    /**
+     * Estado de la partida visto por un jugador: los drones y el carrier enemigos fuera de vision
+     * mantienen su lugar en la lista (los indices no cambian) pero sin coordenadas.
+     */
+    public Map<String, Object> getGameStateForViewer(String sessionId) {
+        GameRoom room = getRoomForSession(sessionId);
+        if (room == null) return Map.of();
+
+        PlayerState viewer = room.getPlayerBySession(sessionId);
+        return stateForViewer(room, viewer != null ? viewer.getPlayerIndex() : -1);
+    }
+
+    /** Estado visto por el jugador viewerIndex; con viewerIndex negativo, el estado completo. */
+    private Map<String, Object> stateForViewer(GameRoom room, int viewerIndex) {
+        Map<String, Object> state = room.toStateMap();
+        if (!fogOfWarEnabled || viewerIndex < 0) {
+            return state;
+        }
+
+        VisibilityTracker tracker = refreshVisibilityTracker(room);
+
+        Object playersObj = state.get("players");
+        if (playersObj instanceof List<?> players) {
+            for (Object playerObj : players) {
+                if (!(playerObj instanceof Map<?, ?> rawPlayer)) continue;
+                @SuppressWarnings("unchecked")
+                Map<String, Object> playerMap = (Map<String, Object>) rawPlayer;
+                int owner = ((Number) playerMap.get("playerIndex")).intValue();
+                if (owner == viewerIndex) continue;
+
+                redactPlayerFields(tracker, viewerIndex, owner, playerMap);
+                Object dronesObj = playerMap.get("drones");
+                if (dronesObj instanceof List<?> drones) {
+                    for (int i = 0; i < drones.size(); i++) {
+                        @SuppressWarnings("unchecked")
+                        Map<String, Object> droneMap = (Map<String, Object>) drones.get(i);
+                        redactDroneFields(tracker, viewerIndex, owner, i, droneMap);
+                    }
+                }
+            }
+        }
+        return state;
+    }
+
+    // carrier enemigo fuera de vision: sin coordenadas
+    private static void redactPlayerFields(VisibilityTracker tracker, int viewerIndex, int owner, Map<String, Object> playerMap) {
+        if (owner != viewerIndex && !tracker.isCarrierVisible(viewerIndex, owner)) {
+            playerMap.remove("carrierX");
+            playerMap.remove("carrierY");
+            playerMap.put("carrierHidden", true);
+        }
+    }
+
+    private static void redactDroneFields(VisibilityTracker tracker, int viewerIndex, int owner, int droneIndex,
+                                          Map<String, Object> droneMap) {
+        if (owner != viewerIndex && !tracker.isDroneVisible(viewerIndex, owner, droneIndex)) {
+            droneMap.remove("x");
+            droneMap.remove("y");
+            droneMap.put("hidden", true);
+        }
+    }
+
+    /**
+     * Recalcula la visibilidad de la room. Las unidades que alguien empezo o dejo de ver cambian
+     * en la vista filtrada, asi que tambien quedan marcadas para los deltas.
+     */
+    private List<VisibilityTracker.Change> refreshVisibilityChanges(GameRoom room) {
+        List<VisibilityTracker.Change> changes = visibilityTracker(room).refresh(room);
+        for (VisibilityTracker.Change change : changes) {
+            markStateDirty(room, change.droneIndex() == VisibilityTracker.CARRIER
+                ? StateDeltaTracker.playerUnit(change.owner())
+                : StateDeltaTracker.droneUnit(change.owner(), change.droneIndex()));
+        }
+        return changes;
+    }
+
+    private VisibilityTracker refreshVisibilityTracker(GameRoom room) {
+        refreshVisibilityChanges(room);
+        return visibilityTracker(room);
+    }
+
+    /**
+     * Recalcula la visibilidad de la room despues de una accion. Devuelve, por sesion, el
+     * visibilityUpdate con lo que cada jugador empezo o dejo de ver.
+     */
+    public Map<String, Packet> refreshVisibility(String sessionId) {
+        GameRoom room = getRoomForSession(sessionId);
+        Map<String, Packet> updates = new LinkedHashMap<>();
+        refreshVisibilityByPlayer(sessionId).forEach((viewerIndex, update) -> {
+            PlayerState viewer = room.getPlayerByIndex(viewerIndex);
+            if (viewer != null && viewer.getSessionId() != null) {
+                updates.put(viewer.getSessionId(), update);
+            }
+        });
+        return updates;
+    }
+
+    /**
+     * Igual que refreshVisibility pero por indice de jugador, incluidos los que estan desconectados
+     * (los espectadores de ese bando tambien lo reciben).
+     */
+    public Map<Integer, Packet> refreshVisibilityByPlayer(String sessionId) {
+        return refreshRoomVisibilityByPlayer(sessionToRoom.get(sessionId));
+    }
+
+    /** Igual que refreshVisibilityByPlayer pero ubicando la room por su id. */
+    public Map<Integer, Packet> refreshRoomVisibilityByPlayer(String roomId) {
+        GameRoom room = roomId != null ? rooms.get(roomId) : null;
+        if (!fogOfWarEnabled || room == null || !room.isGameStarted()) {
+            return Map.of();
+        }
+
+        List<VisibilityTracker.Change> changes = refreshVisibilityChanges(room);
+        if (changes.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Integer, List<Map<String, Object>>> revealedByViewer = new LinkedHashMap<>();
+        Map<Integer, List<Map<String, Object>>> hiddenByViewer = new LinkedHashMap<>();
+        for (VisibilityTracker.Change change : changes) {
+            Map<String, Object> unit = new LinkedHashMap<>();
+            unit.put("playerIndex", change.owner());
+            if (change.droneIndex() == VisibilityTracker.CARRIER) {
+                unit.put("unit", "carrier");
+            } else {
+                unit.put("unit", "drone");
+                unit.put("droneIndex", change.droneIndex());
+            }
+
+            if (change.visible()) {
+                if (change.droneIndex() == VisibilityTracker.CARRIER) {
+                    HexCoord carrier = room.getCarrierPosition(change.owner());
+                    unit.put("x", carrier.getX());
+                    unit.put("y", carrier.getY());
+                } else {
+                    Drone drone = room.getDrone(change.owner(), change.droneIndex());
+                    unit.put("x", drone.getX());
+                    unit.put("y", drone.getY());
+                }
+                revealedByViewer.computeIfAbsent(change.viewer(), ignored -> new ArrayList<>()).add(unit);
+            } else {
+                hiddenByViewer.computeIfAbsent(change.viewer(), ignored -> new ArrayList<>()).add(unit);
+            }
+        }
+
+        Map<Integer, Packet> updates = new LinkedHashMap<>();
+        for (int viewerIndex = 0; viewerIndex < GameRoom.MAX_PLAYERS; viewerIndex++) {
+            List<Map<String, Object>> revealed = revealedByViewer.getOrDefault(viewerIndex, List.of());
+            List<Map<String, Object>> hidden = hiddenByViewer.getOrDefault(viewerIndex, List.of());
+            if (revealed.isEmpty() && hidden.isEmpty()) {
+                continue;
+            }
+            updates.put(viewerIndex, Packet.visibilityUpdate(revealed, hidden));
+        }
+        return updates;
+    }
+
+    /**
+     * Adapta un paquete de broadcast a lo que puede ver el destinatario. Sin niebla de guerra
+     * devuelve el mismo paquete.
+     */
+    public Packet filterForViewer(String viewerSessionId, Packet packet) {
+        if (!fogOfWarEnabled || packet == null) {
+            return packet;
+        }
+        if (packet.getType() == PacketType.GAME_START) {
+            return Packet.gameStart(getGameStateForViewer(viewerSessionId));
+        }
+
+        GameRoom room = getRoomForSession(viewerSessionId);
+        PlayerState viewer = room != null ? room.getPlayerBySession(viewerSessionId) : null;
+        if (viewer == null) {
+            return packet;
+        }
+        return filterForViewer(room, viewer.getPlayerIndex(), packet);
+    }
+
+    private Packet filterForViewer(GameRoom room, int viewerIndex, Packet packet) {
+        PacketType type = packet.getType();
+        if (type != PacketType.MOVE_DRONE && type != PacketType.CARRIER_MOVED && type != PacketType.ATTACK_RESULT) {
+            return packet;
+        }
+        if (!packet.hasPosition()) {
+            return packet;
+        }
+
+        // en attackResult la posicion es la del atacante despues del ataque
+        int owner = type == PacketType.ATTACK_RESULT ? packet.getInt("attackerPlayer") : packet.getInt("playerIndex");
+        if (owner == viewerIndex) {
+            return packet;
+        }
+
+        VisibilityTracker tracker = visibilityTracker(room);
+        boolean visible = switch (type) {
+            case MOVE_DRONE -> tracker.isDroneVisible(viewerIndex, owner, packet.getInt("droneIndex"));
+            case ATTACK_RESULT -> tracker.isDroneVisible(viewerIndex, owner, packet.getInt("attackerDrone"));
+            default -> tracker.isCarrierVisible(viewerIndex, owner);
+        };
+        if (visible) {
+            return packet;
+        }
+
+        return packet.withoutPosition();
+    }
+
+    // un replay repite comandos ya validados en vivo y nadie refresca su visibilidad: sin niebla
+    private boolean fogApplies(GameRoom room) {
+        return fogOfWarEnabled && !isReplaying(room);
+    }
+
+    private VisibilityTracker visibilityTracker(GameRoom room) {
+        return visibilityByRoom.computeIfAbsent(
+            room.getRoomId(),
+            id -> new VisibilityTracker(HexGrid.DEFAULT_HEX_SIZE_PX, aerialCarrierVisionRange, navalCarrierVisionRange)
+        );
+    }
+
+    // ========== Previsualizacion de movimientos y ataques ==========
+
+    /**
+     * Hexes a los que el dron puede moverse ahora, con el mismo rango y obstaculos que valida
+     * applyMove. Con niebla de guerra solo cuentan como obstaculo las unidades que el jugador ve,
+     * para no delatar posiciones ocultas. No gasta acciones ni exige que sea su turno.
+     */
+    public GameResult previewMoves(String sessionId, int droneIndex) {
+        GameRoom room = getRoomForSession(sessionId);
+        if (room == null) {
+            return GameResult.error("You are not in a game room");
+        }
+        PlayerState player = room.getPlayerBySession(sessionId);
+        if (player == null) {
+            return GameResult.error("You are not in the game");
+        }
+        int playerIndex = player.getPlayerIndex();
+        Drone drone = room.getDrone(playerIndex, droneIndex);
+        if (drone == null) {
+            return GameResult.error("Invalid drone index");
+        }
+        if (!drone.isAlive()) {
+            return GameResult.error("Cannot move a destroyed drone");
+        }
+
+        GameRoom.MoveReach reach = room.moveReach(playerIndex, drone);
+        BitSet blocked = room.blockedCells(drone, blockerFilterFor(room, playerIndex));
+        int[] cells = reachCache(room).reachable(playerIndex, droneIndex, reach.fromCell(), reach.range(), blocked);
+
+        List<Double> hexes = new ArrayList<>(cells.length * 2);
+        for (int cell : cells) {
+            if (cell == reach.fromCell()) {
+                continue;
+            }
+            int key = BOARD.keyOf(cell);
+            hexes.add(BOARD.centerX(key));
+            hexes.add(BOARD.centerY(key));
+        }
+        return GameResult.ok(Packet.movesPreview(droneIndex, reach.range(), hexes));
+    }
+
+    /**
+     * Distancia, alcance y probabilidad de impacto de un ataque, calculados igual que en
+     * applyAttack/resolveAttack pero sin tirar los dados ni gastar municion.
+     */
+    public GameResult previewAttack(String sessionId, int attackerIndex, int targetPlayerIndex, int targetDroneIndex,
+                                    Double manualLineX, Double manualLineY, String targetType) {
+        GameRoom room = getRoomForSession(sessionId);
+        if (room == null) {
+            return GameResult.error("You are not in a game room");
+        }
+        PlayerState attacker = room.getPlayerBySession(sessionId);
+        if (attacker == null) {
+            return GameResult.error("You are not in the game");
+        }
+
+        Drone attackerDrone = room.getDrone(attacker.getPlayerIndex(), attackerIndex);
+        Drone targetDrone = targetDroneIndex >= 0 ? room.getDrone(targetPlayerIndex, targetDroneIndex) : null;
+        boolean manualBlindShot = targetDroneIndex < 0;
+        boolean carrierTarget = "carrier".equalsIgnoreCase(targetType);
+
+        GameResult droneValidation = validateDrones(room, attacker, attackerDrone, targetDrone, targetPlayerIndex, manualBlindShot, carrierTarget);
+        if (droneValidation != null) {
+            return droneValidation;
+        }
+        if (manualBlindShot && (manualLineX == null || manualLineY == null)) {
+            return GameResult.error("Manual shot requires target coordinates");
+        }
+        if (isTargetHidden(room, attacker.getPlayerIndex(), targetPlayerIndex, targetDroneIndex, carrierTarget)) {
+            return GameResult.error("Target is not visible");
+        }
+
+        double lineX = manualLineX != null ? manualLineX : (targetDrone != null ? targetDrone.getX() : 0.0);
+        double lineY = manualLineY != null ? manualLineY : (targetDrone != null ? targetDrone.getY() : 0.0);
+
+        int distance;
+        boolean inRange;
+        double hitChance;
+        if (attackerDrone instanceof NavalDrone) {
+            // el naval dispara desde su posicion de ataque sobre el objetivo, como en applyAttack
+            double launchX = targetDrone != null ? targetDrone.getX() : attackerDrone.getX();
+            double launchY = targetDrone != null ? targetDrone.getY() - NAVAL_ATTACK_VERTICAL_OFFSET : attackerDrone.getY();
+            distance = hexDistanceBetween(launchX, launchY, lineX, lineY);
+            if (attackerDrone.getWeapon() instanceof MissileWeapon missileWeapon) {
+                double chance = missileHitChance(missileWeapon, launchX, launchY, targetDrone, lineX, lineY);
+                inRange = chance != MISSILE_OUT_OF_REACH;
+                hitChance = inRange ? chance : 0.0;
+            } else {
+                inRange = attackerDrone.getWeapon() != null;
+                hitChance = inRange ? 1.0 : 0.0;
+            }
+        } else {
+            double targetX = targetDrone != null ? targetDrone.getX() : lineX;
+            double targetY = targetDrone != null ? targetDrone.getY() : lineY;
+            distance = hexDistanceBetween(attackerDrone.getX(), attackerDrone.getY(), targetX, targetY);
+            inRange = distance <= attackerDrone.getWeapon().getRange();
+            hitChance = inRange ? attackerDrone.getWeapon().getAccuracy() : 0.0;
+        }
+
+        return GameResult.ok(Packet.attackPreview(attackerIndex, targetPlayerIndex, targetDroneIndex, distance, inRange, hitChance));
+    }
+
+    /**
+     * Con niebla no se ataca lo que el atacante no ve: el resultado del ataque (y el reposicionamiento
+     * del naval) delatarian la posicion del objetivo. Replays y reconstrucciones repiten ataques que
+     * ya se aceptaron en vivo.
+     */
+    private boolean isTargetHidden(GameRoom room, int attackerIndex, int targetPlayerIndex, int targetDroneIndex,
+                                   boolean carrierTarget) {
+        if (!fogApplies(room)) {
+            return false;
+        }
+        VisibilityTracker tracker = visibilityTracker(room);
+        if (carrierTarget) {
+            return !tracker.isCarrierVisible(attackerIndex, targetPlayerIndex);
+        }
+        return targetDroneIndex >= 0 && !tracker.isDroneVisible(attackerIndex, targetPlayerIndex, targetDroneIndex);
+    }
+
+    private ReachableHexCache reachCache(GameRoom room) {
+        return reachByRoom.computeIfAbsent(room.getRoomId(), id -> new ReachableHexCache(BOARD));
+    }
+
+    /**
+     * Sin niebla de guerra todas las unidades son obstaculo. Con niebla, solo las propias y las
+     * enemigas que el jugador ve. La visibilidad se copia antes para no consultar el tracker con
+     * el lock de la room tomado (refresh los toma en el orden inverso).
+     */
+    private GameRoom.BlockerFilter blockerFilterFor(GameRoom room, int viewerIndex) {
+        if (!fogApplies(room)) {
+            return null;
+        }
+        VisibilityTracker tracker = visibilityTracker(room);
+        BitSet[] visibleDrones = new BitSet[GameRoom.MAX_PLAYERS];
+        boolean[] visibleCarriers = new boolean[GameRoom.MAX_PLAYERS];
+        for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+            visibleDrones[owner] = new BitSet();
+            PlayerState player = room.getPlayerByIndex(owner);
+            int droneCount = player != null ? player.getDrones().size() : 0;
+            for (int droneIndex = 0; droneIndex < droneCount; droneIndex++) {
+                visibleDrones[owner].set(droneIndex, tracker.isDroneVisible(viewerIndex, owner, droneIndex));
+            }
+            visibleCarriers[owner] = tracker.isCarrierVisible(viewerIndex, owner);
+        }
+        return (owner, droneIndex) -> owner < 0 || owner >= GameRoom.MAX_PLAYERS
+            ? true
+            : droneIndex == VisibilityTracker.CARRIER ? visibleCarriers[owner] : visibleDrones[owner].get(droneIndex);
+    }
+
+    // ========== Espectadores ==========
+
+    /**
+     * Paquetes iniciales para un espectador que entra a una room en juego: gameStart con la vista
+     * del jugador viewerIndex (o la partida completa si es negativo) y el turno actual.
+     * Vacio si la room no existe o la partida no empezo.
+     */
+    public List<Packet> spectatorSnapshot(String roomId, int viewerIndex) {
+        GameRoom room = roomId != null ? rooms.get(roomId) : null;
+        if (room == null || !room.isGameStarted() || viewerIndex >= GameRoom.MAX_PLAYERS) {
+            return List.of();
+        }
+        return List.of(
+            Packet.gameStart(stateForViewer(room, viewerIndex)),
+            Packet.turnStart(room.getCurrentTurn(), room.getActionsRemaining())
+        );
+    }
+
+    /**
+     * Version de un paquete de broadcast para quien sigue al jugador viewerIndex sin ser ese jugador
+     * (espectador de un bando). Sin niebla de guerra devuelve el mismo paquete.
+     */
+    public Packet filterForPlayer(String roomId, int viewerIndex, Packet packet) {
+        GameRoom room = roomId != null ? rooms.get(roomId) : null;
+        if (!fogOfWarEnabled || packet == null || room == null || viewerIndex < 0) {
+            return packet;
+        }
+        if (packet.getType() == PacketType.GAME_START) {
+            return Packet.gameStart(stateForViewer(room, viewerIndex));
+        }
+        return filterForViewer(room, viewerIndex, packet);
+    }
+
+    /** Indice de jugador de la sesion en su room, o -1 si no juega en ninguna. */
+    public int getPlayerIndex(String sessionId) {
+        GameRoom room = getRoomForSession(sessionId);
+        PlayerState player = room != null ? room.getPlayerBySession(sessionId) : null;
+        return player != null ? player.getPlayerIndex() : -1;
+    }
+
+    // ========== Protocolo de deltas ==========
+
+    /**
+     * Procesa el ack de un cliente. La primera vez registra a la sesion en el protocolo de deltas.
+     * Devuelve un stateSnapshot si la sesion necesita el estado completo y la partida ya empezo,
+     * o null si alcanza con los deltas.
+     */
+    public Packet acknowledgeState(String sessionId, long seq, boolean resync) {
+        GameRoom room = getRoomForSession(sessionId);
+        if (room == null) {
+            return null;
+        }
+
+        StateDeltaTracker stateSync = stateSyncByRoom.computeIfAbsent(room.getRoomId(), id -> new StateDeltaTracker());
+        boolean needsSnapshot = stateSync.acknowledge(sessionId, seq, resync);
+        if (!needsSnapshot || !room.isGameStarted()) {
+            return null;
+        }
+        return toStatePacket(stateSync.snapshot(sessionId, getGameStateForViewer(sessionId)));
+    }
+
+    /**
+     * Snapshot para una sesion que ya usa el protocolo de deltas y perdio paquetes (cola de salida llena).
+     * Devuelve null si la sesion no usa deltas o la partida no empezo.
+     */
+    public Packet resyncState(String sessionId) {
+        String roomId = sessionToRoom.get(sessionId);
+        StateDeltaTracker stateSync = roomId != null ? stateSyncByRoom.get(roomId) : null;
+        if (stateSync == null || !stateSync.isTracked(sessionId)) {
+            return null;
+        }
+        return acknowledgeState(sessionId, -1, true);
+    }
+
+    /** True si la sesion usa el protocolo de deltas: los paquetes que solo llevan estado no le hacen falta. */
+    public boolean usesStateSync(String sessionId) {
+        String roomId = sessionToRoom.get(sessionId);
+        StateDeltaTracker stateSync = roomId != null ? stateSyncByRoom.get(roomId) : null;
+        return stateSync != null && stateSync.isTracked(sessionId);
+    }
+
+    /**
+     * Deltas (o snapshots) pendientes para las sesiones de la room despues de un comando. Solo se
+     * recalculan las unidades que marco el comando; si fue rechazado no hay nada que hacer.
+     */
+    public Map<String, Packet> collectStateUpdates(String sessionId) {
+        return collectRoomStateUpdates(sessionToRoom.get(sessionId));
+    }
+
+    /** Igual que collectStateUpdates pero ubicando la room por su id. */
+    public Map<String, Packet> collectRoomStateUpdates(String roomId) {
+        GameRoom room = roomId != null ? rooms.get(roomId) : null;
+        StateDeltaTracker stateSync = roomId != null ? stateSyncByRoom.get(roomId) : null;
+        if (room == null || stateSync == null || !room.isGameStarted()) {
+            return Map.of();
+        }
+
+        // las unidades se arman una vez por punto de vista, no por sesion
+        Map<Integer, StateDeltaTracker.StateView> viewByPlayer = new HashMap<>();
+        Map<String, StateDeltaTracker.StateView> viewBySession = new LinkedHashMap<>();
+        for (String sid : getSessionsInRoom(roomId)) {
+            if (stateSync.isTracked(sid)) {
+                PlayerState viewer = room.getPlayerBySession(sid);
+                int viewerIndex = viewer != null ? viewer.getPlayerIndex() : -1;
+                viewBySession.put(sid, viewByPlayer.computeIfAbsent(viewerIndex, index -> stateView(room, index)));
+            }
+        }
+        if (viewBySession.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<String, Packet> packets = new LinkedHashMap<>();
+        stateSync.collect(viewBySession).forEach((sid, update) -> packets.put(sid, toStatePacket(update)));
+        return packets;
+    }
+
+    // vista por unidades del jugador viewerIndex, con la misma niebla de guerra que stateForViewer
+    private StateDeltaTracker.StateView stateView(GameRoom room, int viewerIndex) {
+        boolean redact = fogOfWarEnabled && viewerIndex >= 0;
+        VisibilityTracker tracker = redact ? refreshVisibilityTracker(room) : null;
+        Map<String, Map<String, Object>> units = new HashMap<>();
+
+        return new StateDeltaTracker.StateView() {
+            @Override
+            public Map<String, Object> full() {
+                return stateForViewer(room, viewerIndex);
+            }
+
+            @Override
+            public Map<String, Object> unit(String unitId) {
+                return units.computeIfAbsent(unitId, this::build);
+            }
+
+            private Map<String, Object> build(String unitId) {
+                if (StateDeltaTracker.ROOM_UNIT.equals(unitId)) {
+                    return room.roomStateMap();
+                }
+                int dot = unitId.indexOf(".d");
+                int owner = Integer.parseInt(unitId.substring(1, dot < 0 ? unitId.length() : dot));
+                if (dot < 0) {
+                    Map<String, Object> fields = room.playerStateMap(owner);
+                    if (fields != null && redact) {
+                        redactPlayerFields(tracker, viewerIndex, owner, fields);
+                    }
+                    return fields;
+                }
+                int droneIndex = Integer.parseInt(unitId.substring(dot + 2));
+                Map<String, Object> fields = room.droneStateMap(owner, droneIndex);
+                if (fields != null && redact) {
+                    redactDroneFields(tracker, viewerIndex, owner, droneIndex, fields);
+                }
+                return fields;
+            }
+        };
+    }
+
+    // ========== Marcas para los deltas ==========
+
+    private void markStateDirty(GameRoom room, String unitId) {
+        StateDeltaTracker stateSync = stateSyncByRoom.get(room.getRoomId());
+        if (stateSync != null) {
+            stateSync.markDirty(unitId);
+        }
+    }
+
+    private void markDronesStateDirty(GameRoom room, int playerIndex) {
+        StateDeltaTracker stateSync = stateSyncByRoom.get(room.getRoomId());
+        PlayerState player = stateSync != null ? room.getPlayerByIndex(playerIndex) : null;
+        if (player == null) {
+            return;
+        }
+        int droneCount = player.getDrones().size();
+        for (int droneIndex = 0; droneIndex < droneCount; droneIndex++) {
+            stateSync.markDirty(StateDeltaTracker.droneUnit(playerIndex, droneIndex));
+        }
+    }
+
+    private void markAllStateDirty(GameRoom room) {
+        StateDeltaTracker stateSync = stateSyncByRoom.get(room.getRoomId());
+        if (stateSync != null) {
+            stateSync.markAllDirty();
+        }
+    }
+
+    private Packet toStatePacket(StateDeltaTracker.Update update) {
+        if (update.snapshot()) {
+            return Packet.stateSnapshot(update.seq(), update.changed());
+        }
+        return Packet.stateDelta(update.seq(), update.baseSeq(), update.changed(), update.removed());
+    }
+
     public int getCurrentTurn(String sessionId) {
         GameRoom room = getRoomForSession(sessionId);
         if (room == null) return 0;
@@ -1313,13 +2483,8 @@ public class GameController {
     }
 
     private boolean areAllDronesDestroyed(GameRoom room, int playerIndex) {
-        PlayerState player = room.getPlayerByIndex(playerIndex);
-        if (player == null) return false;
-        
-        for (Drone drone : player.getDrones()) {
-            if (drone.isAlive()) return false;
-        }
-        return true;
+        if (room.getPlayerByIndex(playerIndex) == null) return false;
+        return !room.hasAliveDrones(playerIndex);
     }
 
     private MatchOutcome resolveMatchOutcome(GameRoom room) {
@@ -1351,7 +2516,11 @@ public class GameController {
     }
 
     private Packet finalizeByEliminationIfNeeded(GameRoom room, Packet basePacket) {
-        if (room == null || basePacket == null || isPersistedGameFinished(room)) {
+        if (room == null || basePacket == null) {
+            return basePacket;
+        }
+        boolean replaying = isReplaying(room);
+        if (!replaying && isPersistedGameFinished(room)) {
             return basePacket;
         }
 
@@ -1360,21 +2529,28 @@ public class GameController {
             return basePacket;
         }
 
+        if (!replaying) {
+            recordMatchOutcome(room, outcome);
+        }
+        return basePacket.withOutcome(outcome.winnerPlayerIndex(), outcome.isDraw());
+    }
+
+    // una room reproducida (replay o reconstruccion desde el journal) repite una partida que ya se
+    // cerro o que se va a seguir jugando: no se vuelve a terminar, ni a contar en el ranking ni en las metricas
+    private boolean isReplaying(GameRoom room) {
+        return replayingRooms.contains(room.getRoomId());
+    }
+
+    private void recordMatchOutcome(GameRoom room, MatchOutcome outcome) {
         if (outcome.isDraw()) {
             markGameAsDraw(room);
-        } else {
-            int winnerPlayerIndex = outcome.winnerPlayerIndex();
-            markGameAsFinished(room, winnerPlayerIndex);
-            PlayerState winner = room.getPlayerByIndex(winnerPlayerIndex);
-            PlayerState loser = room.getPlayerByIndex(winnerPlayerIndex == 0 ? 1 : 0);
-            registerMatchResult(resolveUserId(room, winner), resolveUserId(room, loser));
+            return;
         }
-
-        Map<String, Object> payload = new LinkedHashMap<>(basePacket.getPayload());
-        payload.put("gameFinished", true);
-        payload.put("winnerPlayerIndex", outcome.winnerPlayerIndex());
-        payload.put("isDraw", outcome.isDraw());
-        return Packet.of(basePacket.getType(), payload);
+        int winnerPlayerIndex = outcome.winnerPlayerIndex();
+        markGameAsFinished(room, winnerPlayerIndex);
+        PlayerState winner = room.getPlayerByIndex(winnerPlayerIndex);
+        PlayerState loser = room.getPlayerByIndex(winnerPlayerIndex == 0 ? 1 : 0);
+        registerMatchResult(resolveUserId(room, winner), resolveUserId(room, loser));
     }
 
     private record MatchOutcome(boolean finished, boolean isDraw, Integer winnerPlayerIndex) {
@@ -1393,54 +2569,92 @@ public class GameController {
 
 
     private void markGameAsFinished(GameRoom room, int winnerPlayerIndex) {
+        cancelTurnClock(room.getRoomId());
+        if (sampled(GameEvent.MATCH_FINISHED)) {
+            eventLog.record(GameEvent.MATCH_FINISHED, room.getRoomId(), null, true, null, winnerPlayerIndex, 0, 0, 0, 0, 0);
+        }
         Long gameId = roomToGame.get(room.getRoomId());
         if (gameId == null) return;
 
-        Game game = games.get(gameId);
-        if (game == null) {
-            game = gameService.getById(gameId);
-            games.put(gameId, game);
-        }
+        long dbStarted = System.nanoTime();
+        try {
+            Game game = games.get(gameId);
+            if (game == null) {
+                game = gameService.getById(gameId);
+                games.put(gameId, game);
+            }
 
-        GameState state = game.getState();
-        if (state == null) {
-            state = new GameState();
-            game.setState(state);
-        }
+            GameState state = game.getState();
+            if (state == null) {
+                state = new GameState();
+                game.setState(state);
+            }
 
-        state.setStatus(GameStatus.FINISHED);
-        state.setTurn(winnerPlayerIndex + 1);
-        state.setMeta(null);
-        game.setEndedAt(OffsetDateTime.now());
-        gameService.saveGame(game.getPlayer1Id(), game.getPlayer2Id(), game);
+            state.setStatus(GameStatus.FINISHED);
+            state.setTurn(winnerPlayerIndex + 1);
+            state.setMeta(null);
+            game.setEndedAt(OffsetDateTime.now());
+            saveFinishedGame(game);
+        } finally {
+            recordDb(DbOperation.FINISH_GAME, dbStarted);
+        }
     }
 
     private void markGameAsDraw(GameRoom room) {
+        cancelTurnClock(room.getRoomId());
+        if (sampled(GameEvent.MATCH_FINISHED)) {
+            eventLog.record(GameEvent.MATCH_FINISHED, room.getRoomId(), null, true, null, -1, 1, 0, 0, 0, 0);
+        }
         Long gameId = roomToGame.get(room.getRoomId());
         if (gameId == null) return;
 
-        Game game = games.get(gameId);
-        if (game == null) {
-            game = gameService.getById(gameId);
-            games.put(gameId, game);
+        long dbStarted = System.nanoTime();
+        try {
+            Game game = games.get(gameId);
+            if (game == null) {
+                game = gameService.getById(gameId);
+                games.put(gameId, game);
+            }
+
+            GameState state = game.getState();
+            if (state == null) {
+                state = new GameState();
+                game.setState(state);
+            }
+
+            state.setStatus(GameStatus.FINISHED);
+            state.setTurn(room.getCurrentTurn());
+            state.setMeta(null);
+            game.setEndedAt(OffsetDateTime.now());
+            saveFinishedGame(game);
+        } finally {
+            recordDb(DbOperation.FINISH_GAME, dbStarted);
         }
+    }
 
-        GameState state = game.getState();
-        if (state == null) {
-            state = new GameState();
-            game.setState(state);
+    private void registerMatchResult(Long winnerUserId, Long loserUserId) {
+        long dbStarted = System.nanoTime();
+        try {
+            if (isWriteBehindEnabled()) {
+                matchResultRecorder.record(winnerUserId, loserUserId);
+                return;
+            }
+            registerWinForUserId(winnerUserId);
+            registerLossForUserId(loserUserId);
+        } finally {
+            recordDb(DbOperation.MATCH_RESULT, dbStarted);
         }
+    }
 
-        state.setStatus(GameStatus.FINISHED);
-        state.setTurn(room.getCurrentTurn());
-        state.setMeta(null);
-        game.setEndedAt(OffsetDateTime.now());
-        gameService.saveGame(game.getPlayer1Id(), game.getPlayer2Id(), game);
+    private boolean sampled(GameEvent event) {
+        return eventLog != null && eventLog.sample(event);
     }
 
-    private void registerMatchResult(Long winnerUserId, Long loserUserId) {
-        registerWinForUserId(winnerUserId);
-        registerLossForUserId(loserUserId);
+    // con write-behind mide solo el encolado: el volcado real lo hace MatchResultRecorder
+    private void recordDb(DbOperation operation, long startedNanos) {
+        if (metrics != null) {
+            metrics.recordDb(operation, startedNanos);
+        }
     }
 
     private Long resolveUserId(GameRoom room, PlayerState player) {
@@ -1490,7 +2704,7 @@ public class GameController {
     }
 
     private void registerWinForUserId(Long winnerUserId) {
-        log.info("registerWinForUserIdfor user: {}", winnerUserId);
+        log.debug("registerWinForUserIdfor user: {}", winnerUserId);
         if (winnerUserId == null) return;
 
         userRepository.findById(winnerUserId).ifPresent(user -> {
@@ -1501,7 +2715,7 @@ public class GameController {
     }
 
     private void registerLossForUserId(Long loserUserId) {
-        log.info("registerLossForUserId for user: {}", loserUserId);
+        log.debug("registerLossForUserId for user: {}", loserUserId);
         if (loserUserId == null) return;
 
         userRepository.findById(loserUserId).ifPresent(user -> {
@@ -1519,16 +2733,28 @@ public class GameController {
 
     // Todas las sessionId de una session
     public java.util.List<String> getSessionsInSameRoom(String sessionId) {
-        String roomId = sessionToRoom.get(sessionId);
+        return getSessionsInRoom(sessionToRoom.get(sessionId));
+    }
+
+    // Todas las sessionId de una room
+    public java.util.List<String> getSessionsInRoom(String roomId) {
         if (roomId == null) return java.util.List.of();
-        
-        return sessionToRoom.entrySet().stream()
-            .filter(entry -> roomId.equals(entry.getValue()))
-            .map(Map.Entry::getKey)
-            .collect(java.util.stream.Collectors.toList());
+
+        Set<String> roomSessions = roomToSessions.get(roomId);
+        if (roomSessions == null) return java.util.List.of();
+        return new ArrayList<>(roomSessions);
     }
 
     public int getActiveRoomCount() {
         return rooms.size();
     }
+
+    /** Jugadores desconectados cuya gracia de reconexion todavia no vencio. */
+    public int getPendingDisconnectForfeitCount() {
+        int pending = 0;
+        for (RoomTimers timers : timersByRoom.values()) {
+            pending += timers.pendingDisconnectForfeits();
+        }
+        return pending;
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.proyect.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -78,6 +79,17 @@ public class RankingController {
         return ResponseEntity.ok(top);
     }
 
+     // GET /api/ranking/rank/{userId}
+     //Devuelve la posicion del usuario en el top global (1 = primero).
+    @GetMapping("/rank/{userId}")
+    public ResponseEntity<Map<String, Object>> getRank(@PathVariable Long userId) {
+        int rank = rankingService.getRankOfUser(userId);
+        if (rank < 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("userId", userId, "rank", rank));
+    }
+
      //DELETE /api/ranking/history/{userId}
      //Borra todo el historial de ranking de un usuario.
     @DeleteMapping("/history/{userId}")
@@ -0,0 +1,98 @@
+package com.example.proyect.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.example.proyect.auth.ErrorResponse;
+import com.example.proyect.auth.service.GameService;
+import com.example.proyect.config.ReplayProperties;
+import com.example.proyect.persistence.classes.Game;
+import com.example.proyect.persistence.classes.GameStatus;
+
+import jakarta.persistence.EntityNotFoundException;
+
+@RestController
+@RequestMapping("/api/games")
+public class ReplayController {
+
+    // reproduce partidas terminadas desde el journal de la room, con los mismos paquetes del websocket
+
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private final GameService gameService;
+    private final GameController gameController;
+    private final ReplayProperties replayProperties;
+    private final ReplayStreamer replayStreamer;
+
+    public ReplayController(GameService gameService, GameController gameController, ReplayProperties replayProperties,
+                            ReplayStreamer replayStreamer) {
+        this.gameService = gameService;
+        this.gameController = gameController;
+        this.replayProperties = replayProperties;
+        this.replayStreamer = replayStreamer;
+    }
+
+     //GET /api/games/{gameId}/replay?speed=2&format=ndjson|binary
+     //ndjson: un paquete JSON por linea. binary: cada paquete del codec binario precedido por su largo (int de 4 bytes).
+     //Entre comando y comando se espera frameIntervalMs / speed (lo programa ReplayStreamer, sin ocupar hilos de MVC).
+    @GetMapping("/{gameId}/replay")
+    public ResponseEntity<ResponseBodyEmitter> replay(
+            @PathVariable Long gameId,
+            @RequestParam(defaultValue = "1") double speed,
+            @RequestParam(defaultValue = "ndjson") String format) {
+        if (!(speed > 0) || speed > replayProperties.getMaxSpeed()) {
+            throw new ReplayRejectedException(HttpStatus.BAD_REQUEST, "BAD_REQUEST",
+                "speed debe estar entre 0 y " + replayProperties.getMaxSpeed());
+        }
+        boolean binary = "binary".equalsIgnoreCase(format);
+        if (!binary && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ReplayRejectedException(HttpStatus.BAD_REQUEST, "BAD_REQUEST", "format debe ser ndjson o binary");
+        }
+
+        Game game;
+        try {
+            game = gameService.getById(gameId);
+        } catch (EntityNotFoundException e) {
+            throw new ReplayRejectedException(HttpStatus.NOT_FOUND, "GAME_NOT_FOUND", "La partida no existe");
+        }
+        if (game.getState() == null || game.getState().getStatus() != GameStatus.FINISHED) {
+            throw new ReplayRejectedException(HttpStatus.CONFLICT, "GAME_NOT_FINISHED", "Solo se pueden ver partidas terminadas");
+        }
+        GameController.Replay replay = gameController.openReplay(gameId);
+        if (replay == null) {
+            throw new ReplayRejectedException(HttpStatus.NOT_FOUND, "REPLAY_NOT_FOUND", "La partida no tiene eventos grabados");
+        }
+
+        long frameDelayMs = Math.round(replayProperties.getFrameIntervalMs() / speed);
+        return ResponseEntity.ok()
+            .contentType(binary ? MediaType.APPLICATION_OCTET_STREAM : NDJSON)
+            .cacheControl(CacheControl.noCache())
+            .body(replayStreamer.stream(replay, binary, frameDelayMs));
+    }
+
+    // el cuerpo exitoso es un emitter: los errores salen por aca para poder mandar un ErrorResponse
+    @ExceptionHandler(ReplayRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleRejected(ReplayRejectedException ex) {
+        return ResponseEntity.status(ex.status).body(new ErrorResponse(ex.code, ex.getMessage()));
+    }
+
+    static final class ReplayRejectedException extends RuntimeException {
+        private final HttpStatus status;
+        private final String code;
+
+        ReplayRejectedException(HttpStatus status, String code, String message) {
+            super(message);
+            this.status = status;
+            this.code = code;
+        }
+    }
+}
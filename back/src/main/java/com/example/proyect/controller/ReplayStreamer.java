@@ -0,0 +1,116 @@
+package com.example.proyect.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import com.example.proyect.config.ReplayProperties;
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Reproduce replays hacia un ResponseBodyEmitter a ritmo de frameDelayMs.
+ *
+ * Ningun hilo espera entre frames: cada frame es una tarea en un pool chico y acotado
+ * (game.replay.threads) que arma el frame, lo manda y programa el siguiente. Los hilos de MVC
+ * quedan libres apenas se devuelve el emitter. El timeout (game.replay.timeout-ms) es solo de
+ * estas respuestas; al vencer, o si el cliente corta, el replay se cierra.
+ */
+@Component
+public class ReplayStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplayStreamer.class);
+
+    private final long timeoutMs;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplayStreamer(ReplayProperties properties) {
+        this.timeoutMs = properties.getTimeoutMs();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "replay-" + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Empieza a mandar el replay. El primer frame (estado inicial) sale sin espera; el emitter se
+     * completa al terminar la partida y el replay se cierra siempre.
+     */
+    public ResponseBodyEmitter stream(GameController.Replay replay, boolean binary, long frameDelayMs) {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(timeoutMs);
+        emitter.onTimeout(replay::close);
+        emitter.onError(error -> replay.close());
+        emitter.onCompletion(replay::close);
+        schedule(() -> step(replay, emitter, binary, frameDelayMs), 0, replay, emitter);
+        return emitter;
+    }
+
+    private void step(GameController.Replay replay, ResponseBodyEmitter emitter, boolean binary, long frameDelayMs) {
+        try {
+            List<Packet> frame = replay.nextFrame();
+            if (frame == null) {
+                replay.close();
+                emitter.complete();
+                return;
+            }
+            // un chunk por comando: el cliente lo recibe en el momento
+            emitter.send(encode(frame, binary), binary ? MediaType.APPLICATION_OCTET_STREAM : ReplayController.NDJSON);
+            schedule(() -> step(replay, emitter, binary, frameDelayMs), frameDelayMs, replay, emitter);
+        } catch (IOException | RuntimeException ex) {
+            // casi siempre el cliente cerro la conexion
+            log.debug("Replay stream stopped: {}", ex.getMessage());
+            replay.close();
+            emitter.completeWithError(ex);
+        }
+    }
+
+    private void schedule(Runnable task, long delayMs, GameController.Replay replay, ResponseBodyEmitter emitter) {
+        try {
+            scheduler.schedule(task, Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException ex) {
+            replay.close();
+            emitter.completeWithError(ex);
+        }
+    }
+
+    // ndjson: un paquete JSON por linea. binary: cada paquete del codec binario precedido por su largo (int de 4 bytes)
+    static byte[] encode(List<Packet> frame, boolean binary) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(bytes);
+        for (Packet packet : frame) {
+            if (binary) {
+                byte[] encoded = BinaryPacketCodec.encode(packet);
+                data.writeInt(encoded.length);
+                data.write(encoded);
+            } else {
+                data.write(PacketSerializer.serialize(packet).getBytes(StandardCharsets.UTF_8));
+                data.write('\n');
+            }
+        }
+        data.flush();
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
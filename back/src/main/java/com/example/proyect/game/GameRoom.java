@@ -1,12 +1,14 @@
 package com.example.proyect.game;
 
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
@@ -14,10 +16,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.example.proyect.game.config.UnitBalanceRegistry;
+import com.example.proyect.game.units.Unit;
 import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.UnitStore;
 import com.example.proyect.game.units.drone.AerialDrone;
 import com.example.proyect.game.units.drone.Drone;
 import com.example.proyect.game.units.drone.NavalDrone;
+import com.example.proyect.metrics.jfr.RoomLockContendedEvent;
 
 /**
 me parece que este GameRoom sustituye nuestro Game o como es la movida
@@ -53,6 +58,17 @@ public class GameRoom {
     private static final double CARRIER_EDGE_MARGIN = 320.0;
     private static final double CARRIER_SPAWN_Y_MARGIN = 240.0;
 
+    // Distancia minima entre unidades para considerar una posicion ocupada
+    private static final double OCCUPANCY_TOLERANCE_PX = 15.0;
+
+    /** Tablero hexagonal compartido por todas las rooms (distancias, alcance y obstaculos). */
+    public static final HexGrid BOARD = new HexGrid(HexGrid.DEFAULT_HEX_SIZE_PX, WORLD_WIDTH, WORLD_HEIGHT);
+
+    // Un dron en el hangar sale desde el hex del carrier; el front lo despliega hasta 4 filas arriba o abajo
+    public static final int DEPLOY_RANGE_HEXES = 4;
+
+    public enum MoveCheck { OK, OUT_OF_BOARD, OUT_OF_RANGE, BLOCKED, HIDDEN_BLOCKED }
+
     private final List<PlayerState> players = new ArrayList<>();
     
     // Side selection state (Naval or Aereo)
@@ -72,6 +88,20 @@ public class GameRoom {
     private int navalCarrierHitsToDestroy;
     private final Map<Integer, Integer> carrierHealthByPlayer = new HashMap<>();
 
+    // Datos de los drones de la room por columnas; los Drone de cada PlayerState son vistas sobre sus slots
+    private final UnitStore units = new UnitStore(MAX_PLAYERS * AERIAL_DRONES_PER_PLAYER);
+
+    // Indices espaciales para chequeos de ocupacion, se actualizan al mover drones y carriers
+    private final SpatialHashGrid<Drone> droneGrid = new SpatialHashGrid<>();
+    private final SpatialHashGrid<Integer> carrierGrid = new SpatialHashGrid<>();
+    private final Unit.PositionListener droneGridUpdater = (unit, position) -> onDronePositionChanged((Drone) unit, position);
+
+    // Azar propio de la partida (tiradas de combate, spawn de carriers). Con la semilla y la
+    // cantidad de tiradas se reproduce la misma secuencia al cargar o al depurar una partida.
+    private long rngSeed;
+    private long rngDraws;
+    private SplittableRandom rng;
+
     public GameRoom(String roomId) {
         this(roomId, DEFAULT_ACTIONS_PER_TURN, DEFAULT_AERIAL_VISION_RANGE, DEFAULT_NAVAL_VISION_RANGE, DEFAULT_CARRIER_HITS_TO_DESTROY, DEFAULT_AERIAL_CARRIER_HITS_TO_DESTROY, DEFAULT_NAVAL_CARRIER_HITS_TO_DESTROY);
     }
@@ -115,6 +145,46 @@ public class GameRoom {
         this.aerialCarrierHitsToDestroy = aerialCarrierHitsToDestroy;
         this.navalCarrierHitsToDestroy = navalCarrierHitsToDestroy;
         this.actionsRemaining = actionsPerTurn;
+        reseed(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Reinicia el azar de la partida con la semilla dada.
+     */
+    public synchronized void reseed(long seed) {
+        this.rngSeed = seed;
+        this.rngDraws = 0;
+        this.rng = new SplittableRandom(seed);
+    }
+
+    public synchronized long getRngSeed() {
+        return rngSeed;
+    }
+
+    public synchronized long getRngDraws() {
+        return rngDraws;
+    }
+
+    /**
+     * Tirada uniforme en [0, 1) para resolver un ataque.
+     */
+    public synchronized double nextCombatRoll() {
+        rngDraws++;
+        return rng.nextDouble();
+    }
+
+    private double nextDouble(double origin, double bound) {
+        rngDraws++;
+        return rng.nextDouble(origin, bound);
+    }
+
+    // reconstruye el stream en el mismo punto (SplittableRandom no expone su estado)
+    private void restoreRng(long seed, long draws) {
+        reseed(seed);
+        for (long i = 0; i < draws; i++) {
+            rng.nextLong();
+        }
+        rngDraws = draws;
     }
 
     /**
@@ -139,13 +209,14 @@ public class GameRoom {
 
         PlayerState player = new PlayerState( sessionId, index, drones);
         players.add(player);
+        trackDrones(drones);
         initializeCarrierForPlayer(index);
         return player;
     }
 
     private void initializeCarrierForPlayer(int playerIndex) {
         carrierHealthByPlayer.put(playerIndex, getCarrierMaxHealth(playerIndex));
-        carrierPositions.put(playerIndex, playerSpawnAnchors.computeIfAbsent(playerIndex, this::getCarrierSpawnPosition));
+        placeCarrier(playerIndex, playerSpawnAnchors.computeIfAbsent(playerIndex, this::getCarrierSpawnPosition));
     }
     
     /*
@@ -162,7 +233,7 @@ public class GameRoom {
         Double yHint = previousAnchor != null ? previousAnchor.getY() : null;
         HexCoord sideAnchor = getCarrierSpawnPosition(playerIndex, yHint);
         playerSpawnAnchors.put(playerIndex, sideAnchor);
-        carrierPositions.put(playerIndex, sideAnchor);
+        placeCarrier(playerIndex, sideAnchor);
 
         boolean isNaval = "Naval".equals(side);
         int droneCount = isNaval ? NAVAL_DRONES_PER_PLAYER : AERIAL_DRONES_PER_PLAYER;
@@ -178,8 +249,10 @@ public class GameRoom {
         }
         
         // Replace drones in player state
+        untrackDrones(player.getDrones());
         player.getDrones().clear();
         player.getDrones().addAll(drones);
+        trackDrones(drones);
         player.setSide(side);
         carrierHealthByPlayer.put(playerIndex, getCarrierMaxHealth(playerIndex));
     }
@@ -219,7 +292,7 @@ public class GameRoom {
     private HexCoord getCarrierSpawnPosition(int playerIndex, Double spawnHintY) {
         double minY = CARRIER_SPAWN_Y_MARGIN;
         double maxY = Math.max(minY, WORLD_HEIGHT - CARRIER_SPAWN_Y_MARGIN);
-        double randomY = ThreadLocalRandom.current().nextDouble(minY, maxY + 1.0);
+        double randomY = nextDouble(minY, maxY + 1.0);
         double y = spawnHintY != null ? Math.max(minY, Math.min(maxY, spawnHintY)) : randomY;
 
         double leftX = CARRIER_EDGE_MARGIN;
@@ -257,9 +330,10 @@ public class GameRoom {
             PlayerState p = it.next();
             if (Objects.equals(p.getSessionId(), sessionId)) {
                 it.remove();
+                untrackDrones(p.getDrones());
                 playerSpawnAnchors.remove(p.getPlayerIndex());
                 carrierHealthByPlayer.remove(p.getPlayerIndex());
-                carrierPositions.remove(p.getPlayerIndex());
+                removeCarrier(p.getPlayerIndex());
                 return p;
             }
         }
@@ -269,30 +343,127 @@ public class GameRoom {
     /**
      * Move a drone. Returns true if the move was valid.
      */
-    public synchronized boolean moveDrone(String sessionId, int droneIndex, double x, double y) {
-        PlayerState player = getPlayerBySession(sessionId);
-        if (player == null) return false;
-        if (droneIndex < 0 || droneIndex >= player.getDrones().size()) return false;
+    public boolean moveDrone(String sessionId, int droneIndex, double x, double y) {
+        RoomLockContendedEvent lockWait = RoomLockContendedEvent.waiting();
+        synchronized (this) {
+            lockWait.acquired(roomId, "moveDrone");
+            PlayerState player = getPlayerBySession(sessionId);
+            if (player == null) return false;
+            if (droneIndex < 0 || droneIndex >= player.getDrones().size()) return false;
+
+            Drone drone = player.getDrones().get(droneIndex);
+            if (!drone.isAlive()) return false;
+
+            // Check if target position is occupied by another unit
+            HexCoord targetPos = new HexCoord(x, y);
+            if (isPositionOccupied(targetPos, drone)) {
+                log.warn("Move blocked: target position occupied at ({}, {})", x, y);
+                return false;
+            }
+
+            drone.setPosition(targetPos);
+            // First successful move = drone is deployed onto the battlefield.
+            // Restore full fuel first so hangar wait time doesn't penalise the player.
+            if (!drone.isDeployed()) {
+                drone.setDeployed(true);
+                drone.setFuel(drone.getMaxFuel());
+            }
+            consumeMovementFuel(drone);
+            return true;
+        }
+    }
 
-        Drone drone = player.getDrones().get(droneIndex);
-        if (!drone.isAlive()) return false;
+    /**
+     * Valida un movimiento de dron sobre el tablero: el destino tiene que estar dentro de
+     * getMovementRange() hexes y tener un camino que no pase por hexes ocupados por otras
+     * unidades. Un dron en el hangar se mide desde el hex de su carrier.
+     */
+    public synchronized MoveCheck checkDroneMove(int playerIndex, int droneIndex, double x, double y) {
+        return checkDroneMove(playerIndex, droneIndex, x, y, null);
+    }
 
-        // Check if target position is occupied by another unit
-        HexCoord targetPos = new HexCoord(x, y);
-        if (isPositionOccupied(targetPos, drone)) {
-            log.warn("Move blocked: target position occupied at ({}, {})", x, y);
-            return false;
+    /**
+     * Igual, pero BLOCKED solo cuenta las unidades que acepta visibleBlockers (las que ve el jugador).
+     * Si el camino solo choca con unidades que no ve, devuelve HIDDEN_BLOCKED, que no se debe
+     * explicar al cliente.
+     */
+    public synchronized MoveCheck checkDroneMove(int playerIndex, int droneIndex, double x, double y,
+                                                 BlockerFilter visibleBlockers) {
+        Drone drone = getDrone(playerIndex, droneIndex);
+        if (drone == null || !drone.isAlive()) {
+            return MoveCheck.BLOCKED;
+        }
+        int targetCell = BOARD.cellAt(x, y);
+        if (targetCell < 0) {
+            return MoveCheck.OUT_OF_BOARD;
         }
 
-        drone.setPosition(targetPos);
-        // First successful move = drone is deployed onto the battlefield.
-        // Restore full fuel first so hangar wait time doesn't penalise the player.
-        if (!drone.isDeployed()) {
-            drone.setDeployed(true);
-            drone.setFuel(drone.getMaxFuel());
+        MoveReach reach = moveReach(playerIndex, drone);
+        if (reach.fromCell() < 0 || HexGrid.distance(BOARD.keyOf(reach.fromCell()), BOARD.keyOf(targetCell)) > reach.range()) {
+            return MoveCheck.OUT_OF_RANGE;
+        }
+        if (BOARD.stepsTo(reach.fromCell(), targetCell, reach.range(), blockedCells(drone, visibleBlockers)) < 0) {
+            return MoveCheck.BLOCKED;
+        }
+        if (visibleBlockers != null && BOARD.stepsTo(reach.fromCell(), targetCell, reach.range(), blockedCells(drone, null)) < 0) {
+            return MoveCheck.HIDDEN_BLOCKED;
+        }
+        return MoveCheck.OK;
+    }
+
+    /**
+     * Hex de salida y alcance en hexes de un movimiento del dron. fromCell es -1 si esta fuera del tablero.
+     */
+    public record MoveReach(int fromCell, int range) {
+    }
+
+    public synchronized MoveReach moveReach(int playerIndex, Drone drone) {
+        if (drone.isDeployed() && drone.isPositioned()) {
+            return new MoveReach(BOARD.cellAt(drone.getX(), drone.getY()), drone.getMovementRange());
+        }
+        HexCoord carrier = getCarrierPosition(playerIndex);
+        return new MoveReach(BOARD.cellAt(carrier.getX(), carrier.getY()), Math.max(drone.getMovementRange(), DEPLOY_RANGE_HEXES));
+    }
+
+    /**
+     * Decide si una unidad cuenta como obstaculo. droneIndex es -1 para el carrier.
+     */
+    @FunctionalInterface
+    public interface BlockerFilter {
+        boolean blocks(int owner, int droneIndex);
+    }
+
+    /**
+     * Hexes ocupados por unidades en el campo (drones vivos desplegados y carriers), sin contar
+     * ignoreDrone. Con filter solo cuentan las unidades que acepta (p. ej. las que ve un jugador).
+     */
+    public synchronized BitSet blockedCells(Drone ignoreDrone, BlockerFilter filter) {
+        BitSet blocked = new BitSet(BOARD.cellCount());
+        for (PlayerState player : players) {
+            List<Drone> drones = player.getDrones();
+            for (int i = 0; i < drones.size(); i++) {
+                Drone drone = drones.get(i);
+                if (drone == ignoreDrone || !drone.isAlive() || !drone.isDeployed() || !drone.isPositioned()) {
+                    continue;
+                }
+                if (filter == null || filter.blocks(player.getPlayerIndex(), i)) {
+                    markBlocked(blocked, drone.getX(), drone.getY());
+                }
+            }
+        }
+        for (Map.Entry<Integer, HexCoord> carrier : carrierPositions.entrySet()) {
+            if (filter == null || filter.blocks(carrier.getKey(), -1)) {
+                markBlocked(blocked, carrier.getValue().getX(), carrier.getValue().getY());
+            }
+        }
+        return blocked;
+    }
+
+    private static void markBlocked(BitSet blocked, double x, double y) {
+        int cell = BOARD.cellAt(x, y);
+        if (cell >= 0) {
+            blocked.set(cell);
         }
-        consumeMovementFuel(drone);
-        return true;
     }
 
     public synchronized boolean consumeMovementFuel(Drone drone) {
@@ -313,21 +484,15 @@ public class GameRoom {
             return List.of();
         }
 
-        List<Integer> destroyedDroneIndexes = new ArrayList<>();
-        List<Drone> drones = activePlayer.getDrones();
-        for (int i = 0; i < drones.size(); i++) {
-            Drone drone = drones.get(i);
-            // Only consume idle fuel for drones that are deployed on the battlefield
-            if (!drone.isAlive() || !drone.isDeployed()) {
-                continue;
-            }
-            drone.consumeFuel(IDLE_FUEL_COST);
-            if (drone.getFuel() <= 0) {
-                destroyDroneByFuel(drone);
-                destroyedDroneIndexes.add(i);
-            }
-        }
-        return destroyedDroneIndexes;
+        // solo gastan combustible ocioso los drones desplegados en el campo de batalla
+        return units.consumeIdleFuel(activePlayer.getPlayerIndex(), IDLE_FUEL_COST);
+    }
+
+    /**
+     * true si al jugador le queda algun drone vivo.
+     */
+    public synchronized boolean hasAliveDrones(int playerIndex) {
+        return getPlayerByIndex(playerIndex) != null && units.anyAlive(playerIndex);
     }
 
     private void destroyDroneByFuel(Drone drone) {
@@ -342,22 +507,26 @@ public class GameRoom {
      * Recall a deployed drone back to its carrier, restoring fuel and missiles.
      * Returns true if the recall was valid and applied.
      */
-    public synchronized boolean recallDrone(String sessionId, int droneIndex) {
-        PlayerState player = getPlayerBySession(sessionId);
-        if (player == null) return false;
-        if (droneIndex < 0 || droneIndex >= player.getDrones().size()) return false;
-
-        Drone drone = player.getDrones().get(droneIndex);
-        if (!drone.isAlive()) return false;
-        if (!drone.isDeployed()) return false; // already in hangar
-        if (isCarrierDestroyed(player.getPlayerIndex())) return false;
-
-        drone.setDeployed(false);
-        drone.setFuel(drone.getMaxFuel());
-        if (drone instanceof NavalDrone navalDrone) {
-            navalDrone.setMissiles(NavalDrone.getConfiguredDefaultMissiles());
+    public boolean recallDrone(String sessionId, int droneIndex) {
+        RoomLockContendedEvent lockWait = RoomLockContendedEvent.waiting();
+        synchronized (this) {
+            lockWait.acquired(roomId, "recallDrone");
+            PlayerState player = getPlayerBySession(sessionId);
+            if (player == null) return false;
+            if (droneIndex < 0 || droneIndex >= player.getDrones().size()) return false;
+
+            Drone drone = player.getDrones().get(droneIndex);
+            if (!drone.isAlive()) return false;
+            if (!drone.isDeployed()) return false; // already in hangar
+            if (isCarrierDestroyed(player.getPlayerIndex())) return false;
+
+            drone.setDeployed(false);
+            drone.setFuel(drone.getMaxFuel());
+            if (drone instanceof NavalDrone navalDrone) {
+                navalDrone.setMissiles(NavalDrone.getConfiguredDefaultMissiles());
+            }
+            return true;
         }
-        return true;
     }
 
 
@@ -397,13 +566,19 @@ public class GameRoom {
      * Reset the room so new players can join.
      */
     public synchronized void reset() {
+        for (PlayerState player : players) {
+            untrackDrones(player.getDrones());
+        }
         players.clear();
         playerSides.clear();
         carrierHealthByPlayer.clear();
         carrierPositions.clear();
+        droneGrid.clear();
+        carrierGrid.clear();
         gameStarted = false;
         currentTurn = 0;
         actionsRemaining = actionsPerTurn;
+        reseed(ThreadLocalRandom.current().nextLong());
     }
 
     public synchronized int damageCarrier(int playerIndex, int attacks) {
@@ -417,18 +592,10 @@ public class GameRoom {
     }
 
     private void destroyUndeployedDronesInCarrier(int playerIndex) {
-        PlayerState player = getPlayerByIndex(playerIndex);
-        if (player == null) {
+        if (getPlayerByIndex(playerIndex) == null) {
             return;
         }
-
-        for (Drone drone : player.getDrones()) {
-            if (!drone.isAlive() || drone.isDeployed()) {
-                continue;
-            }
-            drone.setCurrentHp(0);
-            drone.receiveDamage(1);
-        }
+        units.destroyUndeployed(playerIndex);
     }
 
     public synchronized int getCarrierHealth(int playerIndex) {
@@ -528,9 +695,13 @@ public class GameRoom {
     /**
      * End the current turn and switch to the other player.
      */
-    public synchronized void endTurn() {
-        currentTurn = (currentTurn + 1) % MAX_PLAYERS;
-        actionsRemaining = actionsPerTurn;
+    public void endTurn() {
+        RoomLockContendedEvent lockWait = RoomLockContendedEvent.waiting();
+        synchronized (this) {
+            lockWait.acquired(roomId, "endTurn");
+            currentTurn = (currentTurn + 1) % MAX_PLAYERS;
+            actionsRemaining = actionsPerTurn;
+        }
     }
 
     // ========== Player/Drone Accessors ==========
@@ -556,22 +727,30 @@ public class GameRoom {
 
 
     public synchronized HexCoord getCarrierPosition(int playerIndex) {
-        return carrierPositions.computeIfAbsent(playerIndex, idx -> playerSpawnAnchors.computeIfAbsent(idx, this::getCarrierSpawnPosition));
+        HexCoord position = carrierPositions.get(playerIndex);
+        if (position == null) {
+            position = playerSpawnAnchors.computeIfAbsent(playerIndex, this::getCarrierSpawnPosition);
+            placeCarrier(playerIndex, position);
+        }
+        return position;
     }
 
-    public synchronized boolean moveCarrier(String sessionId, double x, double y) {
-        PlayerState player = getPlayerBySession(sessionId);
-        if (player == null) return false;
+    public boolean moveCarrier(String sessionId, double x, double y) {
+        RoomLockContendedEvent lockWait = RoomLockContendedEvent.waiting();
+        synchronized (this) {
+            lockWait.acquired(roomId, "moveCarrier");
+            PlayerState player = getPlayerBySession(sessionId);
+            if (player == null) return false;
 
-        HexCoord current = getCarrierPosition(player.getPlayerIndex());
-        HexCoord target = new HexCoord(x, y);
-        if (isPositionOccupiedByCarrierOrDrone(target, current, null)) {
-            return false;
-        }
+            HexCoord target = new HexCoord(x, y);
+            if (isPositionOccupiedByCarrierOrDrone(target, player.getPlayerIndex(), null)) {
+                return false;
+            }
 
-        carrierPositions.put(player.getPlayerIndex(), target);
-        playerSpawnAnchors.put(player.getPlayerIndex(), target);
-        return true;
+            placeCarrier(player.getPlayerIndex(), target);
+            playerSpawnAnchors.put(player.getPlayerIndex(), target);
+            return true;
+        }
     }
 
     /**
@@ -583,86 +762,112 @@ public class GameRoom {
      * @return true if position is occupied
      */
     public synchronized boolean isPositionOccupied(HexCoord position, Drone ignoreDrone) {
-        return isPositionOccupiedByCarrierOrDrone(position, null, ignoreDrone);
+        return isPositionOccupiedByCarrierOrDrone(position, -1, ignoreDrone);
+    }
+
+    /**
+     * Alive drones (any player) within the occupancy tolerance of a position.
+     */
+    public synchronized List<Drone> getDronesNear(HexCoord position) {
+        return droneGrid.within(position, OCCUPANCY_TOLERANCE_PX, Drone::isAlive);
     }
 
-    private boolean isPositionOccupiedByCarrierOrDrone(HexCoord position, HexCoord ignoreCarrierPosition, Drone ignoreDrone) {
+    private boolean isPositionOccupiedByCarrierOrDrone(HexCoord position, int ignoreCarrierPlayer, Drone ignoreDrone) {
         if (position == null) return false;
 
-        final double TOLERANCE_SQ = 15 * 15;
+        if (droneGrid.anyWithin(position, OCCUPANCY_TOLERANCE_PX, drone -> drone != ignoreDrone && drone.isAlive())) {
+            return true;
+        }
+        return carrierGrid.anyWithin(position, OCCUPANCY_TOLERANCE_PX, playerIndex -> playerIndex != ignoreCarrierPlayer);
+    }
 
-        for (PlayerState player : players) {
-            for (Drone drone : player.getDrones()) {
-                if (!drone.isAlive() || drone == ignoreDrone) continue;
-                HexCoord dronePos = drone.getPosition();
-                if (dronePos == null) continue;
-                double dx = dronePos.getX() - position.getX();
-                double dy = dronePos.getY() - position.getY();
-                if ((dx * dx + dy * dy) < TOLERANCE_SQ) return true;
+    // ========== Spatial index ==========
+
+    private synchronized void onDronePositionChanged(Drone drone, HexCoord position) {
+        droneGrid.put(drone, position);
+    }
+
+    private void trackDrones(List<Drone> drones) {
+        for (int i = 0; i < drones.size(); i++) {
+            Drone drone = drones.get(i);
+            drone.moveTo(units, i);
+            drone.setPositionListener(droneGridUpdater);
+            HexCoord position = drone.getPosition();
+            if (position != null) {
+                droneGrid.put(drone, position);
             }
         }
+    }
 
-        for (HexCoord carrierPos : carrierPositions.values()) {
-            if (carrierPos == null || carrierPos == ignoreCarrierPosition) continue;
-            double dx = carrierPos.getX() - position.getX();
-            double dy = carrierPos.getY() - position.getY();
-            if ((dx * dx + dy * dy) < TOLERANCE_SQ) return true;
+    private void untrackDrones(List<Drone> drones) {
+        for (Drone drone : drones) {
+            drone.setPositionListener(null);
+            droneGrid.remove(drone);
+            // la vista queda valida fuera de la room (p. ej. el PlayerState que devuelve removePlayer)
+            drone.detachFromStore();
         }
+    }
 
-        return false;
+    /** Slots ocupados en el store de unidades de la room. */
+    public synchronized int getStoredUnitCount() {
+        return units.size();
+    }
+
+    private void placeCarrier(int playerIndex, HexCoord position) {
+        carrierPositions.put(playerIndex, position);
+        carrierGrid.put(playerIndex, position);
+    }
+
+    private void removeCarrier(int playerIndex) {
+        carrierPositions.remove(playerIndex);
+        carrierGrid.remove(playerIndex);
     }
 
     /**
      * Serialize the full game state to a Map (for JSON).
      */
-    public synchronized Map<String, Object> toStateMap() {
-
-        log.info("[GameRoom] -> begin toStateMap {} ");
-
-        List<Map<String, Object>> playerMaps = new ArrayList<>();
-        for (PlayerState p : players) {
-            Map<String, Object> pm = new LinkedHashMap<>();
-            pm.put("playerIndex", p.getPlayerIndex());
-            pm.put("side", p.getSide());
-            pm.put("carrierHealth", getCarrierHealth(p.getPlayerIndex()));
-            pm.put("carrierMaxHealth", getCarrierMaxHealth(p.getPlayerIndex()));
-            pm.put("carrierDestroyed", isCarrierDestroyed(p.getPlayerIndex()));
-            HexCoord carrierPos = getCarrierPosition(p.getPlayerIndex());
-            pm.put("carrierX", carrierPos.getX());
-            pm.put("carrierY", carrierPos.getY());
-            log.info("Saving player {} side={}", p.getPlayerIndex(), p.getSide());
-            List<Map<String, Object>> droneMaps = new ArrayList<>();
-            for (Drone d : p.getDrones()) {
-                Map<String, Object> dm = new LinkedHashMap<>();
-                dm.put("x", d.getPosition().getX());
-                dm.put("y", d.getPosition().getY());
-                dm.put("health", d.getCurrentHp());
-                dm.put("maxHealth", d.getMaxHp());
-                dm.put("attackDamage", d.getWeapon().getDamage());
-                dm.put("attackRange", d.getWeapon().getRange());
-                dm.put("movementRange", d.getMovementRange());
-                dm.put("visionRange", d.getVisionRange());
-                dm.put("alive", d.isAlive());
-                dm.put("fuel", d.getFuel());
-                dm.put("maxFuel", d.getMaxFuel());
-                // Add drone type for frontend rendering
-                dm.put("droneType", d instanceof NavalDrone ? "Naval" : "Aereo");
-                dm.put("deployed", d.isDeployed());
-                if (d instanceof NavalDrone navalDrone) {
-                    dm.put("missiles", navalDrone.getMissiles());
-                } else {
-                    // Aerial drones use weapon ammo (bombs). Expose it as 'missiles' for a single
-                    // generic "munición" field in the frontend.
-                    dm.put("missiles", d.getWeapon() != null ? d.getWeapon().getAmmo() : 0);
+    public Map<String, Object> toStateMap() {
+        RoomLockContendedEvent lockWait = RoomLockContendedEvent.waiting();
+        synchronized (this) {
+            lockWait.acquired(roomId, "toStateMap");
+
+            List<Map<String, Object>> playerMaps = new ArrayList<>();
+            for (PlayerState p : players) {
+                Map<String, Object> pm = playerFields(p);
+                List<Map<String, Object>> droneMaps = new ArrayList<>();
+                for (Drone d : p.getDrones()) {
+                    droneMaps.add(droneFields(d));
                 }
-                droneMaps.add(dm);
+                pm.put("drones", droneMaps);
+                playerMaps.add(pm);
             }
-            pm.put("drones", droneMaps);
-            playerMaps.add(pm);
+
+            Map<String, Object> state = new LinkedHashMap<>();
+            state.put("players", playerMaps);
+            state.putAll(roomFields());
+            return state;
         }
+    }
+
+    /** Campos generales de toStateMap (todo menos "players"). */
+    public synchronized Map<String, Object> roomStateMap() {
+        return roomFields();
+    }
+
+    /** Campos de un jugador en toStateMap, sin la lista de drones. Null si el jugador no existe. */
+    public synchronized Map<String, Object> playerStateMap(int playerIndex) {
+        PlayerState player = getPlayerByIndex(playerIndex);
+        return player != null ? playerFields(player) : null;
+    }
 
+    /** Campos de un dron en toStateMap. Null si el dron no existe. */
+    public synchronized Map<String, Object> droneStateMap(int playerIndex, int droneIndex) {
+        Drone drone = getDrone(playerIndex, droneIndex);
+        return drone != null ? droneFields(drone) : null;
+    }
+
+    private Map<String, Object> roomFields() {
         Map<String, Object> state = new LinkedHashMap<>();
-        state.put("players", playerMaps);
         state.put("currentTurn", currentTurn);
         state.put("actionsRemaining", actionsRemaining);
         state.put("actionsPerTurn", actionsPerTurn);
@@ -672,16 +877,62 @@ public class GameRoom {
         state.put("aerialCarrierHitsToDestroy", aerialCarrierHitsToDestroy);
         state.put("navalCarrierHitsToDestroy", navalCarrierHitsToDestroy);
         state.put("gameStarted", gameStarted);
-        
-        log.info("[GameRoom] -> End toStateMap");
-        
+        return state;
+    }
+
+    private Map<String, Object> playerFields(PlayerState p) {
+        Map<String, Object> pm = new LinkedHashMap<>();
+        pm.put("playerIndex", p.getPlayerIndex());
+        pm.put("side", p.getSide());
+        pm.put("carrierHealth", getCarrierHealth(p.getPlayerIndex()));
+        pm.put("carrierMaxHealth", getCarrierMaxHealth(p.getPlayerIndex()));
+        pm.put("carrierDestroyed", isCarrierDestroyed(p.getPlayerIndex()));
+        HexCoord carrierPos = getCarrierPosition(p.getPlayerIndex());
+        pm.put("carrierX", carrierPos.getX());
+        pm.put("carrierY", carrierPos.getY());
+        return pm;
+    }
+
+    private static Map<String, Object> droneFields(Drone d) {
+        Map<String, Object> dm = new LinkedHashMap<>();
+        dm.put("x", d.getX());
+        dm.put("y", d.getY());
+        dm.put("health", d.getCurrentHp());
+        dm.put("maxHealth", d.getMaxHp());
+        dm.put("attackDamage", d.getWeapon().getDamage());
+        dm.put("attackRange", d.getWeapon().getRange());
+        dm.put("movementRange", d.getMovementRange());
+        dm.put("visionRange", d.getVisionRange());
+        dm.put("alive", d.isAlive());
+        dm.put("fuel", d.getFuel());
+        dm.put("maxFuel", d.getMaxFuel());
+        // Add drone type for frontend rendering
+        dm.put("droneType", d instanceof NavalDrone ? "Naval" : "Aereo");
+        dm.put("deployed", d.isDeployed());
+        if (d instanceof NavalDrone navalDrone) {
+            dm.put("missiles", navalDrone.getMissiles());
+        } else {
+            // Aerial drones use weapon ammo (bombs). Expose it as 'missiles' for a single
+            // generic "munición" field in the frontend.
+            dm.put("missiles", d.getWeapon() != null ? d.getWeapon().getAmmo() : 0);
+        }
+        return dm;
+    }
+
+    /**
+     * Estado para guardar la partida: el de toStateMap mas el azar de la room.
+     * La semilla no va en toStateMap porque ese estado tambien se manda a los clientes.
+     */
+    public synchronized Map<String, Object> toPersistedStateMap() {
+        Map<String, Object> state = toStateMap();
+        state.put("rngSeed", rngSeed);
+        state.put("rngDraws", rngDraws);
         return state;
     }
 
     @SuppressWarnings("unchecked")
     public static GameRoom fromStateMap(String roomId, Map<String, Object> stateMap) {
-        log.info("[GameRoom] -> begin fromStateMap ");
-        log.info("[GameRoom] -> restoring stateMap {}", stateMap);
+        log.debug("[GameRoom] -> restoring stateMap {}", stateMap);
 
         if (stateMap == null) {
             throw new IllegalArgumentException("stateMap is required");
@@ -816,10 +1067,11 @@ public class GameRoom {
             );
             
                         
-            log.info("[GameRoom] -> el playerState es {}", player);
+            log.debug("[GameRoom] -> el playerState es {}", player);
 
             player.setSide(side);
             room.players.add(player);
+            room.trackDrones(drones);
             room.playerSides.put(playerIndex, side);
             int carrierMaxHealth = room.getCarrierMaxHealth(playerIndex);
             int carrierHealth = getOptionalNonNegativeIntField(rawPlayer, "carrierHealth", carrierMaxHealth);
@@ -830,11 +1082,21 @@ public class GameRoom {
             double carrierX = getOptionalDoubleField(rawPlayer, "carrierX", room.getCarrierPosition(playerIndex).getX());
             double carrierY = getOptionalDoubleField(rawPlayer, "carrierY", room.getCarrierPosition(playerIndex).getY());
             HexCoord restoredCarrier = new HexCoord(carrierX, carrierY);
-            room.carrierPositions.put(playerIndex, restoredCarrier);
+            room.placeCarrier(playerIndex, restoredCarrier);
             room.playerSpawnAnchors.put(playerIndex, restoredCarrier);
         }
 
-        log.info("[GameRoom] -> End fromStateMap");
+        // al final: restaurar los carriers de arriba puede consumir tiradas de spawn
+        if (stateMap.get("rngSeed") != null) {
+            long rngSeed = getLongField(stateMap, "rngSeed");
+            long rngDraws = stateMap.get("rngDraws") != null ? getLongField(stateMap, "rngDraws") : 0L;
+            if (rngDraws < 0) {
+                throw new IllegalArgumentException("rngDraws must be >= 0");
+            }
+            room.restoreRng(rngSeed, rngDraws);
+        }
+
+        log.debug("[GameRoom] -> End fromStateMap");
         
         return room;
     }
@@ -848,6 +1110,14 @@ public class GameRoom {
         return ((Number) value).intValue();
     }
 
+    private static long getLongField(Map<?, ?> map, String field) {
+        Object value = map.get(field);
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        return ((Number) value).longValue();
+    }
+
     private static double getDoubleField(Map<?, ?> map, String field) {
         Object value = map.get(field);
         if (!(value instanceof Number)) {
@@ -918,8 +1188,10 @@ public class GameRoom {
      * Copies players, sides, turn state from source into this room.
      */
     public synchronized void restoreFrom(GameRoom source) {
-         log.info("[GameRoom] -> begin restoreFrom ");
-         log.info("[GameRoom] -> restoring  {}", source);
+         log.debug("[GameRoom] -> restoring  {}", source);
+        for (PlayerState player : this.players) {
+            untrackDrones(player.getDrones());
+        }
         this.players.clear();
         this.players.addAll(source.players);
         this.playerSides.clear();
@@ -933,10 +1205,20 @@ public class GameRoom {
         this.carrierHitsToDestroy = source.carrierHitsToDestroy;
         this.aerialCarrierHitsToDestroy = source.aerialCarrierHitsToDestroy;
         this.navalCarrierHitsToDestroy = source.navalCarrierHitsToDestroy;
+        this.rngSeed = source.rngSeed;
+        this.rngDraws = source.rngDraws;
+        this.rng = source.rng;
         this.carrierHealthByPlayer.clear();
         this.carrierHealthByPlayer.putAll(source.carrierHealthByPlayer);
         this.carrierPositions.clear();
-        this.carrierPositions.putAll(source.carrierPositions);
-        log.info("[GameRoom] -> End restoreFrom ");
+        this.droneGrid.clear();
+        this.carrierGrid.clear();
+        for (PlayerState player : this.players) {
+            trackDrones(player.getDrones());
+        }
+        for (Map.Entry<Integer, HexCoord> carrier : source.carrierPositions.entrySet()) {
+            placeCarrier(carrier.getKey(), carrier.getValue());
+        }
+        log.debug("[GameRoom] -> End restoreFrom ");
     }
 }
@@ -0,0 +1,271 @@
+package com.example.proyect.game;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Tablero hexagonal autoritativo del servidor (pointy-top, igual que utils/HexGrid.js del front).
+ *
+ * Una celda se identifica por su coordenada axial (q, r) empaquetada en un int (key). Dentro del
+ * tablero ademas tiene un indice denso (cell = row * cols + col, en el layout "odd-r" del front),
+ * que es el que usan la tabla de vecinos y los BitSet de obstaculos y alcance.
+ *
+ * Todas las distancias son enteras: |dq| + |dr| + |dq + dr| / 2, sin raices ni divisiones por el
+ * ancho del hex. Los pixeles solo aparecen al convertir lo que manda el cliente (keyAt) y al
+ * devolver el centro de una celda (centerX/centerY).
+ *
+ * Es inmutable despues de construirlo, asi que una instancia se comparte entre rooms e hilos.
+ */
+public final class HexGrid {
+
+    /** Tamaño del hex en pixeles (centro a vertice). Debe coincidir con el HexGrid del front. */
+    public static final double DEFAULT_HEX_SIZE_PX = 35.0;
+
+    // Direcciones axiales: E, NE, NW, W, SW, SE
+    private static final int[] DIRECTION_Q = {1, 1, 0, -1, -1, 0};
+    private static final int[] DIRECTION_R = {0, -1, -1, 0, 1, 1};
+    public static final int DIRECTIONS = 6;
+
+    // Anillos precalculados (offsets axiales empaquetados) hasta este radio; mas alla se calculan
+    private static final int RING_TABLE_RADIUS = 16;
+    private static final int[][] RINGS = new int[RING_TABLE_RADIUS + 1][];
+
+    static {
+        for (int radius = 0; radius <= RING_TABLE_RADIUS; radius++) {
+            RINGS[radius] = computeRing(radius);
+        }
+    }
+
+    private final double size;
+    private final double width;
+    private final int cols;
+    private final int rows;
+    // neighbors[cell * 6 + dir] = celda vecina, o -1 si se sale del tablero
+    private final int[] neighbors;
+
+    public HexGrid(double size, double worldWidth, double worldHeight) {
+        if (!(size > 0)) {
+            throw new IllegalArgumentException("size must be > 0");
+        }
+        this.size = size;
+        this.width = Math.sqrt(3.0) * size;
+        // mismas filas y columnas que dibuja HexGrid.draw() del front
+        this.cols = (int) Math.ceil(worldWidth / width) + 1;
+        this.rows = (int) Math.ceil(worldHeight / (2.0 * size * 0.75)) + 1;
+        this.neighbors = new int[cols * rows * DIRECTIONS];
+        for (int cell = 0; cell < cols * rows; cell++) {
+            int key = keyOf(cell);
+            for (int dir = 0; dir < DIRECTIONS; dir++) {
+                neighbors[cell * DIRECTIONS + dir] = cellOf(pack(q(key) + DIRECTION_Q[dir], r(key) + DIRECTION_R[dir]));
+            }
+        }
+    }
+
+    // ========== Coordenadas ==========
+
+    public static int pack(int q, int r) {
+        return (q << 16) | (r & 0xFFFF);
+    }
+
+    public static int q(int key) {
+        return key >> 16;
+    }
+
+    public static int r(int key) {
+        return (short) key;
+    }
+
+    /**
+     * Distancia en hexes entre dos celdas.
+     */
+    public static int distance(int a, int b) {
+        int dq = q(a) - q(b);
+        int dr = r(a) - r(b);
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
+    }
+
+    /**
+     * Pixel a celda axial redondeada (cube rounding), para cualquier tamaño de hex.
+     */
+    public static int keyAt(double x, double y, double size) {
+        double fq = (Math.sqrt(3.0) / 3.0 * x - y / 3.0) / size;
+        double fr = (2.0 / 3.0 * y) / size;
+        double fs = -fq - fr;
+
+        long rq = Math.round(fq);
+        long rr = Math.round(fr);
+        long rs = Math.round(fs);
+
+        double dq = Math.abs(rq - fq);
+        double dr = Math.abs(rr - fr);
+        double ds = Math.abs(rs - fs);
+        if (dq > dr && dq > ds) {
+            rq = -rr - rs;
+        } else if (dr > ds) {
+            rr = -rq - rs;
+        }
+        return pack((int) rq, (int) rr);
+    }
+
+    public int keyAt(double x, double y) {
+        return keyAt(x, y, size);
+    }
+
+    /**
+     * Distancia en hexes entre dos posiciones en pixeles.
+     */
+    public int distance(double x1, double y1, double x2, double y2) {
+        return distance(keyAt(x1, y1), keyAt(x2, y2));
+    }
+
+    public double centerX(int key) {
+        return width * (q(key) + r(key) / 2.0);
+    }
+
+    public double centerY(int key) {
+        return size * 1.5 * r(key);
+    }
+
+    public static int neighbor(int key, int direction) {
+        return pack(q(key) + DIRECTION_Q[direction], r(key) + DIRECTION_R[direction]);
+    }
+
+    // ========== Celdas del tablero ==========
+
+    public int cellCount() {
+        return cols * rows;
+    }
+
+    /** Indice denso de la celda, o -1 si esta fuera del tablero. */
+    public int cellOf(int key) {
+        int row = r(key);
+        int col = q(key) + (row >> 1);
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            return -1;
+        }
+        return row * cols + col;
+    }
+
+    public int cellAt(double x, double y) {
+        return cellOf(keyAt(x, y));
+    }
+
+    public int keyOf(int cell) {
+        int row = cell / cols;
+        int col = cell % cols;
+        return pack(col - (row >> 1), row);
+    }
+
+    /** Celda vecina en esa direccion, o -1 si se sale del tablero. */
+    public int neighborCell(int cell, int direction) {
+        return neighbors[cell * DIRECTIONS + direction];
+    }
+
+    /**
+     * Offsets axiales (empaquetados) de las celdas a exactamente radius hexes del origen.
+     * Hasta RING_TABLE_RADIUS sale de la tabla; no modificar el array devuelto.
+     */
+    public static int[] ringOffsets(int radius) {
+        if (radius < 0) {
+            throw new IllegalArgumentException("radius must be >= 0");
+        }
+        return radius <= RING_TABLE_RADIUS ? RINGS[radius] : computeRing(radius);
+    }
+
+    /**
+     * Celdas del tablero a radius hexes o menos del centro, ordenadas por anillo.
+     */
+    public int[] cellsWithin(int centerKey, int radius) {
+        int[] cells = new int[1 + 3 * radius * (radius + 1)];
+        int count = 0;
+        for (int ring = 0; ring <= radius; ring++) {
+            for (int offset : ringOffsets(ring)) {
+                int cell = cellOf(pack(q(centerKey) + q(offset), r(centerKey) + r(offset)));
+                if (cell >= 0) {
+                    cells[count++] = cell;
+                }
+            }
+        }
+        return count == cells.length ? cells : Arrays.copyOf(cells, count);
+    }
+
+    private static int[] computeRing(int radius) {
+        if (radius == 0) {
+            return new int[] {pack(0, 0)};
+        }
+        int[] ring = new int[DIRECTIONS * radius];
+        int count = 0;
+        // arranca radius pasos al SW (direccion 4) y camina el anillo lado por lado
+        int q = DIRECTION_Q[4] * radius;
+        int r = DIRECTION_R[4] * radius;
+        for (int side = 0; side < DIRECTIONS; side++) {
+            for (int step = 0; step < radius; step++) {
+                ring[count++] = pack(q, r);
+                q += DIRECTION_Q[side];
+                r += DIRECTION_R[side];
+            }
+        }
+        return ring;
+    }
+
+    // ========== Alcance ==========
+
+    /**
+     * Celdas alcanzables desde from en range pasos o menos sin entrar en celdas bloqueadas
+     * (BFS sobre la tabla de vecinos). La celda de origen siempre esta incluida.
+     */
+    public BitSet reachable(int fromCell, int range, BitSet blocked) {
+        BitSet visited = new BitSet(cellCount());
+        if (fromCell < 0) {
+            return visited;
+        }
+        bfs(fromCell, -1, range, blocked, visited);
+        return visited;
+    }
+
+    /**
+     * Pasos del camino mas corto de from a to sin pasar por celdas bloqueadas, o -1 si no hay
+     * camino de range pasos o menos. El BFS corta apenas llega al destino.
+     */
+    public int stepsTo(int fromCell, int toCell, int range, BitSet blocked) {
+        if (fromCell < 0 || toCell < 0) {
+            return -1;
+        }
+        if (fromCell == toCell) {
+            return 0;
+        }
+        // ni sin obstaculos llega: no hace falta recorrer nada
+        if (distance(keyOf(fromCell), keyOf(toCell)) > range) {
+            return -1;
+        }
+        return bfs(fromCell, toCell, range, blocked, new BitSet(cellCount()));
+    }
+
+    private int bfs(int fromCell, int toCell, int range, BitSet blocked, BitSet visited) {
+        // un disco de radio range tiene 1 + 3r(r+1) celdas: la cola nunca necesita mas
+        int[] queue = new int[Math.min(cellCount(), 1 + 3 * range * (range + 1))];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = fromCell;
+        visited.set(fromCell);
+
+        for (int depth = 0; depth < range && head < tail; depth++) {
+            int levelEnd = tail;
+            while (head < levelEnd) {
+                int cell = queue[head++];
+                for (int dir = 0; dir < DIRECTIONS; dir++) {
+                    int next = neighbors[cell * DIRECTIONS + dir];
+                    if (next < 0 || visited.get(next) || (blocked != null && blocked.get(next))) {
+                        continue;
+                    }
+                    if (next == toCell) {
+                        return depth + 1;
+                    }
+                    visited.set(next);
+                    queue[tail++] = next;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.proyect.game;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hexes alcanzables por dron, cacheados por room para las consultas de previewMoves.
+ *
+ * Una entrada vale mientras el dron sale del mismo hex con el mismo alcance y los obstaculos
+ * dentro de ese alcance sean los mismos: cada entrada guarda la foto de los hexes bloqueados de
+ * su disco y se compara contra la ocupacion actual. Que se mueva, muera o se despliegue una
+ * unidad lejos no invalida nada; cambiar un hex del disco si. La comparacion recorre el disco
+ * (1 + 3r(r+1) celdas), bastante menos que el BFS y armar la lista de centros.
+ *
+ * Lo usa el hilo de la room; igual se sincroniza por si se consulta desde afuera.
+ */
+public class ReachableHexCache {
+
+    private final HexGrid board;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long hits;
+    private long misses;
+
+    private record Entry(int fromCell, int range, int[] disk, BitSet blockedInDisk, int[] reachable) {
+    }
+
+    public ReachableHexCache(HexGrid board) {
+        this.board = board;
+    }
+
+    /**
+     * Celdas (indices densos del tablero) alcanzables por el dron, ordenadas. No modificar el array.
+     */
+    public synchronized int[] reachable(int playerIndex, int droneIndex, int fromCell, int range, BitSet blocked) {
+        long key = ((long) playerIndex << 32) | (droneIndex & 0xFFFFFFFFL);
+        Entry entry = entries.get(key);
+        if (entry != null && entry.fromCell() == fromCell && entry.range() == range && sameBlockers(entry, blocked)) {
+            hits++;
+            return entry.reachable();
+        }
+        misses++;
+
+        int[] disk = fromCell >= 0 ? board.cellsWithin(board.keyOf(fromCell), range) : new int[0];
+        BitSet blockedInDisk = new BitSet(board.cellCount());
+        for (int cell : disk) {
+            if (blocked.get(cell)) {
+                blockedInDisk.set(cell);
+            }
+        }
+        int[] reachable = board.reachable(fromCell, range, blocked).stream().toArray();
+        entries.put(key, new Entry(fromCell, range, disk, blockedInDisk, reachable));
+        return reachable;
+    }
+
+    private static boolean sameBlockers(Entry entry, BitSet blocked) {
+        for (int cell : entry.disk()) {
+            if (blocked.get(cell) != entry.blockedInDisk().get(cell)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.proyect.game;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.config.RoomExecutorProperties;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Serializa los comandos de cada room en un unico hilo (modo actor opcional).
+ *
+ * Cada room se asigna por hash a un shard de un solo hilo, asi todos sus comandos
+ * se ejecutan en orden y sin competir por el monitor del GameRoom. Los hilos de
+ * Tomcat solo encolan. Con el modo deshabilitado el comando corre en el hilo llamador.
+ */
+@Component
+public class RoomCommandDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomCommandDispatcher.class);
+
+    private final boolean enabled;
+    private final ExecutorService[] shards;
+
+    @Autowired
+    public RoomCommandDispatcher(RoomExecutorProperties properties) {
+        this(properties.isEnabled(), properties.resolveShardCount());
+    }
+
+    public RoomCommandDispatcher(boolean enabled, int shardCount) {
+        this.enabled = enabled;
+        if (!enabled) {
+            this.shards = new ExecutorService[0];
+            return;
+        }
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be > 0");
+        }
+        this.shards = new ExecutorService[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            this.shards[i] = Executors.newSingleThreadExecutor(namedThreadFactory("room-shard-" + i));
+        }
+        log.info("Room command dispatcher enabled with {} shards", shardCount);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Ejecuta el comando en el shard de la room. Comandos con la misma clave nunca corren en paralelo
+     * y se ejecutan en el orden en que fueron encolados.
+     */
+    public void dispatch(String roomKey, Runnable command) {
+        if (!enabled) {
+            command.run();
+            return;
+        }
+
+        try {
+            shards[shardIndex(roomKey)].execute(() -> runSafely(roomKey, command));
+        } catch (RejectedExecutionException ex) {
+            log.warn("Room command for {} rejected, dispatcher is shutting down", roomKey);
+        }
+    }
+
+    private int shardIndex(String roomKey) {
+        int hash = roomKey != null ? roomKey.hashCode() : 0;
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    private void runSafely(String roomKey, Runnable command) {
+        try {
+            command.run();
+        } catch (RuntimeException ex) {
+            log.error("Room command failed for {}", roomKey, ex);
+        }
+    }
+
+    private static ThreadFactory namedThreadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService shard : shards) {
+            shard.shutdown();
+        }
+        for (ExecutorService shard : shards) {
+            try {
+                if (!shard.awaitTermination(2, TimeUnit.SECONDS)) {
+                    shard.shutdownNow();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                shard.shutdownNow();
+            }
+        }
+    }
+}
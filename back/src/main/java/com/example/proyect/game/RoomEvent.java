@@ -0,0 +1,44 @@
+package com.example.proyect.game;
+
+import java.util.Map;
+
+/**
+ * Comandos aceptados de una room, tal como se guardan en el journal (RoomJournal).
+ *
+ * Un Snapshot marca el punto de partida; el resto se vuelve a aplicar en orden sobre ese estado.
+ * Solo se journalizan comandos que ya pasaron la validacion, asi que el replay no deberia
+ * rechazar ninguno.
+ */
+public sealed interface RoomEvent {
+
+    /** Estado completo de la room (toPersistedStateMap, incluye semilla y tiradas del RNG). */
+    record Snapshot(Map<String, Object> state) implements RoomEvent {
+    }
+
+    /** Comando de un jugador. */
+    sealed interface Command extends RoomEvent {
+        int playerIndex();
+    }
+
+    record Move(int playerIndex, int droneIndex, double x, double y) implements Command {
+    }
+
+    record CarrierMove(int playerIndex, double x, double y) implements Command {
+    }
+
+    /**
+     * Ataque con los mismos parametros que processAttack. rngDraws es el contador de tiradas de la
+     * room despues del ataque: el replay lo compara para detectar divergencias.
+     */
+    record Attack(int playerIndex, int attackerIndex, int targetPlayerIndex, int targetDroneIndex,
+                  Double lineX, Double lineY, Double destinationX, Double destinationY,
+                  String targetType, long rngDraws) implements Command {
+    }
+
+    record Recall(int playerIndex, int droneIndex) implements Command {
+    }
+
+    /** Fin de turno pedido por el jugador, o por el reloj de turno si timedOut. */
+    record EndTurn(int playerIndex, boolean timedOut) implements Command {
+    }
+}
@@ -0,0 +1,416 @@
+package com.example.proyect.game;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.config.RoomJournalProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Journal de comandos por partida (event sourcing de la room).
+ *
+ * Cada comando aceptado se agrega como una linea corta al buffer en memoria de su partida; un
+ * unico hilo vuelca los buffers cada flushIntervalMs al segmento append-only de la partida
+ * (<directory>/game-<id>.journal). Un snapshot ("S <json>") se escribe al empezar, al guardar y al
+ * cargar la partida; despues solo se agregan comandos, asi que un autosave cuesta una linea y no
+ * reescribir el JSONB completo.
+ *
+ * readFromLastSnapshot devuelve el ultimo snapshot y los comandos que lo siguen (recuperacion) y
+ * readAll la partida completa leida a demanda (replay de partidas terminadas); el replay lo hace
+ * GameController con la misma logica de los comandos. Lo que estaba en memoria y no se llego a
+ * volcar se pierde si el proceso cae (como mucho flushIntervalMs de jugadas).
+ *
+ * Retencion: una vez por hora se borran los segmentos sin escrituras en retentionDays. Un segmento
+ * deja de crecer cuando la partida termina, asi que una partida terminada se puede ver en replay
+ * durante ese plazo. Una partida abandonada sin terminar vuelve a su ultimo save explicito en la base.
+ */
+@Component
+public class RoomJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(RoomJournal.class);
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<>() {
+    };
+    private static final long PURGE_INTERVAL_MINUTES = 60;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("game-(\\d+)\\.journal");
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long flushIntervalMs;
+    private final boolean fsync;
+    private final Duration retention;
+
+    private final Object lock = new Object();
+    // un volcado a la vez, para no desordenar las lineas de una misma partida
+    private final Object flushLock = new Object();
+    // lineas pendientes por partida, en orden de llegada
+    private Map<Long, StringBuilder> pending = new LinkedHashMap<>();
+    private ScheduledExecutorService writer;
+
+    public RoomJournal(RoomJournalProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.directory = Paths.get(properties.getDirectory());
+        this.flushIntervalMs = Math.max(1, properties.getFlushIntervalMs());
+        this.fsync = properties.isFsync();
+        this.retention = properties.getRetentionDays() > 0 ? Duration.ofDays(properties.getRetentionDays()) : null;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory.toAbsolutePath());
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot create room journal directory " + directory, ex);
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "room-journal-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        if (retention != null) {
+            writer.scheduleWithFixedDelay(this::purgeExpiredSafely, 1, PURGE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        }
+        log.info("Room journal enabled (directory={}, interval={}ms, retention={})", directory, flushIntervalMs, retention);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Agrega un evento al buffer de la partida. No toca el disco.
+     */
+    public void append(long gameId, RoomEvent event) {
+        if (!enabled) {
+            return;
+        }
+        String line = formatLine(event);
+        synchronized (lock) {
+            pending.computeIfAbsent(gameId, id -> new StringBuilder()).append(line).append('\n');
+        }
+    }
+
+    public int pendingGames() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    /**
+     * Vuelca todos los buffers a sus segmentos. Si un segmento falla, sus lineas vuelven al buffer
+     * delante de las que llegaron mientras tanto.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            Map<Long, StringBuilder> batch;
+            synchronized (lock) {
+                if (pending.isEmpty()) {
+                    return;
+                }
+                batch = pending;
+                pending = new LinkedHashMap<>();
+            }
+
+            IOException failure = null;
+            for (Map.Entry<Long, StringBuilder> entry : batch.entrySet()) {
+                try {
+                    writeSegment(entry.getKey(), entry.getValue());
+                } catch (IOException ex) {
+                    failure = ex;
+                    synchronized (lock) {
+                        StringBuilder newer = pending.remove(entry.getKey());
+                        StringBuilder restored = entry.getValue();
+                        if (newer != null) {
+                            restored.append(newer);
+                        }
+                        pending.put(entry.getKey(), restored);
+                    }
+                }
+            }
+            if (failure != null) {
+                throw new UncheckedIOException("Cannot append to room journal", failure);
+            }
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Room journal flush failed, {} games stay buffered: {}", pendingGames(), ex.getMessage());
+        }
+    }
+
+    private void writeSegment(long gameId, StringBuilder lines) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(gameId),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Borra los segmentos sin escrituras desde hace mas de retentionDays (los que tienen lineas
+     * pendientes nunca). Devuelve cuantos borro.
+     */
+    public int purgeExpired(Instant now) {
+        if (!enabled || retention == null) {
+            return 0;
+        }
+        Instant cutoff = now.minus(retention);
+        int deleted = 0;
+        // con flushLock no se borra un segmento mientras se le agregan lineas
+        synchronized (flushLock) {
+            try (DirectoryStream<Path> segments = Files.newDirectoryStream(directory, "game-*.journal")) {
+                for (Path segment : segments) {
+                    Matcher name = SEGMENT_NAME.matcher(segment.getFileName().toString());
+                    if (!name.matches() || hasPending(Long.parseLong(name.group(1)))) {
+                        continue;
+                    }
+                    if (Files.getLastModifiedTime(segment).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(segment);
+                        deleted++;
+                    }
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Cannot purge room journal " + directory, ex);
+            }
+        }
+        if (deleted > 0) {
+            log.info("Room journal purged {} segments older than {}", deleted, retention);
+        }
+        return deleted;
+    }
+
+    private void purgeExpiredSafely() {
+        try {
+            purgeExpired(Instant.now());
+        } catch (RuntimeException ex) {
+            log.warn("Room journal purge failed: {}", ex.getMessage());
+        }
+    }
+
+    Path segmentPath(long gameId) {
+        return directory.resolve("game-" + gameId + ".journal");
+    }
+
+    /**
+     * Ultimo snapshot de la partida seguido de los comandos posteriores, o lista vacia si no hay
+     * journal (o no tiene ningun snapshot). Vuelca antes lo pendiente para leer todo lo aceptado.
+     */
+    public List<RoomEvent> readFromLastSnapshot(long gameId) {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+        flushSafely();
+        Path segment = segmentPath(gameId);
+        if (!Files.exists(segment)) {
+            return Collections.emptyList();
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            log.warn("Cannot read room journal {}: {}", segment, ex.getMessage());
+            return Collections.emptyList();
+        }
+
+        List<RoomEvent> events = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            RoomEvent event = parseLine(line);
+            if (event == null) {
+                continue;
+            }
+            if (event instanceof RoomEvent.Snapshot) {
+                events.clear();
+            }
+            if (events.isEmpty() && !(event instanceof RoomEvent.Snapshot)) {
+                // comandos anteriores al primer snapshot: no hay de donde partir
+                continue;
+            }
+            events.add(event);
+        }
+        return events;
+    }
+
+    public boolean hasJournal(long gameId) {
+        return enabled && (Files.exists(segmentPath(gameId)) || hasPending(gameId));
+    }
+
+    private boolean hasPending(long gameId) {
+        synchronized (lock) {
+            return pending.containsKey(gameId);
+        }
+    }
+
+    /**
+     * Todos los eventos de la partida en orden, leidos del segmento a medida que se consumen
+     * (no se carga la partida entera en memoria). Hay que cerrar el stream.
+     */
+    public Stream<RoomEvent> readAll(long gameId) {
+        if (!enabled) {
+            return Stream.empty();
+        }
+        flushSafely();
+        Path segment = segmentPath(gameId);
+        if (!Files.exists(segment)) {
+            return Stream.empty();
+        }
+        try {
+            return Files.lines(segment, StandardCharsets.UTF_8)
+                .filter(line -> !line.isBlank())
+                .map(RoomJournal::parseLine)
+                .filter(Objects::nonNull);
+        } catch (IOException ex) {
+            log.warn("Cannot read room journal {}: {}", segment, ex.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    // ========== Formato ==========
+    // S <json> | M p d x y | C p x y | A p a tp td lineX lineY destX destY targetType draws
+    // R p d | E p | T p   (null = "-")
+
+    static String formatLine(RoomEvent event) {
+        if (event instanceof RoomEvent.Snapshot snapshot) {
+            try {
+                return "S " + MAPPER.writeValueAsString(snapshot.state());
+            } catch (JsonProcessingException ex) {
+                throw new IllegalArgumentException("Cannot serialize room snapshot", ex);
+            }
+        }
+        if (event instanceof RoomEvent.Move move) {
+            return "M " + move.playerIndex() + " " + move.droneIndex() + " " + move.x() + " " + move.y();
+        }
+        if (event instanceof RoomEvent.CarrierMove carrier) {
+            return "C " + carrier.playerIndex() + " " + carrier.x() + " " + carrier.y();
+        }
+        if (event instanceof RoomEvent.Attack attack) {
+            return "A " + attack.playerIndex() + " " + attack.attackerIndex()
+                + " " + attack.targetPlayerIndex() + " " + attack.targetDroneIndex()
+                + " " + formatNullable(attack.lineX()) + " " + formatNullable(attack.lineY())
+                + " " + formatNullable(attack.destinationX()) + " " + formatNullable(attack.destinationY())
+                + " " + formatNullable(attack.targetType()) + " " + attack.rngDraws();
+        }
+        if (event instanceof RoomEvent.Recall recall) {
+            return "R " + recall.playerIndex() + " " + recall.droneIndex();
+        }
+        if (event instanceof RoomEvent.EndTurn endTurn) {
+            return (endTurn.timedOut() ? "T " : "E ") + endTurn.playerIndex();
+        }
+        throw new IllegalArgumentException("Unknown room event " + event);
+    }
+
+    static RoomEvent parseLine(String line) {
+        try {
+            if (line.startsWith("S ")) {
+                return new RoomEvent.Snapshot(MAPPER.readValue(line.substring(2), STATE_TYPE));
+            }
+            String[] parts = line.trim().split(" ");
+            return switch (parts[0]) {
+                case "M" -> {
+                    requireParts(parts, 5);
+                    yield new RoomEvent.Move(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Double.parseDouble(parts[3]), Double.parseDouble(parts[4]));
+                }
+                case "C" -> {
+                    requireParts(parts, 4);
+                    yield new RoomEvent.CarrierMove(Integer.parseInt(parts[1]),
+                        Double.parseDouble(parts[2]), Double.parseDouble(parts[3]));
+                }
+                case "A" -> {
+                    requireParts(parts, 11);
+                    yield new RoomEvent.Attack(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]),
+                        parseDouble(parts[5]), parseDouble(parts[6]), parseDouble(parts[7]), parseDouble(parts[8]),
+                        "-".equals(parts[9]) ? null : parts[9], Long.parseLong(parts[10]));
+                }
+                case "R" -> {
+                    requireParts(parts, 3);
+                    yield new RoomEvent.Recall(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                }
+                case "E", "T" -> {
+                    requireParts(parts, 2);
+                    yield new RoomEvent.EndTurn(Integer.parseInt(parts[1]), "T".equals(parts[0]));
+                }
+                default -> throw new IllegalArgumentException("unknown event type");
+            };
+        } catch (IOException | RuntimeException ex) {
+            // linea cortada por una caida a mitad de escritura
+            log.warn("Skipping malformed room journal line: '{}'", line);
+            return null;
+        }
+    }
+
+    private static void requireParts(String[] parts, int expected) {
+        if (parts.length != expected) {
+            throw new IllegalArgumentException("expected " + expected + " fields");
+        }
+    }
+
+    private static String formatNullable(Object value) {
+        return value != null ? value.toString() : "-";
+    }
+
+    private static Double parseDouble(String value) {
+        return "-".equals(value) ? null : Double.valueOf(value);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            writer.awaitTermination(2, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flushSafely();
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.proyect.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import com.example.proyect.game.units.Unit.HexCoord;
+
+/**
+ * Indice espacial por celdas hexagonales (pointy-top, igual que utils/HexGrid.js del front).
+ *
+ * Cada elemento se guarda en el bucket de su hex, con la clave axial de HexGrid.
+ * Una consulta de radio menor o igual al inradio del hex solo necesita mirar el hex del centro
+ * y su primer anillo (7 buckets), asi que el costo no depende de cuantas unidades haya en la room.
+ *
+ * No es thread-safe: el dueño (GameRoom) lo usa bajo su propio lock.
+ */
+public class SpatialHashGrid<T> {
+
+    public static final double DEFAULT_HEX_SIZE_PX = HexGrid.DEFAULT_HEX_SIZE_PX;
+
+    private final double hexSize;
+    private final double maxQueryRadius;
+    private final Map<Integer, List<Entry<T>>> buckets = new HashMap<>();
+    private final Map<T, Entry<T>> entries = new HashMap<>();
+
+    public SpatialHashGrid() {
+        this(DEFAULT_HEX_SIZE_PX);
+    }
+
+    public SpatialHashGrid(double hexSize) {
+        if (!(hexSize > 0)) {
+            throw new IllegalArgumentException("hexSize must be > 0");
+        }
+        this.hexSize = hexSize;
+        this.maxQueryRadius = Math.sqrt(3.0) / 2.0 * hexSize;
+    }
+
+    /**
+     * Inserta el elemento o lo mueve si ya estaba indexado.
+     */
+    public void put(T item, HexCoord position) {
+        if (item == null || position == null) {
+            throw new IllegalArgumentException("item and position are required");
+        }
+        int cell = HexGrid.keyAt(position.getX(), position.getY(), hexSize);
+        Entry<T> entry = entries.get(item);
+        if (entry == null) {
+            entry = new Entry<>(item, position, cell);
+            entries.put(item, entry);
+            bucket(cell).add(entry);
+            return;
+        }
+
+        entry.position = position;
+        if (entry.cell != cell) {
+            removeFromBucket(entry);
+            entry.cell = cell;
+            bucket(cell).add(entry);
+        }
+    }
+
+    public void remove(T item) {
+        Entry<T> entry = entries.remove(item);
+        if (entry != null) {
+            removeFromBucket(entry);
+        }
+    }
+
+    public void clear() {
+        buckets.clear();
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * True si algun elemento que cumple el filtro esta a distancia estrictamente menor que radius.
+     */
+    public boolean anyWithin(HexCoord center, double radius, Predicate<? super T> filter) {
+        return findWithin(center, radius, filter, null);
+    }
+
+    /**
+     * Elementos que cumplen el filtro a distancia estrictamente menor que radius.
+     */
+    public List<T> within(HexCoord center, double radius, Predicate<? super T> filter) {
+        List<T> result = new ArrayList<>();
+        findWithin(center, radius, filter, result);
+        return result;
+    }
+
+    private boolean findWithin(HexCoord center, double radius, Predicate<? super T> filter, List<T> sink) {
+        if (center == null) {
+            return false;
+        }
+        if (radius > maxQueryRadius) {
+            throw new IllegalArgumentException("radius must be <= " + maxQueryRadius);
+        }
+
+        double radiusSq = radius * radius;
+        int centerCell = HexGrid.keyAt(center.getX(), center.getY(), hexSize);
+        boolean found = false;
+
+        for (int direction = -1; direction < HexGrid.DIRECTIONS; direction++) {
+            int cell = direction < 0 ? centerCell : HexGrid.neighbor(centerCell, direction);
+            List<Entry<T>> bucket = buckets.get(cell);
+            if (bucket == null) {
+                continue;
+            }
+            for (Entry<T> entry : bucket) {
+                double dx = entry.position.getX() - center.getX();
+                double dy = entry.position.getY() - center.getY();
+                if ((dx * dx + dy * dy) >= radiusSq) continue;
+                if (filter != null && !filter.test(entry.item)) continue;
+                if (sink == null) {
+                    return true;
+                }
+                sink.add(entry.item);
+                found = true;
+            }
+        }
+        return found;
+    }
+
+    private List<Entry<T>> bucket(int cell) {
+        return buckets.computeIfAbsent(cell, ignored -> new ArrayList<>(4));
+    }
+
+    private void removeFromBucket(Entry<T> entry) {
+        List<Entry<T>> bucket = buckets.get(entry.cell);
+        if (bucket == null) {
+            return;
+        }
+        bucket.remove(entry);
+        if (bucket.isEmpty()) {
+            buckets.remove(entry.cell);
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private HexCoord position;
+        private int cell;
+
+        private Entry(T item, HexCoord position, int cell) {
+            this.item = item;
+            this.position = position;
+            this.cell = cell;
+        }
+    }
+}
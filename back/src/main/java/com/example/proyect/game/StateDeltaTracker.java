@@ -0,0 +1,359 @@
+package com.example.proyect.game;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Estado versionado de una room para el protocolo de deltas.
+ *
+ * El estado (la salida de toStateMap, o la vista filtrada por jugador) se aplana en unidades:
+ * "room" para los campos generales, "p{i}" para los datos de cada jugador y "p{i}.d{j}" para
+ * cada dron. Cada vez que algo cambia la room avanza su numero de secuencia y cada sesion recibe
+ * solo los campos que difieren del ultimo estado que confirmo (ack). Si la sesion no tiene un
+ * estado confirmado que el servidor conserve, recibe un snapshot completo.
+ *
+ * El controlador marca las unidades que toca cada comando aceptado (markDirty) y collect solo
+ * recalcula y compara esas; un comando rechazado no marca nada y no cuesta nada.
+ *
+ * Solo participan las sesiones que mandaron al menos un ack; el resto sigue con los paquetes de siempre.
+ */
+public class StateDeltaTracker {
+
+    public static final String ROOM_UNIT = "room";
+    // estados enviados y todavia sin confirmar que se guardan por sesion
+    public static final int MAX_PENDING_STATES = 32;
+
+    private long seq = 0;
+    private final Map<String, SessionSync> sessions = new HashMap<>();
+    // unidades que cambiaron desde el ultimo collect
+    private final Set<String> dirty = new HashSet<>();
+    private boolean allDirty = false;
+
+    /** Estado que ve una sesion: completo o de a una unidad aplanada. */
+    public interface StateView {
+        Map<String, Object> full();
+
+        /** Campos de la unidad, o null si la unidad no existe. */
+        Map<String, Object> unit(String unitId);
+    }
+
+    /**
+     * Lo que hay que mandarle a una sesion: un snapshot completo o un delta contra baseSeq.
+     * En un delta, un campo con valor null significa que el campo ya no existe.
+     */
+    public record Update(long seq, long baseSeq, boolean snapshot,
+                         Map<String, Map<String, Object>> changed, List<String> removed) {
+    }
+
+    /**
+     * Registra el ack de una sesion. Devuelve true si la sesion necesita un snapshot completo
+     * (primer ack, pedido de resync o una secuencia que el servidor ya no conserva).
+     */
+    public synchronized boolean acknowledge(String sessionId, long ackSeq, boolean resync) {
+        SessionSync sync = sessions.computeIfAbsent(sessionId, ignored -> new SessionSync());
+        Sent acked = sync.pending.get(ackSeq);
+
+        if (resync || acked == null) {
+            if (!resync && sync.ackedSeq == ackSeq && sync.acked != null) {
+                return false; // ack repetido
+            }
+            sync.acked = null;
+            sync.ackedSeq = -1;
+            sync.pending.clear();
+            return true;
+        }
+
+        sync.acked = acked.units();
+        sync.ackedSeq = ackSeq;
+        sync.pending.headMap(ackSeq, true).clear();
+        return false;
+    }
+
+    /**
+     * Snapshot completo para una sesion (join o resync), registrado con la secuencia actual.
+     */
+    public synchronized Update snapshot(String sessionId, Map<String, Object> state) {
+        SessionSync sync = sessions.computeIfAbsent(sessionId, ignored -> new SessionSync());
+        Map<String, Map<String, Object>> flat = flatten(state);
+        sync.remember(seq, new Sent(flat, null));
+        return new Update(seq, -1, true, flat, List.of());
+    }
+
+    public synchronized boolean isTracked(String sessionId) {
+        return sessions.containsKey(sessionId);
+    }
+
+    public synchronized void forget(String sessionId) {
+        sessions.remove(sessionId);
+    }
+
+    public synchronized long getSeq() {
+        return seq;
+    }
+
+    // ========== Unidades sucias ==========
+
+    public static String playerUnit(int playerIndex) {
+        return "p" + playerIndex;
+    }
+
+    public static String droneUnit(int playerIndex, int droneIndex) {
+        return "p" + playerIndex + ".d" + droneIndex;
+    }
+
+    /** Marca una unidad como cambiada desde el ultimo collect. */
+    public synchronized void markDirty(String unitId) {
+        if (!allDirty) {
+            dirty.add(unitId);
+        }
+    }
+
+    /** El proximo collect recalcula el estado completo (inicio de partida, jugador que sale, carga). */
+    public synchronized void markAllDirty() {
+        allDirty = true;
+        dirty.clear();
+    }
+
+    /**
+     * Calcula las actualizaciones para las sesiones registradas. Solo se recalculan las unidades
+     * marcadas como sucias desde el ultimo collect; sin marcas no se hace nada (por ejemplo,
+     * despues de un comando rechazado). Una sesion que todavia no recibio ningun estado recibe
+     * el estado completo. La secuencia avanza una sola vez por llamada, y solo si algo cambio.
+     */
+    public synchronized Map<String, Update> collect(Map<String, StateView> viewBySession) {
+        boolean anyFresh = false;
+        for (String sessionId : viewBySession.keySet()) {
+            SessionSync sync = sessions.get(sessionId);
+            if (sync != null && sync.latestSent() == null) {
+                anyFresh = true;
+                break;
+            }
+        }
+        if (!allDirty && dirty.isEmpty() && !anyFresh) {
+            return Map.of();
+        }
+
+        // null = todas las unidades
+        Set<String> touched = allDirty ? null : new LinkedHashSet<>(dirty);
+        allDirty = false;
+        dirty.clear();
+
+        Map<String, Sent> nextBySession = new LinkedHashMap<>();
+        for (Map.Entry<String, StateView> entry : viewBySession.entrySet()) {
+            SessionSync sync = sessions.get(entry.getKey());
+            if (sync == null) {
+                continue;
+            }
+            Sent next = next(sync.latestSent(), touched, entry.getValue());
+            if (next != null) {
+                nextBySession.put(entry.getKey(), next);
+            }
+        }
+        if (nextBySession.isEmpty()) {
+            return Map.of();
+        }
+
+        seq++;
+        Map<String, Update> updates = new LinkedHashMap<>();
+        for (Map.Entry<String, Sent> entry : nextBySession.entrySet()) {
+            SessionSync sync = sessions.get(entry.getKey());
+            Sent next = entry.getValue();
+
+            Update update = sync.acked == null
+                ? new Update(seq, -1, true, next.units(), List.of())
+                : diff(seq, sync.ackedSeq, sync.acked, next.units(), sync.touchedSinceAck(next.touched()));
+            sync.remember(seq, next);
+            updates.put(entry.getKey(), update);
+        }
+        return updates;
+    }
+
+    /** Proximo estado de una sesion, o null si ninguna unidad cambio respecto del ultimo enviado. */
+    private static Sent next(Map<String, Map<String, Object>> latest, Set<String> touched, StateView view) {
+        if (latest == null || touched == null) {
+            Map<String, Map<String, Object>> flat = flatten(view.full());
+            return flat.equals(latest) ? null : new Sent(flat, null);
+        }
+
+        Map<String, Map<String, Object>> units = null;
+        Set<String> changed = new HashSet<>();
+        for (String unitId : touched) {
+            Map<String, Object> fields = view.unit(unitId);
+            if (Objects.equals(fields, latest.get(unitId))) {
+                continue;
+            }
+            if (units == null) {
+                units = new LinkedHashMap<>(latest);
+            }
+            if (fields == null) {
+                units.remove(unitId);
+            } else {
+                units.put(unitId, fields);
+            }
+            changed.add(unitId);
+        }
+        return units == null ? null : new Sent(units, changed);
+    }
+
+    // ========== Aplanado y diff ==========
+
+    public static Map<String, Map<String, Object>> flatten(Map<String, Object> state) {
+        Map<String, Map<String, Object>> units = new LinkedHashMap<>();
+        Map<String, Object> roomFields = new LinkedHashMap<>();
+        units.put(ROOM_UNIT, roomFields);
+
+        for (Map.Entry<String, Object> entry : state.entrySet()) {
+            if (!"players".equals(entry.getKey())) {
+                roomFields.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            if (!(entry.getValue() instanceof List<?> players)) {
+                continue;
+            }
+            for (Object playerObj : players) {
+                if (!(playerObj instanceof Map<?, ?> player)) continue;
+                String playerUnit = "p" + player.get("playerIndex");
+                Map<String, Object> playerFields = new LinkedHashMap<>();
+                units.put(playerUnit, playerFields);
+
+                for (Map.Entry<?, ?> field : player.entrySet()) {
+                    if (!"drones".equals(field.getKey())) {
+                        playerFields.put(String.valueOf(field.getKey()), field.getValue());
+                        continue;
+                    }
+                    if (!(field.getValue() instanceof List<?> drones)) continue;
+                    for (int i = 0; i < drones.size(); i++) {
+                        if (!(drones.get(i) instanceof Map<?, ?> drone)) continue;
+                        Map<String, Object> droneFields = new LinkedHashMap<>();
+                        for (Map.Entry<?, ?> droneField : drone.entrySet()) {
+                            droneFields.put(String.valueOf(droneField.getKey()), droneField.getValue());
+                        }
+                        units.put(playerUnit + ".d" + i, droneFields);
+                    }
+                }
+            }
+        }
+        return units;
+    }
+
+    static Update diff(long seq, long baseSeq,
+                       Map<String, Map<String, Object>> base,
+                       Map<String, Map<String, Object>> current) {
+        return diff(seq, baseSeq, base, current, null);
+    }
+
+    /** Diff limitado a las unidades de touched (null = todas). */
+    static Update diff(long seq, long baseSeq,
+                       Map<String, Map<String, Object>> base,
+                       Map<String, Map<String, Object>> current,
+                       Set<String> touched) {
+        Map<String, Map<String, Object>> changed = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+        if (touched != null) {
+            for (String unitId : touched) {
+                Map<String, Object> now = current.get(unitId);
+                if (now == null) {
+                    if (base.containsKey(unitId)) {
+                        removed.add(unitId);
+                    }
+                    continue;
+                }
+                Map<String, Object> fields = diffUnit(base.get(unitId), now);
+                if (!fields.isEmpty()) {
+                    changed.put(unitId, fields);
+                }
+            }
+            return new Update(seq, baseSeq, false, changed, removed);
+        }
+
+        for (Map.Entry<String, Map<String, Object>> unit : current.entrySet()) {
+            Map<String, Object> fields = diffUnit(base.get(unit.getKey()), unit.getValue());
+            if (!fields.isEmpty()) {
+                changed.put(unit.getKey(), fields);
+            }
+        }
+        for (String unitId : base.keySet()) {
+            if (!current.containsKey(unitId)) {
+                removed.add(unitId);
+            }
+        }
+        return new Update(seq, baseSeq, false, changed, removed);
+    }
+
+    private static Map<String, Object> diffUnit(Map<String, Object> before, Map<String, Object> now) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (before == now) {
+            return fields;
+        }
+        for (Map.Entry<String, Object> field : now.entrySet()) {
+            if (before == null || !before.containsKey(field.getKey())
+                    || !Objects.equals(before.get(field.getKey()), field.getValue())) {
+                fields.put(field.getKey(), field.getValue());
+            }
+        }
+        if (before != null) {
+            for (String key : before.keySet()) {
+                if (!now.containsKey(key)) {
+                    fields.put(key, null);
+                }
+            }
+        }
+        return fields;
+    }
+
+    /** Estado enviado a una sesion y las unidades que cambiaron respecto del anterior (null = todas). */
+    private record Sent(Map<String, Map<String, Object>> units, Set<String> touched) {
+    }
+
+    private static final class SessionSync {
+        private long ackedSeq = -1;
+        private Map<String, Map<String, Object>> acked;
+        private final TreeMap<Long, Sent> pending = new TreeMap<>();
+
+        private Map<String, Map<String, Object>> latestSent() {
+            return pending.isEmpty() ? acked : pending.lastEntry().getValue().units();
+        }
+
+        // unidades que cambiaron desde el ultimo ack, incluido el estado que se esta por mandar
+        private Set<String> touchedSinceAck(Set<String> next) {
+            if (next == null) {
+                return null;
+            }
+            Set<String> touched = new HashSet<>(next);
+            for (Sent sent : pending.values()) {
+                if (sent.touched() == null) {
+                    return null;
+                }
+                touched.addAll(sent.touched());
+            }
+            return touched;
+        }
+
+        private void remember(long seq, Sent sent) {
+            pending.put(seq, sent);
+            while (pending.size() > MAX_PENDING_STATES) {
+                // lo que cambio en el estado descartado pasa al siguiente, para que el diff contra el ack no lo pierda
+                Sent evicted = pending.pollFirstEntry().getValue();
+                Map.Entry<Long, Sent> oldest = pending.firstEntry();
+                pending.put(oldest.getKey(), new Sent(oldest.getValue().units(), union(evicted.touched(), oldest.getValue().touched())));
+            }
+        }
+
+        private static Set<String> union(Set<String> a, Set<String> b) {
+            if (a == null || b == null) {
+                return null;
+            }
+            Set<String> merged = new HashSet<>(a);
+            merged.addAll(b);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.proyect.game;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.config.TimerWheelProperties;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Rueda de timers compartida (hashed timing wheel) para gracia de desconexion, reloj de turno y vencimiento de lobbies.
+ *
+ * schedule y cancel son O(1): solo encolan, y el hilo de la rueda mueve los timers a su bucket
+ * (deadline / tick, con las vueltas que faltan) y los saca al cancelarse. En cada tick se recorre
+ * un solo bucket. Las tareas corren en el hilo de la rueda, asi que tienen que ser cortas;
+ * el trabajo sobre una room se manda a su shard.
+ */
+@Component
+public class TimerWheel {
+
+    private static final Logger log = LoggerFactory.getLogger(TimerWheel.class);
+
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    public interface Timeout {
+        /**
+         * @return true si el timer todavia no habia vencido ni estaba cancelado
+         */
+        boolean cancel();
+
+        boolean isCancelled();
+
+        boolean isExpired();
+    }
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos;
+    private final Queue<Entry> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final AtomicLong activeTimers = new AtomicLong();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    @Autowired
+    public TimerWheel(TimerWheelProperties properties) {
+        this(properties.getTickMs(), properties.getWheelSize());
+    }
+
+    public TimerWheel(long tickMs, int wheelSize) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be > 0");
+        }
+        if (wheelSize <= 0) {
+            throw new IllegalArgumentException("wheelSize must be > 0");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        if (size <= 0) {
+            size = 1;
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, "game-timers");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Programa la tarea para dentro de delayMs (como minimo, y hasta un tick mas tarde).
+     */
+    public Timeout schedule(Runnable task, long delayMs) {
+        if (task == null) {
+            throw new IllegalArgumentException("task must not be null");
+        }
+        if (!running) {
+            throw new IllegalStateException("Timer wheel stopped");
+        }
+        long deadline = System.nanoTime() - startNanos + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMs));
+        Entry entry = new Entry(task, deadline);
+        activeTimers.incrementAndGet();
+        pendingAdds.add(entry);
+        return entry;
+    }
+
+    /**
+     * Timers programados que todavia no vencieron ni se cancelaron.
+     */
+    public long activeTimers() {
+        return activeTimers.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long tickDeadline = waitForNextTick();
+            if (tickDeadline < 0) {
+                continue;
+            }
+            removeCancelled();
+            transferPendingAdds();
+            wheel[(int) (tick & mask)].expire(tickDeadline);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long tickDeadline = tickNanos * (tick + 1);
+        while (running) {
+            long sleepNanos = tickDeadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                return tickDeadline;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void transferPendingAdds() {
+        Entry entry;
+        while ((entry = pendingAdds.poll()) != null) {
+            if (entry.state.get() != ST_PENDING) {
+                continue;
+            }
+            long targetTick = entry.deadline / tickNanos;
+            entry.remainingRounds = (targetTick - tick) >> Integer.numberOfTrailingZeros(wheel.length);
+            // vencidos o de este mismo tick van al bucket actual
+            long bucketTick = Math.max(targetTick, tick);
+            wheel[(int) (bucketTick & mask)].add(entry);
+        }
+    }
+
+    private void removeCancelled() {
+        Entry entry;
+        while ((entry = pendingCancels.poll()) != null) {
+            if (entry.bucket != null) {
+                entry.bucket.remove(entry);
+            }
+        }
+    }
+
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_PENDING);
+        private long remainingRounds;
+        private Bucket bucket;
+        private Entry prev;
+        private Entry next;
+
+        private Entry(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_PENDING, ST_CANCELLED)) {
+                return false;
+            }
+            activeTimers.decrementAndGet();
+            pendingCancels.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_PENDING, ST_EXPIRED)) {
+                return;
+            }
+            activeTimers.decrementAndGet();
+            try {
+                task.run();
+            } catch (RuntimeException ex) {
+                log.warn("Timer task failed: {}", ex.getMessage(), ex);
+            }
+        }
+    }
+
+    // Lista doblemente enlazada; solo la toca el hilo de la rueda
+    private static final class Bucket {
+        private Entry head;
+        private Entry tail;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            if (head == null) {
+                head = tail = entry;
+            } else {
+                tail.next = entry;
+                entry.prev = tail;
+                tail = entry;
+            }
+        }
+
+        private void expire(long tickDeadline) {
+            Entry entry = head;
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.remainingRounds <= 0) {
+                    remove(entry);
+                    if (entry.deadline <= tickDeadline) {
+                        entry.expire();
+                    }
+                } else if (entry.isCancelled()) {
+                    remove(entry);
+                } else {
+                    entry.remainingRounds--;
+                }
+                entry = next;
+            }
+        }
+
+        private void remove(Entry entry) {
+            if (entry.bucket != this) {
+                return;
+            }
+            if (entry.prev != null) {
+                entry.prev.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.prev = entry.prev;
+            } else {
+                tail = entry.prev;
+            }
+            entry.prev = null;
+            entry.next = null;
+            entry.bucket = null;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.proyect.game;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+
+/**
+ * Visibilidad por jugador calculada en el servidor (niebla de guerra).
+ *
+ * Fuentes de vision de un jugador: sus drones vivos y desplegados (rango = visionRange del dron)
+ * y su carrier si no esta destruido (rango de carrier del bando). Un objetivo enemigo es visible
+ * si alguna fuente esta a una distancia en hexes (entera, sobre el HexGrid) menor o igual a su rango.
+ * Cada unidad se captura por su hex, asi que moverse dentro del mismo hex no ensucia nada.
+ *
+ * Se mantiene, para cada objetivo, cuantas fuentes enemigas lo ven. En cada refresh solo se
+ * recalculan los pares que involucran unidades que cambiaron (posicion, vida, despliegue o rango),
+ * asi que mover un dron cuesta O(unidades enemigas) y no O(fuentes x objetivos).
+ *
+ * Los slots por jugador son: 0 = carrier, 1..n = drones (droneIndex + 1).
+ */
+public class VisibilityTracker {
+
+    public static final int CARRIER = -1;
+
+    private final double hexSizePx;
+    private final int aerialCarrierVisionRange;
+    private final int navalCarrierVisionRange;
+
+    private Snapshot[][] current = new Snapshot[GameRoom.MAX_PLAYERS][];
+    // seenBy[viewer][owner][slot] = fuentes de viewer que ven ese slot de owner
+    private int[][][] seenBy = new int[GameRoom.MAX_PLAYERS][GameRoom.MAX_PLAYERS][];
+    private final BitSet[][] visible = new BitSet[GameRoom.MAX_PLAYERS][GameRoom.MAX_PLAYERS];
+
+    public VisibilityTracker(double hexSizePx, int aerialCarrierVisionRange, int navalCarrierVisionRange) {
+        if (!(hexSizePx > 0)) {
+            throw new IllegalArgumentException("hexSizePx must be > 0");
+        }
+        this.hexSizePx = hexSizePx;
+        this.aerialCarrierVisionRange = aerialCarrierVisionRange;
+        this.navalCarrierVisionRange = navalCarrierVisionRange;
+        for (int viewer = 0; viewer < GameRoom.MAX_PLAYERS; viewer++) {
+            for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+                visible[viewer][owner] = new BitSet();
+            }
+        }
+    }
+
+    /**
+     * Cambio de visibilidad de una unidad enemiga para un jugador. droneIndex = CARRIER para el carrier.
+     */
+    public record Change(int viewer, int owner, int droneIndex, boolean visible) {
+    }
+
+    /**
+     * Sincroniza con el estado actual de la room y devuelve lo que se volvio visible u oculto.
+     */
+    public synchronized List<Change> refresh(GameRoom room) {
+        Snapshot[][] next = capture(room);
+
+        if (layoutChanged(next)) {
+            recomputeAll(next);
+        } else {
+            applyIncremental(next);
+        }
+        current = next;
+        return collectChanges();
+    }
+
+    public synchronized boolean isDroneVisible(int viewer, int owner, int droneIndex) {
+        return isSlotVisible(viewer, owner, droneIndex + 1);
+    }
+
+    public synchronized boolean isCarrierVisible(int viewer, int owner) {
+        return isSlotVisible(viewer, owner, 0);
+    }
+
+    private boolean isSlotVisible(int viewer, int owner, int slot) {
+        if (viewer == owner) {
+            return true;
+        }
+        if (!validIndex(viewer) || !validIndex(owner)) {
+            return false;
+        }
+        return visible[viewer][owner].get(slot);
+    }
+
+    // ========== Captura ==========
+
+    private Snapshot[][] capture(GameRoom room) {
+        Snapshot[][] snapshot = new Snapshot[GameRoom.MAX_PLAYERS][];
+        synchronized (room) {
+            for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+                PlayerState player = room.getPlayerByIndex(owner);
+                if (player == null || player.getPlayerIndex() != owner) {
+                    continue;
+                }
+                List<Drone> drones = player.getDrones();
+                Snapshot[] units = new Snapshot[drones.size() + 1];
+
+                boolean carrierAlive = !room.isCarrierDestroyed(owner);
+                int carrierRange = "Naval".equals(room.getPlayerSide(owner)) ? navalCarrierVisionRange : aerialCarrierVisionRange;
+                HexCoord carrierPos = room.getCarrierPosition(owner);
+                units[0] = new Snapshot(
+                    HexGrid.keyAt(carrierPos.getX(), carrierPos.getY(), hexSizePx),
+                    carrierAlive && carrierRange > 0 ? carrierRange : -1,
+                    carrierAlive
+                );
+
+                for (int i = 0; i < drones.size(); i++) {
+                    Drone drone = drones.get(i);
+                    boolean positioned = drone.isPositioned();
+                    boolean onField = drone.isAlive() && drone.isDeployed() && positioned;
+                    units[i + 1] = new Snapshot(
+                        positioned ? HexGrid.keyAt(drone.getX(), drone.getY(), hexSizePx) : 0,
+                        onField && drone.getVisionRange() > 0 ? drone.getVisionRange() : -1,
+                        onField
+                    );
+                }
+                snapshot[owner] = units;
+            }
+        }
+        return snapshot;
+    }
+
+    private boolean layoutChanged(Snapshot[][] next) {
+        for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+            int before = current[owner] != null ? current[owner].length : -1;
+            int after = next[owner] != null ? next[owner].length : -1;
+            if (before != after) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ========== Calculo ==========
+
+    private void recomputeAll(Snapshot[][] next) {
+        seenBy = new int[GameRoom.MAX_PLAYERS][GameRoom.MAX_PLAYERS][];
+        for (int viewer = 0; viewer < GameRoom.MAX_PLAYERS; viewer++) {
+            for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+                if (viewer == owner || next[owner] == null) {
+                    continue;
+                }
+                int[] counts = new int[next[owner].length];
+                if (next[viewer] != null) {
+                    for (Snapshot source : next[viewer]) {
+                        for (int slot = 0; slot < counts.length; slot++) {
+                            if (sees(source, next[owner][slot])) {
+                                counts[slot]++;
+                            }
+                        }
+                    }
+                }
+                seenBy[viewer][owner] = counts;
+            }
+        }
+    }
+
+    /**
+     * Primero resta los pares viejos de las unidades que cambiaron y despues suma los nuevos.
+     * Un par (fuente, objetivo) donde ambos cambiaron se procesa solo del lado de la fuente,
+     * asi no se cuenta dos veces.
+     */
+    private void applyIncremental(Snapshot[][] next) {
+        BitSet[] dirty = new BitSet[GameRoom.MAX_PLAYERS];
+        boolean anyDirty = false;
+        for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+            dirty[owner] = new BitSet();
+            if (next[owner] == null) {
+                continue;
+            }
+            for (int slot = 0; slot < next[owner].length; slot++) {
+                if (!next[owner][slot].equals(current[owner][slot])) {
+                    dirty[owner].set(slot);
+                    anyDirty = true;
+                }
+            }
+        }
+        if (!anyDirty) {
+            return;
+        }
+
+        updatePairs(current, dirty, -1);
+        updatePairs(next, dirty, +1);
+    }
+
+    private void updatePairs(Snapshot[][] units, BitSet[] dirty, int delta) {
+        for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+            for (int slot = dirty[owner].nextSetBit(0); slot >= 0; slot = dirty[owner].nextSetBit(slot + 1)) {
+                Snapshot unit = units[owner][slot];
+                for (int other = 0; other < GameRoom.MAX_PLAYERS; other++) {
+                    if (other == owner || units[other] == null) {
+                        continue;
+                    }
+                    // la unidad como fuente: todos los objetivos del otro jugador
+                    if (unit.sourceRange >= 0) {
+                        int[] counts = seenBy[owner][other];
+                        for (int target = 0; target < units[other].length; target++) {
+                            if (sees(unit, units[other][target])) {
+                                counts[target] += delta;
+                            }
+                        }
+                    }
+                    // la unidad como objetivo: solo fuentes que no cambiaron
+                    if (unit.target) {
+                        for (int source = 0; source < units[other].length; source++) {
+                            if (!dirty[other].get(source) && sees(units[other][source], unit)) {
+                                seenBy[other][owner][slot] += delta;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean sees(Snapshot source, Snapshot target) {
+        if (source.sourceRange < 0 || !target.target) {
+            return false;
+        }
+        return HexGrid.distance(source.hex, target.hex) <= source.sourceRange;
+    }
+
+    private List<Change> collectChanges() {
+        List<Change> changes = new ArrayList<>();
+        for (int viewer = 0; viewer < GameRoom.MAX_PLAYERS; viewer++) {
+            for (int owner = 0; owner < GameRoom.MAX_PLAYERS; owner++) {
+                if (viewer == owner) {
+                    continue;
+                }
+                BitSet bits = visible[viewer][owner];
+                int[] counts = seenBy[viewer][owner];
+                int length = counts != null ? counts.length : 0;
+
+                for (int slot = 0; slot < Math.max(length, bits.length()); slot++) {
+                    boolean now = slot < length && counts[slot] > 0;
+                    if (now != bits.get(slot)) {
+                        bits.set(slot, now);
+                        if (current[viewer] != null) {
+                            changes.add(new Change(viewer, owner, slot == 0 ? CARRIER : slot - 1, now));
+                        }
+                    }
+                }
+            }
+        }
+        return changes;
+    }
+
+    private static boolean validIndex(int playerIndex) {
+        return playerIndex >= 0 && playerIndex < GameRoom.MAX_PLAYERS;
+    }
+
+    private record Snapshot(int hex, int sourceRange, boolean target) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.proyect.game.eventlog;
+
+/**
+ * Categorias del log de eventos; el muestreo se configura por categoria
+ * (game.event-log.sample-every.&lt;categoria&gt;).
+ */
+public enum EventCategory {
+    PACKET,
+    MOVE,
+    ATTACK,
+    RECALL,
+    TURN,
+    MATCH;
+
+    public String key() {
+        return name().toLowerCase(java.util.Locale.ROOT);
+    }
+}
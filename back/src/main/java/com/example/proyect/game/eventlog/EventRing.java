@@ -0,0 +1,104 @@
+package com.example.proyect.game.eventlog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffer circular de slots preasignados: muchos productores, un solo consumidor, sin locks.
+ *
+ * Un productor reserva una secuencia con CAS, llena el slot y lo publica escribiendo la secuencia
+ * (volatile). El consumidor lee en orden y se detiene en el primer slot que todavia no se publico.
+ * Si el consumidor esta una vuelta atras el evento se descarta y se cuenta: nunca se bloquea al
+ * hilo del juego.
+ */
+final class EventRing {
+
+    static final class Slot {
+        private volatile long published = -1;
+        private long sequence;
+
+        long timestampMillis;
+        GameEvent event;
+        String roomId;
+        String sessionId;
+        String detail;
+        boolean ok;
+        final long[] longs = new long[GameEvent.MAX_LONGS];
+        final double[] doubles = new double[GameEvent.MAX_DOUBLES];
+
+        private void clear() {
+            event = null;
+            roomId = null;
+            sessionId = null;
+            detail = null;
+        }
+    }
+
+    @FunctionalInterface
+    interface SlotReader {
+        void read(Slot slot);
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+    private final LongAdder dropped = new LongAdder();
+
+    EventRing(int requestedSize) {
+        int size = Integer.highestOneBit(Math.max(2, requestedSize - 1)) << 1;
+        this.slots = new Slot[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+    /** Slot reservado para llenar y publicar, o null si el buffer esta lleno (el evento se descarta). */
+    Slot claim() {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) {
+                dropped.increment();
+                return null;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+        Slot slot = slots[(int) (sequence & mask)];
+        slot.sequence = sequence;
+        return slot;
+    }
+
+    void publish(Slot slot) {
+        slot.published = slot.sequence;
+    }
+
+    /** Solo desde el hilo consumidor. Devuelve cuantos slots leyo. */
+    int drain(SlotReader reader, int max) {
+        long next = consumed;
+        int read = 0;
+        while (read < max) {
+            Slot slot = slots[(int) (next & mask)];
+            if (slot.published != next) {
+                break;
+            }
+            try {
+                reader.read(slot);
+            } finally {
+                slot.clear();
+                next++;
+                read++;
+                consumed = next;
+            }
+        }
+        return read;
+    }
+
+    long dropped() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.proyect.game.eventlog;
+
+/**
+ * Tipos de evento con el nombre de cada campo. Cada evento lleva hasta 4 enteros y 2 reales;
+ * los nombres solo se usan al escribir, en el hilo del log.
+ */
+public enum GameEvent {
+    PACKET_RECEIVED(EventCategory.PACKET, "packetReceived", new String[] {"bytes"}, new String[0]),
+    MOVE(EventCategory.MOVE, "move", new String[] {"player", "drone", "actionsLeft"}, new String[] {"x", "y"}),
+    CARRIER_MOVE(EventCategory.MOVE, "carrierMove", new String[] {"player", "actionsLeft"}, new String[] {"x", "y"}),
+    ATTACK(EventCategory.ATTACK, "attack", new String[] {"player", "drone", "targetPlayer", "targetDrone"}, new String[0]),
+    RECALL(EventCategory.RECALL, "recall", new String[] {"player", "drone"}, new String[0]),
+    END_TURN(EventCategory.TURN, "endTurn", new String[] {"player", "nextPlayer"}, new String[0]),
+    MATCH_FINISHED(EventCategory.MATCH, "matchFinished", new String[] {"winner", "draw"}, new String[0]);
+
+    static final int MAX_LONGS = 4;
+    static final int MAX_DOUBLES = 2;
+
+    private final EventCategory category;
+    private final String wireName;
+    private final String[] longFields;
+    private final String[] doubleFields;
+
+    GameEvent(EventCategory category, String wireName, String[] longFields, String[] doubleFields) {
+        this.category = category;
+        this.wireName = wireName;
+        this.longFields = longFields;
+        this.doubleFields = doubleFields;
+    }
+
+    public EventCategory category() {
+        return category;
+    }
+
+    String wireName() {
+        return wireName;
+    }
+
+    String[] longFields() {
+        return longFields;
+    }
+
+    String[] doubleFields() {
+        return doubleFields;
+    }
+}
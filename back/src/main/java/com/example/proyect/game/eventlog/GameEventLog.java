@@ -0,0 +1,239 @@
+package com.example.proyect.game.eventlog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.config.EventLogProperties;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Log estructurado de eventos del juego (auditoria por accion), fuera del camino de logback.
+ *
+ * El hilo del juego solo copia primitivos y referencias ya existentes a un slot de EventRing; no
+ * formatea ni toma locks. Un unico hilo escritor drena el buffer cada flushIntervalMs y escribe una
+ * linea JSON por evento en un archivo que rota por tamano. Si el escritor se atrasa una vuelta
+ * completa los eventos se descartan y se cuentan (getDroppedCount), nunca se bloquea al llamador.
+ *
+ * Uso desde el juego: primero sample(evento), que aplica el muestreo de su categoria, y solo si
+ * devuelve true se arman los campos y se llama a record(...).
+ */
+@Component
+public class GameEventLog {
+
+    private static final Logger log = LoggerFactory.getLogger(GameEventLog.class);
+    private static final int DRAIN_BATCH = 4_096;
+
+    private final boolean enabled;
+    private final EventRing ring;
+    private final int[] sampleEvery = new int[EventCategory.values().length];
+    private final Path path;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final long flushIntervalMs;
+    private final LongAdder written = new LongAdder();
+
+    // solo el escritor (bajo drainLock)
+    private final Object drainLock = new Object();
+    private final StringBuilder line = new StringBuilder(256);
+    private RollingEventFile file;
+    private ScheduledExecutorService writer;
+
+    public GameEventLog(EventLogProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.ring = new EventRing(enabled ? properties.getBufferSize() : 2);
+        this.path = Paths.get(properties.getPath());
+        this.maxFileBytes = Math.max(1, properties.getMaxFileSizeMb()) * 1024 * 1024;
+        this.maxFiles = properties.getMaxFiles();
+        this.flushIntervalMs = Math.max(1, properties.getFlushIntervalMs());
+        Map<String, Integer> configured = properties.getSampleEvery();
+        for (EventCategory category : EventCategory.values()) {
+            Integer every = configured != null ? configured.get(category.key()) : null;
+            sampleEvery[category.ordinal()] = every != null ? every : 1;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            file = new RollingEventFile(path, maxFileBytes, maxFiles);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot open game event log " + path, ex);
+        }
+        writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "game-event-log");
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Game event log enabled (path={}, buffer={} events)", path, ring.capacity());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** true si este evento se registra (log habilitado y elegido por el muestreo de su categoria). */
+    public boolean sample(GameEvent event) {
+        if (!enabled) {
+            return false;
+        }
+        int every = sampleEvery[event.category().ordinal()];
+        return every == 1 || (every > 1 && ThreadLocalRandom.current().nextInt(every) == 0);
+    }
+
+    /**
+     * Registra un evento. Los enteros y reales se interpretan segun los campos de GameEvent;
+     * los que el evento no usa se ignoran. detail es opcional (p. ej. el motivo de un rechazo).
+     */
+    public void record(GameEvent event, String roomId, String sessionId, boolean ok, String detail,
+                       long l0, long l1, long l2, long l3, double d0, double d1) {
+        if (!enabled) {
+            return;
+        }
+        EventRing.Slot slot = ring.claim();
+        if (slot == null) {
+            return;
+        }
+        slot.timestampMillis = System.currentTimeMillis();
+        slot.event = event;
+        slot.roomId = roomId;
+        slot.sessionId = sessionId;
+        slot.ok = ok;
+        slot.detail = detail;
+        slot.longs[0] = l0;
+        slot.longs[1] = l1;
+        slot.longs[2] = l2;
+        slot.longs[3] = l3;
+        slot.doubles[0] = d0;
+        slot.doubles[1] = d1;
+        ring.publish(slot);
+    }
+
+    public long getDroppedCount() {
+        return ring.dropped();
+    }
+
+    public long getWrittenCount() {
+        return written.sum();
+    }
+
+    /** Escribe y baja a disco todo lo publicado hasta ahora. */
+    public void flush() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        synchronized (drainLock) {
+            if (file == null) {
+                return;
+            }
+            while (ring.drain(this::write, DRAIN_BATCH) == DRAIN_BATCH) {
+                // sigue mientras haya lotes completos
+            }
+            file.flush();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (IOException | UncheckedIOException ex) {
+            log.warn("Cannot write game event log {}: {}", path, ex.getMessage());
+        }
+    }
+
+    private void write(EventRing.Slot slot) {
+        GameEvent event = slot.event;
+        StringBuilder out = line;
+        out.setLength(0);
+        out.append("{\"ts\":\"").append(Instant.ofEpochMilli(slot.timestampMillis)).append('"');
+        out.append(",\"cat\":\"").append(event.category().key()).append('"');
+        out.append(",\"event\":\"").append(event.wireName()).append('"');
+        appendString(out, "room", slot.roomId);
+        appendString(out, "session", slot.sessionId);
+        out.append(",\"ok\":").append(slot.ok);
+        String[] longFields = event.longFields();
+        for (int i = 0; i < longFields.length; i++) {
+            out.append(",\"").append(longFields[i]).append("\":").append(slot.longs[i]);
+        }
+        String[] doubleFields = event.doubleFields();
+        for (int i = 0; i < doubleFields.length; i++) {
+            out.append(",\"").append(doubleFields[i]).append("\":").append(slot.doubles[i]);
+        }
+        appendString(out, "detail", slot.detail);
+        out.append("}\n");
+        try {
+            file.append(out);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        written.increment();
+    }
+
+    private static void appendString(StringBuilder out, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(2, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            writer.shutdownNow();
+        }
+        synchronized (drainLock) {
+            flushSafely();
+            try {
+                file.close();
+            } catch (IOException ex) {
+                log.warn("Cannot close game event log {}: {}", path, ex.getMessage());
+            }
+            file = null;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.proyect.game.eventlog;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Archivo de texto que rota por tamano: al pasar maxBytes, file -> file.1 -> ... -> file.maxFiles
+ * (el mas viejo se pierde). El tamano se cuenta en caracteres escritos, que para estas lineas
+ * (casi todo ASCII) es practicamente lo mismo que bytes. No es thread-safe: lo usa solo el escritor.
+ */
+final class RollingEventFile implements AutoCloseable {
+
+    private final Path path;
+    private final long maxBytes;
+    private final int maxFiles;
+    private Writer writer;
+    private long size;
+
+    RollingEventFile(Path path, long maxBytes, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.maxFiles = Math.max(1, maxFiles);
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    void append(CharSequence line) throws IOException {
+        if (size > 0 && size + line.length() > maxBytes) {
+            roll();
+        }
+        writer.append(line);
+        size += line.length();
+    }
+
+    void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    private void open() throws IOException {
+        writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        size = Files.size(path);
+    }
+
+    private void roll() throws IOException {
+        writer.close();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = rolled(i);
+            if (Files.exists(older)) {
+                Files.move(older, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        open();
+    }
+
+    Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
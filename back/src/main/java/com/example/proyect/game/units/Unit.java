@@ -3,22 +3,27 @@ package com.example.proyect.game.units;
 /**
  * Clase abstracta base para cualquier entidad del tablero
  * que tenga vida, posición y pertenezca a un jugador.
+ *
+ * Los datos viven en un slot de un UnitStore (el de la room, o uno propio mientras la unidad
+ * esta suelta); esta clase es la vista sobre ese slot.
  */
 public abstract class Unit {
 
     private String id;
-    private long ownerPlayerId;
-    private int maxHp;
-    private int currentHp;
-    private HexCoord position;
-    private UnitStatus status;
+    private UnitStore store;
+    private int slot;
+    // false mientras la unidad usa su propio store de un slot
+    private boolean shared;
 
-    private int movementRange;
+    // notifica cambios de posicion (lo usa GameRoom para mantener su indice espacial)
+    private PositionListener positionListener;
 
     public Unit() {
-        this.maxHp = 100;
-        this.currentHp = 100;
-        this.status = UnitStatus.ALIVE;
+        this.store = new UnitStore(1);
+        this.slot = store.allocate();
+        store.maxHp[slot] = 100;
+        store.hp[slot] = 100;
+        store.alive.set(slot);
     } //SE DEBERIA PONER TAMBIEN EL OWNERPLAYEID NO?
 
 
@@ -30,27 +35,88 @@ public abstract class Unit {
     }
 
     public long getOwnerPlayerId() {
-        return ownerPlayerId;
+        return store.owner[slot];
     }
 
     public int getMaxHp() {
-        return maxHp;
+        return store.maxHp[slot];
     }
 
     public HexCoord getPosition() {
-        return position;
+        return store.positioned.get(slot) ? new HexCoord(store.x[slot], store.y[slot]) : null;
+    }
+
+    /** True si la unidad tiene posicion (lo mismo que getPosition() != null, sin crear el HexCoord). */
+    public boolean isPositioned() {
+        return store.positioned.get(slot);
+    }
+
+    /** Coordenadas sin crear un HexCoord (solo validas si isPositioned()). */
+    public double getX() {
+        return store.x[slot];
+    }
+
+    public double getY() {
+        return store.y[slot];
     }
 
     public UnitStatus getStatus() {
-        return status;
+        return isAlive() ? UnitStatus.ALIVE : UnitStatus.DESTROYED;
     }
 
     public boolean isAlive() {
-        return status == UnitStatus.ALIVE;
+        return store.alive.get(slot);
     }
 
     public boolean isDestroyed() {
-        return status == UnitStatus.DESTROYED;
+        return !isAlive();
+    }
+
+    // ========== Store ==========
+
+    /**
+     * Mueve los datos de la unidad a un slot de otro store (el de la room que la adopta).
+     * index es su posicion en la lista de drones del jugador.
+     */
+    public void moveTo(UnitStore target, int index) {
+        if (target == null)
+            throw new IllegalArgumentException("store requerido");
+        if (target == store) {
+            store.index[slot] = index;
+            return;
+        }
+        int targetSlot = target.allocate();
+        UnitStore.copy(store, slot, target, targetSlot);
+        target.index[targetSlot] = index;
+        store.release(slot);
+        store = target;
+        slot = targetSlot;
+        shared = true;
+    }
+
+    /**
+     * Saca la unidad del store compartido a uno propio: la unidad sigue valida aunque la room
+     * reutilice el slot.
+     */
+    public void detachFromStore() {
+        if (!shared) {
+            return;
+        }
+        UnitStore own = new UnitStore(1);
+        int ownSlot = own.allocate();
+        UnitStore.copy(store, slot, own, ownSlot);
+        store.release(slot);
+        store = own;
+        slot = ownSlot;
+        shared = false;
+    }
+
+    protected UnitStore store() {
+        return store;
+    }
+
+    protected int slot() {
+        return slot;
     }
 
     // =========================
@@ -62,13 +128,22 @@ public abstract class Unit {
     }
 
     public void setOwnerPlayerId(long ownerPlayerId) {
-        this.ownerPlayerId = ownerPlayerId;
+        store.owner[slot] = ownerPlayerId;
     }
 
     public void setPosition(HexCoord position) {
         if (position == null)
             throw new IllegalArgumentException("position requerida");
-        this.position = position;
+        store.x[slot] = position.getX();
+        store.y[slot] = position.getY();
+        store.positioned.set(slot);
+        if (positionListener != null) {
+            positionListener.onPositionChanged(this, position);
+        }
+    }
+
+    public void setPositionListener(PositionListener positionListener) {
+        this.positionListener = positionListener;
     }
 
     // =========================
@@ -78,24 +153,28 @@ public abstract class Unit {
     public void receiveDamage(int amount) {
         if (amount <= 0 || isDestroyed()) return;
 
-        currentHp -= amount;
+        store.hp[slot] -= amount;
 
-        if (currentHp <= 0) {
-            currentHp = 0;
-            status = UnitStatus.DESTROYED;
+        if (store.hp[slot] <= 0) {
+            store.destroy(slot);
         }
     }
 
     public void heal(int amount) {
         if (amount <= 0 || isDestroyed()) return;
 
-        currentHp = Math.min(currentHp + amount, maxHp);
+        store.hp[slot] = Math.min(store.hp[slot] + amount, store.maxHp[slot]);
     }
 
     // =========================
     // Tipos auxiliares
     // =========================
 
+    @FunctionalInterface
+    public interface PositionListener {
+        void onPositionChanged(Unit unit, HexCoord position);
+    }
+
     public enum UnitStatus {
         ALIVE,
         DESTROYED
@@ -141,26 +220,26 @@ public abstract class Unit {
     }
 
     public int getCurrentHp() {
-        return currentHp;
+        return store.hp[slot];
     }
 
     public void setCurrentHp(int currentHp) {
-        this.currentHp = currentHp;
+        store.hp[slot] = currentHp;
     }
 
     public int getMovementRange() {
-        return movementRange;
+        return store.movementRange[slot];
     }
 
     public void setMovementRange(int movementRange) {
-        this.movementRange = movementRange;
+        store.movementRange[slot] = movementRange;
     }
 
     protected void setMaxHp(int maxHp) {
         if (maxHp <= 0)
             throw new IllegalArgumentException("maxHp debe ser mayor a 0");
 
-        this.maxHp = maxHp;
-        this.currentHp = maxHp;
+        store.maxHp[slot] = maxHp;
+        store.hp[slot] = maxHp;
     }
 }
@@ -0,0 +1,210 @@
+package com.example.proyect.game.units;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Estado de las unidades guardado por columnas (struct-of-arrays).
+ *
+ * Cada GameRoom tiene un store con un slot por drone; Unit/Drone quedan como vistas livianas sobre
+ * su slot, asi que el resto del codigo usa la misma API de siempre. Los recorridos por jugador
+ * (combustible ocioso, drones vivos, hangar) son loops sobre arrays primitivos y bitsets en vez de
+ * saltar de objeto en objeto, y mover una unidad ya no crea un HexCoord.
+ *
+ * Una unidad suelta (recien creada o sacada de una room) tiene su propio store de un slot.
+ * No es thread-safe: lo protege el lock de la room, igual que antes los campos de cada unidad.
+ */
+public final class UnitStore {
+
+    private static final int MIN_CAPACITY = 1;
+
+    double[] x;
+    double[] y;
+    int[] hp;
+    int[] maxHp;
+    int[] movementRange;
+    int[] visionRange;
+    int[] fuel;
+    int[] maxFuel;
+    int[] missiles;
+    long[] owner;
+    // posicion de la unidad en la lista de drones de su jugador
+    int[] index;
+
+    final BitSet used = new BitSet();
+    final BitSet alive = new BitSet();
+    final BitSet deployed = new BitSet();
+    final BitSet positioned = new BitSet();
+
+    public UnitStore(int capacity) {
+        resize(Math.max(MIN_CAPACITY, capacity));
+    }
+
+    public int capacity() {
+        return hp.length;
+    }
+
+    /** Slots ocupados. */
+    public int size() {
+        return used.cardinality();
+    }
+
+    int allocate() {
+        int slot = used.nextClearBit(0);
+        if (slot >= capacity()) {
+            resize(Math.max(slot + 1, capacity() * 2));
+        }
+        used.set(slot);
+        x[slot] = 0;
+        y[slot] = 0;
+        hp[slot] = 0;
+        maxHp[slot] = 0;
+        movementRange[slot] = 0;
+        visionRange[slot] = 0;
+        fuel[slot] = 0;
+        maxFuel[slot] = 0;
+        missiles[slot] = 0;
+        owner[slot] = 0;
+        index[slot] = -1;
+        return slot;
+    }
+
+    void release(int slot) {
+        used.clear(slot);
+        alive.clear(slot);
+        deployed.clear(slot);
+        positioned.clear(slot);
+    }
+
+    static void copy(UnitStore from, int fromSlot, UnitStore to, int toSlot) {
+        to.x[toSlot] = from.x[fromSlot];
+        to.y[toSlot] = from.y[fromSlot];
+        to.hp[toSlot] = from.hp[fromSlot];
+        to.maxHp[toSlot] = from.maxHp[fromSlot];
+        to.movementRange[toSlot] = from.movementRange[fromSlot];
+        to.visionRange[toSlot] = from.visionRange[fromSlot];
+        to.fuel[toSlot] = from.fuel[fromSlot];
+        to.maxFuel[toSlot] = from.maxFuel[fromSlot];
+        to.missiles[toSlot] = from.missiles[fromSlot];
+        to.owner[toSlot] = from.owner[fromSlot];
+        to.index[toSlot] = from.index[fromSlot];
+        to.alive.set(toSlot, from.alive.get(fromSlot));
+        to.deployed.set(toSlot, from.deployed.get(fromSlot));
+        to.positioned.set(toSlot, from.positioned.get(fromSlot));
+    }
+
+    private void resize(int capacity) {
+        x = x == null ? new double[capacity] : Arrays.copyOf(x, capacity);
+        y = y == null ? new double[capacity] : Arrays.copyOf(y, capacity);
+        hp = grow(hp, capacity);
+        maxHp = grow(maxHp, capacity);
+        movementRange = grow(movementRange, capacity);
+        visionRange = grow(visionRange, capacity);
+        fuel = grow(fuel, capacity);
+        maxFuel = grow(maxFuel, capacity);
+        missiles = grow(missiles, capacity);
+        index = grow(index, capacity);
+        owner = owner == null ? new long[capacity] : Arrays.copyOf(owner, capacity);
+    }
+
+    private static int[] grow(int[] column, int capacity) {
+        return column == null ? new int[capacity] : Arrays.copyOf(column, capacity);
+    }
+
+    void destroy(int slot) {
+        hp[slot] = 0;
+        alive.clear(slot);
+    }
+
+    // ========== Columnas de los drones (las usan las vistas de units.drone) ==========
+
+    public int visionRange(int slot) {
+        return visionRange[slot];
+    }
+
+    public void setVisionRange(int slot, int value) {
+        visionRange[slot] = value;
+    }
+
+    public int fuel(int slot) {
+        return fuel[slot];
+    }
+
+    public void setFuel(int slot, int value) {
+        fuel[slot] = value;
+    }
+
+    public int maxFuel(int slot) {
+        return maxFuel[slot];
+    }
+
+    public void setMaxFuel(int slot, int value) {
+        maxFuel[slot] = value;
+    }
+
+    public int missiles(int slot) {
+        return missiles[slot];
+    }
+
+    public void setMissiles(int slot, int value) {
+        missiles[slot] = value;
+    }
+
+    public boolean isDeployed(int slot) {
+        return deployed.get(slot);
+    }
+
+    public void setDeployed(int slot, boolean value) {
+        deployed.set(slot, value);
+    }
+
+    // ========== Recorridos por jugador ==========
+
+    /**
+     * true si el jugador tiene al menos una unidad viva.
+     */
+    public boolean anyAlive(long ownerId) {
+        for (int slot = alive.nextSetBit(0); slot >= 0; slot = alive.nextSetBit(slot + 1)) {
+            if (owner[slot] == ownerId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Descuenta combustible a las unidades desplegadas y vivas del jugador. Las que se quedan sin
+     * combustible se destruyen; devuelve sus indices en la lista del jugador, en orden.
+     */
+    public List<Integer> consumeIdleFuel(long ownerId, int amount) {
+        List<Integer> destroyed = new ArrayList<>();
+        if (amount <= 0) {
+            return destroyed;
+        }
+        for (int slot = deployed.nextSetBit(0); slot >= 0; slot = deployed.nextSetBit(slot + 1)) {
+            if (owner[slot] != ownerId || !alive.get(slot)) {
+                continue;
+            }
+            fuel[slot] = Math.max(0, fuel[slot] - amount);
+            if (fuel[slot] <= 0) {
+                destroy(slot);
+                destroyed.add(index[slot]);
+            }
+        }
+        destroyed.sort(null);
+        return destroyed;
+    }
+
+    /**
+     * Destruye las unidades vivas del jugador que siguen en el hangar (no desplegadas).
+     */
+    public void destroyUndeployed(long ownerId) {
+        for (int slot = alive.nextSetBit(0); slot >= 0; slot = alive.nextSetBit(slot + 1)) {
+            if (owner[slot] == ownerId && !deployed.get(slot)) {
+                destroy(slot);
+            }
+        }
+    }
+}
@@ -3,28 +3,31 @@ package com.example.proyect.game.units.drone;
 import com.example.proyect.game.units.Unit;
 import com.example.proyect.game.units.weapons.Weapon;
 
+/**
+ * Vista de un drone sobre su slot del UnitStore; el arma sigue siendo un objeto propio.
+ * deployed: true = desplegado en el campo de batalla; false = todavia en su carrier.
+ */
 public abstract class Drone extends Unit {
 
-    private int visionRange;
+    private static final int DEFAULT_FUEL = 10;
+
     private Weapon weapon;
-    private int maxFuel = 10;
-    private int fuel = 10;
-    /** true = the drone has been deployed onto the battlefield; false = still inside its carrier */
-    private boolean deployed = false;
 
     public Drone() {
         super();
+        store().setMaxFuel(slot(), DEFAULT_FUEL);
+        store().setFuel(slot(), DEFAULT_FUEL);
     }
 
     public int getVisionRange() {
-        return visionRange;
+        return store().visionRange(slot());
     }
 
     public void setVisionRange(int visionRange) {
         if (visionRange < 0) {
             throw new IllegalArgumentException("visionRange no puede ser negativo");
         }
-        this.visionRange = visionRange;
+        store().setVisionRange(slot(), visionRange);
     }
 
     public Weapon getWeapon() {
@@ -32,11 +35,11 @@ public abstract class Drone extends Unit {
     }
 
     public int getMaxFuel() {
-        return maxFuel;
+        return store().maxFuel(slot());
     }
 
     public int getFuel() {
-        return fuel;
+        return store().fuel(slot());
     }
 
     protected void setWeapon(Weapon weapon) {
@@ -50,31 +53,31 @@ public abstract class Drone extends Unit {
         if (maxFuel < 0) {
             throw new IllegalArgumentException("maxFuel no puede ser negativo");
         }
-        this.maxFuel = maxFuel;
-        if (fuel > maxFuel) {
-            fuel = maxFuel;
+        store().setMaxFuel(slot(), maxFuel);
+        if (getFuel() > maxFuel) {
+            store().setFuel(slot(), maxFuel);
         }
     }
 
     public void setFuel(int fuel) {
-        if (fuel < 0 || fuel > maxFuel) {
+        if (fuel < 0 || fuel > getMaxFuel()) {
             throw new IllegalArgumentException("fuel fuera de rango");
         }
-        this.fuel = fuel;
+        store().setFuel(slot(), fuel);
     }
 
     public void consumeFuel(int amount) {
         if (amount <= 0 || !isAlive()) {
             return;
         }
-        fuel = Math.max(0, fuel - amount);
+        store().setFuel(slot(), Math.max(0, getFuel() - amount));
     }
 
     public boolean isDeployed() {
-        return deployed;
+        return store().isDeployed(slot());
     }
 
     public void setDeployed(boolean deployed) {
-        this.deployed = deployed;
+        store().setDeployed(slot(), deployed);
     }
 }
@@ -7,8 +7,6 @@ public class NavalDrone extends Drone {
 
     public static final int DEFAULT_MISSILES = UnitBalanceRegistry.DEFAULT_NAVAL_DRONE_MISSILES;
 
-    private int missiles;
-
     public NavalDrone() {
         super();
 
@@ -25,7 +23,7 @@ public class NavalDrone extends Drone {
             UnitBalanceRegistry.getNavalDroneAccuracy(),
             8
         ));
-        this.missiles = UnitBalanceRegistry.getNavalDroneMissiles();
+        setMissiles(UnitBalanceRegistry.getNavalDroneMissiles());
     }
 
     public static int getConfiguredDefaultMissiles() {
@@ -33,24 +31,24 @@ public class NavalDrone extends Drone {
     }
 
     public int getMissiles() {
-        return missiles;
+        return store().missiles(slot());
     }
 
     public void setMissiles(int missiles) {
         if (missiles < 0) {
             throw new IllegalArgumentException("missiles no puede ser negativo");
         }
-        this.missiles = missiles;
+        store().setMissiles(slot(), missiles);
     }
 
     public boolean hasMissiles() {
-        return missiles > 0;
+        return getMissiles() > 0;
     }
 
     public void consumeMissile() {
         if (!hasMissiles()) {
             throw new IllegalStateException("No hay misiles disponibles");
         }
-        missiles--;
+        store().setMissiles(slot(), getMissiles() - 1);
     }
 }
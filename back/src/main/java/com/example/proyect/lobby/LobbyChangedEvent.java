@@ -0,0 +1,25 @@
+package com.example.proyect.lobby;
+
+import java.util.Set;
+
+/**
+ * Evento de aplicacion que publica LobbyService cuando cambia un lobby.
+ *
+ * affectedUserIds son los jugadores que estaban o quedaron en el lobby (incluye al que salio),
+ * para avisarles aunque el lobby ya no exista.
+ */
+public record LobbyChangedEvent(String lobbyId, Type type, Set<Long> affectedUserIds) {
+
+    public enum Type {
+        CREATED,
+        JOINED,
+        LEFT,
+        STARTED,
+        EXPIRED,
+        REMOVED
+    }
+
+    public LobbyChangedEvent {
+        affectedUserIds = affectedUserIds != null ? Set.copyOf(affectedUserIds) : Set.of();
+    }
+}
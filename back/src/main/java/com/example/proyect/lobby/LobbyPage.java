@@ -0,0 +1,13 @@
+package com.example.proyect.lobby;
+
+import java.util.List;
+
+/**
+ * Pagina de lobbies abiertos. nextCursor es null cuando no hay mas.
+ */
+public record LobbyPage(List<Lobby> lobbies, String nextCursor) {
+
+    public LobbyPage {
+        lobbies = List.copyOf(lobbies);
+    }
+}
@@ -1,12 +1,16 @@
 package com.example.proyect.lobby.api;
 
 import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyPage;
+import com.example.proyect.lobby.service.LobbyEventStream;
 import com.example.proyect.lobby.service.LobbyService;
 import com.example.proyect.auth.security.JwtService;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
@@ -18,12 +22,16 @@ import java.util.Optional;
 @RequestMapping("/api/lobby")
 public class LobbyController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final LobbyService lobbyService;
     private final JwtService jwtService;
+    private final LobbyEventStream lobbyEventStream;
 
-    public LobbyController(LobbyService lobbyService, JwtService jwtService) {
+    public LobbyController(LobbyService lobbyService, JwtService jwtService, LobbyEventStream lobbyEventStream) {
         this.lobbyService = lobbyService;
         this.jwtService = jwtService;
+        this.lobbyEventStream = lobbyEventStream;
     }
 
     /**
@@ -85,12 +93,16 @@ public class LobbyController {
     }
 
     /**
-     * Get all available lobbies.
-     * GET /api/lobby/list
-     * Load-game lobbies only appear to their expected opponent.
+     * Get available lobbies, one page at a time.
+     * GET /api/lobby/list?cursor=&limit=
+     * Load-game lobbies only appear to their expected opponent; if there are any, only those are listed.
+     * The cursor for the next page comes in the X-Next-Cursor header.
      */
     @GetMapping("/list")
-    public ResponseEntity<List<Map<String, Object>>> listLobbies(HttpServletRequest request) {
+    public ResponseEntity<List<Map<String, Object>>> listLobbies(
+            HttpServletRequest request,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + LobbyService.DEFAULT_PAGE_SIZE) int limit) {
         Long userId = null;
         try {
             userId = extractUserId(request);
@@ -98,45 +110,37 @@ public class LobbyController {
             // User not authenticated, show only public lobbies
         }
 
-        List<Lobby> lobbies = lobbyService.getAllLobbies();
-        final Long currentUserId = userId;
-        
-        List<Map<String, Object>> lobbyDtos = lobbies.stream()
-                .filter(lobby -> {
-                    // Hide load-game lobbies from everyone except the expected opponent
-                    if (lobby.isLoadGameLobby()) {
-                        return currentUserId != null && 
-                               lobby.getExpectedOpponentId() != null &&
-                               lobby.getExpectedOpponentId().equals(currentUserId);
-                    }
-                    return true; // Show normal lobbies to everyone
-                })
-                .map(lobby -> {
-                    Map<String, Object> map = new java.util.HashMap<>();
-                    map.put("lobbyId", lobby.getLobbyId());
-                    map.put("creatorUsername", lobby.getCreatorUsername());
-                    map.put("playerCount", lobby.getPlayerIds().size());
-                    map.put("maxPlayers", 2);
-                    map.put("status", lobby.getStatus().name());
-                    map.put("isFull", lobby.isFull());
-                    map.put("isLoadGame", lobby.isLoadGameLobby());
-                    if (lobby.isLoadGameLobby()) {
-                        map.put("gameId", lobby.getGameId());
-                    }
-                    return map;
-                })
-                .collect(java.util.stream.Collectors.toList());
-
-            // If there is at least one visible resume invitation, show only those entries.
-            boolean hasLoadGameInvites = lobbyDtos.stream()
-                .anyMatch(dto -> Boolean.TRUE.equals(dto.get("isLoadGame")));
-            if (hasLoadGameInvites) {
-                lobbyDtos = lobbyDtos.stream()
-                    .filter(dto -> Boolean.TRUE.equals(dto.get("isLoadGame")))
-                    .collect(java.util.stream.Collectors.toList());
-            }
-        
-        return ResponseEntity.ok(lobbyDtos);
+        List<Lobby> invites = lobbyService.getLoadGameInvites(userId);
+        if (!invites.isEmpty()) {
+            return ResponseEntity.ok(LobbyViews.lobbyList(invites, userId));
+        }
+
+        LobbyPage page;
+        try {
+            page = lobbyService.getOpenLobbies(cursor, limit);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(LobbyViews.lobbyList(page.lobbies(), userId));
+    }
+
+    /**
+     * Push stream of lobby changes (Server-Sent Events), replaces polling /list and /my-lobby.
+     * GET /api/lobby/events
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> lobbyEvents(HttpServletRequest request) {
+        Long userId;
+        try {
+            userId = extractUserId(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.ok(lobbyEventStream.subscribe(userId));
     }
 
     /**
@@ -175,23 +179,7 @@ public class LobbyController {
         try {
             Long userId = extractUserId(request);
             Optional<Lobby> lobbyOpt = lobbyService.getLobbyByUserId(userId);
-            
-            if (lobbyOpt.isEmpty()) {
-                return ResponseEntity.ok(Map.of("inLobby", false));
-            }
-            
-            Lobby lobby = lobbyOpt.get();
-            Map<String, Object> response = new java.util.HashMap<>();
-            response.put("inLobby", true);
-            response.put("lobbyId", lobby.getLobbyId());
-            response.put("creatorUsername", lobby.getCreatorUsername());
-            response.put("playerCount", lobby.getPlayerIds().size());
-            response.put("status", lobby.getStatus().name());
-            response.put("isLoadGame", lobby.isLoadGameLobby());
-            if (lobby.isLoadGameLobby()) {
-                response.put("gameId", lobby.getGameId());
-            }
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(LobbyViews.myLobby(lobbyOpt));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(Map.of("error", e.getMessage()));
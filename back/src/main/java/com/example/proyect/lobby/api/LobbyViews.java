@@ -0,0 +1,88 @@
+package com.example.proyect.lobby.api;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import com.example.proyect.lobby.Lobby;
+
+/**
+ * Respuestas JSON de los lobbies, compartidas por la API REST y el stream de eventos.
+ */
+public final class LobbyViews {
+
+    private LobbyViews() {
+        // Utility class - prevent instantiation
+    }
+
+    /**
+     * Lista de lobbies visible para un usuario (null = no autenticado).
+     * Los lobbies de partida guardada solo los ve el oponente esperado, y si tiene alguno solo ve esos.
+     */
+    public static List<Map<String, Object>> lobbyList(List<Lobby> lobbies, Long currentUserId) {
+        List<Map<String, Object>> lobbyDtos = lobbies.stream()
+                .filter(lobby -> {
+                    // Hide load-game lobbies from everyone except the expected opponent
+                    if (lobby.isLoadGameLobby()) {
+                        return currentUserId != null &&
+                               lobby.getExpectedOpponentId() != null &&
+                               lobby.getExpectedOpponentId().equals(currentUserId);
+                    }
+                    return true; // Show normal lobbies to everyone
+                })
+                .map(LobbyViews::lobby)
+                .collect(Collectors.toList());
+
+        // If there is at least one visible resume invitation, show only those entries.
+        boolean hasLoadGameInvites = lobbyDtos.stream()
+            .anyMatch(dto -> Boolean.TRUE.equals(dto.get("isLoadGame")));
+        if (hasLoadGameInvites) {
+            lobbyDtos = lobbyDtos.stream()
+                .filter(dto -> Boolean.TRUE.equals(dto.get("isLoadGame")))
+                .collect(Collectors.toList());
+        }
+        return lobbyDtos;
+    }
+
+    /**
+     * Una entrada de la lista de lobbies.
+     */
+    public static Map<String, Object> lobby(Lobby lobby) {
+        Map<String, Object> map = new HashMap<>();
+        map.put("lobbyId", lobby.getLobbyId());
+        map.put("creatorUsername", lobby.getCreatorUsername());
+        map.put("playerCount", lobby.getPlayerIds().size());
+        map.put("maxPlayers", 2);
+        map.put("status", lobby.getStatus().name());
+        map.put("isFull", lobby.isFull());
+        map.put("isLoadGame", lobby.isLoadGameLobby());
+        if (lobby.isLoadGameLobby()) {
+            map.put("gameId", lobby.getGameId());
+        }
+        return map;
+    }
+
+    /**
+     * Estado del lobby del usuario (respuesta de /api/lobby/my-lobby).
+     */
+    public static Map<String, Object> myLobby(Optional<Lobby> lobbyOpt) {
+        if (lobbyOpt.isEmpty()) {
+            return Map.of("inLobby", false);
+        }
+
+        Lobby lobby = lobbyOpt.get();
+        Map<String, Object> response = new HashMap<>();
+        response.put("inLobby", true);
+        response.put("lobbyId", lobby.getLobbyId());
+        response.put("creatorUsername", lobby.getCreatorUsername());
+        response.put("playerCount", lobby.getPlayerIds().size());
+        response.put("status", lobby.getStatus().name());
+        response.put("isLoadGame", lobby.isLoadGameLobby());
+        if (lobby.isLoadGameLobby()) {
+            response.put("gameId", lobby.getGameId());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.proyect.lobby.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.proyect.config.LobbyEventProperties;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyChangedEvent;
+import com.example.proyect.lobby.LobbyStatus;
+import com.example.proyect.lobby.api.LobbyViews;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Stream de eventos de lobby por Server-Sent Events (GET /api/lobby/events).
+ *
+ * Cada suscriptor recibe, con el mismo JSON que la API REST:
+ *   lobbies      -> al conectarse, la primera pagina de /api/lobby/list vista por ese usuario
+ *   lobbyAdded   -> un lobby publico nuevo (una entrada de la lista)
+ *   lobbyUpdated -> un lobby publico que cambio
+ *   lobbyRemoved -> {lobbyId} de un lobby que empezo, vencio o se vacio
+ *   myLobby      -> el estado de /api/lobby/my-lobby
+ *
+ * Los LobbyChangedEvent solo marcan que lobbies cambiaron; un hilo los junta cada coalesceMs y
+ * manda un evento por lobby cambiado, no la lista entera, asi el costo de una ronda depende de lo
+ * que cambio y no de cuantos lobbies hay. Los lobbies de partida guardada solo los ve el oponente
+ * esperado, que reemplaza la lista por sus invitaciones: cuando cambian se le manda lobbies de nuevo.
+ */
+@Component
+public class LobbyEventStream {
+
+    private static final Logger log = LoggerFactory.getLogger(LobbyEventStream.class);
+
+    private final LobbyService lobbyService;
+    private final long emitterTimeoutMs;
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<SseEmitter, Long> subscribers = new ConcurrentHashMap<>();
+    // oponente de cada invitacion vista, para avisarle cuando desaparece (solo el hilo de flush)
+    private final Map<String, Long> inviteOpponents = new HashMap<>();
+
+    private final Object dirtyLock = new Object();
+    // lobbyId -> si se creo en esta ronda
+    private Map<String, Boolean> dirtyLobbies = new LinkedHashMap<>();
+    private Set<Long> dirtyUsers = new HashSet<>();
+
+    public LobbyEventStream(LobbyService lobbyService, LobbyEventProperties properties) {
+        this.lobbyService = lobbyService;
+        this.emitterTimeoutMs = properties.getEmitterTimeoutMs();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lobby-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long coalesceMs = Math.max(10, properties.getCoalesceMs());
+        long heartbeatMs = Math.max(1_000, properties.getHeartbeatMs());
+        scheduler.scheduleWithFixedDelay(this::flushSafely, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Registra un suscriptor y le manda el estado actual.
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(error -> subscribers.remove(emitter));
+
+        // se registra antes de leer el estado: un cambio concurrente sale en la proxima ronda
+        subscribers.put(emitter, userId);
+        if (send(emitter, "lobbies", LobbyViews.lobbyList(lobbyService.getFirstPageFor(userId), userId))) {
+            send(emitter, "myLobby", LobbyViews.myLobby(lobbyService.getLobbyByUserId(userId)));
+        }
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onLobbyChanged(LobbyChangedEvent event) {
+        synchronized (dirtyLock) {
+            boolean created = event.type() == LobbyChangedEvent.Type.CREATED;
+            dirtyLobbies.merge(event.lobbyId(), created, Boolean::logicalOr);
+            dirtyUsers.addAll(event.affectedUserIds());
+        }
+    }
+
+    /**
+     * Manda los cambios acumulados desde la ultima ronda.
+     */
+    public void flush() {
+        Map<String, Boolean> lobbies;
+        Set<Long> users;
+        synchronized (dirtyLock) {
+            if (dirtyLobbies.isEmpty() && dirtyUsers.isEmpty()) {
+                return;
+            }
+            lobbies = dirtyLobbies;
+            users = dirtyUsers;
+            dirtyLobbies = new LinkedHashMap<>();
+            dirtyUsers = new HashSet<>();
+        }
+
+        List<LobbyDelta> publicChanges = new ArrayList<>();
+        Set<Long> invitedUsers = new HashSet<>();
+        for (Map.Entry<String, Boolean> changed : lobbies.entrySet()) {
+            collectChange(changed.getKey(), changed.getValue(), publicChanges, invitedUsers);
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Map<String, Object>> myLobbyByUser = new HashMap<>();
+        for (Map.Entry<SseEmitter, Long> subscriber : subscribers.entrySet()) {
+            SseEmitter emitter = subscriber.getKey();
+            Long userId = subscriber.getValue();
+            if (!sendLobbyChanges(emitter, userId, publicChanges, invitedUsers)) {
+                continue;
+            }
+            if (users.contains(userId)) {
+                Map<String, Object> myLobby = myLobbyByUser.computeIfAbsent(
+                    userId, id -> LobbyViews.myLobby(lobbyService.getLobbyByUserId(id))
+                );
+                send(emitter, "myLobby", myLobby);
+            }
+        }
+    }
+
+    // un evento por lobby publico cambiado; los cambios de invitaciones solo marcan a su oponente
+    private void collectChange(String lobbyId, boolean created, List<LobbyDelta> publicChanges, Set<Long> invitedUsers) {
+        Lobby lobby = lobbyService.getLobbyById(lobbyId)
+            .filter(found -> found.getStatus() != LobbyStatus.STARTED)
+            .orElse(null);
+        if (lobby == null) {
+            Long opponentId = inviteOpponents.remove(lobbyId);
+            if (opponentId != null) {
+                invitedUsers.add(opponentId);
+            } else if (!created) {
+                // creado y cerrado en la misma ronda: nadie llego a verlo
+                publicChanges.add(new LobbyDelta("lobbyRemoved", Map.of("lobbyId", lobbyId)));
+            }
+            return;
+        }
+        if (lobby.isLoadGameLobby()) {
+            if (lobby.getExpectedOpponentId() != null) {
+                inviteOpponents.put(lobbyId, lobby.getExpectedOpponentId());
+                invitedUsers.add(lobby.getExpectedOpponentId());
+            }
+            return;
+        }
+        publicChanges.add(new LobbyDelta(created ? "lobbyAdded" : "lobbyUpdated", LobbyViews.lobby(lobby)));
+    }
+
+    private boolean sendLobbyChanges(SseEmitter emitter, Long userId, List<LobbyDelta> publicChanges,
+                                     Set<Long> invitedUsers) {
+        if (invitedUsers.contains(userId)) {
+            return send(emitter, "lobbies", LobbyViews.lobbyList(lobbyService.getFirstPageFor(userId), userId));
+        }
+        // quien tiene invitaciones solo ve esas, los lobbies publicos no le cambian la lista
+        if (publicChanges.isEmpty() || !lobbyService.getLoadGameInvites(userId).isEmpty()) {
+            return true;
+        }
+        for (LobbyDelta change : publicChanges) {
+            if (!send(emitter, change.name(), change.data())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record LobbyDelta(String name, Object data) {
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Lobby event flush failed: {}", ex.getMessage());
+        }
+    }
+
+    private void heartbeat() {
+        for (SseEmitter emitter : subscribers.keySet()) {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException ex) {
+                drop(emitter);
+            }
+        }
+    }
+
+    private boolean send(SseEmitter emitter, String name, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(name).data(data));
+            return true;
+        } catch (IOException | IllegalStateException ex) {
+            drop(emitter);
+            return false;
+        }
+    }
+
+    private void drop(SseEmitter emitter) {
+        subscribers.remove(emitter);
+        emitter.completeWithError(new IOException("Lobby event subscriber gone"));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (SseEmitter emitter : subscribers.keySet()) {
+            emitter.complete();
+        }
+        subscribers.clear();
+    }
+}
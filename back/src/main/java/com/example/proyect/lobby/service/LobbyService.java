@@ -1,18 +1,27 @@
 package com.example.proyect.lobby.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
 
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.proyect.game.TimerWheel;
 import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyChangedEvent;
+import com.example.proyect.lobby.LobbyPage;
 import com.example.proyect.lobby.LobbyStatus;
 import com.example.proyect.persistence.classes.Game;
 import com.example.proyect.persistence.classes.GameStatus;
@@ -23,14 +32,49 @@ import jakarta.persistence.EntityNotFoundException;
 @Service
 public class LobbyService {
     private static final Duration LOBBY_TTL = Duration.ofMinutes(5);
+    public static final int MAX_PAGE_SIZE = 100;
+    // primera pagina de /list y del stream de eventos
+    public static final int DEFAULT_PAGE_SIZE = 50;
 
     private final Map<String, Lobby> lobbies = new ConcurrentHashMap<>();
     private final Map<Long, String> userToLobby = new ConcurrentHashMap<>(); // Track which lobby each user is in
 
+    // Lobbies no comenzados en orden de creacion; la clave es el cursor de paginacion
+    private final ConcurrentNavigableMap<Long, Lobby> openLobbies = new ConcurrentSkipListMap<>();
+    private final Map<String, Long> openSequence = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence = new AtomicLong();
+    // Invitaciones de partida guardada por oponente esperado (solo las ve el)
+    private final Map<Long, Set<String>> invitesByOpponent = new ConcurrentHashMap<>();
+
+    // Timer de vencimiento (createdAt + TTL) de cada lobby no comenzado
+    private final Map<String, TimerWheel.Timeout> expiryTimers = new ConcurrentHashMap<>();
+
     private final GameRepository gameRepository;
+    // null = sin eventos (tests); en la app los consume LobbyEventStream
+    private final ApplicationEventPublisher eventPublisher;
+    // null = sin timers (tests); los lobbies vencidos se descartan al consultarlos
+    private final TimerWheel timerWheel;
+    private final Duration lobbyTtl;
 
     public LobbyService(GameRepository gameRepository) {
+        this(gameRepository, null);
+    }
+
+    public LobbyService(GameRepository gameRepository, ApplicationEventPublisher eventPublisher) {
+        this(gameRepository, eventPublisher, null, LOBBY_TTL);
+    }
+
+    @Autowired
+    public LobbyService(GameRepository gameRepository, ApplicationEventPublisher eventPublisher, TimerWheel timerWheel) {
+        this(gameRepository, eventPublisher, timerWheel, LOBBY_TTL);
+    }
+
+    public LobbyService(GameRepository gameRepository, ApplicationEventPublisher eventPublisher,
+                        TimerWheel timerWheel, Duration lobbyTtl) {
         this.gameRepository = gameRepository;
+        this.eventPublisher = eventPublisher;
+        this.timerWheel = timerWheel;
+        this.lobbyTtl = lobbyTtl;
     }
 
     /**
@@ -38,7 +82,6 @@ public class LobbyService {
      * @return The created Lobby
      */
     public Lobby createLobby(String creatorUsername, Long userId) {
-        purgeExpiredLobbies();
         // Remove user from any existing lobby first
         String existingLobbyId = userToLobby.get(userId);
         if (existingLobbyId != null) {
@@ -49,21 +92,81 @@ public class LobbyService {
         Lobby lobby = new Lobby(lobbyId, creatorUsername);
         lobby.addPlayer(userId);
         
-        lobbies.put(lobbyId, lobby);
+        register(lobby);
         userToLobby.put(userId, lobbyId);
+        publish(lobby, LobbyChangedEvent.Type.CREATED);
         
         return lobby;
     }
 
     /**
-     * Get all lobbies that are not yet started (WAITING or READY).
+     * Lobbies en memoria, incluidos los ya comenzados que todavia no se cerraron.
      */
-    public List<Lobby> getAllLobbies() {
-        purgeExpiredLobbies();
-        return lobbies.values().stream()
-            .filter(lobby -> lobby.getStatus() != LobbyStatus.STARTED)
-            .filter(lobby -> !lobby.isExpired(LOBBY_TTL))
-                .collect(Collectors.toList());
+    public int getLobbyCount() {
+        return lobbies.size();
+    }
+
+    /**
+     * Lobbies esperando jugadores (sin filtrar los vencidos que aun no se barrieron).
+     */
+    public int getOpenLobbyCount() {
+        return openLobbies.size();
+    }
+
+    /**
+     * Page of public (non load-game) lobbies in creation order.
+     * @param cursor nextCursor of the previous page, null for the first page
+     */
+    public LobbyPage getOpenLobbies(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ConcurrentNavigableMap<Long, Lobby> tail = cursor == null
+            ? openLobbies
+            : openLobbies.tailMap(parseCursor(cursor), false);
+
+        List<Lobby> page = new ArrayList<>(pageSize);
+        Long lastSequence = null;
+        for (Map.Entry<Long, Lobby> entry : tail.entrySet()) {
+            Lobby lobby = entry.getValue();
+            if (lobby.isLoadGameLobby() || lobby.isExpired(lobbyTtl)) {
+                continue;
+            }
+            if (page.size() == pageSize) {
+                return new LobbyPage(page, String.valueOf(lastSequence));
+            }
+            page.add(lobby);
+            lastSequence = entry.getKey();
+        }
+        return new LobbyPage(page, null);
+    }
+
+    /**
+     * Lo que muestra /list sin cursor: las invitaciones de partida guardada del usuario si tiene
+     * alguna, si no la primera pagina de lobbies publicos.
+     */
+    public List<Lobby> getFirstPageFor(Long userId) {
+        List<Lobby> invites = getLoadGameInvites(userId);
+        return invites.isEmpty() ? getOpenLobbies(null, DEFAULT_PAGE_SIZE).lobbies() : invites;
+    }
+
+    /**
+     * Load-game lobbies waiting for this user as opponent.
+     */
+    public List<Lobby> getLoadGameInvites(Long userId) {
+        if (userId == null) {
+            return List.of();
+        }
+        Set<String> lobbyIds = invitesByOpponent.get(userId);
+        if (lobbyIds == null) {
+            return List.of();
+        }
+        List<Lobby> invites = new ArrayList<>();
+        for (String lobbyId : lobbyIds) {
+            Lobby lobby = lobbies.get(lobbyId);
+            if (lobby != null && lobby.getStatus() != LobbyStatus.STARTED && !lobby.isExpired(lobbyTtl)) {
+                invites.add(lobby);
+            }
+        }
+        return invites;
     }
 
     /**
@@ -72,13 +175,12 @@ public class LobbyService {
      * @throws IllegalStateException if lobby is full or doesn't exist
      */
     public Lobby joinLobby(String lobbyId, Long userId) {
-        purgeExpiredLobbies();
         Lobby lobby = lobbies.get(lobbyId);
         if (lobby == null) {
             throw new IllegalArgumentException("Lobby no existe");
         }
-        if (lobby.isExpired(LOBBY_TTL)) {
-            removeLobby(lobbyId);
+        if (lobby.isExpired(lobbyTtl)) {
+            expire(lobby);
             throw new IllegalStateException("Lobby expirado");
         }
         if (lobby.isFull()) {
@@ -103,6 +205,7 @@ public class LobbyService {
 
         lobby.addPlayer(userId);
         userToLobby.put(userId, lobbyId);
+        publish(lobby, LobbyChangedEvent.Type.JOINED);
         
         return lobby;
     }
@@ -111,27 +214,33 @@ public class LobbyService {
      * Remove a lobby (called when game starts).
      */
     public void removeLobby(String lobbyId) {
-        Lobby lobby = lobbies.remove(lobbyId);
+        Lobby lobby = unregister(lobbyId);
         if (lobby != null) {
-            // Clean up user mappings
-            for (Long userId : lobby.getPlayerIds()) {
-                userToLobby.remove(userId);
-            }
+            publish(lobby, LobbyChangedEvent.Type.REMOVED);
         }
     }
 
+    /**
+     * Marca el lobby como comenzado (ya no aparece en la lista).
+     */
+    public void markStarted(Lobby lobby) {
+        lobby.markStarted();
+        cancelExpiry(lobby.getLobbyId());
+        unindexOpen(lobby);
+        publish(lobby, LobbyChangedEvent.Type.STARTED);
+    }
+
     /**
      * Find which lobby a player is in.
      */
     public Optional<Lobby> getLobbyByUserId(Long userId) {
-        purgeExpiredLobbies();
         String lobbyId = userToLobby.get(userId);
         if (lobbyId == null) {
             return Optional.empty();
         }
         Lobby lobby = lobbies.get(lobbyId);
-        if (lobby != null && lobby.isExpired(LOBBY_TTL)) {
-            removeLobby(lobbyId);
+        if (lobby != null && lobby.isExpired(lobbyTtl)) {
+            expire(lobby);
             return Optional.empty();
         }
         return Optional.ofNullable(lobby);
@@ -141,10 +250,9 @@ public class LobbyService {
      * Get a lobby by its ID.
      */
     public Optional<Lobby> getLobbyById(String lobbyId) {
-        purgeExpiredLobbies();
         Lobby lobby = lobbies.get(lobbyId);
-        if (lobby != null && lobby.isExpired(LOBBY_TTL)) {
-            removeLobby(lobbyId);
+        if (lobby != null && lobby.isExpired(lobbyTtl)) {
+            expire(lobby);
             return Optional.empty();
         }
         return Optional.ofNullable(lobby);
@@ -154,25 +262,24 @@ public class LobbyService {
      * Leave a lobby (cleanup).
      */
     public void leaveLobby(Long userId) {
-        purgeExpiredLobbies();
         String lobbyId = userToLobby.remove(userId);
         if (lobbyId != null) {
             Lobby lobby = lobbies.get(lobbyId);
             if (lobby != null) {
+                Set<Long> affected = new HashSet<>(lobby.getPlayerIds());
                 lobby.removePlayer(userId);
 
                 // If lobby is empty after user leaves, remove it fully.
                 if (lobby.getPlayerIds().isEmpty()) {
-                    lobbies.remove(lobbyId);
+                    unregister(lobbyId);
                 }
+                publish(lobbyId, LobbyChangedEvent.Type.LEFT, affected);
             }
         }
     }
 
     @Transactional
     public Lobby createLoadGameLobby(Long gameId, Long userId, String username) {
-        purgeExpiredLobbies();
-    
         Game game = gameRepository.findById(gameId)
                 .orElseThrow(() -> new EntityNotFoundException("Game not found: " + gameId));
 
@@ -206,32 +313,97 @@ public class LobbyService {
 
         lobby.setExpectedOpponentId(opponentId);
 
-        lobbies.put(lobbyId, lobby);
+        register(lobby);
         userToLobby.put(userId, lobbyId);  // Track the user's lobby
+        publish(lobby, LobbyChangedEvent.Type.CREATED);
 
         return lobby;
     }
 
-    @Scheduled(fixedDelay = 60_000)
-    public void scheduledLobbyCleanup() {
-        purgeExpiredLobbies();
+    // lo dispara la rueda de timers al vencer el TTL; avisa a los suscriptores sin esperar a una consulta
+    private void expireIfDue(String lobbyId) {
+        expiryTimers.remove(lobbyId);
+        Lobby lobby = lobbies.get(lobbyId);
+        if (lobby == null || lobby.getStatus() == LobbyStatus.STARTED) {
+            return;
+        }
+        expire(lobby);
     }
 
-    private void purgeExpiredLobbies() {
-        lobbies.entrySet().removeIf(entry -> {
-            Lobby lobby = entry.getValue();
-            if (lobby == null) return false;
-            if (lobby.getStatus() == LobbyStatus.STARTED) return false;
-            if (!lobby.isExpired(LOBBY_TTL)) return false;
-            for (Long userId : lobby.getPlayerIds()) {
-                userToLobby.remove(userId);
-            }
-            return true;
-        });
+    private void expire(Lobby lobby) {
+        if (unregister(lobby.getLobbyId()) != null) {
+            publish(lobby, LobbyChangedEvent.Type.EXPIRED);
+        }
     }
 
+    private void register(Lobby lobby) {
+        String lobbyId = lobby.getLobbyId();
+        lobbies.put(lobbyId, lobby);
 
+        long sequence = nextSequence.incrementAndGet();
+        openSequence.put(lobbyId, sequence);
+        openLobbies.put(sequence, lobby);
+        if (lobby.isLoadGameLobby() && lobby.getExpectedOpponentId() != null) {
+            invitesByOpponent
+                .computeIfAbsent(lobby.getExpectedOpponentId(), id -> ConcurrentHashMap.newKeySet())
+                .add(lobbyId);
+        }
 
+        if (timerWheel != null) {
+            expiryTimers.put(lobbyId, timerWheel.schedule(() -> expireIfDue(lobbyId), lobbyTtl.toMillis()));
+        }
+    }
 
-}
+    private Lobby unregister(String lobbyId) {
+        Lobby lobby = lobbies.remove(lobbyId);
+        if (lobby == null) {
+            return null;
+        }
+        cancelExpiry(lobbyId);
+        unindexOpen(lobby);
+        // Clean up user mappings
+        for (Long userId : lobby.getPlayerIds()) {
+            userToLobby.remove(userId, lobbyId);
+        }
+        return lobby;
+    }
+
+    private void cancelExpiry(String lobbyId) {
+        TimerWheel.Timeout timeout = expiryTimers.remove(lobbyId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void unindexOpen(Lobby lobby) {
+        Long sequence = openSequence.remove(lobby.getLobbyId());
+        if (sequence != null) {
+            openLobbies.remove(sequence);
+        }
+        Long opponentId = lobby.getExpectedOpponentId();
+        if (opponentId != null) {
+            invitesByOpponent.computeIfPresent(opponentId, (id, lobbyIds) -> {
+                lobbyIds.remove(lobby.getLobbyId());
+                return lobbyIds.isEmpty() ? null : lobbyIds;
+            });
+        }
+    }
 
+    private static long parseCursor(String cursor) {
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor invalido");
+        }
+    }
+
+    private void publish(Lobby lobby, LobbyChangedEvent.Type type) {
+        publish(lobby.getLobbyId(), type, new HashSet<>(lobby.getPlayerIds()));
+    }
+
+    private void publish(String lobbyId, LobbyChangedEvent.Type type, Set<Long> affectedUserIds) {
+        if (eventPublisher != null) {
+            eventPublisher.publishEvent(new LobbyChangedEvent(lobbyId, type, affectedUserIds));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.proyect.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.websocket.packet.PacketType;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers y resumenes del servidor de juego, publicados en /actuator/prometheus.
+ *
+ * Todos los medidores se registran en el constructor: en el camino caliente solo se indexa un
+ * arreglo por ordinal y se llama a record(nanos), sin armar tags ni buscar en el registry.
+ * Los gauges y contadores que ya existen como estado de otros componentes van en GameMetricsBinder.
+ */
+@Component
+public class GameMetrics {
+
+    /** Escrituras a la base que se miden por separado. */
+    public enum DbOperation {
+        SAVE("save"),
+        FINISH_GAME("finishGame"),
+        MATCH_RESULT("matchResult");
+
+        private final String tag;
+
+        DbOperation(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Duration MIN_EXPECTED = Duration.ofNanos(20_000);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(10);
+
+    private final Timer[] packetTimers = new Timer[PacketType.values().length];
+    private final Timer[] dbTimers = new Timer[DbOperation.values().length];
+    private final Timer jwtValid;
+    private final Timer jwtInvalid;
+    private final DistributionSummary sessionMessages;
+    private final DistributionSummary sessionBytes;
+
+    public GameMetrics(MeterRegistry registry) {
+        for (PacketType type : PacketType.values()) {
+            packetTimers[type.ordinal()] = Timer.builder("game.packet.handling")
+                .description("Tiempo desde que llega un paquete hasta que termina su manejo (incluye la espera en el shard)")
+                .tag("type", type.getValue())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+        }
+        for (DbOperation operation : DbOperation.values()) {
+            dbTimers[operation.ordinal()] = Timer.builder("game.db.time")
+                .description("Tiempo en la base dentro de save, markGameAsFinished y registerMatchResult")
+                .tag("operation", operation.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MIN_EXPECTED)
+                .maximumExpectedValue(MAX_EXPECTED)
+                .register(registry);
+        }
+        this.jwtValid = jwtTimer(registry, "valid");
+        this.jwtInvalid = jwtTimer(registry, "invalid");
+        this.sessionMessages = DistributionSummary.builder("game.ws.session.outbound.messages")
+            .description("Mensajes enviados a cada sesion WebSocket, registrado al cerrarse")
+            .publishPercentileHistogram()
+            .register(registry);
+        this.sessionBytes = DistributionSummary.builder("game.ws.session.outbound.bytes")
+            .description("Bytes enviados a cada sesion WebSocket, registrado al cerrarse")
+            .baseUnit("bytes")
+            .publishPercentileHistogram()
+            .register(registry);
+    }
+
+    private static Timer jwtTimer(MeterRegistry registry, String result) {
+        return Timer.builder("game.jwt.validation")
+            .description("Validacion de firma y vencimiento del JWT")
+            .tag("result", result)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(1_000))
+            .maximumExpectedValue(Duration.ofMillis(100))
+            .register(registry);
+    }
+
+    /** startNanos es System.nanoTime() tomado al recibir el frame. */
+    public void recordPacket(PacketType type, long startNanos) {
+        packetTimers[type.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordDb(DbOperation operation, long startNanos) {
+        dbTimers[operation.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordJwtValidation(boolean valid, long startNanos) {
+        (valid ? jwtValid : jwtInvalid).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /** Totales de salida de una sesion que se cerro; el agregado en vivo esta en GameMetricsBinder. */
+    public void recordSessionClosed(long messages, long bytes) {
+        sessionMessages.record(messages);
+        sessionBytes.record(bytes);
+    }
+}
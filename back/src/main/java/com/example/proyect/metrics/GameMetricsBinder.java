@@ -0,0 +1,77 @@
+package com.example.proyect.metrics;
+
+import org.springframework.stereotype.Component;
+
+import com.example.proyect.controller.GameController;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.websocket.GameWebSocketHandler;
+import com.example.proyect.websocket.SessionOutboxRegistry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Gauges y contadores que leen estado que ya llevan los componentes (mapas de rooms, lobbies,
+ * sesiones y los LongAdder de las colas de salida). Se calculan al momento del scrape, asi que
+ * no suman nada al camino caliente.
+ */
+@Component
+public class GameMetricsBinder implements MeterBinder {
+
+    private final GameController gameController;
+    private final LobbyService lobbyService;
+    private final GameWebSocketHandler webSocketHandler;
+    private final SessionOutboxRegistry outboxes;
+
+    public GameMetricsBinder(GameController gameController, LobbyService lobbyService,
+                             GameWebSocketHandler webSocketHandler, SessionOutboxRegistry outboxes) {
+        this.gameController = gameController;
+        this.lobbyService = lobbyService;
+        this.webSocketHandler = webSocketHandler;
+        this.outboxes = outboxes;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("game.rooms.active", gameController, GameController::getActiveRoomCount)
+            .description("Rooms en memoria")
+            .register(registry);
+        Gauge.builder("game.disconnect.forfeits.pending", gameController, GameController::getPendingDisconnectForfeitCount)
+            .description("Jugadores desconectados esperando el vencimiento de la gracia de reconexion")
+            .register(registry);
+        Gauge.builder("game.lobbies", lobbyService, LobbyService::getLobbyCount)
+            .description("Lobbies en memoria")
+            .register(registry);
+        Gauge.builder("game.lobbies.open", lobbyService, LobbyService::getOpenLobbyCount)
+            .description("Lobbies esperando jugadores")
+            .register(registry);
+        Gauge.builder("game.ws.sessions", webSocketHandler, GameWebSocketHandler::getSessionCount)
+            .description("Sesiones WebSocket autenticadas")
+            .register(registry);
+
+        Gauge.builder("game.ws.outbox.queued", outboxes, o -> o.stats().queuedMessages())
+            .description("Mensajes esperando en las colas de salida")
+            .register(registry);
+        Gauge.builder("game.ws.outbox.depth.max", outboxes, o -> o.stats().maxQueueDepth())
+            .description("Mayor profundidad alcanzada por una cola de salida")
+            .register(registry);
+        FunctionCounter.builder("game.ws.outbound.messages", outboxes, o -> o.stats().sentMessages())
+            .description("Mensajes escritos en los sockets")
+            .register(registry);
+        FunctionCounter.builder("game.ws.outbound.bytes", outboxes, o -> o.stats().sentBytes())
+            .description("Bytes escritos en los sockets")
+            .baseUnit("bytes")
+            .register(registry);
+        FunctionCounter.builder("game.ws.outbox.dropped", outboxes, o -> o.stats().droppedMessages())
+            .description("Mensajes descartados por desborde de la cola de salida")
+            .register(registry);
+        FunctionCounter.builder("game.ws.outbox.resyncs", outboxes, o -> o.stats().resyncs())
+            .description("Colas reemplazadas por un snapshot completo (politica RESYNC)")
+            .register(registry);
+        FunctionCounter.builder("game.ws.outbox.disconnects", outboxes, o -> o.stats().disconnects())
+            .description("Sesiones cortadas por desborde o envio trabado")
+            .register(registry);
+    }
+}
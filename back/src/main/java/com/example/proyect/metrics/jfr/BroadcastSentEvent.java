@@ -0,0 +1,38 @@
+package com.example.proyect.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Difusion de un paquete a las sesiones de una room. Con la cola de salida habilitada la duracion
+ * es serializar y encolar; la escritura en el socket la hace despues el drenador de cada sesion.
+ */
+@Name(BroadcastSentEvent.NAME)
+@Label("Broadcast Sent")
+@Category({"Proyect", "WebSocket"})
+@Description("Paquete difundido a los jugadores de una room")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class BroadcastSentEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.proyect.BroadcastSent";
+
+    @Label("Packet Type")
+    public String packetType;
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Recipients")
+    public int recipients;
+
+    @Label("Bytes")
+    @Description("Suma de lo encolado para todas las sesiones")
+    @DataAmount
+    public long bytes;
+}
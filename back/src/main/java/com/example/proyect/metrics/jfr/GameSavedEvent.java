@@ -0,0 +1,42 @@
+package com.example.proyect.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Guardado explicito de una partida (paquete save). La duracion es todo GameController.save.
+ */
+@Name(GameSavedEvent.NAME)
+@Label("Game Saved")
+@Category({"Proyect", "Persistence"})
+@Description("Partida guardada en la base a pedido de un jugador")
+@StackTrace(false)
+public final class GameSavedEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.proyect.GameSaved";
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Game Id")
+    public long gameId;
+
+    @Label("Snapshot Size")
+    @Description("JSON del GameState tal como lo escribe GameStateJsonConverter")
+    @DataAmount
+    public long snapshotBytes;
+
+    @Label("Serialize Time")
+    @Description("Armado del estado persistido (toPersistedStateMap)")
+    @Timespan(Timespan.NANOSECONDS)
+    public long serializeTime;
+
+    @Label("Database Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+}
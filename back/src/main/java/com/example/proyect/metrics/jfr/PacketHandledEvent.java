@@ -0,0 +1,43 @@
+package com.example.proyect.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Un paquete entrante manejado de punta a punta. La duracion del evento es el manejo en el shard
+ * de la room; queueTime es la espera desde que llego el frame hasta que el shard lo tomo.
+ * El umbral se aplica solo al manejo: para ver la espera completa grabar con umbral 0 (jfr/proyect.jfc).
+ */
+@Name(PacketHandledEvent.NAME)
+@Label("Packet Handled")
+@Category({"Proyect", "WebSocket"})
+@Description("Paquete entrante de un cliente WebSocket, desde el shard de la room hasta el fin del manejo")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class PacketHandledEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.proyect.PacketHandled";
+
+    @Label("Packet Type")
+    public String packetType;
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Session Id")
+    public String sessionId;
+
+    @Label("Queue Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueTime;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+}
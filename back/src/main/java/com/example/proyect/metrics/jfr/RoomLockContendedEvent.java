@@ -0,0 +1,46 @@
+package com.example.proyect.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Espera por el monitor de un GameRoom. Complementa jdk.JavaMonitorEnter con la room y el metodo;
+ * el umbral descarta las entradas sin competencia.
+ */
+@Name(RoomLockContendedEvent.NAME)
+@Label("Room Lock Contended")
+@Category({"Proyect", "Game"})
+@Description("Tiempo esperando el lock de una room en los metodos del camino caliente")
+@StackTrace(false)
+@Threshold("1 ms")
+public final class RoomLockContendedEvent extends jdk.jfr.Event {
+
+    public static final String NAME = "com.example.proyect.RoomLockContended";
+
+    @Label("Room Id")
+    public String roomId;
+
+    @Label("Method")
+    public String method;
+
+    /** Se llama justo antes de entrar al synchronized. */
+    public static RoomLockContendedEvent waiting() {
+        RoomLockContendedEvent event = new RoomLockContendedEvent();
+        event.begin();
+        return event;
+    }
+
+    /** Se llama como primera instruccion dentro del synchronized. */
+    public void acquired(String roomId, String method) {
+        end();
+        if (shouldCommit()) {
+            this.roomId = roomId;
+            this.method = method;
+            commit();
+        }
+    }
+}
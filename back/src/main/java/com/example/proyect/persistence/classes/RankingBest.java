@@ -0,0 +1,45 @@
+package com.example.proyect.persistence.classes;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Mejor snapshot de ranking de cada usuario (tabla ranking_best).
+ * La mantiene un trigger de Postgres sobre ranking (ver SQL/Create_tables.sql), la app solo la lee.
+ */
+@Entity
+@Table(name = "ranking_best")
+public class RankingBest {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "ranking_id", nullable = false)
+    private Long rankingId;
+
+    @Column(name = "points", nullable = false)
+    private Integer points = 0;
+
+    @Column(name = "reached_at", nullable = false)
+    private OffsetDateTime reachedAt;
+
+    public RankingBest() {}
+
+    // Getters y setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getRankingId() { return rankingId; }
+    public void setRankingId(Long rankingId) { this.rankingId = rankingId; }
+
+    public Integer getPoints() { return points; }
+    public void setPoints(Integer points) { this.points = points; }
+
+    public OffsetDateTime getReachedAt() { return reachedAt; }
+    public void setReachedAt(OffsetDateTime reachedAt) { this.reachedAt = reachedAt; }
+}
@@ -115,6 +115,11 @@ public class User {
     }
 
     private void recalculateScore() {
-        this.score = Math.max(0, this.wins * 11 - this.losses * 5);
+        this.score = scoreFor(this.wins, this.losses);
+    }
+
+    // formula del puntaje, tambien la usa el volcado por lotes de MatchResultRecorder
+    public static int scoreFor(int wins, int losses) {
+        return Math.max(0, wins * 11 - losses * 5);
     }
 }
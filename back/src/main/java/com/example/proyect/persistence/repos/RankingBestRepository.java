@@ -0,0 +1,9 @@
+package com.example.proyect.persistence.repos;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.proyect.persistence.classes.RankingBest;
+
+// Solo lectura: ranking_best la mantiene el trigger sobre ranking
+public interface RankingBestRepository extends JpaRepository<RankingBest, Long> {
+}
@@ -0,0 +1,90 @@
+package com.example.proyect.websocket;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+
+/**
+ * Un paquete listo para mandar a varias sesiones: se serializa a JSON y/o binario
+ * una sola vez, segun el protocolo que negocio cada sesion.
+ */
+public final class EncodedPacket {
+
+    private final Packet packet;
+    private TextMessage text;
+    private byte[] binary;
+    private int textBytes = -1;
+
+    public EncodedPacket(Packet packet) {
+        this.packet = packet;
+    }
+
+    public Packet packet() {
+        return packet;
+    }
+
+    public WebSocketMessage<?> messageFor(WebSocketSession session) {
+        if (usesBinary(session)) {
+            // un ByteBuffer por envio: el contenedor consume su posicion al escribir
+            return new BinaryMessage(ByteBuffer.wrap(binary()));
+        }
+        return text();
+    }
+
+    /**
+     * Bytes en el cable para esa sesion. Se calcula una vez por paquete: TextMessage.getPayloadLength()
+     * arma un byte[] nuevo en cada llamada.
+     */
+    public int payloadLength(WebSocketSession session) {
+        if (usesBinary(session)) {
+            return binary().length;
+        }
+        if (textBytes < 0) {
+            textBytes = utf8Length(text().getPayload());
+        }
+        return textBytes;
+    }
+
+    private byte[] binary() {
+        if (binary == null) {
+            binary = BinaryPacketCodec.encode(packet);
+        }
+        return binary;
+    }
+
+    private TextMessage text() {
+        if (text == null) {
+            text = new TextMessage(PacketSerializer.serialize(packet));
+        }
+        return text;
+    }
+
+    static int utf8Length(String value) {
+        int length = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                length++;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    static boolean usesBinary(WebSocketSession session) {
+        return BinaryPacketCodec.SUBPROTOCOL.equals(session.getAcceptedProtocol());
+    }
+}
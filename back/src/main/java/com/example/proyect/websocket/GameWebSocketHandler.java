@@ -1,23 +1,38 @@
 package com.example.proyect.websocket;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.SubProtocolCapable;
 import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
 import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
 
 import com.example.proyect.VOs.GameResult;
 import com.example.proyect.controller.GameController;
+import com.example.proyect.game.RoomCommandDispatcher;
+import com.example.proyect.game.eventlog.GameEvent;
+import com.example.proyect.game.eventlog.GameEventLog;
 import com.example.proyect.lobby.Lobby;
 import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.metrics.GameMetrics;
+import com.example.proyect.metrics.jfr.BroadcastSentEvent;
+import com.example.proyect.metrics.jfr.PacketHandledEvent;
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
 import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketBody;
 import com.example.proyect.websocket.packet.PacketSerializer;
+import com.example.proyect.websocket.packet.PacketType;
 
 /**
  * WebSocket handler.
@@ -28,6 +43,10 @@ import com.example.proyect.websocket.packet.PacketSerializer;
  *     { "type": "move", "droneIndex": 0, "x": 123.4, "y": 567.8 }
  *     { "type": "attack", "attackerIndex": 0, "targetPlayer": 1, "targetDrone": 0 }
  *     { "type": "endTurn" }
+ *     { "type": "ack", "seq": 12, "resync": false }   (opts the session into state deltas: from then on
+ *                                                      gameStart, moveDrone, carrierMoved, droneRecalled and
+ *                                                      visibilityUpdate are replaced by stateSnapshot/stateDelta)
+ *     { "type": "spectate", "lobbyId": "...", "playerIndex": 0 }   (read-only; without playerIndex, full view)
  *
  *   Server → Client:
  *     { "type": "welcome",      "playerId": "...", "playerIndex": 0 }
@@ -36,20 +55,55 @@ import com.example.proyect.websocket.packet.PacketSerializer;
  *     { "type": "moveDrone",    "playerIndex": 0, "droneIndex": 0, "x": ..., "y": ... }
  *     { "type": "attackResult", "attackerPlayer": 0, "attackerDrone": 0, "targetPlayer": 1, "targetDrone": 0, "damage": 25, "remainingHealth": 75 }
  *     { "type": "playerLeft",   "playerIndex": 0 }
+ *     { "type": "stateSnapshot", "seq": 12, "units": { "room": {...}, "p0": {...}, "p0.d3": {...} } }
+ *     { "type": "stateDelta",    "seq": 13, "baseSeq": 12, "changed": { "p0.d3": { "x": ..., "y": ... } } }
+ *     { "type": "visibilityUpdate", "revealed": [ ... ], "hidden": [ ... ] }   (only with game.fog-of-war=true)
+ *     { "type": "spectating",   "lobbyId": "...", "playerIndex": -1, "delayMs": 3000 }
  *     { "type": "error",        "message": "..." }
+ *
+ *   Clients that negotiate the "proyect.bin.v1" subprotocol exchange the same packets as binary
+ *   frames (see BinaryPacketCodec); everyone else keeps using JSON text frames.
  */
 @Component
-public class GameWebSocketHandler extends TextWebSocketHandler {
+public class GameWebSocketHandler extends AbstractWebSocketHandler implements SubProtocolCapable {
 
     private static final Logger log = LoggerFactory.getLogger(GameWebSocketHandler.class);
 
     private final GameController gameController;
     private final LobbyService lobbyService;
+    private final RoomCommandDispatcher roomCommandDispatcher;
+    private final SessionOutboxRegistry outboxes;
+    private final SpectatorHub spectators;
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
-
-    public GameWebSocketHandler(GameController gameController, LobbyService lobbyService) {
+    // lobby pedido en el join, para rutear al mismo shard antes de que exista el mapeo sesion -> room
+    private final Map<String, String> pendingJoinRoutes = new ConcurrentHashMap<>();
+    private GameMetrics metrics;
+    private GameEventLog eventLog;
+
+    public GameWebSocketHandler(GameController gameController, LobbyService lobbyService,
+                                RoomCommandDispatcher roomCommandDispatcher, SessionOutboxRegistry outboxes,
+                                SpectatorHub spectators) {
         this.gameController = gameController;
         this.lobbyService = lobbyService;
+        this.roomCommandDispatcher = roomCommandDispatcher;
+        this.outboxes = outboxes;
+        this.spectators = spectators;
+        this.outboxes.setResyncSource(gameController::resyncState);
+        this.gameController.setTurnTimeoutListener(this::onTurnTimedOut);
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Autowired(required = false)
+    public void setEventLog(GameEventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
     }
 
     @Override
@@ -68,6 +122,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
+        outboxes.register(session);
         sessions.put(session.getId(), session);
         gameController.bindSessionUser(session.getId(), userId);
         log.info("Client connected: {} (userId: {}, username: {})", session.getId(), userId, username);
@@ -77,17 +132,26 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
         sessions.remove(session.getId());
-        int removedIndex = gameController.removePlayer(session.getId());
-        if (removedIndex >= 0) {
-            // Broadcast player left to remaining players
-            broadcastSafe(Packet.playerLeft(removedIndex));
-        }
+        outboxes.unregister(session.getId());
+        spectators.detach(session.getId());
+        String routeKey = resolveRouteKey(session.getId());
+        pendingJoinRoutes.remove(session.getId());
+        roomCommandDispatcher.dispatch(routeKey, () -> {
+            String roomId = gameController.getRoomId(session.getId());
+            int removedIndex = gameController.removePlayer(session.getId());
+            if (removedIndex >= 0) {
+                // Broadcast player left to remaining players
+                broadcastSafe(Packet.playerLeft(removedIndex));
+                spectators.publish(roomId, Packet.playerLeft(removedIndex));
+            }
+        });
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        long receivedNanos = System.nanoTime();
         String payload = message.getPayload();
-        log.info("[WS] Received from {}: {}", session.getId(), payload);
+        log.trace("[WS] Received from {}: {}", session.getId(), payload);
         
         Packet packet = PacketSerializer.deserialize(payload);
         
@@ -97,8 +161,95 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        log.info("[WS] Parsed packet type: {}", packet.getType());
+        log.debug("[WS] Parsed packet type: {}", packet.getType());
+        dispatchPacket(session, packet, message, receivedNanos);
+    }
+
+    /**
+     * Frames de las sesiones que negociaron el subprotocolo binario (ver BinaryPacketCodec).
+     */
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        long receivedNanos = System.nanoTime();
+        Packet packet = BinaryPacketCodec.decode(message.getPayload());
+
+        if (packet == null || packet.getType() == null) {
+            log.warn("[WS] Failed to parse binary packet from {} ({} bytes)", session.getId(), message.getPayloadLength());
+            sendError(session, "Invalid message format");
+            return;
+        }
+
+        log.debug("[WS] Parsed binary packet type: {}", packet.getType());
+        dispatchPacket(session, packet, message, receivedNanos);
+    }
+
+    @Override
+    public List<String> getSubProtocols() {
+        return List.of(BinaryPacketCodec.SUBPROTOCOL);
+    }
+
+    private void dispatchPacket(WebSocketSession session, Packet packet, WebSocketMessage<?> message, long receivedNanos) {
+        if ((packet.getType() == PacketType.JOIN || packet.getType() == PacketType.SPECTATE)
+                && packet.getString("lobbyId") != null) {
+            pendingJoinRoutes.put(session.getId(), packet.getString("lobbyId"));
+        }
+
+        String routeKey = resolveRouteKey(session.getId());
+        if (eventLog != null && eventLog.sample(GameEvent.PACKET_RECEIVED)) {
+            eventLog.record(GameEvent.PACKET_RECEIVED, routeKey, session.getId(), true, packet.getType().getValue(),
+                inboundBytes(message), 0, 0, 0, 0, 0);
+        }
+        roomCommandDispatcher.dispatch(routeKey, () -> {
+            PacketHandledEvent event = new PacketHandledEvent();
+            event.begin();
+            long startedNanos = System.nanoTime();
+            try {
+                handlePacket(session, packet);
+            } catch (IOException e) {
+                log.error("[WS] Error handling {} from {}", packet.getType(), session.getId(), e);
+            } finally {
+                if (metrics != null) {
+                    metrics.recordPacket(packet.getType(), receivedNanos);
+                }
+                event.end();
+                if (event.shouldCommit()) {
+                    commitPacketHandled(event, session, packet, message, routeKey, startedNanos - receivedNanos);
+                }
+            }
+        });
+    }
+
+    // solo con el evento habilitado y sobre el umbral: aca se pueden calcular los campos caros
+    private void commitPacketHandled(PacketHandledEvent event, WebSocketSession session, Packet packet,
+                                     WebSocketMessage<?> message, String routeKey, long queueNanos) {
+        String roomId = gameController.getRoomId(session.getId());
+        event.packetType = packet.getType().getValue();
+        event.roomId = roomId != null ? roomId : routeKey;
+        event.sessionId = session.getId();
+        event.queueTime = queueNanos;
+        event.bytes = inboundBytes(message);
+        event.commit();
+    }
 
+    private static int inboundBytes(WebSocketMessage<?> message) {
+        return message instanceof TextMessage text
+            ? EncodedPacket.utf8Length(text.getPayload())
+            : message.getPayloadLength();
+    }
+
+    /**
+     * Clave de ruteo al shard de la room: la room actual de la sesion, el lobby pedido en el join,
+     * o la propia sesion si todavia no esta en ninguna.
+     */
+    private String resolveRouteKey(String sessionId) {
+        String roomId = gameController.getRoomId(sessionId);
+        if (roomId != null) {
+            return roomId;
+        }
+        return pendingJoinRoutes.getOrDefault(sessionId, sessionId);
+    }
+
+    private void handlePacket(WebSocketSession session, Packet packet) throws IOException {
         switch (packet.getType()) {
             case JOIN        -> handleJoin(session, packet);
             case SELECT_SIDE -> handleSelectSide(session, packet);
@@ -111,26 +262,93 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
             case LEAVE_GAME -> handleLeaveGame(session);
             case LOAD_GAME -> handleLoadGame(session, packet);
             case RECALL      -> handleRecall(session, packet);
+            case ACK         -> handleAck(session, packet);
+            case SPECTATE    -> handleSpectate(session, packet);
+            case PREVIEW_MOVES  -> handlePreviewMoves(session, packet);
+            case PREVIEW_ATTACK -> handlePreviewAttack(session, packet);
             default          -> sendError(session, "Unknown message type");
         }
+
+        if (changesRoomState(packet.getType())) {
+            sendStateUpdates(gameController.getRoomId(session.getId()));
+        }
+    }
+
+    /**
+     * Paquetes que solo transportan estado. Las sesiones que usan deltas no los reciben: el
+     * stateSnapshot o stateDelta que se manda despues de cada comando ya trae esos cambios.
+     * Un moveDrone que cierra la partida si se manda, porque lleva el resultado.
+     */
+    private static boolean carriesOnlyState(Packet packet) {
+        return switch (packet.getType()) {
+            case GAME_START, CARRIER_MOVED, DRONE_RECALLED -> true;
+            case MOVE_DRONE -> !Boolean.TRUE.equals(packet.get("gameFinished"));
+            default -> false;
+        };
+    }
+
+    // las consultas no cambian la room: no hace falta mandar estado nuevo
+    private static boolean changesRoomState(PacketType type) {
+        return switch (type) {
+            case ACK, SPECTATE, PREVIEW_MOVES, PREVIEW_ATTACK -> false;
+            default -> true;
+        };
+    }
+
+    // Las previsualizaciones solo le responden a quien pregunto
+    private void handlePreviewMoves(WebSocketSession session, Packet packet) throws IOException {
+        GameResult result = gameController.previewMoves(session.getId(), packet.getInt("droneIndex"));
+        send(session, result.getPacket());
+    }
+
+    private void handlePreviewAttack(WebSocketSession session, Packet packet) throws IOException {
+        PacketBody.Attack attack = PacketBody.Attack.from(packet);
+        GameResult result = gameController.previewAttack(
+            session.getId(), attack.attackerIndex(), attack.targetPlayer(), attack.targetDrone(),
+            attack.lineX(), attack.lineY(), attack.targetType()
+        );
+        send(session, result.getPacket());
+    }
+
+    private void handleAck(WebSocketSession session, Packet packet) throws IOException {
+        PacketBody.Ack ack = PacketBody.Ack.from(packet);
+
+        Packet snapshot = gameController.acknowledgeState(session.getId(), ack.seq(), ack.resync());
+        if (snapshot != null) {
+            send(session, snapshot);
+        }
+    }
+
+    /**
+     * Manda los deltas de estado a las sesiones de la room que usan el protocolo de deltas.
+     */
+    private void sendStateUpdates(String roomId) throws IOException {
+        Map<String, Packet> updates = gameController.collectRoomStateUpdates(roomId);
+        for (Map.Entry<String, Packet> update : updates.entrySet()) {
+            WebSocketSession s = sessions.get(update.getKey());
+            if (s != null && s.isOpen()) {
+                send(s, update.getValue());
+            }
+        }
     }
 
     private void handleLeaveGame(WebSocketSession session) throws IOException {
-        java.util.List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        String roomId = gameController.getRoomId(session.getId());
         int removedIndex = gameController.removePlayerWithoutForfeit(session.getId());
 
         if (removedIndex >= 0) {
-            broadcastToSessions(roomSessions, Packet.playerLeft(removedIndex), session.getId());
+            broadcastToSessions(roomId, roomSessions, Packet.playerLeft(removedIndex), session.getId());
+            spectators.publish(roomId, Packet.playerLeft(removedIndex));
         }
 
         sessions.remove(session.getId());
-        if (session.isOpen()) {
-            session.close(CloseStatus.NORMAL);
-        }
+        outboxes.close(session, CloseStatus.NORMAL);
     }
 
     private void handleForfeitGame(WebSocketSession session) throws IOException {
-        java.util.List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        String roomId = gameController.getRoomId(session.getId());
 
         GameResult result = gameController.forfeitGame(session.getId());
 
@@ -139,13 +357,14 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
-        String json = PacketSerializer.serialize(result.getPacket());
+        EncodedPacket encoded = new EncodedPacket(result.getPacket());
         for (String sid : roomSessions) {
             WebSocketSession s = sessions.get(sid);
             if (s != null && s.isOpen()) {
-                s.sendMessage(new TextMessage(json));
+                outboxes.send(s, encoded);
             }
         }
+        spectators.publish(roomId, result.getPacket());
     }
 
     private void handleJoin(WebSocketSession session, Packet packet) throws IOException {
@@ -171,6 +390,7 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         }
 
         // Send welcome to joining player
+        spectators.detach(session.getId());
         send(session, result.getPacket());
         
         // If this is a loaded game that's ready (both players joined), broadcast game start
@@ -187,6 +407,50 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
          log.info("[GameWebSocketHandler] ->Endbegin handleJoin ");
     }
     
+    /**
+     * Suma la sesion como espectador de solo lectura de una room en juego. Corre en el shard de la
+     * room (se rutea por el lobbyId como el join).
+     */
+    private void handleSpectate(WebSocketSession session, Packet packet) throws IOException {
+        String lobbyId = packet.getString("lobbyId");
+        Number playerIndex = packet.get("playerIndex");
+        int view = playerIndex != null ? playerIndex.intValue() : SpectatorHub.FULL_VIEW;
+        Long userId = (Long) session.getAttributes().get("userId");
+
+        if (lobbyId == null) {
+            sendError(session, "No lobby specified");
+            return;
+        }
+        if (gameController.getRoomId(session.getId()) != null) {
+            sendError(session, "Players cannot spectate");
+            return;
+        }
+        boolean playsInLobby = lobbyService.getLobbyById(lobbyId)
+            .map(lobby -> lobby.getPlayerIds().contains(userId))
+            .orElse(false);
+        if (playsInLobby) {
+            sendError(session, "Cannot spectate your own game");
+            return;
+        }
+
+        List<Packet> initialPackets = gameController.spectatorSnapshot(lobbyId, view);
+        if (initialPackets.isEmpty()) {
+            sendError(session, "Game not running");
+            return;
+        }
+
+        switch (spectators.attach(lobbyId, session, view, initialPackets)) {
+            case ATTACHED -> {
+                send(session, Packet.spectating(lobbyId, view, spectators.getDelayMs()));
+                log.info("[WS] Session {} spectating room {} (view {}, {} spectators)",
+                    session.getId(), lobbyId, view, spectators.spectatorCount(lobbyId));
+            }
+            case DISABLED -> sendError(session, "Spectators are disabled");
+            case ROOM_FULL -> sendError(session, "Too many spectators in this game");
+            case VIEW_NOT_ALLOWED -> sendError(session, "Invalid spectator view");
+        }
+    }
+
     private void handleSelectSide(WebSocketSession session, Packet packet) throws IOException {
         String side = packet.getString("side");
         
@@ -222,17 +486,15 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void handleMove(WebSocketSession session, Packet packet) throws IOException {
-        int droneIndex = packet.getInt("droneIndex");
-        double x = packet.getDouble("x");
-        double y = packet.getDouble("y");
-
-        log.info("[WS] handleMove: droneIndex={}, x={}, y={}", droneIndex, x, y);
-
-        log.info("[WS] handleMove: sessionid={}, packetDrone={}", session.getId(), packet.getInt("droneIndex"));
+        PacketBody.Move move = PacketBody.Move.from(packet);
+        int droneIndex = move.droneIndex();
+        double x = move.x();
+        double y = move.y();
 
         GameResult result = gameController.processMove(session.getId(), droneIndex, x, y);
-        
-        log.info("[WS] Move result: success={}, error={}", result.isSuccess(), result.getErrorMessage());
+
+        log.debug("[WS] Move from {}: drone={}, x={}, y={}, success={}, error={}",
+            session.getId(), droneIndex, x, y, result.isSuccess(), result.getErrorMessage());
         
         if (!result.isSuccess()) {
             send(session, result.getPacket());
@@ -250,10 +512,9 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void handleCarrierMove(WebSocketSession session, Packet packet) throws IOException {
-        double x = packet.getDouble("x");
-        double y = packet.getDouble("y");
+        PacketBody.MoveCarrier move = PacketBody.MoveCarrier.from(packet);
 
-        GameResult result = gameController.processCarrierMove(session.getId(), x, y);
+        GameResult result = gameController.processCarrierMove(session.getId(), move.x(), move.y());
         if (!result.isSuccess()) {
             send(session, result.getPacket());
             return;
@@ -268,21 +529,11 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void handleAttack(WebSocketSession session, Packet packet) throws IOException {
-        int attackerIndex = packet.getInt("attackerIndex");
-        int targetPlayer = packet.getInt("targetPlayer");
-        int targetDrone = packet.getInt("targetDrone");
-        Number lineXNumber = packet.get("lineX");
-        Number lineYNumber = packet.get("lineY");
-        Double lineX = lineXNumber != null ? lineXNumber.doubleValue() : null;
-        Double lineY = lineYNumber != null ? lineYNumber.doubleValue() : null;
-        Number destinationXNumber = packet.get("destinationX");
-        Number destinationYNumber = packet.get("destinationY");
-        Double destinationX = destinationXNumber != null ? destinationXNumber.doubleValue() : null;
-        Double destinationY = destinationYNumber != null ? destinationYNumber.doubleValue() : null;
-        String targetType = packet.getString("targetType");
+        PacketBody.Attack attack = PacketBody.Attack.from(packet);
 
         GameResult result = gameController.processAttack(
-            session.getId(), attackerIndex, targetPlayer, targetDrone, lineX, lineY, destinationX, destinationY, targetType
+            session.getId(), attack.attackerIndex(), attack.targetPlayer(), attack.targetDrone(),
+            attack.lineX(), attack.lineY(), attack.destinationX(), attack.destinationY(), attack.targetType()
         );
         
         if (!result.isSuccess()) {
@@ -301,7 +552,8 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void handleSave(WebSocketSession session) throws IOException {
-        java.util.List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        List<String> roomSessions = gameController.getSessionsInSameRoom(session.getId());
+        String roomId = gameController.getRoomId(session.getId());
 
         GameResult result = gameController.save(session.getId());
 
@@ -311,13 +563,14 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         }
 
         // Notify all players that this game was saved and closed
-        String json = PacketSerializer.serialize(result.getPacket());
+        EncodedPacket encoded = new EncodedPacket(result.getPacket());
         for (String sid : roomSessions) {
             WebSocketSession s = sessions.get(sid);
             if (s != null && s.isOpen()) {
-                s.sendMessage(new TextMessage(json));
+                outboxes.send(s, encoded);
             }
         }
+        spectators.publish(roomId, result.getPacket());
     }
 
     private void handleLoadGame(WebSocketSession session, Packet packet) throws IOException {
@@ -359,9 +612,9 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
 
 
     private void handleRecall(WebSocketSession session, Packet packet) throws IOException {
-        int droneIndex = packet.getInt("droneIndex");
+        int droneIndex = PacketBody.Recall.from(packet).droneIndex();
 
-        log.info("[WS] handleRecall: droneIndex={}", droneIndex);
+        log.debug("[WS] handleRecall: droneIndex={}", droneIndex);
 
         GameResult result = gameController.processRecall(session.getId(), droneIndex);
 
@@ -387,32 +640,59 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
             return;
         }
 
+        broadcastTurnResult(gameController.getRoomId(session.getId()), result);
+    }
+
+    /**
+     * El reloj de turno termino el turno del jugador activo; corre en el shard de la room.
+     */
+    private void onTurnTimedOut(String roomId, GameResult result) {
+        try {
+            broadcastTurnResult(roomId, result);
+            sendStateUpdates(roomId);
+        } catch (IOException e) {
+            log.error("Error broadcasting turn timeout for room {}", roomId, e);
+        }
+    }
+
+    private void broadcastTurnResult(String roomId, GameResult result) throws IOException {
         Packet turnPacket = result.getPacket();
-        java.util.List<?> fuelUpdates = turnPacket.get("fuelUpdates");
+        if (turnPacket.getBody() instanceof PacketBody.TurnStart turnStart) {
+            for (PacketBody.MoveDrone update : turnStart.fuelUpdates()) {
+                broadcastInRoom(roomId, new Packet(update));
+            }
+            if (!turnStart.fuelUpdates().isEmpty()) {
+                turnPacket = new Packet(turnStart.withFuelUpdates(List.of()));
+            }
+            broadcastInRoom(roomId, turnPacket);
+            return;
+        }
+
+        List<?> fuelUpdates = turnPacket.get("fuelUpdates");
         if (fuelUpdates != null) {
             for (Object updateObj : fuelUpdates) {
-                if (updateObj instanceof java.util.Map<?, ?> rawUpdate) {
-                    java.util.Map<String, Object> updatePayload = new java.util.HashMap<>();
-                    for (java.util.Map.Entry<?, ?> entry : rawUpdate.entrySet()) {
+                if (updateObj instanceof Map<?, ?> rawUpdate) {
+                    Map<String, Object> updatePayload = new HashMap<>();
+                    for (Map.Entry<?, ?> entry : rawUpdate.entrySet()) {
                         if (entry.getKey() != null) {
                             updatePayload.put(entry.getKey().toString(), entry.getValue());
                         }
                     }
                     Packet fuelPacket = Packet.of(com.example.proyect.websocket.packet.PacketType.MOVE_DRONE, updatePayload);
-                    broadcastToRoom(session.getId(), fuelPacket);
+                    broadcastInRoom(roomId, fuelPacket);
                 }
             }
-            java.util.Map<String, Object> turnPayload = new java.util.HashMap<>(turnPacket.getPayload());
+            Map<String, Object> turnPayload = new HashMap<>(turnPacket.getPayload());
             turnPayload.remove("fuelUpdates");
             turnPacket = Packet.of(turnPacket.getType(), turnPayload);
         }
 
         // Broadcast turn change to room
-        broadcastToRoom(session.getId(), turnPacket);
+        broadcastInRoom(roomId, turnPacket);
     }
 
     private void send(WebSocketSession session, Packet packet) throws IOException {
-        session.sendMessage(new TextMessage(PacketSerializer.serialize(packet)));
+        outboxes.send(session, new EncodedPacket(packet));
     }
 
     private void sendError(WebSocketSession session, String message) throws IOException {
@@ -420,10 +700,10 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
     }
 
     private void broadcast(Packet packet) throws IOException {
-        String json = PacketSerializer.serialize(packet);
+        EncodedPacket encoded = new EncodedPacket(packet);
         for (WebSocketSession s : sessions.values()) {
             if (s.isOpen()) {
-                s.sendMessage(new TextMessage(json));
+                outboxes.send(s, encoded);
             }
         }
     }
@@ -432,21 +712,104 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
      * Broadcast a packet only to players in the same room as the given session.
      */
     private void broadcastToRoom(String sessionId, Packet packet) throws IOException {
-        java.util.List<String> roomSessions = gameController.getSessionsInSameRoom(sessionId);
-        if (roomSessions.isEmpty()) {
+        String roomId = gameController.getRoomId(sessionId);
+        if (roomId == null) {
             log.warn("No room found for session {}", sessionId);
             return;
         }
+        broadcastInRoom(roomId, packet);
+    }
+
+    /**
+     * Broadcast a packet to the players of the given room.
+     */
+    private void broadcastInRoom(String roomId, Packet packet) throws IOException {
+        List<String> roomSessions = gameController.getSessionsInRoom(roomId);
+        if (roomSessions.isEmpty()) {
+            log.warn("No sessions left in room {}", roomId);
+            return;
+        }
         
-        String json = PacketSerializer.serialize(packet);
+        BroadcastSentEvent event = new BroadcastSentEvent();
+        event.begin();
+        EncodedPacket encoded = new EncodedPacket(packet);
         log.debug("Broadcasting to room ({} sessions): {}", roomSessions.size(), packet.getType());
+
+        if (gameController.isFogOfWarEnabled()) {
+            broadcastFiltered(roomId, roomSessions, encoded);
+            commitBroadcastSent(event, roomId, encoded, roomSessions, null);
+            return;
+        }
         
+        boolean stateOnly = carriesOnlyState(packet);
         for (String sid : roomSessions) {
             WebSocketSession s = sessions.get(sid);
-            if (s != null && s.isOpen()) {
-                s.sendMessage(new TextMessage(json));
+            if (s != null && s.isOpen() && !(stateOnly && gameController.usesStateSync(sid))) {
+                outboxes.send(s, encoded);
             }
         }
+        spectators.publish(roomId, packet);
+        commitBroadcastSent(event, roomId, encoded, roomSessions, null);
+    }
+
+    /**
+     * Con niebla de guerra los bytes son los de la version sin filtrar (aproximado: cada jugador
+     * puede recibir menos unidades).
+     */
+    private void commitBroadcastSent(BroadcastSentEvent event, String roomId, EncodedPacket encoded,
+                                     List<String> sessionIds, String excludedSessionId) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        int recipients = 0;
+        long bytes = 0;
+        for (String sid : sessionIds) {
+            WebSocketSession s = sessions.get(sid);
+            if (s != null && !sid.equals(excludedSessionId)) {
+                recipients++;
+                bytes += encoded.payloadLength(s);
+            }
+        }
+        event.packetType = encoded.packet().getType().getValue();
+        event.roomId = roomId;
+        event.recipients = recipients;
+        event.bytes = bytes;
+        event.commit();
+    }
+
+    /**
+     * Con niebla de guerra cada jugador recibe su version del paquete, seguida del
+     * visibilityUpdate con las unidades enemigas que entraron o salieron de su vision.
+     */
+    private void broadcastFiltered(String roomId, List<String> roomSessions, EncodedPacket encoded) throws IOException {
+        Map<Integer, Packet> visibilityUpdates = gameController.refreshRoomVisibilityByPlayer(roomId);
+        boolean stateOnly = carriesOnlyState(encoded.packet());
+
+        for (String sid : roomSessions) {
+            WebSocketSession s = sessions.get(sid);
+            if (s == null || !s.isOpen()) {
+                continue;
+            }
+            // con deltas, posiciones y visibilidad llegan en el stateDelta que sigue al comando
+            if (gameController.usesStateSync(sid)) {
+                if (!stateOnly) {
+                    send(s, gameController.filterForViewer(sid, encoded.packet()));
+                }
+                continue;
+            }
+            Packet viewerPacket = gameController.filterForViewer(sid, encoded.packet());
+            outboxes.send(s, viewerPacket == encoded.packet() ? encoded : new EncodedPacket(viewerPacket));
+
+            Packet visibilityUpdate = visibilityUpdates.get(gameController.getPlayerIndex(sid));
+            if (visibilityUpdate != null) {
+                send(s, visibilityUpdate);
+            }
+        }
+
+        // espectadores: la vista completa ve todo, los de un bando reciben lo mismo que ese jugador
+        spectators.publish(roomId, encoded.packet(),
+            side -> gameController.filterForPlayer(roomId, side, encoded.packet()), visibilityUpdates);
     }
 
     private void broadcastSafe(Packet packet) {
@@ -457,12 +820,14 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void broadcastToSessions(java.util.List<String> sessionIds, Packet packet, String excludedSessionId) throws IOException {
+    private void broadcastToSessions(String roomId, List<String> sessionIds, Packet packet, String excludedSessionId) throws IOException {
         if (sessionIds == null || sessionIds.isEmpty()) {
             return;
         }
 
-        String json = PacketSerializer.serialize(packet);
+        BroadcastSentEvent event = new BroadcastSentEvent();
+        event.begin();
+        EncodedPacket encoded = new EncodedPacket(packet);
         for (String sid : sessionIds) {
             if (excludedSessionId != null && excludedSessionId.equals(sid)) {
                 continue;
@@ -470,8 +835,9 @@ public class GameWebSocketHandler extends TextWebSocketHandler {
 
             WebSocketSession s = sessions.get(sid);
             if (s != null && s.isOpen()) {
-                s.sendMessage(new TextMessage(json));
+                outboxes.send(s, encoded);
             }
         }
+        commitBroadcastSent(event, roomId, encoded, sessionIds, excludedSessionId);
     }
 }
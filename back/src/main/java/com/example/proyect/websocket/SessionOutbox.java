@@ -0,0 +1,243 @@
+package com.example.proyect.websocket;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.config.WebSocketOutboxProperties.OverflowPolicy;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketType;
+
+/**
+ * Cola de salida acotada de una sesion.
+ *
+ * Los hilos que generan paquetes solo encolan; un unico drenador por sesion (tomado del pool
+ * compartido) escribe en el socket, asi nunca hay dos escritores concurrentes y un cliente lento
+ * no frena al hilo del jugador que actuo. Si la cola pasa sus limites se aplica la OverflowPolicy;
+ * si un envio queda trabado mas que sendTimeLimit la sesion se cierra.
+ */
+final class SessionOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionOutbox.class);
+
+    private final WebSocketSession session;
+    private final Executor executor;
+    private final Limits limits;
+    private final Function<String, Packet> resyncSource;
+    private final SessionOutboxRegistry.Counters counters;
+    private final SessionOutboxRegistry.Traffic traffic;
+
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private int bufferedBytes;
+    private boolean draining;
+    private boolean closed;
+    private CloseStatus closeAfterDrain;
+    private volatile long sendStartedNanos;
+
+    record Limits(long sendTimeLimitMs, int bufferSizeLimitBytes, int maxQueuedMessages, OverflowPolicy overflowPolicy) {
+    }
+
+    private record Entry(WebSocketMessage<?> message, PacketType type, int bytes) {
+    }
+
+    SessionOutbox(WebSocketSession session, Executor executor, Limits limits,
+                  Function<String, Packet> resyncSource, SessionOutboxRegistry.Counters counters,
+                  SessionOutboxRegistry.Traffic traffic) {
+        this.session = session;
+        this.executor = executor;
+        this.limits = limits;
+        this.resyncSource = resyncSource;
+        this.counters = counters;
+        this.traffic = traffic;
+    }
+
+    /**
+     * Encola un paquete ya serializado. Devuelve false si la sesion esta cerrada o fue desconectada.
+     */
+    boolean enqueue(EncodedPacket packet) {
+        synchronized (this) {
+            if (closed || closeAfterDrain != null) {
+                return false;
+            }
+            long started = sendStartedNanos;
+            if (started != 0 && System.nanoTime() - started > limits.sendTimeLimitMs() * 1_000_000L) {
+                log.warn("[WS] Send to {} stalled for more than {} ms, disconnecting", session.getId(), limits.sendTimeLimitMs());
+                disconnect();
+                return false;
+            }
+
+            add(new Entry(packet.messageFor(session), packet.packet().getType(), packet.payloadLength(session)));
+            if (overLimits() && !handleOverflow()) {
+                return false;
+            }
+            scheduleDrain();
+            return true;
+        }
+    }
+
+    /**
+     * Cierra la sesion despues de mandar lo que ya esta en cola.
+     */
+    void closeAfterDrain(CloseStatus status) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closeAfterDrain = status;
+            scheduleDrain();
+        }
+    }
+
+    synchronized int depth() {
+        return queue.size();
+    }
+
+    synchronized void discard() {
+        closed = true;
+        counters.queued.add(-queue.size());
+        queue.clear();
+        bufferedBytes = 0;
+    }
+
+    // ========== Overflow ==========
+
+    private boolean overLimits() {
+        return queue.size() > limits.maxQueuedMessages() || bufferedBytes > limits.bufferSizeLimitBytes();
+    }
+
+    /** Devuelve false si la sesion termino desconectada. */
+    private boolean handleOverflow() {
+        switch (limits.overflowPolicy()) {
+            case DROP_OLDEST_DELTA -> {
+                Iterator<Entry> it = queue.iterator();
+                while (overLimits() && it.hasNext()) {
+                    Entry entry = it.next();
+                    if (entry.type() == PacketType.STATE_DELTA) {
+                        it.remove();
+                        removed(entry);
+                        counters.dropped.increment();
+                    }
+                }
+                if (!overLimits()) {
+                    return true;
+                }
+            }
+            case RESYNC -> {
+                Packet snapshot = resyncSource != null ? resyncSource.apply(session.getId()) : null;
+                if (snapshot != null) {
+                    counters.dropped.add(queue.size());
+                    clearQueue();
+                    EncodedPacket encoded = new EncodedPacket(snapshot);
+                    add(new Entry(encoded.messageFor(session), snapshot.getType(), encoded.payloadLength(session)));
+                    counters.resyncs.increment();
+                    if (!overLimits()) {
+                        return true;
+                    }
+                }
+            }
+            case DISCONNECT -> {
+                // se desconecta abajo
+            }
+        }
+        log.warn("[WS] Outbound queue of {} overflowed ({} messages, {} bytes), disconnecting",
+            session.getId(), queue.size(), bufferedBytes);
+        disconnect();
+        return false;
+    }
+
+    private void disconnect() {
+        closed = true;
+        clearQueue();
+        counters.disconnects.increment();
+        // en el hilo llamador: el drenador puede estar trabado en el envio que motivo el cierre
+        closeQuietly(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    // ========== Drenado ==========
+
+    private void scheduleDrain() {
+        if (draining) {
+            return;
+        }
+        draining = true;
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException ex) {
+            draining = false;
+            log.warn("[WS] Sender pool rejected drain for {}", session.getId());
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                entry = queue.pollFirst();
+                if (entry == null) {
+                    draining = false;
+                    if (closeAfterDrain != null && !closed) {
+                        closed = true;
+                        closeQuietly(closeAfterDrain);
+                    }
+                    return;
+                }
+                removed(entry);
+            }
+
+            if (!session.isOpen()) {
+                discard();
+                synchronized (this) {
+                    draining = false;
+                }
+                return;
+            }
+            sendStartedNanos = System.nanoTime();
+            try {
+                session.sendMessage(entry.message());
+                traffic.sent(entry.bytes());
+            } catch (IOException | RuntimeException ex) {
+                log.warn("[WS] Send to {} failed: {}", session.getId(), ex.getMessage());
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+    }
+
+    private void add(Entry entry) {
+        queue.addLast(entry);
+        bufferedBytes += entry.bytes();
+        counters.queued.increment();
+        counters.recordDepth(queue.size());
+    }
+
+    private void removed(Entry entry) {
+        bufferedBytes -= entry.bytes();
+        counters.queued.decrement();
+    }
+
+    private void clearQueue() {
+        counters.queued.add(-queue.size());
+        queue.clear();
+        bufferedBytes = 0;
+    }
+
+    private void closeQuietly(CloseStatus status) {
+        try {
+            if (session.isOpen()) {
+                session.close(status);
+            }
+        } catch (IOException ex) {
+            log.debug("[WS] Error closing {}", session.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.proyect.websocket;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.config.WebSocketOutboxProperties;
+import com.example.proyect.metrics.GameMetrics;
+import com.example.proyect.websocket.packet.Packet;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Colas de salida por sesion (ver SessionOutbox) y sus metricas.
+ *
+ * Con game.websocket.outbox.enabled=false se escribe directo en el socket desde el hilo llamador,
+ * sincronizando por sesion porque WebSocketSession.sendMessage no admite escritores concurrentes.
+ */
+@Component
+public class SessionOutboxRegistry {
+
+    private final boolean enabled;
+    private final SessionOutbox.Limits limits;
+    private final ExecutorService senders;
+    private final Map<String, SessionOutbox> outboxes = new ConcurrentHashMap<>();
+    private final Map<String, Traffic> traffic = new ConcurrentHashMap<>();
+    private final Counters counters = new Counters();
+    private volatile Function<String, Packet> resyncSource;
+    private GameMetrics metrics;
+
+    /**
+     * Metricas agregadas de todas las colas.
+     */
+    public record Stats(int sessions, long queuedMessages, long maxQueueDepth,
+                        long droppedMessages, long resyncs, long disconnects,
+                        long sentMessages, long sentBytes) {
+    }
+
+    static final class Counters {
+        final LongAdder sentMessages = new LongAdder();
+        final LongAdder sentBytes = new LongAdder();
+        final LongAdder queued = new LongAdder();
+        final LongAdder dropped = new LongAdder();
+        final LongAdder resyncs = new LongAdder();
+        final LongAdder disconnects = new LongAdder();
+        final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+        void recordDepth(int depth) {
+            maxDepth.accumulate(depth);
+        }
+    }
+
+    /**
+     * Lo efectivamente escrito en el socket de una sesion. Escribe un solo hilo a la vez
+     * (el drenador de su cola, o el llamador con el lock de la sesion tomado).
+     */
+    final class Traffic {
+        private volatile long messages;
+        private volatile long bytes;
+
+        void sent(int payloadBytes) {
+            messages++;
+            bytes += payloadBytes;
+            counters.sentMessages.increment();
+            counters.sentBytes.add(payloadBytes);
+        }
+    }
+
+    public SessionOutboxRegistry(WebSocketOutboxProperties properties) {
+        this.enabled = properties.isEnabled();
+        this.limits = new SessionOutbox.Limits(
+            properties.getSendTimeLimitMs(),
+            properties.getBufferSizeLimitBytes(),
+            properties.getMaxQueuedMessages(),
+            properties.getOverflowPolicy()
+        );
+        if (enabled) {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.senders = Executors.newFixedThreadPool(properties.resolveSenderThreads(), runnable -> {
+                Thread thread = new Thread(runnable, "ws-sender-" + threadCount.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.senders = null;
+        }
+    }
+
+    /**
+     * Paquete completo a mandar cuando la politica RESYNC vacia la cola de una sesion, o null
+     * si la sesion no puede resincronizarse (en ese caso se desconecta).
+     */
+    public void setResyncSource(Function<String, Packet> resyncSource) {
+        this.resyncSource = resyncSource;
+    }
+
+    @Autowired(required = false)
+    public void setMetrics(GameMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void register(WebSocketSession session) {
+        Traffic sessionTraffic = new Traffic();
+        traffic.put(session.getId(), sessionTraffic);
+        if (enabled) {
+            outboxes.put(session.getId(), new SessionOutbox(session, senders, limits, id -> {
+                Function<String, Packet> source = resyncSource;
+                return source != null ? source.apply(id) : null;
+            }, counters, sessionTraffic));
+        }
+    }
+
+    public void unregister(String sessionId) {
+        SessionOutbox outbox = outboxes.remove(sessionId);
+        if (outbox != null) {
+            outbox.discard();
+        }
+        Traffic sessionTraffic = traffic.remove(sessionId);
+        if (sessionTraffic != null && metrics != null) {
+            metrics.recordSessionClosed(sessionTraffic.messages, sessionTraffic.bytes);
+        }
+    }
+
+    public void send(WebSocketSession session, EncodedPacket packet) throws IOException {
+        SessionOutbox outbox = enabled ? outboxes.get(session.getId()) : null;
+        if (outbox != null) {
+            outbox.enqueue(packet);
+            return;
+        }
+        synchronized (session) {
+            session.sendMessage(packet.messageFor(session));
+            Traffic sessionTraffic = traffic.get(session.getId());
+            if (sessionTraffic != null) {
+                sessionTraffic.sent(packet.payloadLength(session));
+            }
+        }
+    }
+
+    /**
+     * Cierra la sesion una vez enviados los paquetes que ya estaban en su cola.
+     */
+    public void close(WebSocketSession session, CloseStatus status) throws IOException {
+        SessionOutbox outbox = enabled ? outboxes.get(session.getId()) : null;
+        if (outbox != null) {
+            outbox.closeAfterDrain(status);
+            return;
+        }
+        if (session.isOpen()) {
+            session.close(status);
+        }
+    }
+
+    public int queueDepth(String sessionId) {
+        SessionOutbox outbox = outboxes.get(sessionId);
+        return outbox != null ? outbox.depth() : 0;
+    }
+
+    public Stats stats() {
+        return new Stats(
+            outboxes.size(),
+            counters.queued.sum(),
+            counters.maxDepth.get(),
+            counters.dropped.sum(),
+            counters.resyncs.sum(),
+            counters.disconnects.sum(),
+            counters.sentMessages.sum(),
+            counters.sentBytes.sum()
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (senders == null) {
+            return;
+        }
+        senders.shutdown();
+        try {
+            if (!senders.awaitTermination(2, TimeUnit.SECONDS)) {
+                senders.shutdownNow();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            senders.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.proyect.websocket;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.config.SpectatorProperties;
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.websocket.packet.Packet;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Espectadores de solo lectura de las rooms.
+ *
+ * El hilo de la room solo arma una version del paquete por vista en uso (la completa y la de cada
+ * bando que alguien sigue) y se la pasa al hilo de fan-out. Ahi cada vista se serializa una vez
+ * (EncodedPacket) y el mismo frame se encola en la SessionOutbox de cada espectador, asi que sumar
+ * espectadores no agrega trabajo a la room. Con delayMs > 0 todo sale con ese retraso, en orden.
+ */
+@Component
+public class SpectatorHub {
+
+    private static final Logger log = LoggerFactory.getLogger(SpectatorHub.class);
+
+    /** Vista completa de la partida, sin niebla de guerra. */
+    public static final int FULL_VIEW = -1;
+
+    private final SessionOutboxRegistry outboxes;
+    private final boolean enabled;
+    private final long delayMs;
+    private final int maxPerRoom;
+    private final boolean allowFullView;
+    private final ScheduledExecutorService fanout;
+
+    // lista inmutable por room, se reemplaza al entrar o salir alguien: publish solo lee la referencia
+    private final Map<String, Audience> audiences = new ConcurrentHashMap<>();
+    private final Map<String, String> roomBySession = new ConcurrentHashMap<>();
+
+    public enum AttachResult { ATTACHED, DISABLED, ROOM_FULL, VIEW_NOT_ALLOWED }
+
+    private record Spectator(String roomId, WebSocketSession session, int view) {
+    }
+
+    /** Espectadores de una room y cuantos hay por vista (indice 0 = completa, 1 + i = bando i). */
+    private record Audience(List<Spectator> spectators, int[] viewCounts) {
+
+        static final Audience EMPTY = new Audience(List.of(), new int[GameRoom.MAX_PLAYERS + 1]);
+
+        boolean watches(int view) {
+            return viewCounts[view + 1] > 0;
+        }
+
+        Audience with(Spectator spectator) {
+            List<Spectator> next = new ArrayList<>(spectators);
+            next.add(spectator);
+            int[] counts = viewCounts.clone();
+            counts[spectator.view() + 1]++;
+            return new Audience(List.copyOf(next), counts);
+        }
+
+        Audience without(String sessionId) {
+            List<Spectator> next = new ArrayList<>(spectators.size());
+            int[] counts = viewCounts.clone();
+            for (Spectator spectator : spectators) {
+                if (spectator.session().getId().equals(sessionId)) {
+                    counts[spectator.view() + 1]--;
+                } else {
+                    next.add(spectator);
+                }
+            }
+            return next.isEmpty() ? null : new Audience(List.copyOf(next), counts);
+        }
+    }
+
+    /** Lo que recibe una vista: el paquete y, si corresponde, el visibilityUpdate de ese bando. */
+    private record ViewFrame(int view, EncodedPacket packet, EncodedPacket visibilityUpdate) {
+    }
+
+    public SpectatorHub(SessionOutboxRegistry outboxes, SpectatorProperties properties) {
+        this.outboxes = outboxes;
+        this.enabled = properties.isEnabled();
+        this.delayMs = Math.max(0, properties.getDelayMs());
+        this.maxPerRoom = properties.getMaxPerRoom();
+        this.allowFullView = properties.isAllowFullView();
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "spectator-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        this.fanout = executor;
+    }
+
+    public long getDelayMs() {
+        return delayMs;
+    }
+
+    /**
+     * Suma un espectador a la room. view es el bando a seguir o FULL_VIEW. initialPackets (estado
+     * y turno actuales, ya en esa vista) le llegan con el mismo retraso que el resto, antes que
+     * cualquier paquete publicado despues. Llamar desde el hilo de la room.
+     */
+    public AttachResult attach(String roomId, WebSocketSession session, int view, List<Packet> initialPackets) {
+        if (!enabled) {
+            return AttachResult.DISABLED;
+        }
+        if (view < FULL_VIEW || view >= GameRoom.MAX_PLAYERS || (view == FULL_VIEW && !allowFullView)) {
+            return AttachResult.VIEW_NOT_ALLOWED;
+        }
+        detach(session.getId());
+
+        boolean[] full = {false};
+        Spectator spectator = new Spectator(roomId, session, view);
+        audiences.compute(roomId, (id, current) -> {
+            Audience audience = current != null ? current : Audience.EMPTY;
+            if (audience.spectators().size() >= maxPerRoom) {
+                full[0] = true;
+                return current;
+            }
+            return audience.with(spectator);
+        });
+        if (full[0]) {
+            return AttachResult.ROOM_FULL;
+        }
+        roomBySession.put(session.getId(), roomId);
+
+        List<EncodedPacket> initial = initialPackets.stream().map(EncodedPacket::new).toList();
+        submit(() -> {
+            for (EncodedPacket packet : initial) {
+                deliver(spectator, packet);
+            }
+        });
+        return AttachResult.ATTACHED;
+    }
+
+    public void detach(String sessionId) {
+        String roomId = roomBySession.remove(sessionId);
+        if (roomId != null) {
+            audiences.computeIfPresent(roomId, (id, audience) -> audience.without(sessionId));
+        }
+    }
+
+    public boolean isSpectating(String sessionId) {
+        return roomBySession.containsKey(sessionId);
+    }
+
+    public int spectatorCount(String roomId) {
+        Audience audience = roomId != null ? audiences.get(roomId) : null;
+        return audience != null ? audience.spectators().size() : 0;
+    }
+
+    /**
+     * Publica un paquete de la room. sideView arma la version de un bando (se llama solo para los
+     * bandos que alguien sigue) y visibilityBySide trae los visibilityUpdate por bando.
+     * Sin espectadores cuesta un lookup. Llamar desde el hilo de la room.
+     */
+    public void publish(String roomId, Packet packet, IntFunction<Packet> sideView, Map<Integer, Packet> visibilityBySide) {
+        Audience audience = roomId != null ? audiences.get(roomId) : null;
+        if (audience == null || packet == null) {
+            return;
+        }
+
+        EncodedPacket full = new EncodedPacket(packet);
+        List<ViewFrame> frames = new ArrayList<>(GameRoom.MAX_PLAYERS + 1);
+        if (audience.watches(FULL_VIEW)) {
+            frames.add(new ViewFrame(FULL_VIEW, full, null));
+        }
+        for (int side = 0; side < GameRoom.MAX_PLAYERS; side++) {
+            if (!audience.watches(side)) {
+                continue;
+            }
+            Packet sidePacket = sideView != null ? sideView.apply(side) : packet;
+            Packet visibility = visibilityBySide.get(side);
+            frames.add(new ViewFrame(
+                side,
+                sidePacket == packet ? full : new EncodedPacket(sidePacket),
+                visibility != null ? new EncodedPacket(visibility) : null
+            ));
+        }
+
+        // la lista se toma ahora: quien entre despues recibe su estado inicial y no este paquete
+        List<Spectator> spectators = audience.spectators();
+        submit(() -> {
+            for (ViewFrame frame : frames) {
+                for (Spectator spectator : spectators) {
+                    if (spectator.view() != frame.view()) {
+                        continue;
+                    }
+                    deliver(spectator, frame.packet());
+                    if (frame.visibilityUpdate() != null) {
+                        deliver(spectator, frame.visibilityUpdate());
+                    }
+                }
+            }
+        });
+    }
+
+    public void publish(String roomId, Packet packet) {
+        publish(roomId, packet, null, Map.of());
+    }
+
+    private void submit(Runnable task) {
+        try {
+            if (delayMs > 0) {
+                fanout.schedule(task, delayMs, TimeUnit.MILLISECONDS);
+            } else {
+                fanout.execute(task);
+            }
+        } catch (RejectedExecutionException ex) {
+            log.warn("[WS] Spectator fan-out rejected a frame (shutting down?)");
+        }
+    }
+
+    private void deliver(Spectator spectator, EncodedPacket packet) {
+        WebSocketSession session = spectator.session();
+        if (!session.isOpen() || !spectator.roomId().equals(roomBySession.get(session.getId()))) {
+            return;
+        }
+        try {
+            outboxes.send(session, packet);
+        } catch (IOException | RuntimeException ex) {
+            log.warn("[WS] Could not send {} to spectator {}", packet.packet().getType(), session.getId(), ex);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanout.shutdownNow();
+    }
+}
@@ -0,0 +1,615 @@
+package com.example.proyect.websocket.packet;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Codec binario de paquetes, alternativo a PacketSerializer (JSON).
+ *
+ * Se usa solo en las sesiones que negocian el subprotocolo {@link #SUBPROTOCOL}; el resto sigue con JSON.
+ *
+ * Formato de un frame:
+ *   [ordinal de PacketType: 1 byte]
+ *   [mascara de presencia: varint]       bit i = el campo i del layout esta presente
+ *   [campos presentes del layout, en orden]
+ *   [extras: mapa generico]              claves del payload que no estan en el layout
+ *
+ * Tipos de campo del layout: enteros como varint zigzag, coordenadas como float32, booleanos como
+ * un byte y enums como el ordinal dentro de una lista fija de valores. Los paquetes sin layout
+ * (gameStart, welcome, error...) mandan todo el payload como mapa generico, donde las claves
+ * repetidas se escriben una sola vez por frame y despues como referencia a la tabla de strings.
+ *
+ * El orden de PacketType y los layouts son parte del protocolo: cualquier cambio se replica en
+ * el front (network/BinaryCodec.js).
+ */
+public final class BinaryPacketCodec {
+
+    public static final String SUBPROTOCOL = "proyect.bin.v1";
+
+    private static final PacketType[] TYPES = PacketType.values();
+    private static final Map<PacketType, Field[]> LAYOUTS = new EnumMap<>(PacketType.class);
+
+    // tags del mapa generico
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_FLOAT32 = 5;
+    private static final int TAG_FLOAT64 = 6;
+    private static final int TAG_STRING = 7;
+    private static final int TAG_LIST = 8;
+    private static final int TAG_MAP = 9;
+
+    private static final ThreadLocal<Writer> WRITERS = ThreadLocal.withInitial(Writer::new);
+
+    static {
+        layout(PacketType.MOVE, varint("droneIndex"), float32("x"), float32("y"));
+        layout(PacketType.MOVE_CARRIER, float32("x"), float32("y"));
+        layout(PacketType.ATTACK,
+            varint("attackerIndex"), varint("targetPlayer"), varint("targetDrone"),
+            float32("lineX"), float32("lineY"), float32("destinationX"), float32("destinationY"),
+            enumOf("targetType", "drone", "carrier"));
+        layout(PacketType.RECALL, varint("droneIndex"));
+        layout(PacketType.ACK, varlong("seq"), bool("resync"));
+
+        layout(PacketType.TURN_START, varint("activePlayer"), varint("actionsRemaining"));
+        layout(PacketType.MOVE_DRONE,
+            varint("playerIndex"), varint("droneIndex"), float32("x"), float32("y"),
+            varint("remainingFuel"), bool("destroyedByFuel"));
+        layout(PacketType.CARRIER_MOVED,
+            varint("playerIndex"), float32("x"), float32("y"), varint("actionsRemaining"));
+        layout(PacketType.ATTACK_RESULT,
+            varint("attackerPlayer"), varint("attackerDrone"), varint("targetPlayer"), varint("targetDrone"),
+            varint("damage"), varint("remainingHealth"), bool("hit"),
+            float32("lineX"), float32("lineY"), varint("actionsRemaining"),
+            float32("attackerX"), float32("attackerY"),
+            varint("attackerRemainingHealth"), bool("attackerDestroyed"), varint("attackerAmmo"),
+            varint("targetCarrierHealth"), bool("targetCarrierDestroyed"),
+            bool("gameFinished"), varint("winnerPlayerIndex"), bool("isDraw"));
+        layout(PacketType.DRONE_RECALLED,
+            varint("playerIndex"), varint("droneIndex"), varint("fuel"), varint("maxFuel"),
+            varint("missiles"), varint("actionsRemaining"));
+        layout(PacketType.SIDE_CHOSEN, varint("playerIndex"), enumOf("side", "Aereo", "Naval"));
+        layout(PacketType.STATE_DELTA, varlong("seq"), varlong("baseSeq"));
+        layout(PacketType.STATE_SNAPSHOT, varlong("seq"));
+    }
+
+    private BinaryPacketCodec() {
+        // Utility class - prevent instantiation
+    }
+
+    // ========== Encode ==========
+
+    public static byte[] encode(Packet packet) {
+        Writer out = WRITERS.get();
+        out.reset();
+
+        if (packet.getBody() != null) {
+            return encodeTyped(packet.getBody(), out);
+        }
+
+        Map<String, Object> payload = packet.getPayload();
+        Field[] fields = LAYOUTS.getOrDefault(packet.getType(), Field.NONE);
+
+        long presence = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].accepts(payload.get(fields[i].name))) {
+                presence |= 1L << i;
+            }
+        }
+
+        out.writeByte(packet.getType().ordinal());
+        out.writeVarLong(presence);
+        int extras = payload.size();
+        for (int i = 0; i < fields.length; i++) {
+            if ((presence & (1L << i)) != 0) {
+                fields[i].write(out, payload.get(fields[i].name));
+                extras--;
+            }
+        }
+
+        out.writeVarInt(extras);
+        for (Map.Entry<String, Object> entry : payload.entrySet()) {
+            int index = indexOf(fields, entry.getKey());
+            if (index >= 0 && (presence & (1L << index)) != 0) {
+                continue;
+            }
+            out.writeKey(entry.getKey());
+            out.writeValue(entry.getValue());
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Camino de los paquetes tipados: los campos van a slots primitivos y se escriben en el mismo
+     * formato que el camino Map, sin armar el payload.
+     */
+    private static byte[] encodeTyped(PacketBody body, Writer out) {
+        Field[] fields = LAYOUTS.getOrDefault(body.type(), Field.NONE);
+        SlotCollector slots = out.slots;
+        slots.reset(fields);
+        body.writeFields(slots);
+
+        out.writeByte(body.type().ordinal());
+        out.writeVarLong(slots.presence);
+        for (int i = 0; i < fields.length; i++) {
+            if ((slots.presence & (1L << i)) != 0) {
+                fields[i].writeSlot(out, slots.values[i]);
+            }
+        }
+
+        out.writeVarInt(slots.extraNames.size());
+        for (int i = 0; i < slots.extraNames.size(); i++) {
+            out.writeKey(slots.extraNames.get(i));
+            out.writeValue(slots.extraValues.get(i));
+        }
+        return out.toByteArray();
+    }
+
+    // ========== Decode ==========
+
+    /**
+     * Decodifica un frame. Devuelve null si el frame esta mal formado o el tipo no existe.
+     */
+    public static Packet decode(ByteBuffer buffer) {
+        try {
+            Reader in = new Reader(buffer);
+            int ordinal = in.readByte();
+            if (ordinal < 0 || ordinal >= TYPES.length) {
+                return null;
+            }
+            PacketType type = TYPES[ordinal];
+            Field[] fields = LAYOUTS.getOrDefault(type, Field.NONE);
+
+            long presence = in.readVarLong();
+            Map<String, Object> payload = new HashMap<>();
+            for (int i = 0; i < fields.length; i++) {
+                if ((presence & (1L << i)) != 0) {
+                    payload.put(fields[i].name, fields[i].read(in));
+                }
+            }
+
+            int extras = in.readVarInt();
+            for (int i = 0; i < extras; i++) {
+                String key = in.readKey();
+                payload.put(key, in.readValue());
+            }
+            return new Packet(type, payload);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void layout(PacketType type, Field... fields) {
+        if (fields.length > 63) {
+            throw new IllegalStateException("Too many fields for " + type);
+        }
+        LAYOUTS.put(type, fields);
+    }
+
+    private static int indexOf(Field[] fields, String name) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i].name.equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ========== Campos del layout ==========
+
+    private enum Kind { VARINT, VARLONG, FLOAT32, BOOL, ENUM }
+
+    private static Field varint(String name) {
+        return new Field(name, Kind.VARINT, null);
+    }
+
+    private static Field varlong(String name) {
+        return new Field(name, Kind.VARLONG, null);
+    }
+
+    private static Field float32(String name) {
+        return new Field(name, Kind.FLOAT32, null);
+    }
+
+    private static Field bool(String name) {
+        return new Field(name, Kind.BOOL, null);
+    }
+
+    private static Field enumOf(String name, String... values) {
+        return new Field(name, Kind.ENUM, values);
+    }
+
+    private static final class Field {
+        private static final Field[] NONE = new Field[0];
+
+        private final String name;
+        private final Kind kind;
+        private final String[] values;
+
+        private Field(String name, Kind kind, String[] values) {
+            this.name = name;
+            this.kind = kind;
+            this.values = values;
+        }
+
+        /** Si el valor no encaja en el tipo del campo viaja en los extras, sin perder nada. */
+        private boolean accepts(Object value) {
+            return switch (kind) {
+                case VARINT -> value instanceof Integer || value instanceof Short || value instanceof Byte;
+                case VARLONG -> value instanceof Integer || value instanceof Long;
+                case FLOAT32 -> value instanceof Number;
+                case BOOL -> value instanceof Boolean;
+                case ENUM -> value instanceof String s && Arrays.asList(values).contains(s);
+            };
+        }
+
+        private void write(Writer out, Object value) {
+            switch (kind) {
+                case VARINT -> out.writeVarInt(zigzag(((Number) value).intValue()));
+                case VARLONG -> out.writeVarLong(zigzag(((Number) value).longValue()));
+                case FLOAT32 -> out.writeFloat(((Number) value).floatValue());
+                case BOOL -> out.writeByte((Boolean) value ? 1 : 0);
+                case ENUM -> out.writeByte(Arrays.asList(values).indexOf(value));
+            }
+        }
+
+        /** Escribe un valor ya normalizado por SlotCollector (bits de float32 en FLOAT32). */
+        private void writeSlot(Writer out, long slot) {
+            switch (kind) {
+                case VARINT -> out.writeVarInt(zigzag((int) slot));
+                case VARLONG -> out.writeVarLong(zigzag(slot));
+                case FLOAT32 -> out.writeInt32((int) slot);
+                case BOOL, ENUM -> out.writeByte((int) slot);
+            }
+        }
+
+        private Object read(Reader in) {
+            return switch (kind) {
+                case VARINT -> unzigzag(in.readVarInt());
+                case VARLONG -> unzigzag(in.readVarLong());
+                case FLOAT32 -> (double) in.readFloat();
+                case BOOL -> in.readByte() != 0;
+                case ENUM -> values[in.readByte()];
+            };
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Junta los campos de un PacketBody por indice del layout. Lo que no encaja en el layout
+     * (mismas reglas que Field.accepts) viaja en los extras.
+     */
+    private static final class SlotCollector implements PacketFieldWriter {
+        private Field[] fields = Field.NONE;
+        private final long[] values = new long[64];
+        private long presence;
+        private final List<String> extraNames = new ArrayList<>();
+        private final List<Object> extraValues = new ArrayList<>();
+
+        private void reset(Field[] layout) {
+            fields = layout;
+            presence = 0;
+            extraNames.clear();
+            extraValues.clear();
+        }
+
+        private int slotFor(String name, Kind... kinds) {
+            int index = indexOf(fields, name);
+            if (index < 0) {
+                return -1;
+            }
+            for (Kind kind : kinds) {
+                if (fields[index].kind == kind) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+
+        private void put(int index, long value) {
+            values[index] = value;
+            presence |= 1L << index;
+        }
+
+        private void extra(String name, Object value) {
+            extraNames.add(name);
+            extraValues.add(value);
+        }
+
+        @Override
+        public void writeInt(String name, int value) {
+            int index = slotFor(name, Kind.VARINT, Kind.VARLONG, Kind.FLOAT32);
+            if (index < 0) {
+                extra(name, value);
+            } else if (fields[index].kind == Kind.FLOAT32) {
+                put(index, Float.floatToIntBits((float) value));
+            } else {
+                put(index, value);
+            }
+        }
+
+        @Override
+        public void writeLong(String name, long value) {
+            int index = slotFor(name, Kind.VARLONG, Kind.FLOAT32);
+            if (index < 0) {
+                extra(name, value);
+            } else if (fields[index].kind == Kind.FLOAT32) {
+                put(index, Float.floatToIntBits((float) value));
+            } else {
+                put(index, value);
+            }
+        }
+
+        @Override
+        public void writeDouble(String name, double value) {
+            int index = slotFor(name, Kind.FLOAT32);
+            if (index < 0) {
+                extra(name, value);
+            } else {
+                put(index, Float.floatToIntBits((float) value));
+            }
+        }
+
+        @Override
+        public void writeBoolean(String name, boolean value) {
+            int index = slotFor(name, Kind.BOOL);
+            if (index < 0) {
+                extra(name, value);
+            } else {
+                put(index, value ? 1 : 0);
+            }
+        }
+
+        @Override
+        public void writeObject(String name, Object value) {
+            int index = slotFor(name, Kind.ENUM);
+            int ordinal = index >= 0 ? Arrays.asList(fields[index].values).indexOf(value) : -1;
+            if (ordinal < 0) {
+                extra(name, value);
+            } else {
+                put(index, ordinal);
+            }
+        }
+    }
+
+    // ========== Escritura ==========
+
+    private static final class Writer {
+        private byte[] buf = new byte[256];
+        private int pos;
+        private final Map<String, Integer> keys = new HashMap<>();
+        private final SlotCollector slots = new SlotCollector();
+
+        private void reset() {
+            pos = 0;
+            keys.clear();
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        private void writeByte(int value) {
+            ensure(1);
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeFloat(float value) {
+            writeInt32(Float.floatToIntBits(value));
+        }
+
+        private void writeInt32(int bits) {
+            ensure(4);
+            buf[pos++] = (byte) bits;
+            buf[pos++] = (byte) (bits >>> 8);
+            buf[pos++] = (byte) (bits >>> 16);
+            buf[pos++] = (byte) (bits >>> 24);
+        }
+
+        private void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        /** 0 = string nueva a continuacion; n > 0 = la n-esima clave ya escrita en este frame. */
+        private void writeKey(String key) {
+            Integer index = keys.get(key);
+            if (index != null) {
+                writeVarInt(index + 1);
+                return;
+            }
+            keys.put(key, keys.size());
+            writeVarInt(0);
+            writeString(key);
+        }
+
+        private void writeValue(Object value) {
+            if (value == null) {
+                writeByte(TAG_NULL);
+            } else if (value instanceof Boolean b) {
+                writeByte(b ? TAG_TRUE : TAG_FALSE);
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                writeByte(TAG_INT);
+                writeVarInt(zigzag(((Number) value).intValue()));
+            } else if (value instanceof Long l) {
+                writeByte(TAG_LONG);
+                writeVarLong(zigzag(l));
+            } else if (value instanceof Number n) {
+                double d = n.doubleValue();
+                float f = (float) d;
+                if (f == d) {
+                    writeByte(TAG_FLOAT32);
+                    writeFloat(f);
+                } else {
+                    writeByte(TAG_FLOAT64);
+                    long bits = Double.doubleToLongBits(d);
+                    writeInt32((int) bits);
+                    writeInt32((int) (bits >>> 32));
+                }
+            } else if (value instanceof Map<?, ?> map) {
+                writeByte(TAG_MAP);
+                writeVarInt(map.size());
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    writeKey(String.valueOf(entry.getKey()));
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof List<?> list) {
+                writeByte(TAG_LIST);
+                writeVarInt(list.size());
+                for (Object item : list) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Object[] array) {
+                writeValue(Arrays.asList(array));
+            } else {
+                writeByte(TAG_STRING);
+                writeString(value.toString());
+            }
+        }
+
+        private byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    // ========== Lectura ==========
+
+    private static final class Reader {
+        private final ByteBuffer buf;
+        private final List<String> keys = new ArrayList<>();
+
+        private Reader(ByteBuffer buf) {
+            this.buf = buf.duplicate();
+        }
+
+        private int readByte() {
+            return buf.get() & 0xFF;
+        }
+
+        private int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        private int readInt32() {
+            return readByte() | (readByte() << 8) | (readByte() << 16) | (readByte() << 24);
+        }
+
+        private float readFloat() {
+            return Float.intBitsToFloat(readInt32());
+        }
+
+        private String readString() {
+            int length = readVarInt();
+            if (length < 0 || length > buf.remaining()) {
+                throw new IllegalArgumentException("Malformed string");
+            }
+            byte[] bytes = new byte[length];
+            buf.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private String readKey() {
+            int ref = readVarInt();
+            if (ref == 0) {
+                String key = readString();
+                keys.add(key);
+                return key;
+            }
+            return keys.get(ref - 1);
+        }
+
+        private Object readValue() {
+            int tag = readByte();
+            return switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_FALSE -> false;
+                case TAG_TRUE -> true;
+                case TAG_INT -> unzigzag(readVarInt());
+                case TAG_LONG -> unzigzag(readVarLong());
+                case TAG_FLOAT32 -> (double) readFloat();
+                case TAG_FLOAT64 -> {
+                    long low = readInt32() & 0xFFFFFFFFL;
+                    long high = readInt32() & 0xFFFFFFFFL;
+                    yield Double.longBitsToDouble(low | (high << 32));
+                }
+                case TAG_STRING -> readString();
+                case TAG_LIST -> {
+                    int size = readVarInt();
+                    List<Object> list = new ArrayList<>(Math.min(size, buf.remaining()));
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+                    yield list;
+                }
+                case TAG_MAP -> {
+                    int size = readVarInt();
+                    Map<String, Object> map = new HashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        String key = readKey();
+                        map.put(key, readValue());
+                    }
+                    yield map;
+                }
+                default -> throw new IllegalArgumentException("Unknown tag " + tag);
+            };
+        }
+    }
+}
@@ -1,36 +1,57 @@
 package com.example.proyect.websocket.packet;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Simple packet wrapper for WebSocket messages.
+ *
+ * The payload is either a Map or a typed PacketBody (game actions). For typed packets the Map
+ * is only built if someone asks for it; the serializers write the body fields directly.
  */
 public class Packet {
     private final PacketType type;
-    private final Map<String, Object> payload;
+    private final PacketBody body;
+    private Map<String, Object> payload;
 
     public Packet(PacketType type, Map<String, Object> payload) {
         this.type = type;
+        this.body = null;
         this.payload = payload != null ? payload : new HashMap<>();
     }
 
+    public Packet(PacketBody body) {
+        this.type = body.type();
+        this.body = body;
+    }
+
     public PacketType getType() {
         return type;
     }
 
+    /** Typed body, or null for Map-based packets. */
+    public PacketBody getBody() {
+        return body;
+    }
+
     public Map<String, Object> getPayload() {
+        if (payload == null) {
+            Map<String, Object> fields = new HashMap<>();
+            body.writeFields(new MapFieldWriter(fields));
+            payload = fields;
+        }
         return payload;
     }
 
     @SuppressWarnings("unchecked")
     public <T> T get(String key) {
-        return (T) payload.get(key);
+        return (T) getPayload().get(key);
     }
 
     @SuppressWarnings("unchecked")
     public <T> T get(String key, T defaultValue) {
-        Object value = payload.get(key);
+        Object value = getPayload().get(key);
         if (value == null) {
             return defaultValue;
         }
@@ -52,7 +73,7 @@ public class Packet {
     }
 
     public int getInt(String key) {
-        Object value = payload.get(key);
+        Object value = getPayload().get(key);
         if (value instanceof Number) {
             return ((Number) value).intValue();
         }
@@ -60,7 +81,7 @@ public class Packet {
     }
 
     public double getDouble(String key) {
-        Object value = payload.get(key);
+        Object value = getPayload().get(key);
         if (value instanceof Number) {
             return ((Number) value).doubleValue();
         }
@@ -68,7 +89,7 @@ public class Packet {
     }
 
     public String getString(String key) {
-        Object value = payload.get(key);
+        Object value = getPayload().get(key);
         return value != null ? value.toString() : null;
     }
 
@@ -76,11 +97,46 @@ public class Packet {
      * Convert packet to a Map for JSON serialization.
      */
     public Map<String, Object> toMap() {
-        Map<String, Object> map = new HashMap<>(payload);
+        Map<String, Object> map = new HashMap<>(getPayload());
         map.put("type", type.getValue());
         return map;
     }
 
+    /**
+     * Copy with gameFinished/winnerPlayerIndex/isDraw added (winnerPlayerIndex null on a draw).
+     */
+    public Packet withOutcome(Integer winnerPlayerIndex, boolean isDraw) {
+        if (body instanceof PacketBody.Finishable finishable) {
+            return new Packet(finishable.withOutcome(new PacketBody.Outcome(winnerPlayerIndex, isDraw)));
+        }
+        Map<String, Object> copy = new HashMap<>(getPayload());
+        copy.put("gameFinished", true);
+        copy.put("winnerPlayerIndex", winnerPlayerIndex);
+        copy.put("isDraw", isDraw);
+        return new Packet(type, copy);
+    }
+
+    /**
+     * Copy without the x/y coordinates (fog of war).
+     */
+    public Packet withoutPosition() {
+        if (body instanceof PacketBody.Positioned positioned) {
+            return new Packet(positioned.withoutPosition());
+        }
+        Map<String, Object> copy = new HashMap<>(getPayload());
+        copy.remove("x");
+        copy.remove("y");
+        return new Packet(type, copy);
+    }
+
+    /** Whether the packet carries x/y coordinates. */
+    public boolean hasPosition() {
+        if (body instanceof PacketBody.Positioned positioned) {
+            return positioned.hasPosition();
+        }
+        return body == null && payload.containsKey("x");
+    }
+
     public static Packet gameLoaded(Object state) {
         Map<String, Object> payload = new HashMap<>();
         payload.put("state", state);
@@ -133,39 +189,20 @@ public class Packet {
     }
 
     public static Packet turnStart(int activePlayer, int actionsRemaining) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("activePlayer", activePlayer);
-        payload.put("actionsRemaining", actionsRemaining);
-        return new Packet(PacketType.TURN_START, payload);
+        return new Packet(new PacketBody.TurnStart(activePlayer, actionsRemaining));
     }
 
     public static Packet moveDrone(int playerIndex, int droneIndex, double x, double y, int remainingFuel, boolean destroyedByFuel) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("playerIndex", playerIndex);
-        payload.put("droneIndex", droneIndex);
-        payload.put("x", x);
-        payload.put("y", y);
-        payload.put("remainingFuel", remainingFuel);
-        payload.put("destroyedByFuel", destroyedByFuel);
-        return new Packet(PacketType.MOVE_DRONE, payload);
+        return new Packet(new PacketBody.MoveDrone(playerIndex, droneIndex, true, x, y, remainingFuel, destroyedByFuel, null));
     }
 
 
     public static Packet carrierMoved(int playerIndex, double x, double y, int actionsRemaining) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("playerIndex", playerIndex);
-        payload.put("x", x);
-        payload.put("y", y);
-        payload.put("actionsRemaining", actionsRemaining);
-        return new Packet(PacketType.CARRIER_MOVED, payload);
+        return new Packet(new PacketBody.CarrierMoved(playerIndex, true, x, y, actionsRemaining));
     }
+
     public static Packet fuelUpdate(int playerIndex, int droneIndex, int remainingFuel, boolean destroyedByFuel) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("playerIndex", playerIndex);
-        payload.put("droneIndex", droneIndex);
-        payload.put("remainingFuel", remainingFuel);
-        payload.put("destroyedByFuel", destroyedByFuel);
-        return new Packet(PacketType.MOVE_DRONE, payload);
+        return new Packet(new PacketBody.MoveDrone(playerIndex, droneIndex, false, 0.0, 0.0, remainingFuel, destroyedByFuel, null));
     }
 
     public static Packet attackResult(int attackerPlayer, int attackerDrone, 
@@ -201,39 +238,44 @@ public class Packet {
                                        int attackerAmmo,
                                        int targetCarrierHealth, boolean targetCarrierDestroyed,
                                        boolean gameFinished, int winnerPlayerIndex, boolean isDraw) {
-        Map<String, Object> payload = new HashMap<>();
-        payload.put("attackerPlayer", attackerPlayer);
-        payload.put("attackerDrone", attackerDrone);
-        payload.put("targetPlayer", targetPlayer);
-        payload.put("targetDrone", targetDrone);
-        payload.put("damage", damage);
-        payload.put("remainingHealth", remainingHealth);
-        payload.put("hit", hit);
-        payload.put("lineX", lineX);
-        payload.put("lineY", lineY);
-        payload.put("actionsRemaining", actionsRemaining);
-        payload.put("attackerX", attackerX);
-        payload.put("attackerY", attackerY);
-        payload.put("attackerRemainingHealth", attackerRemainingHealth);
-        payload.put("attackerDestroyed", attackerDestroyed);
-        payload.put("attackerAmmo", attackerAmmo);
-        payload.put("targetCarrierHealth", targetCarrierHealth);
-        payload.put("targetCarrierDestroyed", targetCarrierDestroyed);
-        payload.put("gameFinished", gameFinished);
-        payload.put("winnerPlayerIndex", winnerPlayerIndex);
-        payload.put("isDraw", isDraw);
-        return new Packet(PacketType.ATTACK_RESULT, payload);
+        return new Packet(new PacketBody.AttackResult(
+            attackerPlayer, attackerDrone, targetPlayer, targetDrone,
+            damage, remainingHealth, hit,
+            lineX, lineY, actionsRemaining,
+            true, attackerX, attackerY,
+            attackerRemainingHealth, attackerDestroyed, attackerAmmo,
+            targetCarrierHealth, targetCarrierDestroyed,
+            gameFinished, winnerPlayerIndex, isDraw
+        ));
     }
 
     public static Packet droneRecalled(int playerIndex, int droneIndex, int fuel, int maxFuel, int missiles, int actionsRemaining) {
+        return new Packet(new PacketBody.DroneRecalled(playerIndex, droneIndex, fuel, maxFuel, missiles, actionsRemaining));
+    }
+
+    public static Packet visibilityUpdate(List<Map<String, Object>> revealed, List<Map<String, Object>> hidden) {
         Map<String, Object> payload = new HashMap<>();
-        payload.put("playerIndex", playerIndex);
-        payload.put("droneIndex", droneIndex);
-        payload.put("fuel", fuel);
-        payload.put("maxFuel", maxFuel);
-        payload.put("missiles", missiles);
-        payload.put("actionsRemaining", actionsRemaining);
-        return new Packet(PacketType.DRONE_RECALLED, payload);
+        payload.put("revealed", revealed);
+        payload.put("hidden", hidden);
+        return new Packet(PacketType.VISIBILITY_UPDATE, payload);
+    }
+
+    public static Packet stateSnapshot(long seq, Map<String, Map<String, Object>> units) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("seq", seq);
+        payload.put("units", units);
+        return new Packet(PacketType.STATE_SNAPSHOT, payload);
+    }
+
+    public static Packet stateDelta(long seq, long baseSeq, Map<String, Map<String, Object>> changed, List<String> removed) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("seq", seq);
+        payload.put("baseSeq", baseSeq);
+        payload.put("changed", changed);
+        if (!removed.isEmpty()) {
+            payload.put("removed", removed);
+        }
+        return new Packet(PacketType.STATE_DELTA, payload);
     }
 
     public static Packet playerLeft(int playerIndex) {
@@ -261,4 +303,77 @@ public class Packet {
         payload.put("gameId", gameId);
         return new Packet(PacketType.LOBBY_CREATED, payload);
     }
+
+    /**
+     * Confirms a spectator attach. playerIndex is the followed side, or -1 for the full view.
+     */
+    public static Packet spectating(String lobbyId, int playerIndex, long delayMs) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("lobbyId", lobbyId);
+        payload.put("playerIndex", playerIndex);
+        payload.put("delayMs", delayMs);
+        return new Packet(PacketType.SPECTATING, payload);
+    }
+
+    /**
+     * Hexes a los que puede moverse un dron. hexes es la lista plana de centros [x0, y0, x1, y1, ...].
+     */
+    public static Packet movesPreview(int droneIndex, int range, List<Double> hexes) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("droneIndex", droneIndex);
+        payload.put("range", range);
+        payload.put("hexes", hexes);
+        return new Packet(PacketType.MOVES_PREVIEW, payload);
+    }
+
+    /**
+     * Distancia en hexes, si el objetivo esta al alcance y la probabilidad de impacto de un ataque.
+     */
+    public static Packet attackPreview(int attackerIndex, int targetPlayer, int targetDrone,
+                                       int distance, boolean inRange, double hitChance) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("attackerIndex", attackerIndex);
+        payload.put("targetPlayer", targetPlayer);
+        payload.put("targetDrone", targetDrone);
+        payload.put("distance", distance);
+        payload.put("inRange", inRange);
+        payload.put("hitChance", hitChance);
+        return new Packet(PacketType.ATTACK_PREVIEW, payload);
+    }
+
+    /**
+     * Builds the Map view of a typed body.
+     */
+    private static final class MapFieldWriter implements PacketFieldWriter {
+        private final Map<String, Object> target;
+
+        private MapFieldWriter(Map<String, Object> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void writeInt(String name, int value) {
+            target.put(name, value);
+        }
+
+        @Override
+        public void writeLong(String name, long value) {
+            target.put(name, value);
+        }
+
+        @Override
+        public void writeDouble(String name, double value) {
+            target.put(name, value);
+        }
+
+        @Override
+        public void writeBoolean(String name, boolean value) {
+            target.put(name, value);
+        }
+
+        @Override
+        public void writeObject(String name, Object value) {
+            target.put(name, value);
+        }
+    }
 }
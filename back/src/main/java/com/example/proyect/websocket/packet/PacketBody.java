@@ -0,0 +1,367 @@
+package com.example.proyect.websocket.packet;
+
+import java.util.List;
+
+/**
+ * Cuerpos tipados e inmutables de los paquetes del camino caliente (acciones de juego).
+ *
+ * Se serializan directo al JsonGenerator o al frame binario a traves de PacketFieldWriter, sin
+ * armar un Map intermedio. El resto de los paquetes (welcome, gameStart, errores...) sigue usando
+ * el payload Map de Packet.
+ *
+ * Los cuerpos entrantes tienen un from(Packet) que acepta tanto el paquete tipado (parser JSON
+ * streaming) como uno basado en Map (frames binarios), con los mismos defaults que Packet.getInt.
+ */
+public sealed interface PacketBody {
+
+    PacketType type();
+
+    void writeFields(PacketFieldWriter out);
+
+    /**
+     * Resultado de fin de partida que se agrega a un paquete (gameFinished/winnerPlayerIndex/isDraw).
+     * winnerPlayerIndex es null en un empate.
+     */
+    record Outcome(Integer winnerPlayerIndex, boolean isDraw) {
+
+        void writeFields(PacketFieldWriter out) {
+            out.writeBoolean("gameFinished", true);
+            if (winnerPlayerIndex != null) {
+                out.writeInt("winnerPlayerIndex", winnerPlayerIndex);
+            } else {
+                out.writeObject("winnerPlayerIndex", null);
+            }
+            out.writeBoolean("isDraw", isDraw);
+        }
+    }
+
+    /** Cuerpos a los que finalizeByEliminationIfNeeded puede agregar el resultado de la partida. */
+    sealed interface Finishable extends PacketBody {
+        PacketBody withOutcome(Outcome outcome);
+    }
+
+    /** Cuerpos con una posicion que la niebla de guerra puede ocultar. */
+    sealed interface Positioned extends PacketBody {
+        int playerIndex();
+
+        boolean hasPosition();
+
+        PacketBody withoutPosition();
+    }
+
+    // ========== Server -> Client ==========
+
+    record TurnStart(int activePlayer, int actionsRemaining, List<MoveDrone> fuelUpdates, Outcome outcome)
+            implements Finishable {
+
+        public TurnStart(int activePlayer, int actionsRemaining) {
+            this(activePlayer, actionsRemaining, List.of(), null);
+        }
+
+        public TurnStart {
+            fuelUpdates = fuelUpdates != null ? List.copyOf(fuelUpdates) : List.of();
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.TURN_START;
+        }
+
+        public TurnStart withFuelUpdates(List<MoveDrone> updates) {
+            return new TurnStart(activePlayer, actionsRemaining, updates, outcome);
+        }
+
+        @Override
+        public TurnStart withOutcome(Outcome newOutcome) {
+            return new TurnStart(activePlayer, actionsRemaining, fuelUpdates, newOutcome);
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("activePlayer", activePlayer);
+            out.writeInt("actionsRemaining", actionsRemaining);
+            if (!fuelUpdates.isEmpty()) {
+                out.writeObject("fuelUpdates", fuelUpdates.stream().map(update -> new Packet(update).toMap()).toList());
+            }
+            if (outcome != null) {
+                outcome.writeFields(out);
+            }
+        }
+    }
+
+    /**
+     * Movimiento de un dron, o solo el combustible (fuelUpdate) cuando hasPosition es false.
+     */
+    record MoveDrone(int playerIndex, int droneIndex, boolean hasPosition, double x, double y,
+                     int remainingFuel, boolean destroyedByFuel, Outcome outcome)
+            implements Finishable, Positioned {
+
+        @Override
+        public PacketType type() {
+            return PacketType.MOVE_DRONE;
+        }
+
+        @Override
+        public MoveDrone withOutcome(Outcome newOutcome) {
+            return new MoveDrone(playerIndex, droneIndex, hasPosition, x, y, remainingFuel, destroyedByFuel, newOutcome);
+        }
+
+        @Override
+        public MoveDrone withoutPosition() {
+            return new MoveDrone(playerIndex, droneIndex, false, 0.0, 0.0, remainingFuel, destroyedByFuel, outcome);
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("playerIndex", playerIndex);
+            out.writeInt("droneIndex", droneIndex);
+            if (hasPosition) {
+                out.writeDouble("x", x);
+                out.writeDouble("y", y);
+            }
+            out.writeInt("remainingFuel", remainingFuel);
+            out.writeBoolean("destroyedByFuel", destroyedByFuel);
+            if (outcome != null) {
+                outcome.writeFields(out);
+            }
+        }
+    }
+
+    record CarrierMoved(int playerIndex, boolean hasPosition, double x, double y, int actionsRemaining)
+            implements Positioned {
+
+        @Override
+        public PacketType type() {
+            return PacketType.CARRIER_MOVED;
+        }
+
+        @Override
+        public CarrierMoved withoutPosition() {
+            return new CarrierMoved(playerIndex, false, 0.0, 0.0, actionsRemaining);
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("playerIndex", playerIndex);
+            if (hasPosition) {
+                out.writeDouble("x", x);
+                out.writeDouble("y", y);
+            }
+            out.writeInt("actionsRemaining", actionsRemaining);
+        }
+    }
+
+    /**
+     * Resultado de un ataque. attackerX/attackerY (donde queda el atacante) solo van cuando
+     * hasPosition es true; la niebla de guerra los saca para quien no ve al atacante.
+     */
+    record AttackResult(int attackerPlayer, int attackerDrone, int targetPlayer, int targetDrone,
+                        int damage, int remainingHealth, boolean hit,
+                        double lineX, double lineY, int actionsRemaining,
+                        boolean hasPosition, double attackerX, double attackerY,
+                        int attackerRemainingHealth, boolean attackerDestroyed, int attackerAmmo,
+                        int targetCarrierHealth, boolean targetCarrierDestroyed,
+                        boolean gameFinished, int winnerPlayerIndex, boolean isDraw) implements Positioned {
+
+        @Override
+        public PacketType type() {
+            return PacketType.ATTACK_RESULT;
+        }
+
+        @Override
+        public int playerIndex() {
+            return attackerPlayer;
+        }
+
+        @Override
+        public AttackResult withoutPosition() {
+            return new AttackResult(attackerPlayer, attackerDrone, targetPlayer, targetDrone,
+                damage, remainingHealth, hit, lineX, lineY, actionsRemaining,
+                false, 0.0, 0.0,
+                attackerRemainingHealth, attackerDestroyed, attackerAmmo,
+                targetCarrierHealth, targetCarrierDestroyed,
+                gameFinished, winnerPlayerIndex, isDraw);
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("attackerPlayer", attackerPlayer);
+            out.writeInt("attackerDrone", attackerDrone);
+            out.writeInt("targetPlayer", targetPlayer);
+            out.writeInt("targetDrone", targetDrone);
+            out.writeInt("damage", damage);
+            out.writeInt("remainingHealth", remainingHealth);
+            out.writeBoolean("hit", hit);
+            out.writeDouble("lineX", lineX);
+            out.writeDouble("lineY", lineY);
+            out.writeInt("actionsRemaining", actionsRemaining);
+            if (hasPosition) {
+                out.writeDouble("attackerX", attackerX);
+                out.writeDouble("attackerY", attackerY);
+            }
+            out.writeInt("attackerRemainingHealth", attackerRemainingHealth);
+            out.writeBoolean("attackerDestroyed", attackerDestroyed);
+            out.writeInt("attackerAmmo", attackerAmmo);
+            out.writeInt("targetCarrierHealth", targetCarrierHealth);
+            out.writeBoolean("targetCarrierDestroyed", targetCarrierDestroyed);
+            out.writeBoolean("gameFinished", gameFinished);
+            out.writeInt("winnerPlayerIndex", winnerPlayerIndex);
+            out.writeBoolean("isDraw", isDraw);
+        }
+    }
+
+    record DroneRecalled(int playerIndex, int droneIndex, int fuel, int maxFuel, int missiles, int actionsRemaining)
+            implements PacketBody {
+
+        @Override
+        public PacketType type() {
+            return PacketType.DRONE_RECALLED;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("playerIndex", playerIndex);
+            out.writeInt("droneIndex", droneIndex);
+            out.writeInt("fuel", fuel);
+            out.writeInt("maxFuel", maxFuel);
+            out.writeInt("missiles", missiles);
+            out.writeInt("actionsRemaining", actionsRemaining);
+        }
+    }
+
+    // ========== Client -> Server ==========
+
+    record Move(int droneIndex, double x, double y) implements PacketBody {
+
+        public static Move from(Packet packet) {
+            if (packet.getBody() instanceof Move move) {
+                return move;
+            }
+            return new Move(packet.getInt("droneIndex"), packet.getDouble("x"), packet.getDouble("y"));
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.MOVE;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("droneIndex", droneIndex);
+            out.writeDouble("x", x);
+            out.writeDouble("y", y);
+        }
+    }
+
+    record MoveCarrier(double x, double y) implements PacketBody {
+
+        public static MoveCarrier from(Packet packet) {
+            if (packet.getBody() instanceof MoveCarrier move) {
+                return move;
+            }
+            return new MoveCarrier(packet.getDouble("x"), packet.getDouble("y"));
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.MOVE_CARRIER;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeDouble("x", x);
+            out.writeDouble("y", y);
+        }
+    }
+
+    /** Las coordenadas de linea/destino y targetType son opcionales (null si no vinieron). */
+    record Attack(int attackerIndex, int targetPlayer, int targetDrone,
+                  Double lineX, Double lineY, Double destinationX, Double destinationY,
+                  String targetType) implements PacketBody {
+
+        public static Attack from(Packet packet) {
+            if (packet.getBody() instanceof Attack attack) {
+                return attack;
+            }
+            return new Attack(
+                packet.getInt("attackerIndex"), packet.getInt("targetPlayer"), packet.getInt("targetDrone"),
+                optionalDouble(packet, "lineX"), optionalDouble(packet, "lineY"),
+                optionalDouble(packet, "destinationX"), optionalDouble(packet, "destinationY"),
+                packet.getString("targetType")
+            );
+        }
+
+        private static Double optionalDouble(Packet packet, String key) {
+            Number value = packet.get(key);
+            return value != null ? value.doubleValue() : null;
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.ATTACK;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("attackerIndex", attackerIndex);
+            out.writeInt("targetPlayer", targetPlayer);
+            out.writeInt("targetDrone", targetDrone);
+            writeOptional(out, "lineX", lineX);
+            writeOptional(out, "lineY", lineY);
+            writeOptional(out, "destinationX", destinationX);
+            writeOptional(out, "destinationY", destinationY);
+            if (targetType != null) {
+                out.writeObject("targetType", targetType);
+            }
+        }
+
+        private static void writeOptional(PacketFieldWriter out, String name, Double value) {
+            if (value != null) {
+                out.writeDouble(name, value);
+            }
+        }
+    }
+
+    record Recall(int droneIndex) implements PacketBody {
+
+        public static Recall from(Packet packet) {
+            if (packet.getBody() instanceof Recall recall) {
+                return recall;
+            }
+            return new Recall(packet.getInt("droneIndex"));
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.RECALL;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeInt("droneIndex", droneIndex);
+        }
+    }
+
+    /** seq = -1 si el cliente todavia no tiene estado. */
+    record Ack(long seq, boolean resync) implements PacketBody {
+
+        public static Ack from(Packet packet) {
+            if (packet.getBody() instanceof Ack ack) {
+                return ack;
+            }
+            Number seq = packet.get("seq");
+            return new Ack(seq != null ? seq.longValue() : -1L, Boolean.TRUE.equals(packet.get("resync")));
+        }
+
+        @Override
+        public PacketType type() {
+            return PacketType.ACK;
+        }
+
+        @Override
+        public void writeFields(PacketFieldWriter out) {
+            out.writeLong("seq", seq);
+            out.writeBoolean("resync", resync);
+        }
+    }
+}
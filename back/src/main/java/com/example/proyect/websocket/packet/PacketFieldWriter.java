@@ -0,0 +1,20 @@
+package com.example.proyect.websocket.packet;
+
+/**
+ * Destino de los campos de un PacketBody: el JsonGenerator, el frame binario o un Map
+ * (solo cuando alguien pide el payload como mapa). Asi cada paquete tipado escribe sus campos
+ * una sola vez y sin boxing en los formatos de salida.
+ */
+public interface PacketFieldWriter {
+
+    void writeInt(String name, int value);
+
+    void writeLong(String name, long value);
+
+    void writeDouble(String name, double value);
+
+    void writeBoolean(String name, boolean value);
+
+    /** Strings, listas, mapas o null. */
+    void writeObject(String name, Object value);
+}
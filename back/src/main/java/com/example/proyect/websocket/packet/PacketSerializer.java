@@ -1,12 +1,22 @@
 package com.example.proyect.websocket.packet;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.Map;
 
 /**
  * Utility class for serializing/deserializing packets to/from JSON.
+ *
+ * Typed packets (PacketBody) are written field by field to a JsonGenerator, and the hot inbound
+ * actions (move, moveCarrier, attack, recall, ack) are parsed with a streaming parser straight into
+ * their records. Everything else goes through the generic Map path.
  */
 public class PacketSerializer {
     
@@ -21,6 +31,10 @@ public class PacketSerializer {
      */
     @SuppressWarnings("unchecked")
     public static Packet deserialize(String json) {
+        Packet typed = tryDeserializeTyped(json);
+        if (typed != null) {
+            return typed;
+        }
         try {
             Map<String, Object> map = objectMapper.readValue(json, Map.class);
             String typeStr = (String) map.get("type");
@@ -47,6 +61,9 @@ public class PacketSerializer {
      * Serialize a Packet to JSON string.
      */
     public static String serialize(Packet packet) {
+        if (packet.getBody() != null) {
+            return serializeTyped(packet);
+        }
         try {
             return objectMapper.writeValueAsString(packet.toMap());
         } catch (JsonProcessingException e) {
@@ -65,4 +82,197 @@ public class PacketSerializer {
             return "{\"type\":\"error\",\"message\":\"Serialization failed\"}";
         }
     }
+
+    private static String serializeTyped(Packet packet) {
+        StringWriter out = new StringWriter(128);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("type", packet.getType().getValue());
+            packet.getBody().writeFields(new JsonFieldWriter(generator));
+            generator.writeEndObject();
+        } catch (IOException e) {
+            return "{\"type\":\"error\",\"message\":\"Serialization failed\"}";
+        } catch (UncheckedIOException e) {
+            return "{\"type\":\"error\",\"message\":\"Serialization failed\"}";
+        }
+        return out.toString();
+    }
+
+    // Campos conocidos de los paquetes entrantes tipados
+    private static final int F_DRONE_INDEX = 0;
+    private static final int F_X = 1;
+    private static final int F_Y = 2;
+    private static final int F_ATTACKER_INDEX = 3;
+    private static final int F_TARGET_PLAYER = 4;
+    private static final int F_TARGET_DRONE = 5;
+    private static final int F_LINE_X = 6;
+    private static final int F_LINE_Y = 7;
+    private static final int F_DESTINATION_X = 8;
+    private static final int F_DESTINATION_Y = 9;
+    private static final int F_SEQ = 10;
+    private static final int FIELD_COUNT = 11;
+
+    private static int numericField(String name) {
+        return switch (name) {
+            case "droneIndex" -> F_DRONE_INDEX;
+            case "x" -> F_X;
+            case "y" -> F_Y;
+            case "attackerIndex" -> F_ATTACKER_INDEX;
+            case "targetPlayer" -> F_TARGET_PLAYER;
+            case "targetDrone" -> F_TARGET_DRONE;
+            case "lineX" -> F_LINE_X;
+            case "lineY" -> F_LINE_Y;
+            case "destinationX" -> F_DESTINATION_X;
+            case "destinationY" -> F_DESTINATION_Y;
+            case "seq" -> F_SEQ;
+            default -> -1;
+        };
+    }
+
+    private static boolean isTypedInbound(PacketType type) {
+        return type == PacketType.MOVE || type == PacketType.MOVE_CARRIER || type == PacketType.ATTACK
+            || type == PacketType.RECALL || type == PacketType.ACK;
+    }
+
+    /**
+     * Parser streaming para las acciones del camino caliente. Devuelve null (y se usa el camino
+     * Map) ante cualquier cosa que no reconozca: otro tipo, un campo desconocido o un valor no numerico.
+     */
+    private static Packet tryDeserializeTyped(String json) {
+        PacketType type = null;
+        double[] values = new double[FIELD_COUNT];
+        long seq = -1L;
+        int present = 0;
+        String targetType = null;
+        boolean resync = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("type".equals(name)) {
+                    if (value != JsonToken.VALUE_STRING) {
+                        return null;
+                    }
+                    type = PacketType.fromString(parser.getText());
+                    if (type == null || !isTypedInbound(type)) {
+                        return null;
+                    }
+                } else if ("targetType".equals(name)) {
+                    if (value == JsonToken.VALUE_STRING) {
+                        targetType = parser.getText();
+                    } else if (value != JsonToken.VALUE_NULL) {
+                        return null;
+                    }
+                } else if ("resync".equals(name)) {
+                    if (value != JsonToken.VALUE_TRUE && value != JsonToken.VALUE_FALSE) {
+                        return null;
+                    }
+                    resync = value == JsonToken.VALUE_TRUE;
+                } else {
+                    int field = numericField(name);
+                    if (field < 0) {
+                        return null;
+                    }
+                    if (value == JsonToken.VALUE_NULL) {
+                        continue;
+                    }
+                    if (!value.isNumeric()) {
+                        return null;
+                    }
+                    if (field == F_SEQ) {
+                        seq = parser.getLongValue();
+                    } else {
+                        values[field] = parser.getDoubleValue();
+                    }
+                    present |= 1 << field;
+                }
+            }
+            if (token != JsonToken.END_OBJECT || parser.nextToken() != null || type == null) {
+                return null;
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        PacketBody body = switch (type) {
+            case MOVE -> new PacketBody.Move((int) values[F_DRONE_INDEX], values[F_X], values[F_Y]);
+            case MOVE_CARRIER -> new PacketBody.MoveCarrier(values[F_X], values[F_Y]);
+            case ATTACK -> new PacketBody.Attack(
+                (int) values[F_ATTACKER_INDEX], (int) values[F_TARGET_PLAYER], (int) values[F_TARGET_DRONE],
+                optional(values, present, F_LINE_X), optional(values, present, F_LINE_Y),
+                optional(values, present, F_DESTINATION_X), optional(values, present, F_DESTINATION_Y),
+                targetType
+            );
+            case RECALL -> new PacketBody.Recall((int) values[F_DRONE_INDEX]);
+            case ACK -> new PacketBody.Ack(seq, resync);
+            default -> null;
+        };
+        return body != null ? new Packet(body) : null;
+    }
+
+    private static Double optional(double[] values, int present, int field) {
+        return (present & (1 << field)) != 0 ? values[field] : null;
+    }
+
+    /**
+     * Escribe los campos de un PacketBody en el JsonGenerator.
+     */
+    private static final class JsonFieldWriter implements PacketFieldWriter {
+        private final JsonGenerator generator;
+
+        private JsonFieldWriter(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void writeInt(String name, int value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void writeLong(String name, long value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void writeDouble(String name, double value) {
+            try {
+                generator.writeNumberField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void writeBoolean(String name, boolean value) {
+            try {
+                generator.writeBooleanField(name, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void writeObject(String name, Object value) {
+            try {
+                generator.writeFieldName(name);
+                objectMapper.writeValue(generator, value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -2,6 +2,7 @@ package com.example.proyect.websocket.packet;
 
 /**
  * Enum defining all WebSocket message types for the game protocol.
+ * The declaration order is the type id of the binary protocol (front/network/BinaryCodec.js mirrors it).
  */
 public enum PacketType {
     // Client -> Server (Inbound)
@@ -16,6 +17,7 @@ public enum PacketType {
     LEAVE_GAME("leaveGame"),
     LOAD_GAME("loadGame"),
     RECALL("recall"),
+    ACK("ack"),
 
     // Server -> Client (Outbound)
     WELCOME("welcome"),
@@ -32,7 +34,20 @@ public enum PacketType {
     GAME_LOADED("gameLoaded"),
     LOBBY_CREATED("lobbyCreated"),
     DRONE_RECALLED("droneRecalled"),
-    ERROR("error");
+    VISIBILITY_UPDATE("visibilityUpdate"),
+    STATE_SNAPSHOT("stateSnapshot"),
+    STATE_DELTA("stateDelta"),
+    ERROR("error"),
+
+    // Espectadores (al final para no mover los ids binarios de los anteriores)
+    SPECTATE("spectate"),
+    SPECTATING("spectating"),
+
+    // Consultas de movimientos y ataques posibles (solo le contestan a quien pregunta)
+    PREVIEW_MOVES("previewMoves"),
+    MOVES_PREVIEW("movesPreview"),
+    PREVIEW_ATTACK("previewAttack"),
+    ATTACK_PREVIEW("attackPreview");
 
     private final String value;
 
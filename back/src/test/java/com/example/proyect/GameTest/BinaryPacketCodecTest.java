@@ -0,0 +1,102 @@
+package com.example.proyect.GameTest;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+import com.example.proyect.websocket.packet.PacketType;
+
+class BinaryPacketCodecTest {
+
+    private static Packet roundTrip(Packet packet) {
+        return BinaryPacketCodec.decode(ByteBuffer.wrap(BinaryPacketCodec.encode(packet)));
+    }
+
+    @Test
+    void moveDroneShouldRoundTripWithFloat32Coordinates() {
+        Packet decoded = roundTrip(Packet.moveDrone(1, 3, 1234.5, 678.25, 7, false));
+
+        assertEquals(PacketType.MOVE_DRONE, decoded.getType());
+        assertEquals(1, decoded.getInt("playerIndex"));
+        assertEquals(3, decoded.getInt("droneIndex"));
+        assertEquals(1234.5, decoded.getDouble("x"), 1e-3);
+        assertEquals(678.25, decoded.getDouble("y"), 1e-3);
+        assertEquals(7, decoded.getInt("remainingFuel"));
+        assertEquals(false, decoded.get("destroyedByFuel"));
+    }
+
+    @Test
+    void missingOptionalFieldsShouldStayMissing() {
+        Packet decoded = roundTrip(Packet.fuelUpdate(0, 2, 0, true));
+
+        assertFalse(decoded.getPayload().containsKey("x"));
+        assertEquals(true, decoded.get("destroyedByFuel"));
+        assertEquals(4, decoded.getPayload().size());
+    }
+
+    @Test
+    void attackResultShouldKeepEveryField() {
+        Packet packet = Packet.attackResult(0, 1, 1, -1, 25, 75, true, 10.5, 20.5, 2,
+            300.0, 400.0, 100, false, 3, 180, false, true, 0, false);
+
+        Packet decoded = roundTrip(packet);
+
+        assertEquals(packet.getPayload().keySet(), decoded.getPayload().keySet());
+        assertEquals(-1, decoded.getInt("targetDrone"));
+        assertEquals(75, decoded.getInt("remainingHealth"));
+        assertEquals(true, decoded.get("gameFinished"));
+    }
+
+    @Test
+    void unknownFieldsAndUnexpectedTypesShouldTravelAsExtras() {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("droneIndex", "not-a-number");
+        payload.put("x", 5);
+        payload.put("note", List.of("a", Map.of("b", 2L)));
+        Packet decoded = roundTrip(new Packet(PacketType.MOVE, payload));
+
+        assertEquals("not-a-number", decoded.get("droneIndex"));
+        assertEquals(5.0, decoded.getDouble("x"));
+        assertEquals(List.of("a", Map.of("b", 2L)), decoded.get("note"));
+    }
+
+    @Test
+    void gameStartStateShouldRoundTripAndBeSmallerThanJson() {
+        GameRoom room = new GameRoom("codec-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        room.createDronesForSide(1, "Naval");
+        room.startGame();
+        Packet packet = Packet.gameStart(room.toStateMap());
+
+        byte[] binary = BinaryPacketCodec.encode(packet);
+        byte[] json = PacketSerializer.serialize(packet).getBytes(StandardCharsets.UTF_8);
+        Packet decoded = BinaryPacketCodec.decode(ByteBuffer.wrap(binary));
+
+        assertTrue(binary.length < json.length / 2, binary.length + " vs " + json.length);
+        Map<String, Object> state = decoded.get("state");
+        Map<String, Object> expected = room.toStateMap();
+        assertEquals(expected.keySet(), state.keySet());
+        assertEquals(((List<?>) expected.get("players")).size(), ((List<?>) state.get("players")).size());
+    }
+
+    @Test
+    void malformedFramesShouldDecodeToNull() {
+        assertNull(BinaryPacketCodec.decode(ByteBuffer.wrap(new byte[0])));
+        assertNull(BinaryPacketCodec.decode(ByteBuffer.wrap(new byte[] {(byte) 250, 0, 0})));
+        assertNull(BinaryPacketCodec.decode(ByteBuffer.wrap(new byte[] {0, 0, 1, 0, 100})));
+    }
+}
@@ -3,6 +3,9 @@ package com.example.proyect.GameTest;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,8 +14,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mock;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,14 +27,19 @@ import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.proyect.VOs.GameResult;
 import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.MatchResultRecorder;
 import com.example.proyect.auth.service.RankingService;
 import com.example.proyect.config.GameBalanceProperties;
 import com.example.proyect.controller.GameController;
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.TimerWheel;
 import com.example.proyect.lobby.Lobby;
 import com.example.proyect.lobby.service.LobbyService;
 import com.example.proyect.persistence.classes.Game;
+import com.example.proyect.persistence.classes.GameStatus;
 import com.example.proyect.persistence.classes.User;
 import com.example.proyect.persistence.repos.UserRepository;
+import com.example.proyect.websocket.packet.Packet;
 import com.example.proyect.websocket.packet.PacketType;
 
 @ExtendWith(MockitoExtension.class)
@@ -304,6 +316,39 @@ class GameControllerTest {
         verify(rankingService).createSnapshot(2L);
     }
 
+    @Test
+    void removePlayer_withWriteBehind_shouldQueueResultButSaveFinishedGameInline() {
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+
+        Game game = new Game();
+        game.setId(10L);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+
+        MatchResultRecorder recorder = mock(MatchResultRecorder.class);
+        when(recorder.isEnabled()).thenReturn(true);
+        gameController.setMatchResultRecorder(recorder);
+
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+        when(gameService.createGame(anyLong(), anyLong())).thenReturn(game);
+        when(gameService.saveGame(anyLong(), anyLong(), any(Game.class))).thenAnswer(invocation -> invocation.getArgument(2));
+
+        gameController.joinGame("session-1", "lobby-1", 1L);
+        gameController.joinGame("session-2", "lobby-1", 2L);
+        gameController.selectSide("session-1", "Naval");
+        gameController.selectSide("session-2", "Aereo");
+
+        gameController.removePlayer("session-1");
+
+        verify(recorder).record(2L, 1L);
+        // el FINISHED no espera al write-behind
+        verify(gameService).saveGame(eq(1L), eq(2L), argThat(saved -> saved.getState().getStatus() == GameStatus.FINISHED));
+        verify(userRepository, never()).save(any(User.class));
+        verify(rankingService, never()).createSnapshot(anyLong());
+    }
+
     @Test
     void joinGame_shouldTakeOverWhenPreviousSessionIsOrphaned() {
         Lobby lobby = new Lobby("lobby-1", "player1");
@@ -377,6 +422,48 @@ class GameControllerTest {
         assertThat(sessions).contains("session-1", "session-2");
     }
 
+    @Test
+    void getSessionsInSameRoom_shouldDropSessionAfterItLeaves() {
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        gameController.joinGame("session-1", "lobby-1", 1L);
+        gameController.joinGame("session-2", "lobby-1", 2L);
+        gameController.removePlayerWithoutForfeit("session-2");
+
+        assertThat(gameController.getSessionsInSameRoom("session-2")).isEmpty();
+    }
+
+    @Test
+    void getSessionsInSameRoom_shouldBeEmptyAfterForfeit() {
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+
+        Game game = new Game();
+        game.setId(10L);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+        when(gameService.createGame(anyLong(), anyLong())).thenReturn(game);
+        when(gameService.saveGame(anyLong(), anyLong(), any(Game.class))).thenAnswer(invocation -> invocation.getArgument(2));
+
+        gameController.joinGame("session-1", "lobby-1", 1L);
+        gameController.joinGame("session-2", "lobby-1", 2L);
+        gameController.selectSide("session-1", "Naval");
+        gameController.selectSide("session-2", "Aereo");
+
+        gameController.forfeitGame("session-1");
+
+        assertThat(gameController.getSessionsInSameRoom("session-1")).isEmpty();
+        assertThat(gameController.getSessionsInSameRoom("session-2")).isEmpty();
+        assertThat(gameController.getRoomId("session-2")).isNull();
+    }
+
     @Test
     void getActiveRoomCount_shouldReturnNumberOfActiveRooms() {
         Lobby lobby1 = new Lobby("lobby-1", "player1");
@@ -467,4 +554,177 @@ class GameControllerTest {
         assertThat(user1.getLosses()).isEqualTo(1);
         assertThat(user2.getWins()).isEqualTo(1);
     }
+
+    @Test
+    void getGameStateForViewer_withFogOfWar_shouldHideEnemyDronesInHangar() {
+        when(gameBalanceProperties.isFogOfWar()).thenReturn(true);
+        GameController fogController = new GameController(
+            lobbyService, gameService, rankingService, userRepository, gameBalanceProperties
+        );
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        fogController.joinGame("session-1", "lobby-1", 1L);
+        fogController.joinGame("session-2", "lobby-1", 2L);
+        fogController.selectSide("session-1", "Naval");
+        fogController.selectSide("session-2", "Aereo");
+
+        Map<String, Object> state = fogController.getGameStateForViewer("session-1");
+
+        List<?> players = (List<?>) state.get("players");
+        Map<?, ?> own = (Map<?, ?>) players.get(0);
+        Map<?, ?> enemy = (Map<?, ?>) players.get(1);
+        Map<?, ?> ownDrone = (Map<?, ?>) ((List<?>) own.get("drones")).get(0);
+        Map<?, ?> enemyDrone = (Map<?, ?>) ((List<?>) enemy.get("drones")).get(0);
+        assertThat(ownDrone.containsKey("x")).isTrue();
+        assertThat(enemyDrone.containsKey("x")).isFalse();
+        assertThat(enemyDrone.get("hidden")).isEqualTo(true);
+        assertThat(((List<?>) enemy.get("drones"))).hasSize(GameRoom.AERIAL_DRONES_PER_PLAYER);
+    }
+
+    @Test
+    void filterForViewer_withFogOfWar_shouldStripHiddenAttackerPosition() {
+        when(gameBalanceProperties.isFogOfWar()).thenReturn(true);
+        GameController fogController = new GameController(
+            lobbyService, gameService, rankingService, userRepository, gameBalanceProperties
+        );
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        fogController.joinGame("session-1", "lobby-1", 1L);
+        fogController.joinGame("session-2", "lobby-1", 2L);
+        fogController.selectSide("session-1", "Naval");
+        fogController.selectSide("session-2", "Aereo");
+        fogController.refreshVisibilityByPlayer("session-1");
+
+        // el dron 0 del jugador 0 sigue en el hangar: el jugador 1 no lo ve
+        Packet attack = Packet.attackResult(0, 0, 1, 0, 1, 0, true, 500.0, 600.0, 10,
+            123.0, 456.0, 1, false, 1, 3, false);
+
+        Packet forTarget = fogController.filterForViewer("session-2", attack);
+        Packet forAttacker = fogController.filterForViewer("session-1", attack);
+
+        assertThat(forTarget.getPayload()).doesNotContainKeys("attackerX", "attackerY");
+        assertThat(forTarget.getInt("damage")).isEqualTo(1);
+        assertThat(forAttacker.getDouble("attackerX")).isEqualTo(123.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processAttack_withFogOfWar_shouldRejectHiddenTargetsWithoutLeakingThem() {
+        when(gameBalanceProperties.isFogOfWar()).thenReturn(true);
+        GameController fogController = new GameController(
+            lobbyService, gameService, rankingService, userRepository, gameBalanceProperties
+        );
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        fogController.joinGame("session-1", "lobby-1", 1L);
+        fogController.joinGame("session-2", "lobby-1", 2L);
+        fogController.selectSide("session-1", "Naval");
+        fogController.selectSide("session-2", "Aereo");
+        Map<String, Object> own = ((List<Map<String, Object>>) fogController.getGameState("session-1").get("players")).get(0);
+        double deployX = (double) own.get("carrierX");
+        double deployY = (double) own.get("carrierY") - 105.0;
+        assertThat(fogController.processMove("session-1", 0, deployX, deployY).isSuccess()).isTrue();
+        fogController.refreshVisibilityByPlayer("session-1");
+        int actionsBefore = (int) fogController.getGameState("session-1").get("actionsRemaining");
+
+        // el dron 1/0 sigue en el hangar enemigo y el carrier rival esta lejos: ninguno se ve
+        GameResult droneAttack = fogController.processAttack("session-1", 0, 1, 0, null, null, null, null, null);
+        GameResult carrierAttack = fogController.processAttack("session-1", 0, 1, -1, 1000.0, 1000.0, null, null, "carrier");
+
+        assertThat(droneAttack.isSuccess()).isFalse();
+        assertThat(droneAttack.getErrorMessage()).isEqualTo("Target is not visible");
+        assertThat(droneAttack.getPacket().getType()).isEqualTo(PacketType.ERROR);
+        assertThat(droneAttack.getPacket().getPayload()).doesNotContainKeys("lineX", "lineY", "attackerX", "attackerY");
+        assertThat(carrierAttack.getErrorMessage()).isEqualTo("Target is not visible");
+        Map<String, Object> after = fogController.getGameState("session-1");
+        Map<String, Object> attacker = ((List<Map<String, Object>>) ((List<Map<String, Object>>) after.get("players")).get(0).get("drones")).get(0);
+        // el naval no se reposiciono junto al objetivo ni gasto acciones
+        assertThat(attacker.get("x")).isEqualTo(deployX);
+        assertThat(attacker.get("y")).isEqualTo(deployY);
+        assertThat(after.get("actionsRemaining")).isEqualTo(actionsBefore);
+    }
+
+    @Test
+    void collectStateUpdates_shouldOnlySendWhatAnAcceptedCommandChanged() {
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        gameController.joinGame("session-1", "lobby-1", 1L);
+        gameController.joinGame("session-2", "lobby-1", 2L);
+        gameController.selectSide("session-1", "Naval");
+        gameController.selectSide("session-2", "Aereo");
+
+        Packet snapshot = gameController.acknowledgeState("session-1", -1, false);
+        assertThat(snapshot.getType()).isEqualTo(PacketType.STATE_SNAPSHOT);
+        long seq = ((Number) snapshot.get("seq")).longValue();
+        assertThat(gameController.acknowledgeState("session-1", seq, false)).isNull();
+        assertThat(gameController.usesStateSync("session-1")).isTrue();
+        assertThat(gameController.usesStateSync("session-2")).isFalse();
+
+        // comando rechazado: no hay nada que mandar
+        assertThat(gameController.endTurn("session-2").isSuccess()).isFalse();
+        assertThat(gameController.collectStateUpdates("session-2")).isEmpty();
+
+        assertThat(gameController.endTurn("session-1").isSuccess()).isTrue();
+        Map<String, Packet> updates = gameController.collectStateUpdates("session-1");
+
+        assertThat(updates).containsOnlyKeys("session-1");
+        Packet delta = updates.get("session-1");
+        assertThat(delta.getType()).isEqualTo(PacketType.STATE_DELTA);
+        Map<String, Map<String, Object>> changed = delta.get("changed");
+        assertThat(changed).containsOnlyKeys("room");
+        assertThat(changed.get("room").get("currentTurn")).isEqualTo(1);
+    }
+
+    @Test
+    void turnClock_shouldEndStalledTurnAndNotifyListener() throws InterruptedException {
+        when(gameBalanceProperties.getTurnTimeoutMs()).thenReturn(40L);
+        GameController clockController = new GameController(
+            lobbyService, gameService, rankingService, userRepository, gameBalanceProperties
+        );
+        TimerWheel wheel = new TimerWheel(5, 8);
+        clockController.setTimerWheel(wheel);
+        CountDownLatch timedOut = new CountDownLatch(1);
+        List<GameResult> results = new CopyOnWriteArrayList<>();
+        List<String> timedOutRooms = new CopyOnWriteArrayList<>();
+        clockController.setTurnTimeoutListener((roomId, result) -> {
+            timedOutRooms.add(roomId);
+            results.add(result);
+            timedOut.countDown();
+        });
+
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        try {
+            clockController.joinGame("session-1", "lobby-1", 1L);
+            clockController.joinGame("session-2", "lobby-1", 2L);
+            clockController.selectSide("session-1", "Naval");
+            clockController.selectSide("session-2", "Aereo");
+            assertThat(clockController.getCurrentTurn("session-1")).isZero();
+
+            assertThat(timedOut.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(timedOutRooms.get(0)).isEqualTo(clockController.getRoomId("session-1"));
+
+            GameResult first = results.get(0);
+            assertThat(first.isSuccess()).isTrue();
+            assertThat(first.getPacket().getType()).isEqualTo(PacketType.TURN_START);
+            assertThat(first.getPacket().getInt("activePlayer")).isEqualTo(1);
+        } finally {
+            wheel.shutdown();
+        }
+    }
 }
@@ -0,0 +1,119 @@
+package com.example.proyect.GameTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.proyect.config.EventLogProperties;
+import com.example.proyect.game.eventlog.GameEvent;
+import com.example.proyect.game.eventlog.GameEventLog;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class GameEventLogTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    private GameEventLog eventLog;
+
+    @AfterEach
+    void tearDown() {
+        if (eventLog != null) {
+            eventLog.shutdown();
+        }
+    }
+
+    private GameEventLog eventLog(boolean enabled, int bufferSize, Map<String, Integer> sampleEvery) {
+        EventLogProperties properties = new EventLogProperties();
+        properties.setEnabled(enabled);
+        properties.setPath(tempDir.resolve("game-events.log").toString());
+        properties.setBufferSize(bufferSize);
+        // intervalo largo: los tests vuelcan a mano
+        properties.setFlushIntervalMs(60_000);
+        properties.setSampleEvery(sampleEvery);
+        eventLog = new GameEventLog(properties);
+        eventLog.start();
+        return eventLog;
+    }
+
+    private List<String> lines() throws Exception {
+        return Files.readAllLines(tempDir.resolve("game-events.log"));
+    }
+
+    @Test
+    void flushShouldWriteOneJsonLinePerEvent() throws Exception {
+        GameEventLog events = eventLog(true, 64, Map.of());
+
+        events.record(GameEvent.MOVE, "room-1", "s-1", true, null, 0, 2, 14, 0, 100.5, 200.0);
+        events.record(GameEvent.ATTACK, "room-1", "s-2", false, "out of range \"far\"", 1, 0, 0, 3, 0, 0);
+        assertThat(lines()).isEmpty();
+
+        events.flush();
+
+        List<String> lines = lines();
+        assertThat(lines).hasSize(2);
+        JsonNode move = MAPPER.readTree(lines.get(0));
+        assertThat(move.get("cat").asText()).isEqualTo("move");
+        assertThat(move.get("event").asText()).isEqualTo("move");
+        assertThat(move.get("room").asText()).isEqualTo("room-1");
+        assertThat(move.get("ok").asBoolean()).isTrue();
+        assertThat(move.get("drone").asLong()).isEqualTo(2);
+        assertThat(move.get("actionsLeft").asLong()).isEqualTo(14);
+        assertThat(move.get("x").asDouble()).isEqualTo(100.5);
+        assertThat(move.has("detail")).isFalse();
+
+        JsonNode attack = MAPPER.readTree(lines.get(1));
+        assertThat(attack.get("ok").asBoolean()).isFalse();
+        assertThat(attack.get("targetDrone").asLong()).isEqualTo(3);
+        assertThat(attack.get("detail").asText()).isEqualTo("out of range \"far\"");
+        assertThat(events.getWrittenCount()).isEqualTo(2);
+    }
+
+    @Test
+    void sampleShouldFollowCategoryRate() {
+        GameEventLog events = eventLog(true, 64, Map.of("packet", 0, "attack", 1));
+
+        assertThat(events.sample(GameEvent.PACKET_RECEIVED)).isFalse();
+        assertThat(events.sample(GameEvent.ATTACK)).isTrue();
+        // sin configurar: se registra todo
+        assertThat(events.sample(GameEvent.MOVE)).isTrue();
+    }
+
+    @Test
+    void fullBufferShouldDropInsteadOfBlocking() throws Exception {
+        GameEventLog events = eventLog(true, 4, Map.of());
+
+        for (int i = 0; i < 10; i++) {
+            events.record(GameEvent.END_TURN, "room-1", "s-1", true, null, 0, 0, 0, 0, 0, 0);
+        }
+
+        assertThat(events.getDroppedCount()).isEqualTo(6);
+        events.flush();
+        assertThat(lines()).hasSize(4);
+
+        // despues de drenar vuelve a haber lugar
+        events.record(GameEvent.END_TURN, "room-1", "s-1", true, null, 0, 0, 0, 0, 0, 0);
+        events.flush();
+        assertThat(lines()).hasSize(5);
+    }
+
+    @Test
+    void disabledLogShouldNotSampleOrCreateFile() throws Exception {
+        GameEventLog events = eventLog(false, 64, Map.of());
+
+        assertThat(events.sample(GameEvent.MOVE)).isFalse();
+        events.record(GameEvent.MOVE, "room-1", "s-1", true, null, 0, 0, 0, 0, 0, 0);
+        events.flush();
+
+        assertThat(Files.exists(tempDir.resolve("game-events.log"))).isFalse();
+    }
+}
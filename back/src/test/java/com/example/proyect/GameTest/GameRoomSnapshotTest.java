@@ -335,4 +335,49 @@ class GameRoomSnapshotTest {
         assertTrue(room.getPlayerByIndex(1).getDrones().get(0).isDeployed());
     }
 
+
+    @Test
+    void sameSeed_shouldProduceSameCombatRolls() {
+        GameRoom first = new GameRoom("room-a");
+        GameRoom second = new GameRoom("room-b");
+        first.reseed(42L);
+        second.reseed(42L);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(first.nextCombatRoll(), second.nextCombatRoll());
+        }
+        assertEquals(20, first.getRngDraws());
+    }
+
+    @Test
+    void persistedSnapshot_shouldContinueCombatRollsWhereTheyStopped() {
+        GameRoom room = new GameRoom("room-1");
+        room.addPlayer("s0");
+        room.addPlayer("s1");
+        room.setPlayerSide(0, "Naval");
+        room.createDronesForSide(0, "Naval");
+        room.setPlayerSide(1, "Aereo");
+        room.createDronesForSide(1, "Aereo");
+        room.startGame();
+        room.reseed(7L);
+        room.nextCombatRoll();
+        room.nextCombatRoll();
+
+        Map<String, Object> snapshot = room.toPersistedStateMap();
+        GameRoom restored = GameRoom.fromStateMap("room-1", snapshot);
+
+        assertEquals(7L, restored.getRngSeed());
+        assertEquals(room.getRngDraws(), restored.getRngDraws());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(room.nextCombatRoll(), restored.nextCombatRoll());
+        }
+    }
+
+    @Test
+    void clientStateMap_shouldNotExposeSeed() {
+        GameRoom room = new GameRoom("room-1");
+
+        assertFalse(room.toStateMap().containsKey("rngSeed"));
+        assertTrue(room.toPersistedStateMap().containsKey("rngSeed"));
+    }
 }
@@ -547,4 +547,70 @@ class GameRoomTest {
         assertEquals(Boolean.FALSE, drones.get(1).get("deployed"),
             "Unmoved drone must be serialized as deployed=false");
     }
+
+    @Test
+    void shouldReuseUnitSlotsWhenDronesAreRecreated() {
+        GameRoom room = new GameRoom("room-store");
+        room.addPlayer("session-1");
+        room.addPlayer("session-2");
+        assertEquals(2 * GameRoom.AERIAL_DRONES_PER_PLAYER, room.getStoredUnitCount());
+
+        Drone placeholder = room.getDrone(0, 0);
+        room.createDronesForSide(0, "Naval");
+
+        assertEquals(GameRoom.NAVAL_DRONES_PER_PLAYER + GameRoom.AERIAL_DRONES_PER_PLAYER, room.getStoredUnitCount());
+        // la vista vieja sigue siendo valida aunque su slot se haya reutilizado
+        assertTrue(placeholder.isAlive());
+        assertNotNull(placeholder.getPosition());
+    }
+
+    @Test
+    void droneViewShouldWriteThroughToRoomStore() {
+        GameRoom room = new GameRoom("room-view");
+        room.addPlayer("session-1");
+        room.addPlayer("session-2");
+        room.startGame();
+
+        Drone drone = room.getDrone(0, 3);
+        drone.setDeployed(true);
+        drone.setFuel(1);
+        room.getDrone(0, 5).setDeployed(true);
+
+        assertEquals(List.of(3), room.consumeIdleFuelForCurrentPlayer());
+        assertFalse(drone.isAlive());
+        assertEquals(0, drone.getCurrentHp());
+        assertTrue(room.hasAliveDrones(0));
+        assertEquals(drone.getMaxFuel() - 1, room.getDrone(0, 5).getFuel());
+    }
+
+    @Test
+    void hasAliveDronesShouldBeFalseOnceEveryDroneIsDestroyed() {
+        GameRoom room = new GameRoom("room-alive");
+        room.addPlayer("session-1");
+        room.addPlayer("session-2");
+
+        for (Drone drone : room.getPlayerByIndex(1).getDrones()) {
+            drone.receiveDamage(drone.getMaxHp());
+        }
+
+        assertFalse(room.hasAliveDrones(1));
+        assertTrue(room.hasAliveDrones(0));
+        assertFalse(room.hasAliveDrones(5));
+    }
+
+    @Test
+    void removedPlayerDronesShouldStayReadable() {
+        GameRoom room = new GameRoom("room-removed");
+        room.addPlayer("session-1");
+        room.addPlayer("session-2");
+        room.moveDrone("session-1", 0, 1500, 1000);
+
+        PlayerState removed = room.removePlayer("session-1");
+        room.reset();
+
+        Drone drone = removed.getDrones().get(0);
+        assertEquals(1500.0, drone.getPosition().getX());
+        assertTrue(drone.isDeployed());
+        assertEquals(0, room.getStoredUnitCount());
+    }
 }
@@ -0,0 +1,204 @@
+package com.example.proyect.GameTest;
+
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.GameRoom.MoveCheck;
+import com.example.proyect.game.HexGrid;
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+
+class HexGridTest {
+
+    private static final HexGrid BOARD = GameRoom.BOARD;
+
+    private static int key(int q, int r) {
+        return HexGrid.pack(q, r);
+    }
+
+    private static int cell(int q, int r) {
+        return BOARD.cellOf(key(q, r));
+    }
+
+    @Test
+    void cellsShouldMatchTheCentersDrawnByTheFront() {
+        double w = Math.sqrt(3.0) * HexGrid.DEFAULT_HEX_SIZE_PX;
+        double h = 2.0 * HexGrid.DEFAULT_HEX_SIZE_PX;
+        int cols = (int) Math.ceil(3200.0 / w) + 1;
+        int rows = (int) Math.ceil(2400.0 / (h * 0.75)) + 1;
+        assertEquals(cols * rows, BOARD.cellCount());
+
+        for (int row = 0; row < rows; row++) {
+            for (int col = 0; col < cols; col++) {
+                // misma cuenta que HexGrid.draw() del front
+                double x = col * w + (row % 2 == 1 ? w / 2 : 0);
+                double y = row * h * 0.75;
+                int cell = BOARD.cellAt(x, y);
+                assertEquals(row * cols + col, cell);
+
+                int key = BOARD.keyOf(cell);
+                assertEquals(x, BOARD.centerX(key), 1e-9);
+                assertEquals(y, BOARD.centerY(key), 1e-9);
+            }
+        }
+        assertEquals(-1, BOARD.cellAt(-200, 1000));
+        assertEquals(-1, BOARD.cellAt(1000, 3000));
+    }
+
+    @Test
+    void distanceShouldBeIntegerHexSteps() {
+        assertEquals(0, HexGrid.distance(key(3, 4), key(3, 4)));
+        assertEquals(1, HexGrid.distance(key(0, 0), key(1, -1)));
+        assertEquals(3, HexGrid.distance(key(0, 0), key(3, 0)));
+        assertEquals(3, HexGrid.distance(key(0, 0), key(-3, 3)));
+        assertEquals(5, HexGrid.distance(key(-2, 1), key(3, -2)));
+        assertEquals(HexGrid.distance(key(7, 2), key(-1, 9)), HexGrid.distance(key(-1, 9), key(7, 2)));
+
+        // dos anchos de hex sobre la misma fila
+        double w = Math.sqrt(3.0) * HexGrid.DEFAULT_HEX_SIZE_PX;
+        assertEquals(2, BOARD.distance(1000, 1000, 1000 + 2 * w, 1000));
+        assertEquals(-2, HexGrid.q(key(-2, 7)));
+        assertEquals(-7, HexGrid.r(key(2, -7)));
+    }
+
+    @Test
+    void ringsAndDisksShouldHaveTheExpectedCells() {
+        assertEquals(1, HexGrid.ringOffsets(0).length);
+        for (int radius = 1; radius <= 20; radius++) {
+            int[] ring = HexGrid.ringOffsets(radius);
+            assertEquals(6 * radius, ring.length);
+            Set<Integer> distinct = new HashSet<>();
+            for (int offset : ring) {
+                assertEquals(radius, HexGrid.distance(key(0, 0), offset));
+                distinct.add(offset);
+            }
+            assertEquals(6 * radius, distinct.size());
+        }
+
+        int center = key(20, 20);
+        assertEquals(1 + 3 * 4 * 5, BOARD.cellsWithin(center, 4).length);
+        // en la esquina del tablero solo quedan las celdas que existen
+        assertTrue(BOARD.cellsWithin(key(0, 0), 4).length < 1 + 3 * 4 * 5);
+    }
+
+    @Test
+    void reachableWithoutObstaclesShouldBeTheDisk() {
+        int from = cell(20, 20);
+        BitSet reachable = BOARD.reachable(from, 3, new BitSet());
+
+        BitSet disk = new BitSet();
+        for (int c : BOARD.cellsWithin(key(20, 20), 3)) {
+            disk.set(c);
+        }
+        assertEquals(disk, reachable);
+    }
+
+    @Test
+    void stepsToShouldDetourAroundBlockedHexes() {
+        int from = cell(20, 20);
+        int target = cell(22, 19);
+        BitSet blocked = new BitSet();
+
+        assertEquals(2, BOARD.stepsTo(from, target, 2, blocked));
+
+        blocked.set(cell(21, 20));
+        assertEquals(2, BOARD.stepsTo(from, target, 2, blocked));
+
+        // sin los dos caminos directos hay que rodear: 4 pasos
+        blocked.set(cell(21, 19));
+        assertEquals(-1, BOARD.stepsTo(from, target, 3, blocked));
+        assertEquals(4, BOARD.stepsTo(from, target, 4, blocked));
+
+        assertEquals(-1, BOARD.stepsTo(from, cell(25, 20), 4, new BitSet()));
+    }
+
+    // ========== Validacion de movimientos en la room ==========
+
+    private static GameRoom startedRoom() {
+        GameRoom room = new GameRoom("hex-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        room.createDronesForSide(1, "Naval");
+        room.startGame();
+        return room;
+    }
+
+    private static HexCoord center(int q, int r) {
+        return new HexCoord(BOARD.centerX(key(q, r)), BOARD.centerY(key(q, r)));
+    }
+
+    private static Drone deployAt(GameRoom room, int playerIndex, int droneIndex, int q, int r) {
+        Drone drone = room.getDrone(playerIndex, droneIndex);
+        drone.setDeployed(true);
+        drone.setPosition(center(q, r));
+        return drone;
+    }
+
+    @Test
+    void deployedDroneShouldMoveOnlyWithinItsRange() {
+        GameRoom room = startedRoom();
+        Drone drone = deployAt(room, 0, 0, 20, 20);
+        drone.setMovementRange(2);
+
+        HexCoord inRange = center(22, 20);
+        HexCoord tooFar = center(23, 20);
+        assertEquals(MoveCheck.OK, room.checkDroneMove(0, 0, inRange.getX(), inRange.getY()));
+        assertEquals(MoveCheck.OUT_OF_RANGE, room.checkDroneMove(0, 0, tooFar.getX(), tooFar.getY()));
+        assertEquals(MoveCheck.OUT_OF_BOARD, room.checkDroneMove(0, 0, -500, 1000));
+    }
+
+    @Test
+    void surroundedDroneShouldBeBlocked() {
+        GameRoom room = startedRoom();
+        deployAt(room, 0, 0, 20, 20).setMovementRange(2);
+        int[][] ring = {{21, 20}, {21, 19}, {20, 19}, {19, 20}, {19, 21}, {20, 21}};
+        for (int i = 0; i < ring.length; i++) {
+            deployAt(room, 1, i, ring[i][0], ring[i][1]);
+        }
+
+        HexCoord target = center(22, 20);
+        assertEquals(MoveCheck.BLOCKED, room.checkDroneMove(0, 0, target.getX(), target.getY()));
+
+        // un bloqueador destruido deja de ocupar su hex
+        room.getDrone(1, 0).receiveDamage(room.getDrone(1, 0).getMaxHp());
+        assertEquals(MoveCheck.OK, room.checkDroneMove(0, 0, target.getX(), target.getY()));
+    }
+
+    @Test
+    void blockersTheViewerCannotSeeShouldNotBeReportedAsBlocked() {
+        GameRoom room = startedRoom();
+        deployAt(room, 0, 0, 20, 20).setMovementRange(2);
+        int[][] ring = {{21, 20}, {21, 19}, {20, 19}, {19, 20}, {19, 21}, {20, 21}};
+        for (int i = 0; i < ring.length; i++) {
+            deployAt(room, 1, i, ring[i][0], ring[i][1]);
+        }
+        HexCoord target = center(22, 20);
+
+        // el jugador ve los drones propios y todos los enemigos menos el 0
+        GameRoom.BlockerFilter allButFirst = (owner, droneIndex) -> owner == 0 || droneIndex != 0;
+        assertEquals(MoveCheck.HIDDEN_BLOCKED, room.checkDroneMove(0, 0, target.getX(), target.getY(), allButFirst));
+        assertEquals(MoveCheck.BLOCKED, room.checkDroneMove(0, 0, target.getX(), target.getY(), (owner, droneIndex) -> true));
+    }
+
+    @Test
+    void hangarDroneShouldBeMeasuredFromItsCarrier() {
+        GameRoom room = startedRoom();
+        room.getDrone(0, 0).setMovementRange(2);
+        HexCoord carrier = room.getCarrierPosition(0);
+        // hacia el centro del mapa para no salirse del tablero (el carrier aparece en un Y al azar).
+        // Filas de a dos: desplazarse un numero par de filas en vertical mueve exactamente esa cantidad de hexes
+        double rowHeight = (carrier.getY() < 1200 ? 1.5 : -1.5) * HexGrid.DEFAULT_HEX_SIZE_PX;
+
+        assertFalse(room.getDrone(0, 0).isDeployed());
+        assertEquals(MoveCheck.OK, room.checkDroneMove(0, 0, carrier.getX(), carrier.getY() + GameRoom.DEPLOY_RANGE_HEXES * rowHeight));
+        assertEquals(MoveCheck.OUT_OF_RANGE, room.checkDroneMove(0, 0, carrier.getX(), carrier.getY() + (GameRoom.DEPLOY_RANGE_HEXES + 2) * rowHeight));
+    }
+}
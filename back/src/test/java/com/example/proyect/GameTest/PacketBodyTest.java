@@ -0,0 +1,104 @@
+package com.example.proyect.GameTest;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketBody;
+import com.example.proyect.websocket.packet.PacketSerializer;
+import com.example.proyect.websocket.packet.PacketType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class PacketBodyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Map<?, ?> parse(String json) throws Exception {
+        return mapper.readValue(json, Map.class);
+    }
+
+    @Test
+    void typedJsonShouldMatchMapJson() throws Exception {
+        Packet packet = Packet.attackResult(0, 1, 1, 2, 25, 75, true, 10.5, 20.5, 2,
+            300.0, 400.0, 100, false, 3, 180, false, false, -1, false);
+
+        assertEquals(parse(PacketSerializer.serialize(packet.toMap())), parse(PacketSerializer.serialize(packet)));
+    }
+
+    @Test
+    void typedBinaryShouldMatchMapBinary() {
+        Packet typed = Packet.moveDrone(1, 3, 1234.5, 678.25, 7, false);
+        Packet mapBased = new Packet(PacketType.MOVE_DRONE, typed.getPayload());
+
+        assertArrayEquals(BinaryPacketCodec.encode(mapBased), BinaryPacketCodec.encode(typed));
+    }
+
+    @Test
+    void hotInboundPacketsShouldParseIntoRecords() {
+        Packet packet = PacketSerializer.deserialize(
+            "{\"type\":\"attack\",\"attackerIndex\":1,\"targetPlayer\":0,\"targetDrone\":2,\"lineX\":10,\"targetType\":\"drone\"}");
+
+        PacketBody.Attack attack = assertInstanceOf(PacketBody.Attack.class, packet.getBody());
+        assertEquals(1, attack.attackerIndex());
+        assertEquals(2, attack.targetDrone());
+        assertEquals(10.0, attack.lineX());
+        assertNull(attack.lineY());
+        assertEquals("drone", attack.targetType());
+        assertEquals(1, packet.getInt("attackerIndex"));
+
+        PacketBody.Ack ack = PacketBody.Ack.from(PacketSerializer.deserialize("{\"type\":\"ack\"}"));
+        assertEquals(-1L, ack.seq());
+        assertFalse(ack.resync());
+    }
+
+    @Test
+    void unexpectedFieldsShouldFallBackToMapPayload() {
+        Packet packet = PacketSerializer.deserialize("{\"type\":\"move\",\"droneIndex\":\"2\",\"x\":5,\"y\":6,\"extra\":[1]}");
+
+        assertEquals(PacketType.MOVE, packet.getType());
+        assertNull(packet.getBody());
+        PacketBody.Move move = PacketBody.Move.from(packet);
+        assertEquals(0, move.droneIndex());
+        assertEquals(5.0, move.x());
+
+        Packet binary = BinaryPacketCodec.decode(ByteBuffer.wrap(BinaryPacketCodec.encode(packet)));
+        assertEquals(6.0, PacketBody.Move.from(binary).y());
+    }
+
+    @Test
+    void outcomeAndFuelUpdatesShouldBeWrittenFromTypedTurnStart() throws Exception {
+        PacketBody.TurnStart turnStart = new PacketBody.TurnStart(1, 3)
+            .withFuelUpdates(List.of(new PacketBody.MoveDrone(0, 2, false, 0, 0, 4, false, null)));
+        Packet packet = new Packet(turnStart).withOutcome(null, true);
+
+        Map<?, ?> json = parse(PacketSerializer.serialize(packet));
+        assertEquals(true, json.get("gameFinished"));
+        assertTrue(json.containsKey("winnerPlayerIndex"));
+        assertNull(json.get("winnerPlayerIndex"));
+        List<?> updates = (List<?>) json.get("fuelUpdates");
+        assertEquals(1, updates.size());
+        assertFalse(((Map<?, ?>) updates.get(0)).containsKey("x"));
+    }
+
+    @Test
+    void withoutPositionShouldHideCoordinates() {
+        Packet moved = Packet.carrierMoved(0, 100.0, 200.0, 2);
+        assertTrue(moved.hasPosition());
+
+        Packet redacted = moved.withoutPosition();
+        assertFalse(redacted.hasPosition());
+        assertFalse(redacted.getPayload().containsKey("x"));
+        assertEquals(2, redacted.getInt("actionsRemaining"));
+        assertFalse(PacketSerializer.serialize(redacted).contains("\"x\""));
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.proyect.GameTest;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.HexGrid;
+import com.example.proyect.game.ReachableHexCache;
+
+class ReachableHexCacheTest {
+
+    private static final HexGrid BOARD = GameRoom.BOARD;
+
+    private ReachableHexCache cache;
+
+    private static int cell(int q, int r) {
+        return BOARD.cellOf(HexGrid.pack(q, r));
+    }
+
+    @BeforeEach
+    void setUp() {
+        cache = new ReachableHexCache(BOARD);
+    }
+
+    @Test
+    void repeatedQueryShouldHitTheCache() {
+        BitSet blocked = new BitSet();
+        blocked.set(cell(21, 20));
+
+        int[] first = cache.reachable(0, 0, cell(20, 20), 2, blocked);
+        int[] second = cache.reachable(0, 0, cell(20, 20), 2, (BitSet) blocked.clone());
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertArrayEquals(BOARD.reachable(cell(20, 20), 2, blocked).stream().toArray(), first);
+    }
+
+    @Test
+    void blockerMovingInsideTheRangeShouldRecompute() {
+        BitSet blocked = new BitSet();
+        blocked.set(cell(21, 20));
+        cache.reachable(0, 0, cell(20, 20), 2, blocked);
+
+        blocked.clear(cell(21, 20));
+        blocked.set(cell(19, 20));
+        int[] reachable = cache.reachable(0, 0, cell(20, 20), 2, blocked);
+
+        assertEquals(0, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        BitSet cells = new BitSet();
+        for (int c : reachable) {
+            cells.set(c);
+        }
+        assertTrue(cells.get(cell(21, 20)));
+        assertFalse(cells.get(cell(19, 20)));
+    }
+
+    @Test
+    void unitMovingFarAwayShouldKeepTheEntry() {
+        BitSet blocked = new BitSet();
+        blocked.set(cell(40, 10));
+        cache.reachable(1, 3, cell(20, 20), 3, blocked);
+
+        blocked.clear(cell(40, 10));
+        blocked.set(cell(35, 30));
+        cache.reachable(1, 3, cell(20, 20), 3, blocked);
+
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void dronesShouldNotShareEntries() {
+        BitSet blocked = new BitSet();
+        cache.reachable(0, 0, cell(20, 20), 2, blocked);
+        cache.reachable(0, 1, cell(20, 20), 2, blocked);
+        cache.reachable(1, 0, cell(20, 20), 2, blocked);
+        // cambia el origen o el alcance: se recalcula
+        cache.reachable(0, 0, cell(21, 20), 2, blocked);
+        cache.reachable(0, 0, cell(21, 20), 3, blocked);
+
+        assertEquals(0, cache.getHits());
+        assertEquals(5, cache.getMisses());
+    }
+}
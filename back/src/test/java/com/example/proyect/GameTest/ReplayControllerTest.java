@@ -0,0 +1,269 @@
+package com.example.proyect.GameTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.RankingService;
+import com.example.proyect.config.GameBalanceProperties;
+import com.example.proyect.config.ReplayProperties;
+import com.example.proyect.config.RoomJournalProperties;
+import com.example.proyect.controller.GameController;
+import com.example.proyect.controller.ReplayController;
+import com.example.proyect.controller.ReplayStreamer;
+import com.example.proyect.game.RoomJournal;
+import com.example.proyect.game.eventlog.GameEvent;
+import com.example.proyect.game.eventlog.GameEventLog;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.metrics.GameMetrics;
+import com.example.proyect.persistence.classes.Game;
+import com.example.proyect.persistence.classes.GameStatus;
+import com.example.proyect.persistence.repos.UserRepository;
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+import com.example.proyect.websocket.packet.PacketType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class ReplayControllerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RoomJournal journal;
+    private GameController gameController;
+    private ReplayProperties replayProperties;
+    private ReplayStreamer replayStreamer;
+    private MockMvc mockMvc;
+    private Game game;
+    private GameService gameService;
+    private RankingService rankingService;
+    private GameBalanceProperties balance;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        LobbyService lobbyService = mock(LobbyService.class);
+        gameService = mock(GameService.class);
+        rankingService = mock(RankingService.class);
+        balance = mock(GameBalanceProperties.class);
+        when(balance.getActionsPerTurn()).thenReturn(10);
+        when(balance.getMissileMaxDistance()).thenReturn(15);
+        when(balance.getCarrierHitsToDestroy()).thenReturn(5);
+        when(balance.getAerialAttackFuelCost()).thenReturn(2);
+
+        game = new Game();
+        game.setId(42L);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+        when(gameService.createGame(anyLong(), anyLong())).thenReturn(game);
+        when(gameService.getById(42L)).thenReturn(game);
+
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        RoomJournalProperties journalProperties = new RoomJournalProperties();
+        journalProperties.setEnabled(true);
+        journalProperties.setDirectory(tempDir.toString());
+        journalProperties.setFlushIntervalMs(60_000);
+        journal = new RoomJournal(journalProperties);
+        journal.start();
+
+        gameController = new GameController(
+            lobbyService, gameService, rankingService, mock(UserRepository.class), balance
+        );
+        gameController.setRoomJournal(journal);
+
+        replayProperties = new ReplayProperties();
+        replayProperties.setFrameIntervalMs(0);
+        replayStreamer = new ReplayStreamer(replayProperties);
+        mockMvc = MockMvcBuilders
+            .standaloneSetup(new ReplayController(gameService, gameController, replayProperties, replayStreamer))
+            .build();
+
+        gameController.joinGame("session-1", "lobby-1", 1L);
+        gameController.joinGame("session-2", "lobby-1", 2L);
+        gameController.selectSide("session-1", "Naval");
+        gameController.selectSide("session-2", "Aereo");
+        // despliega el dron dos filas arriba de su carrier (dentro del rango de movimiento)
+        Map<String, Object> player = ((List<Map<String, Object>>) gameController.getGameState("session-1").get("players")).get(0);
+        gameController.processMove("session-1", 0, (double) player.get("carrierX"), (double) player.get("carrierY") - 105.0);
+        gameController.endTurn("session-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayStreamer.shutdown();
+        journal.shutdown();
+    }
+
+    // la respuesta pasa por MVC de verdad: el emitter se completa en los hilos del replay
+    private MvcResult replay(String query) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/games/42/replay?" + query))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        started.getAsyncResult(5_000);
+        return started;
+    }
+
+    @Test
+    void replay_shouldStreamGameAsNdjsonPackets() throws Exception {
+        game.getState().setStatus(GameStatus.FINISHED);
+
+        MvcResult result = replay("speed=4&format=ndjson");
+
+        assertThat(result.getResponse().getStatus()).isEqualTo(200);
+        assertThat(result.getResponse().getContentType()).isEqualTo(ReplayController.NDJSON.toString());
+        List<PacketType> types = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n")) {
+            types.add(PacketSerializer.deserialize(line).getType());
+        }
+        // estado inicial, movimiento, combustible del fin de turno y turno del rival
+        assertThat(types).containsExactly(
+            PacketType.GAME_START, PacketType.TURN_START,
+            PacketType.MOVE_DRONE,
+            PacketType.MOVE_DRONE, PacketType.TURN_START
+        );
+    }
+
+    @Test
+    void replay_binaryFormat_shouldWriteLengthPrefixedFrames() throws Exception {
+        game.getState().setStatus(GameStatus.FINISHED);
+
+        MvcResult result = replay("speed=1&format=binary");
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        List<PacketType> types = new ArrayList<>();
+        while (in.available() > 0) {
+            byte[] frame = new byte[in.readInt()];
+            in.readFully(frame);
+            types.add(BinaryPacketCodec.decode(ByteBuffer.wrap(frame)).getType());
+        }
+        assertThat(types).hasSize(5).startsWith(PacketType.GAME_START).endsWith(PacketType.TURN_START);
+    }
+
+    @Test
+    void replay_shouldPaceFramesWithoutHoldingTheRequestThread() throws Exception {
+        game.getState().setStatus(GameStatus.FINISHED);
+        replayProperties.setFrameIntervalMs(100);
+
+        long started = System.nanoTime();
+        MvcResult result = mockMvc.perform(get("/api/games/42/replay?speed=1")).andReturn();
+        long returnedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        result.getAsyncResult(5_000);
+        long finishedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        // 3 frames despues del inicial, 100 ms entre cada uno
+        assertThat(returnedMs).isLessThan(250);
+        assertThat(finishedMs).isGreaterThanOrEqualTo(300);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replay_reachingTheEnd_shouldNotFinishTheMatchAgain() throws Exception {
+        GameMetrics metrics = mock(GameMetrics.class);
+        GameEventLog eventLog = mock(GameEventLog.class);
+        when(eventLog.sample(any())).thenReturn(true);
+        gameController.setMetrics(metrics);
+        gameController.setEventLog(eventLog);
+
+        // partida 43: arranca con el jugador 0 sin drones ni carrier, el fin de turno la cierra
+        Map<String, Object> snapshot = gameController.getGameState("session-1");
+        Map<String, Object> loser = ((List<Map<String, Object>>) snapshot.get("players")).get(0);
+        loser.put("carrierHealth", 0);
+        for (Map<String, Object> drone : (List<Map<String, Object>>) loser.get("drones")) {
+            drone.put("alive", false);
+            drone.put("health", 0);
+        }
+        Files.writeString(tempDir.resolve("game-43.journal"),
+            "S " + new ObjectMapper().writeValueAsString(snapshot) + "\nE " + snapshot.get("currentTurn") + "\n");
+        clearInvocations(gameService, rankingService);
+
+        List<Packet> last = null;
+        try (GameController.Replay replay = gameController.openReplay(43L)) {
+            for (List<Packet> frame = replay.nextFrame(); frame != null; frame = replay.nextFrame()) {
+                last = frame;
+            }
+        }
+
+        // el replay muestra el final, pero no vuelve a cerrar la partida ni a tocar ranking, metricas de DB o event log
+        assertThat(last).extracting(packet -> packet.get("gameFinished")).contains(true);
+        verify(gameService, never()).saveGame(any(), any(), any());
+        verifyNoInteractions(rankingService);
+        verify(metrics, never()).recordDb(any(), anyLong());
+        verify(eventLog, never()).record(eq(GameEvent.MATCH_FINISHED), any(), any(), anyBoolean(), any(),
+            anyLong(), anyLong(), anyLong(), anyLong(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void replay_withFogOfWar_shouldNotLeaveVisibilityStateBehind() {
+        when(balance.isFogOfWar()).thenReturn(true);
+        GameController fogController = new GameController(
+            mock(LobbyService.class), gameService, rankingService, mock(UserRepository.class), balance
+        );
+        fogController.setRoomJournal(journal);
+
+        List<PacketType> types = new ArrayList<>();
+        try (GameController.Replay replay = fogController.openReplay(42L)) {
+            for (List<Packet> frame = replay.nextFrame(); frame != null; frame = replay.nextFrame()) {
+                frame.forEach(packet -> types.add(packet.getType()));
+            }
+        }
+
+        // el movimiento se repite sin filtrar por una visibilidad que nadie refresca
+        assertThat(types).contains(PacketType.MOVE_DRONE);
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(fogController, "visibilityByRoom")).isEmpty();
+        assertThat((Map<?, ?>) ReflectionTestUtils.getField(fogController, "reachByRoom")).isEmpty();
+    }
+
+    @Test
+    void replay_gameInProgress_shouldReturnConflict() throws Exception {
+        mockMvc.perform(get("/api/games/42/replay"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.code").value("GAME_NOT_FINISHED"));
+    }
+
+    @Test
+    void replay_invalidSpeed_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/games/42/replay?speed=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/games/42/replay?speed=100")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/games/42/replay?format=xml")).andExpect(status().isBadRequest());
+    }
+}
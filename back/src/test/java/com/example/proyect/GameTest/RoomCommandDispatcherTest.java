@@ -0,0 +1,76 @@
+package com.example.proyect.GameTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.RoomCommandDispatcher;
+
+class RoomCommandDispatcherTest {
+
+    @Test
+    void disabledDispatcher_shouldRunCommandOnCallerThread() {
+        RoomCommandDispatcher dispatcher = new RoomCommandDispatcher(false, 0);
+        Thread caller = Thread.currentThread();
+        List<Thread> observed = new CopyOnWriteArrayList<>();
+
+        dispatcher.dispatch("room-1", () -> observed.add(Thread.currentThread()));
+
+        assertEquals(List.of(caller), observed);
+    }
+
+    @Test
+    void enabledDispatcher_shouldKeepOrderAndThreadPerRoom() throws InterruptedException {
+        RoomCommandDispatcher dispatcher = new RoomCommandDispatcher(true, 4);
+        List<Integer> order = new CopyOnWriteArrayList<>();
+        List<Thread> threads = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(200);
+
+        try {
+            for (int i = 0; i < 200; i++) {
+                int value = i;
+                dispatcher.dispatch("room-1", () -> {
+                    order.add(value);
+                    threads.add(Thread.currentThread());
+                    done.countDown();
+                });
+            }
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 200; i++) {
+                assertEquals(i, order.get(i));
+            }
+            assertEquals(1, threads.stream().distinct().count());
+            assertNotEquals(Thread.currentThread(), threads.get(0));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void enabledDispatcher_shouldSurviveFailingCommand() throws InterruptedException {
+        RoomCommandDispatcher dispatcher = new RoomCommandDispatcher(true, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        try {
+            dispatcher.dispatch("room-1", () -> { throw new IllegalStateException("boom"); });
+            dispatcher.dispatch("room-1", done::countDown);
+
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void enabledDispatcher_shouldRejectNonPositiveShardCount() {
+        assertThrows(IllegalArgumentException.class, () -> new RoomCommandDispatcher(true, 0));
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.proyect.GameTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.RankingService;
+import com.example.proyect.config.GameBalanceProperties;
+import com.example.proyect.config.RoomJournalProperties;
+import com.example.proyect.controller.GameController;
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.RoomEvent;
+import com.example.proyect.game.RoomJournal;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.persistence.classes.Game;
+import com.example.proyect.persistence.repos.UserRepository;
+
+class RoomJournalTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RoomJournal journal;
+
+    @AfterEach
+    void tearDown() {
+        if (journal != null) {
+            journal.shutdown();
+        }
+    }
+
+    private RoomJournal journal(boolean enabled) {
+        RoomJournalProperties properties = new RoomJournalProperties();
+        properties.setEnabled(enabled);
+        properties.setDirectory(tempDir.toString());
+        // intervalo largo: los tests vuelcan a mano
+        properties.setFlushIntervalMs(60_000);
+        journal = new RoomJournal(properties);
+        journal.start();
+        return journal;
+    }
+
+    @Test
+    void appendShouldBufferUntilFlush() throws Exception {
+        RoomJournal rooms = journal(true);
+
+        rooms.append(7L, new RoomEvent.Move(0, 1, 100.5, 200.0));
+
+        assertThat(Files.exists(tempDir.resolve("game-7.journal"))).isFalse();
+        assertThat(rooms.pendingGames()).isEqualTo(1);
+
+        rooms.flush();
+
+        assertThat(Files.readAllLines(tempDir.resolve("game-7.journal"))).containsExactly("M 0 1 100.5 200.0");
+        assertThat(rooms.pendingGames()).isZero();
+    }
+
+    @Test
+    void readShouldStartAtLastSnapshotAndRoundTripEvents() {
+        RoomJournal rooms = journal(true);
+        RoomEvent.Attack attack = new RoomEvent.Attack(0, 2, 1, -1, 450.0, 400.0, null, null, "carrier", 3L);
+
+        rooms.append(7L, new RoomEvent.Snapshot(Map.of("turn", 0)));
+        rooms.append(7L, new RoomEvent.EndTurn(0, false));
+        rooms.append(7L, new RoomEvent.Snapshot(Map.of("turn", 1)));
+        rooms.append(7L, attack);
+        rooms.append(7L, new RoomEvent.CarrierMove(1, 10.0, -20.25));
+        rooms.append(7L, new RoomEvent.Recall(1, 0));
+        rooms.append(7L, new RoomEvent.EndTurn(1, true));
+
+        List<RoomEvent> events = rooms.readFromLastSnapshot(7L);
+
+        assertThat(events).containsExactly(
+            new RoomEvent.Snapshot(Map.of("turn", 1)),
+            attack,
+            new RoomEvent.CarrierMove(1, 10.0, -20.25),
+            new RoomEvent.Recall(1, 0),
+            new RoomEvent.EndTurn(1, true)
+        );
+    }
+
+    @Test
+    void readShouldSkipTornTrailingLine() throws Exception {
+        RoomJournal rooms = journal(true);
+        rooms.append(7L, new RoomEvent.Snapshot(Map.of("turn", 0)));
+        rooms.append(7L, new RoomEvent.Recall(0, 1));
+        rooms.flush();
+        Files.writeString(tempDir.resolve("game-7.journal"), "M 0 1 10", StandardOpenOption.APPEND);
+
+        List<RoomEvent> events = rooms.readFromLastSnapshot(7L);
+
+        assertThat(events).containsExactly(new RoomEvent.Snapshot(Map.of("turn", 0)), new RoomEvent.Recall(0, 1));
+    }
+
+    @Test
+    void purgeShouldDropSegmentsPastRetentionButKeepBufferedGames() throws Exception {
+        RoomJournal rooms = journal(true);
+        rooms.append(7L, new RoomEvent.Recall(0, 1));
+        rooms.append(8L, new RoomEvent.Recall(0, 1));
+        rooms.flush();
+        // la partida 8 sigue jugando: tiene lineas sin volcar
+        rooms.append(8L, new RoomEvent.EndTurn(0, false));
+
+        Instant now = Instant.now();
+        assertThat(rooms.purgeExpired(now)).isZero();
+        assertThat(rooms.purgeExpired(now.plus(Duration.ofDays(8)))).isEqualTo(1);
+
+        assertThat(Files.exists(tempDir.resolve("game-7.journal"))).isFalse();
+        assertThat(Files.exists(tempDir.resolve("game-8.journal"))).isTrue();
+    }
+
+    @Test
+    void disabledJournalShouldIgnoreEvents() {
+        RoomJournal rooms = journal(false);
+
+        rooms.append(7L, new RoomEvent.Recall(0, 1));
+
+        assertThat(rooms.pendingGames()).isZero();
+        assertThat(rooms.readFromLastSnapshot(7L)).isEmpty();
+    }
+
+    @Test
+    void rebuildRoomFromJournal_shouldReplayCommandsOnTopOfStartSnapshot() {
+        LobbyService lobbyService = mock(LobbyService.class);
+        GameService gameService = mock(GameService.class);
+        GameBalanceProperties balance = mock(GameBalanceProperties.class);
+        when(balance.getActionsPerTurn()).thenReturn(10);
+        when(balance.getMissileMaxDistance()).thenReturn(15);
+        when(balance.getCarrierHitsToDestroy()).thenReturn(5);
+        when(balance.getAerialAttackFuelCost()).thenReturn(2);
+
+        Game game = new Game();
+        game.setId(42L);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+        when(gameService.createGame(anyLong(), anyLong())).thenReturn(game);
+
+        Lobby lobby = new Lobby("lobby-1", "player1");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("lobby-1")).thenReturn(Optional.of(lobby));
+
+        GameController controller = new GameController(
+            lobbyService, gameService, mock(RankingService.class), mock(UserRepository.class), balance
+        );
+        controller.setRoomJournal(journal(true));
+
+        controller.joinGame("session-1", "lobby-1", 1L);
+        controller.joinGame("session-2", "lobby-1", 2L);
+        controller.selectSide("session-1", "Naval");
+        controller.selectSide("session-2", "Aereo");
+
+        // despliegue dos filas arriba del carrier (dentro del rango de movimiento)
+        double[] deploy = twoRowsAboveCarrier(controller, "session-1", 0);
+        assertThat(controller.processMove("session-1", 0, deploy[0], deploy[1]).isSuccess()).isTrue();
+        assertThat(controller.processAttack("session-1", 0, 1, -1, deploy[0] + 40.0, deploy[1], null, null, null).isSuccess()).isTrue();
+        assertThat(controller.processCarrierMove("session-1", 2000.0, 1800.0).isSuccess()).isTrue();
+        assertThat(controller.endTurn("session-1").isSuccess()).isTrue();
+        double[] enemyDeploy = twoRowsAboveCarrier(controller, "session-2", 1);
+        assertThat(controller.processMove("session-2", 0, enemyDeploy[0], enemyDeploy[1]).isSuccess()).isTrue();
+        assertThat(controller.processRecall("session-2", 0).isSuccess()).isTrue();
+        // rechazado: no se journaliza
+        assertThat(controller.processMove("session-1", 1, 1700.0, 1400.0).isSuccess()).isFalse();
+
+        GameRoom rebuilt = controller.rebuildRoomFromJournal(42L, "lobby-1");
+
+        assertThat(rebuilt).isNotNull();
+        assertThat(rebuilt.toStateMap()).isEqualTo(controller.getGameState("session-1"));
+        long journaledDraws = journal.readFromLastSnapshot(42L).stream()
+            .filter(RoomEvent.Attack.class::isInstance)
+            .mapToLong(event -> ((RoomEvent.Attack) event).rngDraws())
+            .findFirst()
+            .orElseThrow();
+        assertThat(rebuilt.getRngDraws()).isEqualTo(journaledDraws);
+        assertThat(rebuilt.getPlayerByIndex(0).getSessionId()).isNull();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static double[] twoRowsAboveCarrier(GameController controller, String sessionId, int playerIndex) {
+        List<Map<String, Object>> players = (List<Map<String, Object>>) controller.getGameState(sessionId).get("players");
+        Map<String, Object> player = players.get(playerIndex);
+        return new double[] {(double) player.get("carrierX"), (double) player.get("carrierY") - 105.0};
+    }
+}
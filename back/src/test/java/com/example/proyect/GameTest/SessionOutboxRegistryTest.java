@@ -0,0 +1,206 @@
+package com.example.proyect.GameTest;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.config.WebSocketOutboxProperties;
+import com.example.proyect.config.WebSocketOutboxProperties.OverflowPolicy;
+import com.example.proyect.metrics.GameMetrics;
+import com.example.proyect.websocket.EncodedPacket;
+import com.example.proyect.websocket.SessionOutboxRegistry;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketType;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SessionOutboxRegistryTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private SessionOutboxRegistry registry;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (registry != null) {
+            registry.shutdown();
+        }
+    }
+
+    private SessionOutboxRegistry registry(OverflowPolicy policy, int maxQueued, long sendTimeLimitMs) {
+        WebSocketOutboxProperties properties = new WebSocketOutboxProperties();
+        properties.setSenderThreads(1);
+        properties.setMaxQueuedMessages(maxQueued);
+        properties.setSendTimeLimitMs(sendTimeLimitMs);
+        properties.setOverflowPolicy(policy);
+        registry = new SessionOutboxRegistry(properties);
+        return registry;
+    }
+
+    /** Sesion cuyo primer envio queda bloqueado hasta release. */
+    private WebSocketSession stalledSession(String id) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        CountDownLatch firstSend = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            if (firstSend.getCount() > 0) {
+                firstSend.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(((TextMessage) message).getPayload());
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static EncodedPacket delta(long seq) {
+        return new EncodedPacket(Packet.stateDelta(seq, 0, java.util.Map.of(), List.of()));
+    }
+
+    private static void awaitSent(List<String> sent, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (sent.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void sendShouldNotBlockCallerWhileClientIsSlow() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.DISCONNECT, 16, 5_000);
+        WebSocketSession session = stalledSession("slow");
+        outboxes.register(session);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            outboxes.send(session, new EncodedPacket(Packet.turnStart(i, 3)));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1_000);
+
+        release.countDown();
+        awaitSent(sent, 5);
+        assertEquals(5, sent.size());
+        assertTrue(sent.get(4).contains("\"activePlayer\":4"));
+    }
+
+    @Test
+    void dropOldestDeltaShouldKeepEventsAndNewestDeltas() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.DROP_OLDEST_DELTA, 3, 5_000);
+        WebSocketSession session = stalledSession("s1");
+        outboxes.register(session);
+
+        outboxes.send(session, new EncodedPacket(Packet.turnStart(0, 3)));
+        verify(session, timeout(2_000)).sendMessage(any());
+        outboxes.send(session, new EncodedPacket(Packet.playerLeft(1)));
+        for (long seq = 1; seq <= 4; seq++) {
+            outboxes.send(session, delta(seq));
+        }
+
+        assertEquals(3, outboxes.queueDepth("s1"));
+        assertEquals(2, outboxes.stats().droppedMessages());
+        release.countDown();
+        awaitSent(sent, 4);
+        assertTrue(sent.get(1).contains("playerLeft"));
+        assertTrue(sent.get(2).contains("\"seq\":3"));
+        assertTrue(sent.get(3).contains("\"seq\":4"));
+    }
+
+    @Test
+    void overflowWithoutDroppableDeltasShouldDisconnect() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.DROP_OLDEST_DELTA, 2, 5_000);
+        WebSocketSession session = stalledSession("s1");
+        outboxes.register(session);
+
+        outboxes.send(session, new EncodedPacket(Packet.turnStart(0, 3)));
+        verify(session, timeout(2_000)).sendMessage(any());
+        for (int i = 0; i < 3; i++) {
+            outboxes.send(session, new EncodedPacket(Packet.playerLeft(i)));
+        }
+
+        verify(session, timeout(2_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertEquals(1, outboxes.stats().disconnects());
+        assertEquals(0, outboxes.queueDepth("s1"));
+    }
+
+    @Test
+    void resyncShouldReplaceQueueWithSnapshot() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.RESYNC, 2, 5_000);
+        outboxes.setResyncSource(id -> Packet.stateSnapshot(99, java.util.Map.of()));
+        WebSocketSession session = stalledSession("s1");
+        outboxes.register(session);
+
+        outboxes.send(session, new EncodedPacket(Packet.turnStart(0, 3)));
+        verify(session, timeout(2_000)).sendMessage(any());
+        for (long seq = 1; seq <= 3; seq++) {
+            outboxes.send(session, delta(seq));
+        }
+
+        assertEquals(1, outboxes.queueDepth("s1"));
+        assertEquals(1, outboxes.stats().resyncs());
+        release.countDown();
+        awaitSent(sent, 2);
+        assertTrue(sent.get(1).contains(PacketType.STATE_SNAPSHOT.getValue()));
+    }
+
+    @Test
+    void stalledSendShouldDisconnectAfterSendTimeLimit() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.DROP_OLDEST_DELTA, 16, 50);
+        WebSocketSession session = stalledSession("s1");
+        outboxes.register(session);
+
+        outboxes.send(session, new EncodedPacket(Packet.turnStart(0, 3)));
+        verify(session, timeout(2_000)).sendMessage(any());
+        Thread.sleep(100);
+        outboxes.send(session, new EncodedPacket(Packet.turnStart(1, 3)));
+
+        verify(session, timeout(2_000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    @Test
+    void sentTrafficShouldBeCountedAndRecordedPerSessionOnClose() throws Exception {
+        SessionOutboxRegistry outboxes = registry(OverflowPolicy.DISCONNECT, 16, 5_000);
+        SimpleMeterRegistry meters = new SimpleMeterRegistry();
+        outboxes.setMetrics(new GameMetrics(meters));
+        WebSocketSession session = stalledSession("s1");
+        outboxes.register(session);
+        release.countDown();
+
+        EncodedPacket packet = new EncodedPacket(Packet.error("ñandú"));
+        outboxes.send(session, packet);
+        outboxes.send(session, packet);
+        awaitSent(sent, 2);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (outboxes.stats().sentMessages() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+
+        int expectedBytes = sent.get(0).getBytes(java.nio.charset.StandardCharsets.UTF_8).length;
+        assertEquals(expectedBytes, packet.payloadLength(session));
+        assertEquals(2, outboxes.stats().sentMessages());
+        assertEquals(2L * expectedBytes, outboxes.stats().sentBytes());
+
+        outboxes.unregister("s1");
+        DistributionSummary bytes = meters.get("game.ws.session.outbound.bytes").summary();
+        assertEquals(1, bytes.count());
+        assertEquals(2.0 * expectedBytes, bytes.totalAmount());
+    }
+}
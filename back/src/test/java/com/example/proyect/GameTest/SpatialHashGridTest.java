@@ -0,0 +1,118 @@
+package com.example.proyect.GameTest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.PlayerState;
+import com.example.proyect.game.SpatialHashGrid;
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+
+class SpatialHashGridTest {
+
+    @Test
+    void anyWithin_shouldMatchBruteForceScan() {
+        Random random = new Random(42);
+        SpatialHashGrid<Integer> grid = new SpatialHashGrid<>();
+        Map<Integer, HexCoord> positions = new HashMap<>();
+
+        for (int i = 0; i < 300; i++) {
+            HexCoord position = new HexCoord(random.nextDouble() * 3200, random.nextDouble() * 2400);
+            positions.put(i, position);
+            grid.put(i, position);
+        }
+        // mover la mitad para ejercitar el cambio de bucket
+        for (int i = 0; i < 150; i++) {
+            HexCoord position = new HexCoord(random.nextDouble() * 3200, random.nextDouble() * 2400);
+            positions.put(i, position);
+            grid.put(i, position);
+        }
+
+        for (int probe = 0; probe < 5_000; probe++) {
+            HexCoord center = new HexCoord(random.nextDouble() * 3200, random.nextDouble() * 2400);
+            boolean expected = positions.values().stream().anyMatch(p -> {
+                double dx = p.getX() - center.getX();
+                double dy = p.getY() - center.getY();
+                return dx * dx + dy * dy < 15 * 15;
+            });
+            assertEquals(expected, grid.anyWithin(center, 15, null));
+        }
+    }
+
+    @Test
+    void remove_shouldDropItemFromQueries() {
+        SpatialHashGrid<String> grid = new SpatialHashGrid<>();
+        grid.put("a", new HexCoord(100, 100));
+
+        assertTrue(grid.anyWithin(new HexCoord(105, 100), 15, null));
+
+        grid.remove("a");
+
+        assertFalse(grid.anyWithin(new HexCoord(105, 100), 15, null));
+        assertEquals(0, grid.size());
+    }
+
+    @Test
+    void within_shouldApplyFilter() {
+        SpatialHashGrid<String> grid = new SpatialHashGrid<>();
+        grid.put("keep", new HexCoord(100, 100));
+        grid.put("skip", new HexCoord(101, 100));
+
+        List<String> found = grid.within(new HexCoord(100, 100), 15, "keep"::equals);
+
+        assertEquals(List.of("keep"), found);
+    }
+
+    @Test
+    void query_shouldRejectRadiusLargerThanHexInradius() {
+        SpatialHashGrid<String> grid = new SpatialHashGrid<>();
+
+        assertThrows(IllegalArgumentException.class, () -> grid.anyWithin(new HexCoord(0, 0), 40, null));
+    }
+
+    @Test
+    void gameRoom_shouldTrackDronePositionsChangedOutsideTheRoom() {
+        GameRoom room = new GameRoom("grid-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        PlayerState player = room.getPlayerByIndex(0);
+        Drone drone = player.getDrones().get(0);
+
+        drone.setPosition(new HexCoord(1600, 1200));
+
+        assertTrue(room.isPositionOccupied(new HexCoord(1605, 1200), null));
+        assertFalse(room.isPositionOccupied(new HexCoord(1605, 1200), drone));
+        assertEquals(List.of(drone), room.getDronesNear(new HexCoord(1600, 1205)));
+    }
+
+    @Test
+    void gameRoom_shouldForgetReplacedDronesAndCarrierMoves() {
+        GameRoom room = new GameRoom("grid-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Naval");
+        Drone oldDrone = room.getPlayerByIndex(0).getDrones().get(0);
+
+        // Aereo spawnea en el borde izquierdo, lejos de todo lo que el test mueve
+        room.createDronesForSide(0, "Aereo");
+        oldDrone.setPosition(new HexCoord(1600, 1200));
+        assertFalse(room.isPositionOccupied(new HexCoord(1600, 1200), null));
+
+        // el spawn del carrier usa una Y aleatoria: se lo lleva a una posicion fija antes de medir
+        assertTrue(room.moveCarrier("s2", 2000, 1800));
+        HexCoord before = room.getCarrierPosition(1);
+        assertTrue(room.moveCarrier("s2", 1000, 1000));
+        assertTrue(room.isPositionOccupied(new HexCoord(1000, 1000), null));
+        assertFalse(room.isPositionOccupied(before, null));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.proyect.GameTest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import com.example.proyect.config.SpectatorProperties;
+import com.example.proyect.config.WebSocketOutboxProperties;
+import com.example.proyect.websocket.SessionOutboxRegistry;
+import com.example.proyect.websocket.SpectatorHub;
+import com.example.proyect.websocket.SpectatorHub.AttachResult;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+import com.example.proyect.websocket.packet.PacketType;
+
+class SpectatorHubTest {
+
+    private SessionOutboxRegistry outboxes;
+    private SpectatorHub hub;
+
+    @AfterEach
+    void tearDown() {
+        if (hub != null) {
+            hub.shutdown();
+        }
+        if (outboxes != null) {
+            outboxes.shutdown();
+        }
+    }
+
+    private SpectatorHub hub(long delayMs, int maxPerRoom, boolean allowFullView) {
+        // sin cola de salida: el hilo de fan-out escribe directo y los tests ven el orden exacto
+        WebSocketOutboxProperties outboxProperties = new WebSocketOutboxProperties();
+        outboxProperties.setEnabled(false);
+        outboxes = new SessionOutboxRegistry(outboxProperties);
+
+        SpectatorProperties properties = new SpectatorProperties();
+        properties.setDelayMs(delayMs);
+        properties.setMaxPerRoom(maxPerRoom);
+        properties.setAllowFullView(allowFullView);
+        hub = new SpectatorHub(outboxes, properties);
+        return hub;
+    }
+
+    private static WebSocketSession session(String id, List<WebSocketMessage<?>> received) throws Exception {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            received.add(invocation.getArgument(0));
+            return null;
+        }).when(session).sendMessage(any());
+        return session;
+    }
+
+    private static List<PacketType> types(List<WebSocketMessage<?>> received) {
+        return received.stream()
+            .map(message -> PacketSerializer.deserialize(((TextMessage) message).getPayload()).getType())
+            .toList();
+    }
+
+    private static void awaitReceived(List<WebSocketMessage<?>> received, int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static List<Packet> initialState() {
+        return List.of(Packet.gameStart(Map.of("currentTurn", 0)), Packet.turnStart(0, 10));
+    }
+
+    @Test
+    void spectatorsShouldGetInitialStateThenTheSameSerializedFrame() throws Exception {
+        SpectatorHub spectators = hub(0, 10, true);
+        List<WebSocketMessage<?>> first = new CopyOnWriteArrayList<>();
+        List<WebSocketMessage<?>> second = new CopyOnWriteArrayList<>();
+
+        assertEquals(AttachResult.ATTACHED, spectators.attach("room-1", session("s-1", first), SpectatorHub.FULL_VIEW, initialState()));
+        assertEquals(AttachResult.ATTACHED, spectators.attach("room-1", session("s-2", second), SpectatorHub.FULL_VIEW, initialState()));
+        spectators.publish("room-1", Packet.moveDrone(0, 1, 100, 200, 5, false));
+
+        awaitReceived(first, 3);
+        awaitReceived(second, 3);
+        assertEquals(List.of(PacketType.GAME_START, PacketType.TURN_START, PacketType.MOVE_DRONE), types(first));
+        // un solo frame serializado para todos los espectadores de la vista
+        assertSame(first.get(2), second.get(2));
+        assertEquals(2, spectators.spectatorCount("room-1"));
+    }
+
+    @Test
+    void sideViewShouldBeBuiltOncePerWatchedSide() throws Exception {
+        SpectatorHub spectators = hub(0, 10, true);
+        List<WebSocketMessage<?>> received = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            spectators.attach("room-1", session("s-" + i, received), 1, List.of());
+        }
+        AtomicInteger sideViews = new AtomicInteger();
+        Packet visibility = Packet.visibilityUpdate(List.of(), List.of());
+
+        spectators.publish("room-1", Packet.moveDrone(0, 1, 100, 200, 5, false), side -> {
+            sideViews.incrementAndGet();
+            assertEquals(1, side);
+            return Packet.moveDrone(0, 1, 100, 200, 5, false).withoutPosition();
+        }, Map.of(0, Packet.error("not for side 1"), 1, visibility));
+
+        awaitReceived(received, 10);
+        assertEquals(1, sideViews.get());
+        assertEquals(10, received.size());
+        assertEquals(List.of(PacketType.MOVE_DRONE, PacketType.VISIBILITY_UPDATE), types(received).subList(0, 2));
+        assertTrue(types(received).stream().noneMatch(PacketType.ERROR::equals));
+    }
+
+    @Test
+    void delayedFramesShouldNotReachSpectatorsThatJoinedLater() throws Exception {
+        SpectatorHub spectators = hub(100, 10, true);
+        List<WebSocketMessage<?>> early = new CopyOnWriteArrayList<>();
+        List<WebSocketMessage<?>> late = new CopyOnWriteArrayList<>();
+
+        spectators.attach("room-1", session("s-early", early), SpectatorHub.FULL_VIEW, List.of());
+        spectators.publish("room-1", Packet.turnStart(1, 10));
+        spectators.attach("room-1", session("s-late", late), SpectatorHub.FULL_VIEW, initialState());
+
+        assertTrue(early.isEmpty(), "el retraso todavia no paso");
+        awaitReceived(early, 1);
+        awaitReceived(late, 2);
+        Thread.sleep(50);
+        assertEquals(List.of(PacketType.TURN_START), types(early));
+        assertEquals(List.of(PacketType.GAME_START, PacketType.TURN_START), types(late));
+    }
+
+    @Test
+    void detachedSpectatorShouldStopReceiving() throws Exception {
+        SpectatorHub spectators = hub(0, 10, true);
+        List<WebSocketMessage<?>> received = new CopyOnWriteArrayList<>();
+        spectators.attach("room-1", session("s-1", received), SpectatorHub.FULL_VIEW, List.of());
+
+        spectators.detach("s-1");
+        spectators.publish("room-1", Packet.turnStart(1, 10));
+
+        Thread.sleep(50);
+        assertTrue(received.isEmpty());
+        assertEquals(0, spectators.spectatorCount("room-1"));
+    }
+
+    @Test
+    void attachShouldEnforceRoomLimitAndAllowedViews() throws Exception {
+        SpectatorHub spectators = hub(0, 1, false);
+        List<WebSocketMessage<?>> received = new CopyOnWriteArrayList<>();
+
+        assertEquals(AttachResult.VIEW_NOT_ALLOWED, spectators.attach("room-1", session("s-1", received), SpectatorHub.FULL_VIEW, List.of()));
+        assertEquals(AttachResult.VIEW_NOT_ALLOWED, spectators.attach("room-1", session("s-1", received), 2, List.of()));
+        assertEquals(AttachResult.ATTACHED, spectators.attach("room-1", session("s-1", received), 0, List.of()));
+        assertEquals(AttachResult.ROOM_FULL, spectators.attach("room-1", session("s-2", received), 0, List.of()));
+    }
+}
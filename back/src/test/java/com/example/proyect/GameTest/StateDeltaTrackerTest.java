@@ -0,0 +1,196 @@
+package com.example.proyect.GameTest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.StateDeltaTracker;
+
+class StateDeltaTrackerTest {
+
+    private static Map<String, Object> state(int turn, double droneX, boolean withSecondDrone) {
+        List<Map<String, Object>> drones = new ArrayList<>();
+        drones.add(new LinkedHashMap<>(Map.of("x", droneX, "y", 10.0, "health", 100)));
+        if (withSecondDrone) {
+            drones.add(new LinkedHashMap<>(Map.of("x", 0.0, "y", 0.0, "health", 50)));
+        }
+        Map<String, Object> player = new LinkedHashMap<>();
+        player.put("playerIndex", 0);
+        player.put("drones", drones);
+
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("currentTurn", turn);
+        state.put("players", List.of(player));
+        return state;
+    }
+
+    // vista que arma las unidades desde un estado completo, como hace el controlador desde la room
+    private static StateDeltaTracker.StateView view(Map<String, Object> state) {
+        return new StateDeltaTracker.StateView() {
+            @Override
+            public Map<String, Object> full() {
+                return state;
+            }
+
+            @Override
+            public Map<String, Object> unit(String unitId) {
+                return StateDeltaTracker.flatten(state).get(unitId);
+            }
+        };
+    }
+
+    @Test
+    void firstAckShouldRequestSnapshot() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+
+        assertTrue(tracker.acknowledge("s1", -1, false));
+        StateDeltaTracker.Update snapshot = tracker.snapshot("s1", state(0, 5.0, false));
+
+        assertTrue(snapshot.snapshot());
+        assertEquals(5.0, snapshot.changed().get("p0.d0").get("x"));
+        assertEquals(0, snapshot.changed().get(StateDeltaTracker.ROOM_UNIT).get("currentTurn"));
+    }
+
+    @Test
+    void ackedSessionShouldOnlyReceiveChangedFields() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        StateDeltaTracker.Update snapshot = tracker.snapshot("s1", state(0, 5.0, false));
+        assertFalse(tracker.acknowledge("s1", snapshot.seq(), false));
+
+        tracker.markDirty(StateDeltaTracker.droneUnit(0, 0));
+        StateDeltaTracker.Update delta = tracker.collect(Map.of("s1", view(state(0, 8.0, false)))).get("s1");
+
+        assertFalse(delta.snapshot());
+        assertEquals(snapshot.seq(), delta.baseSeq());
+        assertEquals(Map.of("p0.d0", Map.of("x", 8.0)), delta.changed());
+        assertTrue(delta.removed().isEmpty());
+    }
+
+    @Test
+    void unchangedStateShouldNotAdvanceSequence() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        StateDeltaTracker.Update snapshot = tracker.snapshot("s1", state(0, 5.0, false));
+        tracker.acknowledge("s1", snapshot.seq(), false);
+
+        tracker.markDirty(StateDeltaTracker.droneUnit(0, 0));
+        assertTrue(tracker.collect(Map.of("s1", view(state(0, 5.0, false)))).isEmpty());
+        assertEquals(snapshot.seq(), tracker.getSeq());
+    }
+
+    @Test
+    void nothingMarkedShouldSkipTheWork() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        tracker.acknowledge("s1", tracker.snapshot("s1", state(0, 5.0, false)).seq(), false);
+
+        // comando rechazado: nadie marco nada y la vista ni se consulta
+        StateDeltaTracker.StateView failing = new StateDeltaTracker.StateView() {
+            @Override
+            public Map<String, Object> full() {
+                throw new AssertionError("full state should not be built");
+            }
+
+            @Override
+            public Map<String, Object> unit(String unitId) {
+                throw new AssertionError("unit " + unitId + " should not be built");
+            }
+        };
+        assertTrue(tracker.collect(Map.of("s1", failing)).isEmpty());
+    }
+
+    @Test
+    void onlyDirtyUnitsShouldBeRecomputed() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        tracker.acknowledge("s1", tracker.snapshot("s1", state(0, 5.0, true)).seq(), false);
+
+        List<String> built = new ArrayList<>();
+        Map<String, Object> next = state(3, 8.0, true);
+        StateDeltaTracker.StateView tracking = new StateDeltaTracker.StateView() {
+            @Override
+            public Map<String, Object> full() {
+                throw new AssertionError("full state should not be built");
+            }
+
+            @Override
+            public Map<String, Object> unit(String unitId) {
+                built.add(unitId);
+                return StateDeltaTracker.flatten(next).get(unitId);
+            }
+        };
+
+        tracker.markDirty(StateDeltaTracker.droneUnit(0, 0));
+        StateDeltaTracker.Update delta = tracker.collect(Map.of("s1", tracking)).get("s1");
+
+        // currentTurn tambien cambio, pero nadie marco la unidad room
+        assertEquals(List.of("p0.d0"), built);
+        assertEquals(Map.of("p0.d0", Map.of("x", 8.0)), delta.changed());
+    }
+
+    @Test
+    void unackedDeltasShouldStayRelativeToLastAck() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        long base = tracker.snapshot("s1", state(0, 5.0, false)).seq();
+        tracker.acknowledge("s1", base, false);
+
+        tracker.markDirty(StateDeltaTracker.droneUnit(0, 0));
+        tracker.collect(Map.of("s1", view(state(0, 8.0, false))));
+        tracker.markDirty(StateDeltaTracker.ROOM_UNIT);
+        StateDeltaTracker.Update second = tracker.collect(Map.of("s1", view(state(1, 8.0, false)))).get("s1");
+
+        // el cliente no confirmo el primer delta: el segundo lleva ambos cambios
+        assertEquals(base, second.baseSeq());
+        assertEquals(8.0, second.changed().get("p0.d0").get("x"));
+        assertEquals(1, second.changed().get(StateDeltaTracker.ROOM_UNIT).get("currentTurn"));
+    }
+
+    @Test
+    void removedUnitsAndFieldsShouldBeReported() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        long base = tracker.snapshot("s1", state(0, 5.0, true)).seq();
+        tracker.acknowledge("s1", base, false);
+
+        Map<String, Object> next = state(0, 5.0, false);
+        next.remove("currentTurn");
+        tracker.markDirty(StateDeltaTracker.ROOM_UNIT);
+        tracker.markDirty(StateDeltaTracker.droneUnit(0, 1));
+        StateDeltaTracker.Update delta = tracker.collect(Map.of("s1", view(next))).get("s1");
+
+        assertEquals(List.of("p0.d1"), delta.removed());
+        assertTrue(delta.changed().get(StateDeltaTracker.ROOM_UNIT).containsKey("currentTurn"));
+        assertNull(delta.changed().get(StateDeltaTracker.ROOM_UNIT).get("currentTurn"));
+    }
+
+    @Test
+    void resyncOrUnknownSequenceShouldRequestSnapshot() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+        tracker.acknowledge("s1", -1, false);
+        long base = tracker.snapshot("s1", state(0, 5.0, false)).seq();
+        tracker.acknowledge("s1", base, false);
+
+        assertFalse(tracker.acknowledge("s1", base, false));
+        assertTrue(tracker.acknowledge("s1", base + 100, false));
+        tracker.snapshot("s1", state(0, 5.0, false));
+        assertTrue(tracker.acknowledge("s1", base, true));
+    }
+
+    @Test
+    void untrackedSessionsShouldBeIgnored() {
+        StateDeltaTracker tracker = new StateDeltaTracker();
+
+        tracker.markAllDirty();
+        assertTrue(tracker.collect(Map.of("legacy", view(state(0, 5.0, false)))).isEmpty());
+        assertFalse(tracker.isTracked("legacy"));
+    }
+}
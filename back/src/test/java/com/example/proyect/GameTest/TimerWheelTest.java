@@ -0,0 +1,101 @@
+package com.example.proyect.GameTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.TimerWheel;
+
+class TimerWheelTest {
+
+    private final TimerWheel wheel = new TimerWheel(5, 8);
+
+    @AfterEach
+    void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Test
+    void schedule_shouldRunTaskAfterDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        TimerWheel.Timeout timeout = wheel.schedule(fired::countDown, 30);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(30);
+        assertThat(timeout.isExpired()).isTrue();
+        assertThat(wheel.activeTimers()).isZero();
+    }
+
+    @Test
+    void schedule_longerThanOneRevolution_shouldWaitExtraRounds() throws InterruptedException {
+        // 8 buckets x 5 ms = 40 ms por vuelta
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        wheel.schedule(fired::countDown, 100);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(100);
+    }
+
+    @Test
+    void cancel_shouldPreventTask() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch later = new CountDownLatch(1);
+
+        TimerWheel.Timeout timeout = wheel.schedule(runs::incrementAndGet, 20);
+        assertThat(timeout.cancel()).isTrue();
+        assertThat(timeout.cancel()).isFalse();
+        wheel.schedule(later::countDown, 60);
+
+        assertThat(later.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs.get()).isZero();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(wheel.activeTimers()).isZero();
+    }
+
+    @Test
+    void manyTimers_shouldAllFireOnce() throws InterruptedException {
+        int count = 10_000;
+        CountDownLatch fired = new CountDownLatch(count);
+        AtomicInteger runs = new AtomicInteger();
+
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(() -> {
+                runs.incrementAndGet();
+                fired.countDown();
+            }, i % 50);
+        }
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(runs.get()).isEqualTo(count);
+    }
+
+    @Test
+    void failingTask_shouldNotStopWheel() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        wheel.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 5);
+        wheel.schedule(fired::countDown, 20);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void schedule_afterShutdown_shouldThrow() {
+        wheel.shutdown();
+
+        assertThatThrownBy(() -> wheel.schedule(() -> { }, 10))
+            .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.proyect.GameTest;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.PlayerState;
+import com.example.proyect.game.VisibilityTracker;
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+
+class VisibilityTrackerTest {
+
+    private static final double HEX_SIZE = 35.0;
+    private static final double HEX_WIDTH = Math.sqrt(3.0) * HEX_SIZE;
+
+    private GameRoom startedRoom() {
+        GameRoom room = new GameRoom("fog-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        room.createDronesForSide(1, "Naval");
+        room.startGame();
+        return room;
+    }
+
+    @Test
+    void undeployedDronesShouldNotBeVisibleToEnemy() {
+        GameRoom room = startedRoom();
+        VisibilityTracker tracker = new VisibilityTracker(HEX_SIZE, 6, 6);
+
+        tracker.refresh(room);
+
+        assertFalse(tracker.isDroneVisible(0, 1, 0));
+        assertTrue(tracker.isDroneVisible(1, 1, 0));
+    }
+
+    @Test
+    void movingIntoRangeShouldRevealAndMovingAwayShouldHide() {
+        GameRoom room = startedRoom();
+        VisibilityTracker tracker = new VisibilityTracker(HEX_SIZE, 0, 0);
+        Drone scout = room.getDrone(0, 0);
+        Drone target = room.getDrone(1, 0);
+        scout.setDeployed(true);
+        target.setDeployed(true);
+        scout.setPosition(new HexCoord(1000, 1000));
+        target.setPosition(new HexCoord(2500, 1000));
+        tracker.refresh(room);
+        assertFalse(tracker.isDroneVisible(0, 1, 0));
+
+        scout.setPosition(new HexCoord(2500 - HEX_WIDTH * 2, 1000));
+        List<VisibilityTracker.Change> revealed = tracker.refresh(room);
+
+        assertTrue(tracker.isDroneVisible(0, 1, 0));
+        assertTrue(revealed.contains(new VisibilityTracker.Change(0, 1, 0, true)));
+
+        scout.setPosition(new HexCoord(1000, 1000));
+        List<VisibilityTracker.Change> hidden = tracker.refresh(room);
+
+        assertFalse(tracker.isDroneVisible(0, 1, 0));
+        assertTrue(hidden.contains(new VisibilityTracker.Change(0, 1, 0, false)));
+    }
+
+    @Test
+    void refreshWithoutChangesShouldReportNothing() {
+        GameRoom room = startedRoom();
+        VisibilityTracker tracker = new VisibilityTracker(HEX_SIZE, 6, 6);
+        tracker.refresh(room);
+
+        assertTrue(tracker.refresh(room).isEmpty());
+    }
+
+    @Test
+    void incrementalRefreshShouldMatchFullRecompute() {
+        Random random = new Random(7);
+        GameRoom room = startedRoom();
+        VisibilityTracker incremental = new VisibilityTracker(HEX_SIZE, 5, 4);
+
+        for (PlayerState player : room.getPlayers()) {
+            for (Drone drone : player.getDrones()) {
+                drone.setDeployed(true);
+            }
+        }
+
+        for (int step = 0; step < 400; step++) {
+            int owner = random.nextInt(2);
+            List<Drone> drones = room.getPlayerByIndex(owner).getDrones();
+            Drone drone = drones.get(random.nextInt(drones.size()));
+            drone.setPosition(new HexCoord(random.nextDouble() * 1200, random.nextDouble() * 900));
+            if (random.nextInt(20) == 0) {
+                drone.setDeployed(!drone.isDeployed());
+            }
+            if (random.nextInt(30) == 0) {
+                room.moveCarrier(owner == 0 ? "s1" : "s2", random.nextDouble() * 1200, random.nextDouble() * 900);
+            }
+            incremental.refresh(room);
+
+            VisibilityTracker fresh = new VisibilityTracker(HEX_SIZE, 5, 4);
+            fresh.refresh(room);
+            for (int viewer = 0; viewer < 2; viewer++) {
+                int enemy = 1 - viewer;
+                assertEquals(fresh.isCarrierVisible(viewer, enemy), incremental.isCarrierVisible(viewer, enemy));
+                int droneCount = room.getPlayerByIndex(enemy).getDrones().size();
+                for (int i = 0; i < droneCount; i++) {
+                    assertEquals(fresh.isDroneVisible(viewer, enemy, i), incremental.isDroneVisible(viewer, enemy, i),
+                        "step " + step + " viewer " + viewer + " drone " + i);
+                }
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders. post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -29,8 +30,10 @@ import org.springframework.test.web.servlet.MockMvc;
 import com.example.proyect.auth.security.JwtAuthenticationFilter;
 import com.example.proyect.auth.security.JwtService;
 import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyPage;
 import com.example.proyect.lobby.LobbyStatus;
 import com.example.proyect.lobby.api.LobbyController;
+import com.example.proyect.lobby.service.LobbyEventStream;
 import com.example.proyect.lobby.service.LobbyService;
 
 import jakarta.servlet.http.Cookie;
@@ -52,6 +55,9 @@ class LobbyControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private LobbyEventStream lobbyEventStream;
+
     @Test
     void createLobby_shouldReturnLobbyDetails() throws Exception {
         Lobby lobby = new Lobby("lobby-1", "player1");
@@ -99,11 +105,12 @@ class LobbyControllerTest {
 
         when(jwtService.isTokenValid(anyString())).thenReturn(true);
         when(jwtService.extractUserId(anyString())).thenReturn(1L);
-        when(lobbyService.getAllLobbies()).thenReturn(List.of(lobby1, lobby2));
+        when(lobbyService.getOpenLobbies(null, 50)).thenReturn(new LobbyPage(List.of(lobby1, lobby2), "2"));
 
         mockMvc.perform(get("/api/lobby/list")
                 .cookie(new Cookie("authToken", "valid.token")))
                 .andExpect(status().isOk())
+                .andExpect(header().string(LobbyController.NEXT_CURSOR_HEADER, "2"))
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].lobbyId").value("lobby-1"))
@@ -123,7 +130,7 @@ class LobbyControllerTest {
 
         when(jwtService.isTokenValid(anyString())).thenReturn(true);
         when(jwtService.extractUserId(anyString())).thenReturn(1L); // Current user is 1
-        when(lobbyService.getAllLobbies()).thenReturn(List.of(normalLobby, loadGameLobby));
+        when(lobbyService.getOpenLobbies(null, 50)).thenReturn(new LobbyPage(List.of(normalLobby, loadGameLobby), null));
 
         mockMvc.perform(get("/api/lobby/list")
                 .cookie(new Cookie("authToken", "valid.token")))
@@ -142,7 +149,7 @@ class LobbyControllerTest {
 
         when(jwtService.isTokenValid(anyString())).thenReturn(true);
         when(jwtService.extractUserId(anyString())).thenReturn(2L); // Current user is 2
-        when(lobbyService.getAllLobbies()).thenReturn(List.of(loadGameLobby));
+        when(lobbyService.getLoadGameInvites(2L)).thenReturn(List.of(loadGameLobby));
 
         mockMvc.perform(get("/api/lobby/list")
                 .cookie(new Cookie("authToken", "valid.token")))
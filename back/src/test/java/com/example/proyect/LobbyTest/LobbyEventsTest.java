@@ -0,0 +1,118 @@
+package com.example.proyect.LobbyTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.proyect.config.LobbyEventProperties;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyChangedEvent;
+import com.example.proyect.lobby.service.LobbyEventStream;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.persistence.repos.GameRepository;
+
+class LobbyEventsTest {
+
+    private LobbyEventStream stream;
+
+    @AfterEach
+    void tearDown() {
+        if (stream != null) {
+            stream.shutdown();
+        }
+    }
+
+    @Test
+    void lobbyChanges_shouldPublishEventsWithAffectedUsers() {
+        ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+        LobbyService service = new LobbyService(mock(GameRepository.class), publisher);
+
+        Lobby lobby = service.createLobby("host", 1L);
+        service.joinLobby(lobby.getLobbyId(), 2L);
+        service.leaveLobby(2L);
+
+        ArgumentCaptor<LobbyChangedEvent> captor = ArgumentCaptor.forClass(LobbyChangedEvent.class);
+        verify(publisher, times(3)).publishEvent(captor.capture());
+        List<LobbyChangedEvent> events = captor.getAllValues();
+
+        assertThat(events).extracting(LobbyChangedEvent::type).containsExactly(
+            LobbyChangedEvent.Type.CREATED, LobbyChangedEvent.Type.JOINED, LobbyChangedEvent.Type.LEFT
+        );
+        assertThat(events).allMatch(event -> event.lobbyId().equals(lobby.getLobbyId()));
+        // el que se va tambien tiene que enterarse
+        assertThat(events.get(2).affectedUserIds()).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void flush_shouldSendOneChangePerLobbyInsteadOfTheList() {
+        LobbyService service = mock(LobbyService.class);
+        when(service.getFirstPageFor(anyLong())).thenReturn(List.of());
+        when(service.getLoadGameInvites(anyLong())).thenReturn(List.of());
+        when(service.getLobbyById(anyString())).thenReturn(Optional.empty());
+        when(service.getLobbyByUserId(anyLong())).thenReturn(Optional.empty());
+        stream = new LobbyEventStream(service, slowProperties());
+
+        stream.subscribe(1L);
+        verify(service, times(1)).getFirstPageFor(1L);
+
+        // rafaga sobre el mismo lobby: una sola lectura en la ronda
+        for (int i = 0; i < 10; i++) {
+            stream.onLobbyChanged(new LobbyChangedEvent("lobby-1", LobbyChangedEvent.Type.JOINED, Set.of(1L)));
+        }
+        stream.onLobbyChanged(new LobbyChangedEvent("lobby-2", LobbyChangedEvent.Type.LEFT, Set.of(2L)));
+        stream.flush();
+        stream.flush();
+
+        verify(service, times(1)).getLobbyById("lobby-1");
+        verify(service, times(1)).getLobbyById("lobby-2");
+        verify(service, never()).getOpenLobbies(any(), anyInt());
+        verify(service, times(1)).getFirstPageFor(1L);
+        verify(service, times(2)).getLobbyByUserId(1L);
+        assertThat(stream.subscriberCount()).isEqualTo(1);
+    }
+
+    @Test
+    void flush_inviteChange_shouldResendOnlyTheOpponentsList() {
+        LobbyService service = mock(LobbyService.class);
+        Lobby invite = new Lobby("invite-1", "host");
+        invite.setGameId(7L);
+        invite.setExpectedOpponentId(2L);
+        when(service.getFirstPageFor(anyLong())).thenReturn(List.of());
+        when(service.getLoadGameInvites(anyLong())).thenReturn(List.of());
+        when(service.getLobbyById("invite-1")).thenReturn(Optional.of(invite));
+        when(service.getLobbyByUserId(anyLong())).thenReturn(Optional.empty());
+        stream = new LobbyEventStream(service, slowProperties());
+        stream.subscribe(1L);
+        stream.subscribe(2L);
+
+        stream.onLobbyChanged(new LobbyChangedEvent("invite-1", LobbyChangedEvent.Type.CREATED, Set.of(1L)));
+        stream.flush();
+
+        verify(service, times(2)).getFirstPageFor(2L);
+        verify(service, times(1)).getFirstPageFor(1L);
+    }
+
+    // rondas automaticas lejos, el test llama a flush a mano
+    private static LobbyEventProperties slowProperties() {
+        LobbyEventProperties properties = new LobbyEventProperties();
+        properties.setCoalesceMs(60_000);
+        properties.setHeartbeatMs(60_000);
+        return properties;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.proyect.LobbyTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.example.proyect.game.TimerWheel;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.LobbyChangedEvent;
+import com.example.proyect.lobby.LobbyPage;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.persistence.repos.GameRepository;
+
+class LobbyServiceTest {
+
+    @Test
+    void getOpenLobbies_shouldPageInCreationOrder() {
+        LobbyService service = new LobbyService(mock(GameRepository.class));
+        Lobby first = service.createLobby("p1", 1L);
+        Lobby second = service.createLobby("p2", 2L);
+        Lobby third = service.createLobby("p3", 3L);
+
+        LobbyPage page1 = service.getOpenLobbies(null, 2);
+        assertThat(page1.lobbies()).containsExactly(first, second);
+        assertThat(page1.nextCursor()).isNotNull();
+
+        LobbyPage page2 = service.getOpenLobbies(page1.nextCursor(), 2);
+        assertThat(page2.lobbies()).containsExactly(third);
+        assertThat(page2.nextCursor()).isNull();
+    }
+
+    @Test
+    void getOpenLobbies_shouldSkipStartedAndLeftLobbies() {
+        LobbyService service = new LobbyService(mock(GameRepository.class));
+        Lobby started = service.createLobby("p1", 1L);
+        service.createLobby("p2", 2L);
+        Lobby open = service.createLobby("p3", 3L);
+
+        service.markStarted(started);
+        service.leaveLobby(2L);
+
+        assertThat(service.getOpenLobbies(null, 10).lobbies()).containsExactly(open);
+        assertThat(service.getFirstPageFor(3L)).containsExactly(open);
+    }
+
+    @Test
+    void getOpenLobbies_withInvalidCursor_shouldThrow() {
+        LobbyService service = new LobbyService(mock(GameRepository.class));
+
+        assertThatThrownBy(() -> service.getOpenLobbies("abc", 10))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void expiryTimer_shouldDropLobbyWhenTtlElapses() throws InterruptedException {
+        TimerWheel wheel = new TimerWheel(5, 8);
+        try {
+            ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+            LobbyService service = new LobbyService(mock(GameRepository.class), publisher, wheel, Duration.ofMillis(20));
+            service.createLobby("p1", 1L);
+
+            verify(publisher, timeout(2_000)).publishEvent(ArgumentMatchers.<Object>argThat(event ->
+                event instanceof LobbyChangedEvent changed && changed.type() == LobbyChangedEvent.Type.EXPIRED));
+
+            assertThat(service.getOpenLobbies(null, 10).lobbies()).isEmpty();
+            assertThat(service.getLobbyByUserId(1L)).isEmpty();
+            assertThat(wheel.activeTimers()).isZero();
+        } finally {
+            wheel.shutdown();
+        }
+    }
+
+    @Test
+    void startedLobby_shouldCancelExpiryTimer() {
+        TimerWheel wheel = new TimerWheel(5, 8);
+        try {
+            LobbyService service = new LobbyService(mock(GameRepository.class), null, wheel, Duration.ofMinutes(5));
+            Lobby lobby = service.createLobby("p1", 1L);
+            assertThat(wheel.activeTimers()).isEqualTo(1);
+
+            service.markStarted(lobby);
+
+            assertThat(wheel.activeTimers()).isZero();
+            assertThat(service.getLobbyById(lobby.getLobbyId())).contains(lobby);
+        } finally {
+            wheel.shutdown();
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.proyect.RankingTest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import com.example.proyect.auth.service.LeaderboardIndex;
+import com.example.proyect.auth.service.LeaderboardIndex.Entry;
+
+class LeaderboardIndexTest {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    private static Entry entry(long userId, int points, long secondsAfterT0, long rankingId) {
+        return new Entry(userId, points, T0.plusSeconds(secondsAfterT0), rankingId);
+    }
+
+    @Test
+    void offerShouldKeepOnlyBestSnapshotPerUser() {
+        LeaderboardIndex index = new LeaderboardIndex();
+
+        assertThat(index.offer(entry(1, 50, 0, 1))).isTrue();
+        assertThat(index.offer(entry(1, 30, 10, 2))).isFalse();
+        assertThat(index.offer(entry(1, 50, 20, 3))).isTrue();
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.get(1).rankingId()).isEqualTo(3);
+    }
+
+    @Test
+    void topShouldOrderByPointsThenEarliestThenRankingId() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.offer(entry(1, 100, 30, 5));
+        index.offer(entry(2, 200, 50, 6));
+        index.offer(entry(3, 100, 10, 7));
+        index.offer(entry(4, 100, 30, 4));
+
+        assertThat(index.top(10)).extracting(Entry::userId).containsExactly(2L, 3L, 4L, 1L);
+        assertThat(index.top(2)).extracting(Entry::userId).containsExactly(2L, 3L);
+        assertThat(index.rankOf(1)).isEqualTo(4);
+        assertThat(index.rankOf(2)).isEqualTo(1);
+        assertThat(index.rankOf(99)).isEqualTo(-1);
+    }
+
+    @Test
+    void removeShouldShiftRanks() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        index.offer(entry(1, 300, 0, 1));
+        index.offer(entry(2, 200, 0, 2));
+        index.offer(entry(3, 100, 0, 3));
+
+        index.remove(1);
+
+        assertThat(index.rankOf(3)).isEqualTo(2);
+        assertThat(index.top(5)).extracting(Entry::userId).containsExactly(2L, 3L);
+    }
+
+    @Test
+    void shouldMatchSortedReferenceAfterRandomUpdates() {
+        LeaderboardIndex index = new LeaderboardIndex();
+        Map<Long, Entry> best = new HashMap<>();
+        Random random = new Random(42);
+
+        for (long rankingId = 1; rankingId <= 5_000; rankingId++) {
+            long userId = random.nextInt(300);
+            Entry snapshot = entry(userId, random.nextInt(100), random.nextInt(1_000), rankingId);
+            index.offer(snapshot);
+            best.merge(userId, snapshot, (current, candidate) -> isBetter(candidate, current) ? candidate : current);
+            if (rankingId % 500 == 0) {
+                long removed = random.nextInt(300);
+                index.remove(removed);
+                best.remove(removed);
+            }
+        }
+
+        List<Entry> expected = new ArrayList<>(best.values());
+        expected.sort(Comparator.comparingInt(Entry::points).reversed()
+            .thenComparing(Entry::reachedAt)
+            .thenComparingLong(Entry::rankingId));
+
+        assertThat(index.top(Integer.MAX_VALUE)).containsExactlyElementsOf(expected);
+        for (int i = 0; i < expected.size(); i++) {
+            assertThat(index.rankOf(expected.get(i).userId())).isEqualTo(i + 1);
+        }
+    }
+
+    private static boolean isBetter(Entry candidate, Entry current) {
+        if (candidate.points() != current.points()) {
+            return candidate.points() > current.points();
+        }
+        int byTime = candidate.reachedAt().compareTo(current.reachedAt());
+        if (byTime != 0) {
+            return byTime > 0;
+        }
+        return candidate.rankingId() > current.rankingId();
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.proyect.RankingTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.proyect.auth.service.MatchResultRecorder;
+import com.example.proyect.auth.service.MatchResultRecorder.UserResultDelta;
+import com.example.proyect.config.MatchResultProperties;
+
+class MatchResultRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<List<UserResultDelta>> batches = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean failing = new AtomicBoolean();
+    private MatchResultRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.shutdown();
+        }
+    }
+
+    private MatchResultRecorder recorder(boolean enabled) {
+        MatchResultProperties properties = new MatchResultProperties();
+        properties.setEnabled(enabled);
+        properties.setJournalPath(tempDir.resolve("results.journal").toString());
+        // intervalo largo: los tests vuelcan a mano
+        properties.setFlushIntervalMs(60_000);
+        recorder = new MatchResultRecorder(properties, batch -> {
+            if (failing.get()) {
+                throw new IllegalStateException("db down");
+            }
+            batches.add(batch);
+        });
+        recorder.start();
+        return recorder;
+    }
+
+    @Test
+    void recordShouldOnlyJournalUntilFlush() throws Exception {
+        MatchResultRecorder results = recorder(true);
+
+        results.record(1L, 2L);
+
+        assertTrue(batches.isEmpty());
+        assertEquals(1, results.pendingCount());
+        assertEquals(List.of("1 2"), Files.readAllLines(tempDir.resolve("results.journal")));
+    }
+
+    @Test
+    void flushShouldCoalesceResultsPerUser() throws Exception {
+        MatchResultRecorder results = recorder(true);
+        results.record(1L, 2L);
+        results.record(1L, 3L);
+        results.record(2L, 1L);
+        results.record(null, 3L);
+
+        results.flush();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of(
+            new UserResultDelta(1L, 2, 1),
+            new UserResultDelta(2L, 1, 1),
+            new UserResultDelta(3L, 0, 2)
+        ), batches.get(0));
+        assertEquals(0, results.pendingCount());
+        assertTrue(Files.readAllLines(tempDir.resolve("results.journal")).isEmpty());
+    }
+
+    @Test
+    void failedFlushShouldKeepResultsQueued() {
+        MatchResultRecorder results = recorder(true);
+        results.record(1L, 2L);
+        failing.set(true);
+
+        assertThrows(IllegalStateException.class, results::flush);
+        assertEquals(1, results.pendingCount());
+
+        failing.set(false);
+        results.flush();
+        assertEquals(List.of(new UserResultDelta(1L, 1, 0), new UserResultDelta(2L, 0, 1)), batches.get(0));
+    }
+
+    @Test
+    void startShouldReplayJournalLeftByACrash() throws Exception {
+        Files.write(tempDir.resolve("results.journal"), List.of("5 6", "7 -", "5 6 garbage", "5"));
+
+        MatchResultRecorder results = recorder(true);
+        assertEquals(2, results.pendingCount());
+
+        results.flush();
+        assertEquals(List.of(
+            new UserResultDelta(5L, 1, 0),
+            new UserResultDelta(6L, 0, 1),
+            new UserResultDelta(7L, 1, 0)
+        ), batches.get(0));
+    }
+
+    @Test
+    void disabledRecorderShouldWriteInline() {
+        MatchResultRecorder results = recorder(false);
+
+        results.record(1L, null);
+
+        assertEquals(List.of(List.of(new UserResultDelta(1L, 1, 0))), batches);
+        assertTrue(Files.notExists(tempDir.resolve("results.journal")));
+    }
+}
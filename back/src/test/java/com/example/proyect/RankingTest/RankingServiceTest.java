@@ -1,5 +1,6 @@
 package com.example.proyect.RankingTest;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -15,9 +16,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 
 import com.example.proyect.auth.RankingTopDTO;
+import com.example.proyect.auth.service.LeaderboardService;
 import com.example.proyect.auth.service.RankingService;
 import com.example.proyect.persistence.classes.Ranking;
 import com.example.proyect.persistence.classes.User;
+import com.example.proyect.persistence.repos.RankingBestRepository;
 import com.example.proyect.persistence.repos.RankingRepository;
 import com.example.proyect.persistence.repos.UserRepository;
 
@@ -32,6 +35,9 @@ class RankingServiceTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    RankingBestRepository rankingBestRepository;
+
     // ---------------- CREATE SNAPSHOT ----------------
 
     @Test
@@ -122,6 +128,30 @@ class RankingServiceTest {
         verify(rankingRepository).findTopUniquePlayersWithUsername(any(Pageable.class));
     }
 
+    @Test
+    void getTop_withLeaderboard_usesIndexOrderAndSkipsHistoryQuery() {
+        LeaderboardService leaderboard = new LeaderboardService(rankingBestRepository);
+        RankingService service = new RankingService(rankingRepository, userRepository, leaderboard);
+
+        User alex = new User("alex", "alex@mail.com", "hash");
+        User bea = new User("bea", "bea@mail.com", "hash");
+        org.springframework.test.util.ReflectionTestUtils.setField(alex, "userid", 1L);
+        org.springframework.test.util.ReflectionTestUtils.setField(bea, "userid", 2L);
+        when(rankingBestRepository.findAll()).thenReturn(List.of());
+        when(userRepository.findAllById(any())).thenReturn(List.of(alex, bea));
+
+        OffsetDateTime now = OffsetDateTime.now();
+        leaderboard.recordSnapshot(1L, 40, now, 1L);
+        leaderboard.recordSnapshot(2L, 90, now, 2L);
+
+        List<RankingTopDTO> result = service.getTop(5);
+
+        assertThat(result).extracting(RankingTopDTO::getUsername).containsExactly("bea", "alex");
+        assertThat(result).extracting(RankingTopDTO::getPoints).containsExactly(90, 40);
+        assertThat(service.getRankOfUser(1L)).isEqualTo(2);
+        verify(rankingRepository, never()).findTopUniquePlayersWithUsername(any(Pageable.class));
+    }
+
     // ---------------- DELETE ----------------
 
     @Test
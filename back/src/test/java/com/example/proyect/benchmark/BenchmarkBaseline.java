@@ -0,0 +1,141 @@
+package com.example.proyect.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compara un resultado de JMH (-rf json) contra el baseline versionado en benchmarks/baseline.json.
+ *
+ * Lo corre el perfil bench despues de los benchmarks:
+ *   mvn -B -Pbench test                                   (mide y compara)
+ *   mvn -B -Pbench test -Dbench.result=benchmarks/baseline.json   (regraba el baseline)
+ *
+ * Por cada benchmark/modo/params imprime el score de los dos lados, la diferencia y, si se corrio
+ * con -prof gc, los bytes asignados por operacion. Marca REGRESSION cuando empeora mas que el umbral
+ * (en %): menos ops/tiempo en Throughput, mas tiempo en los demas modos, mas bytes/op siempre.
+ * Con -Dbench.failOnRegression=true termina con codigo 1 si hubo alguna.
+ */
+public final class BenchmarkBaseline {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private record Score(double value, String unit, boolean higherIsBetter, double allocBytesPerOp) {
+    }
+
+    private BenchmarkBaseline() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkBaseline <baseline.json> <result.json> [thresholdPercent] [failOnRegression]");
+            System.exit(2);
+        }
+        Path baselinePath = Path.of(args[0]);
+        Path resultPath = Path.of(args[1]);
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        boolean failOnRegression = args.length > 3 && Boolean.parseBoolean(args[3]);
+
+        if (baselinePath.toAbsolutePath().normalize().equals(resultPath.toAbsolutePath().normalize())) {
+            System.out.printf("[baseline] recorded %s%n", baselinePath);
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            System.out.printf("[baseline] no baseline at %s; record one with -Dbench.result=%s%n", baselinePath, baselinePath);
+            return;
+        }
+        if (!Files.exists(resultPath)) {
+            System.out.printf("[baseline] no result at %s%n", resultPath);
+            return;
+        }
+
+        Map<String, Score> baseline = read(baselinePath);
+        Map<String, Score> current = read(resultPath);
+        int regressions = 0;
+
+        System.out.printf("%-70s %14s %14s %8s %12s%n", "benchmark", "baseline", "current", "delta", "B/op");
+        for (Map.Entry<String, Score> entry : current.entrySet()) {
+            Score now = entry.getValue();
+            Score before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.3f %8s %12s  (new)%n",
+                    entry.getKey(), "-", now.value(), "-", formatAlloc(now.allocBytesPerOp()));
+                continue;
+            }
+
+            double delta = percentChange(before.value(), now.value());
+            boolean slower = now.higherIsBetter() ? delta < -threshold : delta > threshold;
+            boolean moreGarbage = before.allocBytesPerOp() >= 0 && now.allocBytesPerOp() >= 0
+                && percentChange(before.allocBytesPerOp(), now.allocBytesPerOp()) > threshold
+                && now.allocBytesPerOp() - before.allocBytesPerOp() >= 1.0;
+            if (slower || moreGarbage) {
+                regressions++;
+            }
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12s %s%s%n",
+                entry.getKey(), before.value(), now.value(), delta,
+                formatAlloc(before.allocBytesPerOp()) + "->" + formatAlloc(now.allocBytesPerOp()),
+                now.unit(), slower || moreGarbage ? "  REGRESSION" : "");
+        }
+
+        System.out.printf("[baseline] %d regression(s) over %.1f%%%n", regressions, threshold);
+        if (regressions > 0 && failOnRegression) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, Score> read(Path path) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : MAPPER.readTree(path.toFile())) {
+            String mode = run.path("mode").asText();
+            JsonNode primary = run.path("primaryMetric");
+            scores.put(key(run, mode), new Score(
+                primary.path("score").asDouble(),
+                primary.path("scoreUnit").asText(),
+                "thrpt".equals(mode),
+                allocBytesPerOp(run.path("secondaryMetrics"))
+            ));
+        }
+        return scores;
+    }
+
+    private static String key(JsonNode run, String mode) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+            .replace("com.example.proyect.benchmark.", ""));
+        key.append(" [").append(mode);
+        Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+        while (params.hasNext()) {
+            Map.Entry<String, JsonNode> param = params.next();
+            key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+        }
+        return key.append(']').toString();
+    }
+
+    // -prof gc: "gc.alloc.rate.norm" (versiones viejas de JMH le anteponen "·"); -1 si no se midio
+    private static double allocBytesPerOp(JsonNode secondary) {
+        Iterator<Map.Entry<String, JsonNode>> metrics = secondary.fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith("gc.alloc.rate.norm")) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return -1;
+    }
+
+    private static double percentChange(double before, double now) {
+        if (before == 0) {
+            return now == 0 ? 0 : 100;
+        }
+        return (now - before) / before * 100.0;
+    }
+
+    private static String formatAlloc(double bytesPerOp) {
+        return bytesPerOp < 0 ? "-" : String.format("%.0f", bytesPerOp);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.proyect.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.proyect.VOs.GameResult;
+import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.RankingService;
+import com.example.proyect.config.GameBalanceProperties;
+import com.example.proyect.controller.GameController;
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.HexGrid;
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.persistence.classes.Game;
+import com.example.proyect.persistence.repos.UserRepository;
+
+/**
+ * Comandos completos de GameController (validacion, aplicacion, paquete de respuesta) con los
+ * servicios de persistencia mockeados.
+ *
+ * Ejecutar con:
+ *   mvn -B -Pbench test -Dbench=GameControllerBenchmark
+ *
+ * Cada comando cambia la partida (acciones, municion, combustible, turno), asi que antes de cada
+ * invocacion se vuelve a poner la room desde el mismo snapshot (Level.Invocation, fuera de la
+ * medicion). Con comandos de varios microsegundos el costo de esos timestamps es despreciable;
+ * por eso aca se reportan Throughput y SampleTime (percentiles) y no AverageTime en ns.
+ *
+ * El escenario: jugador 0 (aereo) con su dron 0 pegado al dron naval 0 del rival, en su turno.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+public class GameControllerBenchmark {
+
+    private static final HexGrid BOARD = GameRoom.BOARD;
+    private static final String ATTACKER_SESSION = "s1";
+    private static final String DEFENDER_SESSION = "s2";
+
+    private GameController gameController;
+    private Map<String, GameRoom> rooms;
+    private String roomId;
+    private Map<String, Object> snapshot;
+    private HexCoord moveTarget;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        LobbyService lobbyService = mock(LobbyService.class);
+        GameService gameService = mock(GameService.class);
+
+        Game game = new Game();
+        game.setId(1L);
+        game.setPlayer1Id(1L);
+        game.setPlayer2Id(2L);
+        when(gameService.createGame(anyLong(), anyLong())).thenReturn(game);
+        when(gameService.getById(1L)).thenReturn(game);
+
+        Lobby lobby = new Lobby("bench-lobby", "bench");
+        lobby.addPlayer(1L);
+        lobby.addPlayer(2L);
+        when(lobbyService.getLobbyById("bench-lobby")).thenReturn(Optional.of(lobby));
+
+        gameController = new GameController(
+            lobbyService, gameService, mock(RankingService.class), mock(UserRepository.class), new GameBalanceProperties()
+        );
+        gameController.joinGame(ATTACKER_SESSION, "bench-lobby", 1L);
+        gameController.joinGame(DEFENDER_SESSION, "bench-lobby", 2L);
+        gameController.selectSide(ATTACKER_SESSION, "Aereo");
+        gameController.selectSide(DEFENDER_SESSION, "Naval");
+
+        roomId = gameController.getRoomId(ATTACKER_SESSION);
+        rooms = (Map<String, GameRoom>) ReflectionTestUtils.getField(gameController, "rooms");
+        GameRoom room = rooms.get(roomId);
+
+        Drone attacker = room.getDrone(0, 0);
+        attacker.setDeployed(true);
+        attacker.setPosition(center(20, 20));
+        Drone target = room.getDrone(1, 0);
+        target.setDeployed(true);
+        target.setPosition(center(21, 20));
+        moveTarget = center(19, 20);
+
+        snapshot = room.toStateMap();
+    }
+
+    private static HexCoord center(int q, int r) {
+        int key = HexGrid.pack(q, r);
+        return new HexCoord(BOARD.centerX(key), BOARD.centerY(key));
+    }
+
+    @Setup(Level.Invocation)
+    public void restoreRoom() {
+        GameRoom room = GameRoom.fromStateMap(roomId, snapshot);
+        room.assignSessionToPlayer(0, ATTACKER_SESSION);
+        room.assignSessionToPlayer(1, DEFENDER_SESSION);
+        rooms.put(roomId, room);
+    }
+
+    @Benchmark
+    public GameResult processMove() {
+        return gameController.processMove(ATTACKER_SESSION, 0, moveTarget.getX(), moveTarget.getY());
+    }
+
+    @Benchmark
+    public GameResult processAttack() {
+        return gameController.processAttack(ATTACKER_SESSION, 0, 1, 0, null, null, null, null, "drone");
+    }
+
+    @Benchmark
+    public GameResult endTurn() {
+        return gameController.endTurn(ATTACKER_SESSION);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(GameControllerBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
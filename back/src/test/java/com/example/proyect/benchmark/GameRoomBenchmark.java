@@ -0,0 +1,123 @@
+package com.example.proyect.benchmark;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.HexGrid;
+import com.example.proyect.game.units.Unit.HexCoord;
+import com.example.proyect.game.units.drone.Drone;
+
+/**
+ * Operaciones de GameRoom que corren en cada comando: mover, consultar ocupacion y pasar el estado
+ * a/desde el mapa que usan el snapshot, el guardado y el gameStart.
+ *
+ * Ejecutar con:
+ *   mvn -B -Pbench test -Dbench=GameRoomBenchmark
+ *
+ * Throughput y SampleTime (percentiles p50..p99.99); el perfil agrega -prof gc para los bytes por
+ * operacion. Cada room tiene los 6 drones de cada lado desplegados en el centro del tablero.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-bench.xml")
+public class GameRoomBenchmark {
+
+    private static final HexGrid BOARD = GameRoom.BOARD;
+    private static final String SESSION = "s1";
+
+    private GameRoom room;
+    private Drone mover;
+    private HexCoord moveA;
+    private HexCoord moveB;
+    private boolean atB;
+    private HexCoord occupiedProbe;
+    private HexCoord freeProbe;
+    private Map<String, Object> stateMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        room = new GameRoom("bench-room");
+        room.addPlayer(SESSION);
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        room.createDronesForSide(1, "Naval");
+        room.startGame();
+
+        // dos filas de drones enfrentadas, con un hex libre entre cada uno
+        for (int playerIndex = 0; playerIndex < GameRoom.MAX_PLAYERS; playerIndex++) {
+            for (int droneIndex = 0; droneIndex < room.getPlayerByIndex(playerIndex).getDrones().size(); droneIndex++) {
+                Drone drone = room.getDrone(playerIndex, droneIndex);
+                drone.setDeployed(true);
+                drone.setPosition(center(14 + 2 * droneIndex, 20 + 2 * playerIndex));
+            }
+        }
+
+        mover = room.getDrone(0, 0);
+        moveA = mover.getPosition();
+        moveB = center(15, 19);
+        occupiedProbe = room.getDrone(1, 0).getPosition();
+        freeProbe = center(30, 10);
+        stateMap = room.toStateMap();
+    }
+
+    private static HexCoord center(int q, int r) {
+        int key = HexGrid.pack(q, r);
+        return new HexCoord(BOARD.centerX(key), BOARD.centerY(key));
+    }
+
+    @Benchmark
+    public boolean moveDrone() {
+        atB = !atB;
+        HexCoord target = atB ? moveB : moveA;
+        // moveDrone gasta combustible: se repone para que el dron no se destruya a mitad de la medicion
+        mover.setFuel(mover.getMaxFuel());
+        return room.moveDrone(SESSION, 0, target.getX(), target.getY());
+    }
+
+    @Benchmark
+    public boolean isPositionOccupiedHit() {
+        return room.isPositionOccupied(occupiedProbe, mover);
+    }
+
+    @Benchmark
+    public boolean isPositionOccupiedMiss() {
+        return room.isPositionOccupied(freeProbe, mover);
+    }
+
+    @Benchmark
+    public Map<String, Object> toStateMap() {
+        return room.toStateMap();
+    }
+
+    @Benchmark
+    public GameRoom fromStateMap() {
+        return GameRoom.fromStateMap("bench-copy", stateMap);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(GameRoomBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
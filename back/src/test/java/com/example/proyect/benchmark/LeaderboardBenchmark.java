@@ -0,0 +1,99 @@
+package com.example.proyect.benchmark;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.proyect.auth.service.LeaderboardIndex;
+
+/**
+ * Top global en memoria con 1M de snapshots de ranking (100 por usuario, como SQL/Ranking_load_test.sql).
+ *
+ * Ejecutar con:
+ *   mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main Leaderboard"
+ *
+ * La carga del indice (lo que hace LeaderboardService al arrancar) se imprime en el setup ("[load] ...").
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LeaderboardBenchmark {
+
+    private static final Instant T0 = Instant.parse("2026-01-01T00:00:00Z");
+
+    @Param({"1000000"})
+    private int snapshots;
+
+    @Param({"10000"})
+    private int users;
+
+    private LeaderboardIndex index;
+    private SplittableRandom random;
+    private long nextRankingId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        index = new LeaderboardIndex();
+        random = new SplittableRandom(7);
+        long start = System.nanoTime();
+        for (nextRankingId = 1; nextRankingId <= snapshots; nextRankingId++) {
+            index.offer(randomSnapshot());
+        }
+        System.out.printf("[load] %d snapshots -> %d users in %d ms%n",
+            snapshots, index.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private LeaderboardIndex.Entry randomSnapshot() {
+        return new LeaderboardIndex.Entry(
+            random.nextInt(users),
+            random.nextInt(5_000),
+            T0.plusSeconds(random.nextInt(31_536_000)),
+            nextRankingId
+        );
+    }
+
+    @Benchmark
+    public boolean createSnapshot() {
+        nextRankingId++;
+        return index.offer(randomSnapshot());
+    }
+
+    @Benchmark
+    public List<LeaderboardIndex.Entry> top10() {
+        return index.top(10);
+    }
+
+    @Benchmark
+    public int rankOfUser() {
+        return index.rankOf(random.nextInt(users));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(LeaderboardBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
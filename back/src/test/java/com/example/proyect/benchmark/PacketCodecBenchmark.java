@@ -0,0 +1,114 @@
+package com.example.proyect.benchmark;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.websocket.packet.BinaryPacketCodec;
+import com.example.proyect.websocket.packet.Packet;
+import com.example.proyect.websocket.packet.PacketSerializer;
+
+/**
+ * JSON (PacketSerializer) contra el codec binario para los paquetes mas frecuentes.
+ *
+ * Ejecutar con:
+ *   mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main PacketCodec"
+ *
+ * legacyMapJsonEncode es el camino anterior (payload Map + ObjectMapper) como referencia para
+ * los paquetes tipados; "move" es un paquete entrante y mide el parser streaming en jsonDecode.
+ *
+ * Los bytes por paquete de cada formato se imprimen al inicio de cada trial ("[bytes] ...").
+ * Agregar -prof gc a los args para ver la asignacion por operacion.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+    @Param({"attackResult", "moveDrone", "move", "gameStart"})
+    private String packetType;
+
+    private Packet packet;
+    private String json;
+    private byte[] binary;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        packet = switch (packetType) {
+            case "attackResult" -> Packet.attackResult(0, 1, 1, 2, 25, 75, true, 1520.75, 980.5, 1,
+                1480.25, 1010.0, 100, false, 3, 180, false, false, -1, false);
+            case "moveDrone" -> Packet.moveDrone(0, 4, 1520.7531, 980.4412, 6, false);
+            case "move" -> PacketSerializer.deserialize("{\"type\":\"move\",\"droneIndex\":4,\"x\":1520.7531,\"y\":980.4412}");
+            case "gameStart" -> Packet.gameStart(startedRoom().toStateMap());
+            default -> throw new IllegalArgumentException("Unknown packet type: " + packetType);
+        };
+        json = PacketSerializer.serialize(packet);
+        binary = BinaryPacketCodec.encode(packet);
+        System.out.printf("[bytes] %s json=%d binary=%d%n",
+            packetType, json.getBytes(StandardCharsets.UTF_8).length, binary.length);
+    }
+
+    private static GameRoom startedRoom() {
+        GameRoom room = new GameRoom("bench-room");
+        room.addPlayer("s1");
+        room.addPlayer("s2");
+        room.createDronesForSide(0, "Aereo");
+        room.createDronesForSide(1, "Naval");
+        room.startGame();
+        return room;
+    }
+
+    @Benchmark
+    public String jsonEncode() {
+        return PacketSerializer.serialize(packet);
+    }
+
+    @Benchmark
+    public String legacyMapJsonEncode() {
+        return PacketSerializer.serialize(packet.toMap());
+    }
+
+    @Benchmark
+    public Packet jsonDecode() {
+        return PacketSerializer.deserialize(json);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return BinaryPacketCodec.encode(packet);
+    }
+
+    @Benchmark
+    public Packet binaryDecode() {
+        return BinaryPacketCodec.decode(ByteBuffer.wrap(binary));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(PacketCodecBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
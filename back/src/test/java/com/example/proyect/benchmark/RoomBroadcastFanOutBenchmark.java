@@ -0,0 +1,117 @@
+package com.example.proyect.benchmark;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.proyect.auth.service.GameService;
+import com.example.proyect.auth.service.RankingService;
+import com.example.proyect.config.GameBalanceProperties;
+import com.example.proyect.controller.GameController;
+import com.example.proyect.lobby.Lobby;
+import com.example.proyect.lobby.service.LobbyService;
+import com.example.proyect.persistence.repos.UserRepository;
+
+/**
+ * Coste de resolver las sesiones destino de un broadcast a medida que crece la cantidad de rooms.
+ *
+ * Ejecutar con:
+ *   mvn -B test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ *       -Dexec.args="-cp %classpath org.openjdk.jmh.Main RoomBroadcastFanOut"
+ *
+ * roomIndexLookup deberia mantenerse plano entre 10 y 100k rooms; legacyFullScan reproduce
+ * el recorrido completo de sessionToRoom que se usaba antes como referencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class RoomBroadcastFanOutBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    private int rooms;
+
+    private GameController gameController;
+    private Map<String, String> sessionToRoom;
+    private String probeSessionId;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        Map<String, Lobby> lobbies = new HashMap<>(rooms * 2);
+        LobbyService lobbyService = mock(LobbyService.class);
+        when(lobbyService.getLobbyById(anyString()))
+            .thenAnswer(invocation -> Optional.ofNullable(lobbies.get(invocation.getArgument(0, String.class))));
+
+        gameController = new GameController(
+            lobbyService,
+            mock(GameService.class),
+            mock(RankingService.class),
+            mock(UserRepository.class),
+            new GameBalanceProperties()
+        );
+
+        for (int i = 0; i < rooms; i++) {
+            String lobbyId = "room-" + i;
+            long firstUser = 2L * i + 1;
+            long secondUser = 2L * i + 2;
+            Lobby lobby = new Lobby(lobbyId, "bench");
+            lobby.addPlayer(firstUser);
+            lobby.addPlayer(secondUser);
+            lobbies.put(lobbyId, lobby);
+
+            gameController.joinGame("s-" + firstUser, lobbyId, firstUser);
+            gameController.joinGame("s-" + secondUser, lobbyId, secondUser);
+        }
+
+        sessionToRoom = (Map<String, String>) ReflectionTestUtils.getField(gameController, "sessionToRoom");
+        probeSessionId = "s-" + (rooms + 1);
+    }
+
+    @Benchmark
+    public List<String> roomIndexLookup() {
+        return gameController.getSessionsInSameRoom(probeSessionId);
+    }
+
+    @Benchmark
+    public List<String> legacyFullScan() {
+        String roomId = sessionToRoom.get(probeSessionId);
+        return sessionToRoom.entrySet().stream()
+            .filter(entry -> roomId.equals(entry.getValue()))
+            .map(Map.Entry::getKey)
+            .toList();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+            .include(RoomBroadcastFanOutBenchmark.class.getSimpleName())
+            .build();
+        new Runner(options).run();
+    }
+}
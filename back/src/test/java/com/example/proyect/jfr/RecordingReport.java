@@ -0,0 +1,212 @@
+package com.example.proyect.jfr;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.example.proyect.metrics.jfr.BroadcastSentEvent;
+import com.example.proyect.metrics.jfr.GameSavedEvent;
+import com.example.proyect.metrics.jfr.PacketHandledEvent;
+import com.example.proyect.metrics.jfr.RoomLockContendedEvent;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Resume una grabacion de JFR (perfil jfr/proyect.jfc) en latencias por room.
+ *
+ *   mvn -B -Pjfr-report test -Djfr.file=data/jfr/recording.jfr [-Djfr.top=20]
+ *
+ * Por room: paquetes, espera en el shard y manejo (p50/p99/max), difusiones, espera por el lock de
+ * la room y guardados. Las rooms se ordenan por tiempo total de manejo; al final va el desglose
+ * global por tipo de paquete. Los tiempos estan en microsegundos.
+ */
+public final class RecordingReport {
+
+    /** Lista de longs que crece sin boxing; se ordena una vez al reportar. */
+    static final class Samples {
+        private long[] values = new long[16];
+        private int size;
+        private long total;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+            total += value;
+        }
+
+        int count() {
+            return size;
+        }
+
+        long total() {
+            return total;
+        }
+
+        long percentile(double quantile) {
+            if (size == 0) {
+                return 0;
+            }
+            Arrays.sort(values, 0, size);
+            int rank = (int) Math.ceil(quantile * size) - 1;
+            return values[Math.max(0, Math.min(rank, size - 1))];
+        }
+
+        String summary() {
+            if (size == 0) {
+                return "-";
+            }
+            return String.format("%d/%d/%d", micros(percentile(0.50)), micros(percentile(0.99)), micros(percentile(1.0)));
+        }
+    }
+
+    static final class RoomStats {
+        final Samples queue = new Samples();
+        final Samples handling = new Samples();
+        final Samples broadcast = new Samples();
+        final Samples lockWait = new Samples();
+        final Samples saveDb = new Samples();
+        long inboundBytes;
+        long broadcastBytes;
+        long snapshotBytes;
+    }
+
+    private RecordingReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: RecordingReport <recording.jfr> [topRooms]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int top = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        if (!Files.exists(file)) {
+            System.out.printf("[jfr] no recording at %s%n", file);
+            return;
+        }
+
+        Map<String, RoomStats> rooms = new HashMap<>();
+        Map<String, Samples> handlingByType = new TreeMap<>();
+        Map<String, Samples> queueByType = new TreeMap<>();
+        Map<String, Samples> lockWaitByMethod = new TreeMap<>();
+        long events = read(file, rooms, handlingByType, queueByType, lockWaitByMethod);
+
+        System.out.printf("[jfr] %s: %d game events, %d rooms%n%n", file, events, rooms.size());
+        printRooms(rooms, top);
+        printTypes(handlingByType, queueByType);
+        printLockMethods(lockWaitByMethod);
+    }
+
+    static long read(Path file, Map<String, RoomStats> rooms, Map<String, Samples> handlingByType,
+                     Map<String, Samples> queueByType, Map<String, Samples> lockWaitByMethod) throws IOException {
+        long events = 0;
+        try (RecordingFile recording = new RecordingFile(file)) {
+            while (recording.hasMoreEvents()) {
+                RecordedEvent event = recording.readEvent();
+                String name = event.getEventType().getName();
+                if (!name.startsWith("com.example.proyect.")) {
+                    continue;
+                }
+                events++;
+                RoomStats room = rooms.computeIfAbsent(roomOf(event), ignored -> new RoomStats());
+                long duration = event.getDuration().toNanos();
+                switch (name) {
+                    case PacketHandledEvent.NAME -> {
+                        String type = String.valueOf(event.getString("packetType"));
+                        long queue = event.getLong("queueTime");
+                        room.handling.add(duration);
+                        room.queue.add(queue);
+                        room.inboundBytes += event.getLong("bytes");
+                        handlingByType.computeIfAbsent(type, ignored -> new Samples()).add(duration);
+                        queueByType.computeIfAbsent(type, ignored -> new Samples()).add(queue);
+                    }
+                    case BroadcastSentEvent.NAME -> {
+                        room.broadcast.add(duration);
+                        room.broadcastBytes += event.getLong("bytes");
+                    }
+                    case RoomLockContendedEvent.NAME -> {
+                        room.lockWait.add(duration);
+                        lockWaitByMethod.computeIfAbsent(String.valueOf(event.getString("method")), ignored -> new Samples())
+                            .add(duration);
+                    }
+                    case GameSavedEvent.NAME -> {
+                        room.saveDb.add(event.getLong("dbTime"));
+                        room.snapshotBytes = Math.max(room.snapshotBytes, event.getLong("snapshotBytes"));
+                    }
+                    default -> {
+                        // evento propio que este reporte no conoce
+                    }
+                }
+            }
+        }
+        return events;
+    }
+
+    private static String roomOf(RecordedEvent event) {
+        String roomId = event.hasField("roomId") ? event.getString("roomId") : null;
+        return roomId != null ? roomId : "(sin room)";
+    }
+
+    private static void printRooms(Map<String, RoomStats> rooms, int top) {
+        List<Map.Entry<String, RoomStats>> sorted = new ArrayList<>(rooms.entrySet());
+        sorted.sort(Comparator.comparingLong((Map.Entry<String, RoomStats> e) -> e.getValue().handling.total()).reversed());
+
+        System.out.println("Per room (us, p50/p99/max)");
+        System.out.printf("%-38s %8s %20s %20s %8s %20s %8s %20s %8s %16s %10s %10s %10s%n",
+            "room", "packets", "queue", "handling", "bcasts", "broadcast", "locks", "lock wait", "saves", "save db",
+            "in KB", "out KB", "snap KB");
+        for (Map.Entry<String, RoomStats> entry : sorted.subList(0, Math.min(top, sorted.size()))) {
+            RoomStats room = entry.getValue();
+            System.out.printf("%-38s %8d %20s %20s %8d %20s %8d %20s %8d %16s %10.1f %10.1f %10.1f%n",
+                entry.getKey(),
+                room.handling.count(), room.queue.summary(), room.handling.summary(),
+                room.broadcast.count(), room.broadcast.summary(),
+                room.lockWait.count(), room.lockWait.summary(),
+                room.saveDb.count(), room.saveDb.summary(),
+                room.inboundBytes / 1024.0, room.broadcastBytes / 1024.0, room.snapshotBytes / 1024.0);
+        }
+        if (sorted.size() > top) {
+            System.out.printf("... %d more rooms%n", sorted.size() - top);
+        }
+        System.out.println();
+    }
+
+    private static void printTypes(Map<String, Samples> handlingByType, Map<String, Samples> queueByType) {
+        if (handlingByType.isEmpty()) {
+            return;
+        }
+        System.out.println("Per packet type (us, p50/p99/max)");
+        System.out.printf("%-16s %10s %20s %20s %14s%n", "type", "count", "queue", "handling", "total ms");
+        for (Map.Entry<String, Samples> entry : handlingByType.entrySet()) {
+            Samples handling = entry.getValue();
+            System.out.printf("%-16s %10d %20s %20s %14.1f%n",
+                entry.getKey(), handling.count(), queueByType.get(entry.getKey()).summary(), handling.summary(),
+                handling.total() / 1_000_000.0);
+        }
+        System.out.println();
+    }
+
+    private static void printLockMethods(Map<String, Samples> lockWaitByMethod) {
+        if (lockWaitByMethod.isEmpty()) {
+            return;
+        }
+        System.out.println("Room lock waits by method (us, p50/p99/max)");
+        for (Map.Entry<String, Samples> entry : lockWaitByMethod.entrySet()) {
+            System.out.printf("%-20s %10d %20s%n", entry.getKey(), entry.getValue().count(), entry.getValue().summary());
+        }
+    }
+
+    private static long micros(long nanos) {
+        return nanos / 1_000;
+    }
+}
@@ -0,0 +1,574 @@
+package com.example.proyect.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.example.proyect.game.GameRoom;
+import com.example.proyect.game.HexGrid;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Un jugador headless: se conecta a /ws con la cookie authToken, entra a la partida del lobby,
+ * elige lado y juega hasta que termina.
+ *
+ * Arma su propio tablero con el estado de gameStart y lo mantiene con los broadcasts (moveDrone,
+ * attackResult, droneRecalled, turnStart). En su turno, a options.actionsPerSecond, ataca si tiene
+ * un enemigo al alcance, a veces hace recall de un dron sin municion o combustible, y si no acerca
+ * un dron al enemigo mas cercano por hexes libres. Al llegar a options.actionsPerTurn (o quedarse
+ * sin acciones) termina el turno; pasado options.maxTurns se rinde para cerrar la partida.
+ *
+ * Tiene una sola accion en vuelo: la latencia es desde que se manda hasta que llega el broadcast
+ * que la contesta (o el error). Todo el estado se guarda con el lock del bot.
+ */
+final class BotClient implements WebSocket.Listener {
+
+    private static final HexGrid BOARD = GameRoom.BOARD;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // rechazos seguidos antes de cortar el turno (para no quedar en loop contra una validacion)
+    private static final int MAX_CONSECUTIVE_REJECTS = 3;
+
+    private final LoadGenerator.Options options;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final String authToken;
+    private final String lobbyId;
+    private final String side;
+    private final SplittableRandom random;
+    private final long actionIntervalNanos;
+    // true si termino por rendicion
+    private final CompletableFuture<Boolean> finished = new CompletableFuture<>();
+    private final StringBuilder partialFrame = new StringBuilder();
+
+    private WebSocket socket;
+    private CompletableFuture<WebSocket> sendChain;
+    private boolean closed;
+
+    // ===== Estado de la partida =====
+    private int myIndex = -1;
+    private Unit[][] drones;
+    private final double[] carrierX = new double[GameRoom.MAX_PLAYERS];
+    private final double[] carrierY = new double[GameRoom.MAX_PLAYERS];
+    private final boolean[] carrierAlive = new boolean[GameRoom.MAX_PLAYERS];
+    private boolean naval;
+    private int activePlayer = -1;
+    private int actionsRemaining;
+    private int actionsThisTurn;
+    private int turnsPlayed;
+    private int consecutiveRejects;
+    private long nextActionAt;
+
+    private LoadStats.Action pending;
+    private int pendingDrone;
+    private long pendingSince;
+
+    private static final class Unit {
+        double x;
+        double y;
+        boolean known;
+        boolean alive;
+        boolean deployed;
+        int ammo;
+        int fuel;
+        int attackRange;
+        int movementRange;
+    }
+
+    BotClient(LoadGenerator.Options options, LoadStats stats, ScheduledExecutorService scheduler,
+              String authToken, String lobbyId, String side, long seed) {
+        this.options = options;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.authToken = authToken;
+        this.lobbyId = lobbyId;
+        this.side = side;
+        this.random = new SplittableRandom(seed);
+        this.actionIntervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / options.actionsPerSecond());
+    }
+
+    CompletableFuture<WebSocket> connect(HttpClient http, URI wsUri) {
+        return http.newWebSocketBuilder()
+            .header("Cookie", "authToken=" + authToken)
+            .connectTimeout(Duration.ofSeconds(10))
+            .buildAsync(wsUri, this);
+    }
+
+    CompletableFuture<Boolean> finished() {
+        return finished;
+    }
+
+    synchronized void close() {
+        closed = true;
+        if (sendChain != null) {
+            sendChain.thenCompose(ws -> ws.sendClose(WebSocket.NORMAL_CLOSURE, "done"))
+                .orTimeout(5, TimeUnit.SECONDS)
+                .whenComplete((ws, error) -> socket.abort());
+        }
+    }
+
+    // ========== WebSocket.Listener ==========
+
+    @Override
+    public void onOpen(WebSocket webSocket) {
+        synchronized (this) {
+            socket = webSocket;
+            sendChain = CompletableFuture.completedFuture(webSocket);
+            send(Map.of("type", "join", "lobbyId", lobbyId));
+        }
+        webSocket.request(1);
+    }
+
+    @Override
+    public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+        partialFrame.append(data);
+        if (last) {
+            String text = partialFrame.toString();
+            partialFrame.setLength(0);
+            handle(text);
+        }
+        webSocket.request(1);
+        return null;
+    }
+
+    @Override
+    public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+        fail("socket closed by server: " + statusCode + " " + reason);
+        return null;
+    }
+
+    @Override
+    public void onError(WebSocket webSocket, Throwable error) {
+        fail("socket error: " + error);
+    }
+
+    private synchronized void fail(String reason) {
+        if (!closed && !finished.isDone()) {
+            stats.transportErrors.increment();
+            finished.completeExceptionally(new IllegalStateException(reason));
+        }
+    }
+
+    // ========== Paquetes del servidor ==========
+
+    private void handle(String text) {
+        stats.packetsReceived.increment();
+        stats.bytesReceived.add(text.length());
+        JsonNode packet;
+        try {
+            packet = MAPPER.readTree(text);
+        } catch (JsonProcessingException e) {
+            stats.transportErrors.increment();
+            return;
+        }
+
+        synchronized (this) {
+            switch (packet.path("type").asText()) {
+                case "welcome" -> {
+                    myIndex = packet.path("playerIndex").asInt();
+                    send(Map.of("type", "selectSide", "side", side));
+                }
+                case "gameStart" -> loadState(packet.path("state"));
+                case "turnStart" -> onTurnStart(packet);
+                case "moveDrone" -> onMoveDrone(packet);
+                case "attackResult" -> onAttackResult(packet);
+                case "droneRecalled" -> onDroneRecalled(packet);
+                case "carrierMoved" -> onCarrierMoved(packet);
+                case "gameForfeited" -> finish(true);
+                case "error" -> onServerError();
+                default -> {
+                }
+            }
+            if (packet.path("gameFinished").asBoolean(false)) {
+                finish(false);
+            }
+        }
+    }
+
+    private void loadState(JsonNode state) {
+        int players = GameRoom.MAX_PLAYERS;
+        drones = new Unit[players][];
+        for (JsonNode player : state.path("players")) {
+            int index = player.path("playerIndex").asInt();
+            carrierX[index] = player.path("carrierX").asDouble();
+            carrierY[index] = player.path("carrierY").asDouble();
+            carrierAlive[index] = !player.path("carrierDestroyed").asBoolean(false);
+            if (index == myIndex) {
+                naval = "Naval".equals(player.path("side").asText());
+            }
+            JsonNode droneList = player.path("drones");
+            drones[index] = new Unit[droneList.size()];
+            for (int i = 0; i < droneList.size(); i++) {
+                JsonNode d = droneList.get(i);
+                Unit unit = new Unit();
+                unit.known = d.has("x") && d.has("y");
+                unit.x = d.path("x").asDouble();
+                unit.y = d.path("y").asDouble();
+                unit.alive = d.path("alive").asBoolean(true);
+                unit.deployed = d.path("deployed").asBoolean(false);
+                unit.ammo = d.path("missiles").asInt();
+                unit.fuel = d.path("fuel").asInt();
+                unit.attackRange = d.path("attackRange").asInt(1);
+                unit.movementRange = d.path("movementRange").asInt(1);
+                drones[index][i] = unit;
+            }
+        }
+        for (int i = 0; i < players; i++) {
+            if (drones[i] == null) {
+                drones[i] = new Unit[0];
+            }
+        }
+        activePlayer = state.path("currentTurn").asInt(-1);
+        actionsRemaining = state.path("actionsRemaining").asInt();
+    }
+
+    private void onTurnStart(JsonNode packet) {
+        for (JsonNode update : packet.path("fuelUpdates")) {
+            applyMoveDrone(update);
+        }
+        activePlayer = packet.path("activePlayer").asInt();
+        actionsRemaining = packet.path("actionsRemaining").asInt();
+        boolean myTurn = activePlayer == myIndex && drones != null;
+        if (myTurn) {
+            turnsPlayed++;
+            actionsThisTurn = 0;
+            consecutiveRejects = 0;
+        }
+        // el fin de turno se contesta con turnStart; si la accion gasto las ultimas, tambien llega aca
+        if (pending != null) {
+            completePending(false);
+        } else if (myTurn) {
+            scheduleNextAction();
+        }
+    }
+
+    private void onMoveDrone(JsonNode packet) {
+        applyMoveDrone(packet);
+        int player = packet.path("playerIndex").asInt();
+        if (pending == LoadStats.Action.MOVE && player == myIndex
+                && packet.path("droneIndex").asInt() == pendingDrone && packet.has("x")) {
+            actionsRemaining--;
+            completePending(false);
+        }
+    }
+
+    private void applyMoveDrone(JsonNode packet) {
+        Unit unit = unit(packet.path("playerIndex").asInt(), packet.path("droneIndex").asInt());
+        if (unit == null) {
+            return;
+        }
+        if (packet.has("x") && packet.has("y")) {
+            unit.x = packet.path("x").asDouble();
+            unit.y = packet.path("y").asDouble();
+            unit.known = true;
+            unit.deployed = true;
+        }
+        unit.fuel = packet.path("remainingFuel").asInt(unit.fuel);
+        if (packet.path("destroyedByFuel").asBoolean(false)) {
+            unit.alive = false;
+        }
+    }
+
+    private void onAttackResult(JsonNode packet) {
+        int attackerPlayer = packet.path("attackerPlayer").asInt();
+        int targetPlayer = packet.path("targetPlayer").asInt();
+        Unit target = unit(targetPlayer, packet.path("targetDrone").asInt());
+        if (target != null && packet.path("remainingHealth").asInt(1) <= 0) {
+            target.alive = false;
+        }
+        if (targetPlayer >= 0 && targetPlayer < GameRoom.MAX_PLAYERS && packet.path("targetCarrierDestroyed").asBoolean(false)) {
+            carrierAlive[targetPlayer] = false;
+        }
+        Unit attacker = unit(attackerPlayer, packet.path("attackerDrone").asInt());
+        if (attacker != null) {
+            attacker.x = packet.path("attackerX").asDouble(attacker.x);
+            attacker.y = packet.path("attackerY").asDouble(attacker.y);
+            attacker.ammo = packet.path("attackerAmmo").asInt(attacker.ammo);
+            if (packet.path("attackerDestroyed").asBoolean(false)) {
+                attacker.alive = false;
+            }
+        }
+        if (attackerPlayer == myIndex && pending == LoadStats.Action.ATTACK) {
+            actionsRemaining = packet.path("actionsRemaining").asInt();
+            completePending(false);
+        }
+    }
+
+    private void onDroneRecalled(JsonNode packet) {
+        int player = packet.path("playerIndex").asInt();
+        Unit unit = unit(player, packet.path("droneIndex").asInt());
+        if (unit != null) {
+            unit.deployed = false;
+            unit.x = carrierX[player];
+            unit.y = carrierY[player];
+            unit.ammo = packet.path("missiles").asInt(unit.ammo);
+            unit.fuel = packet.path("fuel").asInt(unit.fuel);
+        }
+        if (player == myIndex && pending == LoadStats.Action.RECALL) {
+            actionsRemaining = packet.path("actionsRemaining").asInt();
+            completePending(false);
+        }
+    }
+
+    private void onCarrierMoved(JsonNode packet) {
+        int player = packet.path("playerIndex").asInt();
+        if (player >= 0 && player < GameRoom.MAX_PLAYERS && packet.has("x")) {
+            carrierX[player] = packet.path("x").asDouble();
+            carrierY[player] = packet.path("y").asDouble();
+        }
+    }
+
+    private void onServerError() {
+        if (pending == null) {
+            // error fuera de una accion (join, selectSide): la partida no va a arrancar bien
+            stats.transportErrors.increment();
+            return;
+        }
+        stats.actionsRejected.increment();
+        consecutiveRejects++;
+        completePending(true);
+    }
+
+    private void finish(boolean forfeited) {
+        completePending(false);
+        finished.complete(forfeited);
+    }
+
+    private Unit unit(int player, int droneIndex) {
+        if (drones == null || player < 0 || player >= drones.length || droneIndex < 0 || droneIndex >= drones[player].length) {
+            return null;
+        }
+        return drones[player][droneIndex];
+    }
+
+    private void completePending(boolean rejected) {
+        if (pending == null) {
+            return;
+        }
+        stats.recordLatency(pending, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - pendingSince));
+        stats.actionsAnswered.increment();
+        if (!rejected) {
+            consecutiveRejects = 0;
+        }
+        pending = null;
+        if (activePlayer == myIndex && !finished.isDone()) {
+            scheduleNextAction();
+        }
+    }
+
+    // ========== Decision ==========
+
+    private void scheduleNextAction() {
+        long now = System.nanoTime();
+        long at = Math.max(now, nextActionAt);
+        nextActionAt = at + actionIntervalNanos;
+        scheduler.schedule(this::act, at - now, TimeUnit.NANOSECONDS);
+    }
+
+    private synchronized void act() {
+        if (closed || finished.isDone() || pending != null || activePlayer != myIndex || drones == null) {
+            return;
+        }
+        if (turnsPlayed > options.maxTurns()) {
+            sendAction(LoadStats.Action.FORFEIT, -1, Map.of("type", "forfeitGame"));
+            return;
+        }
+        boolean turnDone = actionsThisTurn >= options.actionsPerTurn() || actionsRemaining <= 0
+            || consecutiveRejects >= MAX_CONSECUTIVE_REJECTS;
+        if (!turnDone) {
+            actionsThisTurn++;
+            if (tryAttack() || tryRecall() || tryMove()) {
+                return;
+            }
+        }
+        sendAction(LoadStats.Action.END_TURN, -1, Map.of("type", "endTurn"));
+    }
+
+    private boolean tryAttack() {
+        int enemy = 1 - myIndex;
+        Unit[] mine = drones[myIndex];
+        int start = random.nextInt(Math.max(1, mine.length));
+        for (int n = 0; n < mine.length; n++) {
+            int i = (start + n) % mine.length;
+            Unit drone = mine[i];
+            if (!drone.alive || !drone.deployed || !drone.known || drone.ammo <= 0) {
+                continue;
+            }
+            int reach = naval ? options.navalAttackRange() : Math.max(1, drone.attackRange);
+            for (int j = 0; j < drones[enemy].length; j++) {
+                Unit target = drones[enemy][j];
+                if (target.alive && target.deployed && target.known
+                        && BOARD.distance(drone.x, drone.y, target.x, target.y) <= reach) {
+                    Map<String, Object> attack = attackPacket(i, enemy, j, "drone");
+                    sendAction(LoadStats.Action.ATTACK, i, attack);
+                    return true;
+                }
+            }
+            if (carrierAlive[enemy] && BOARD.distance(drone.x, drone.y, carrierX[enemy], carrierY[enemy]) <= reach) {
+                Map<String, Object> attack = attackPacket(i, enemy, -1, "carrier");
+                attack.put("lineX", carrierX[enemy]);
+                attack.put("lineY", carrierY[enemy]);
+                sendAction(LoadStats.Action.ATTACK, i, attack);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, Object> attackPacket(int attacker, int targetPlayer, int targetDrone, String targetType) {
+        Map<String, Object> attack = new HashMap<>();
+        attack.put("type", "attack");
+        attack.put("attackerIndex", attacker);
+        attack.put("targetPlayer", targetPlayer);
+        attack.put("targetDrone", targetDrone);
+        attack.put("targetType", targetType);
+        return attack;
+    }
+
+    private boolean tryRecall() {
+        if (random.nextDouble() >= options.recallChance()) {
+            return false;
+        }
+        Unit[] mine = drones[myIndex];
+        for (int i = 0; i < mine.length; i++) {
+            Unit drone = mine[i];
+            if (drone.alive && drone.deployed && (drone.ammo <= 0 || drone.fuel <= 2)) {
+                sendAction(LoadStats.Action.RECALL, i, Map.of("type", "recall", "droneIndex", i));
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Acerca un dron (desplegado o desde el hangar) al enemigo conocido mas cercano, con un poco de
+     * azar para que las partidas no se repitan. Solo elige hexes libres segun lo que ve el bot.
+     */
+    private boolean tryMove() {
+        int enemy = 1 - myIndex;
+        int[] targets = enemyKeys(enemy);
+        BitSet occupied = occupiedCells();
+        Unit[] mine = drones[myIndex];
+        int start = random.nextInt(Math.max(1, mine.length));
+
+        for (int n = 0; n < mine.length; n++) {
+            int i = (start + n) % mine.length;
+            Unit drone = mine[i];
+            if (!drone.alive) {
+                continue;
+            }
+            int from;
+            int range;
+            if (drone.deployed && drone.known) {
+                from = BOARD.cellAt(drone.x, drone.y);
+                range = drone.movementRange;
+            } else {
+                from = BOARD.cellAt(carrierX[myIndex], carrierY[myIndex]);
+                range = Math.max(drone.movementRange, GameRoom.DEPLOY_RANGE_HEXES);
+            }
+            if (from < 0 || range <= 0) {
+                continue;
+            }
+
+            int bestCell = -1;
+            int bestScore = Integer.MAX_VALUE;
+            for (int cell : BOARD.cellsWithin(BOARD.keyOf(from), range)) {
+                if (cell == from || occupied.get(cell)) {
+                    continue;
+                }
+                int score = nearest(BOARD.keyOf(cell), targets) * 8 + random.nextInt(8);
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestCell = cell;
+                }
+            }
+            if (bestCell >= 0) {
+                int key = BOARD.keyOf(bestCell);
+                Map<String, Object> move = Map.of("type", "move", "droneIndex", i,
+                    "x", BOARD.centerX(key), "y", BOARD.centerY(key));
+                sendAction(LoadStats.Action.MOVE, i, move);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int[] enemyKeys(int enemy) {
+        int[] keys = new int[drones[enemy].length + 1];
+        int count = 0;
+        for (Unit target : drones[enemy]) {
+            if (target.alive && target.deployed && target.known) {
+                keys[count++] = BOARD.keyAt(target.x, target.y);
+            }
+        }
+        if (carrierAlive[enemy]) {
+            keys[count++] = BOARD.keyAt(carrierX[enemy], carrierY[enemy]);
+        }
+        return Arrays.copyOf(keys, count);
+    }
+
+    private static int nearest(int key, int[] targets) {
+        int best = targets.length == 0 ? 0 : Integer.MAX_VALUE;
+        for (int target : targets) {
+            best = Math.min(best, HexGrid.distance(key, target));
+        }
+        return best;
+    }
+
+    private BitSet occupiedCells() {
+        BitSet occupied = new BitSet(BOARD.cellCount());
+        for (int player = 0; player < drones.length; player++) {
+            for (Unit unit : drones[player]) {
+                if (unit.alive && unit.deployed && unit.known) {
+                    markOccupied(occupied, unit.x, unit.y);
+                }
+            }
+            markOccupied(occupied, carrierX[player], carrierY[player]);
+        }
+        return occupied;
+    }
+
+    private static void markOccupied(BitSet occupied, double x, double y) {
+        int cell = BOARD.cellAt(x, y);
+        if (cell >= 0) {
+            occupied.set(cell);
+        }
+    }
+
+    // ========== Envio ==========
+
+    private void sendAction(LoadStats.Action action, int droneIndex, Map<String, Object> packet) {
+        pending = action;
+        pendingDrone = droneIndex;
+        pendingSince = System.nanoTime();
+        stats.actionsSent.increment();
+        send(packet);
+    }
+
+    // java.net.http.WebSocket no admite dos sendText en vuelo: se encadenan
+    private void send(Map<String, Object> packet) {
+        String text;
+        try {
+            text = MAPPER.writeValueAsString(packet);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        sendChain = sendChain.thenCompose(ws -> ws.sendText(text, true));
+        sendChain.whenComplete((ws, error) -> {
+            if (error != null) {
+                fail("send failed: " + error);
+            }
+        });
+    }
+}
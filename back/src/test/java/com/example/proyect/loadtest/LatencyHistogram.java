@@ -0,0 +1,91 @@
+package com.example.proyect.loadtest;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Histograma de latencias en microsegundos, seguro entre hilos y sin asignar al registrar.
+ *
+ * Buckets log-lineales: exactos hasta 31 us y despues 16 buckets por potencia de dos (error
+ * relativo maximo ~6%), hasta ~18 minutos. Es lo mismo que haria HdrHistogram con 1 digito
+ * significativo, sin sumar una dependencia solo para el generador de carga.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final long MAX_VALUE = (1L << MAX_EXPONENT) - 1;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    void record(long micros) {
+        long value = Math.max(0, Math.min(micros, MAX_VALUE));
+        counts.incrementAndGet(indexOf(value));
+        max.accumulate(value);
+    }
+
+    static int indexOf(long value) {
+        if (value < 2 * SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    // limite superior del bucket: lo que se reporta como percentil
+    static long upperBoundOf(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = index % SUB_BUCKETS;
+        long shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    /** Copia de los contadores; reset=true vacia el histograma (para los reportes por intervalo). */
+    Snapshot snapshot(boolean reset) {
+        long[] copy = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = reset ? counts.getAndSet(i, 0) : counts.get(i);
+            total += copy[i];
+        }
+        return new Snapshot(copy, total, reset ? max.getThenReset() : max.get());
+    }
+
+    record Snapshot(long[] counts, long total, long max) {
+
+        long percentile(double quantile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(quantile * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), max);
+                }
+            }
+            return max;
+        }
+
+        String summary() {
+            if (total == 0) {
+                return "n=0";
+            }
+            return String.format("n=%d p50=%s p90=%s p99=%s p99.9=%s max=%s",
+                total, format(percentile(0.50)), format(percentile(0.90)), format(percentile(0.99)),
+                format(percentile(0.999)), format(max));
+        }
+
+        private static String format(long micros) {
+            return micros < 10_000 ? micros + "us" : String.format("%.1fms", micros / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.example.proyect.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Generador de carga end-to-end contra un servidor levantado: registra usuarios por /api/auth,
+ * arma lobbies por /api/lobby, conecta dos BotClient por partida a /ws y las juega completas.
+ * Cuando una partida termina, la misma pareja arranca otra hasta que se cumple la duracion.
+ *
+ * Ejecutar con (servidor corriendo en baseUrl):
+ *   mvn -B -Pload test -Dload.matches=500 -Dload.durationSeconds=120
+ * o directamente: java -cp ... com.example.proyect.loadtest.LoadGenerator --matches=500 ...
+ *
+ * Cada reportIntervalSeconds imprime partidas activas, acciones/s, paquetes/s, rechazos y errores
+ * por segundo y los percentiles de latencia accion -> broadcast del intervalo; al final, el
+ * histograma acumulado por tipo de accion.
+ *
+ * Los sockets son java.net.http.WebSocket asincronicos: un pool chico atiende miles de clientes
+ * (no hay un hilo por bot). Para decenas de miles de conexiones hay que subir el ulimit de
+ * archivos abiertos de los dos lados.
+ */
+public final class LoadGenerator {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String PASSWORD = "loadtest-password";
+
+    record Options(URI baseUrl, int matches, int durationSeconds, double actionsPerSecond, int actionsPerTurn,
+                   int maxTurns, int navalAttackRange, double recallChance, int reportIntervalSeconds,
+                   int registerConcurrency, int matchTimeoutSeconds, int ioThreads) {
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                if (arg.startsWith("--") && arg.contains("=")) {
+                    values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+                }
+            }
+            return new Options(
+                URI.create(values.getOrDefault("baseUrl", "http://localhost:8080")),
+                Integer.parseInt(values.getOrDefault("matches", "100")),
+                Integer.parseInt(values.getOrDefault("durationSeconds", "60")),
+                Double.parseDouble(values.getOrDefault("actionsPerSecond", "2")),
+                Integer.parseInt(values.getOrDefault("actionsPerTurn", "4")),
+                Integer.parseInt(values.getOrDefault("maxTurns", "30")),
+                Integer.parseInt(values.getOrDefault("navalAttackRange", "6")),
+                Double.parseDouble(values.getOrDefault("recallChance", "0.05")),
+                Integer.parseInt(values.getOrDefault("reportIntervalSeconds", "5")),
+                Integer.parseInt(values.getOrDefault("registerConcurrency", "32")),
+                Integer.parseInt(values.getOrDefault("matchTimeoutSeconds", "600")),
+                Integer.parseInt(values.getOrDefault("ioThreads", String.valueOf(Runtime.getRuntime().availableProcessors() * 2)))
+            );
+        }
+    }
+
+    record BotUser(long userId, String username, String authToken) {
+    }
+
+    private final Options options;
+    private final LoadStats stats = new LoadStats();
+    private final ExecutorService ioPool;
+    private final ScheduledExecutorService scheduler;
+    private final HttpClient http;
+    private final URI wsUri;
+    private final AtomicLong seeds = new AtomicLong(System.nanoTime());
+
+    private volatile long deadlineNanos;
+
+    private LoadGenerator(Options options) {
+        this.options = options;
+        this.ioPool = Executors.newFixedThreadPool(options.ioThreads(), daemon("load-io"));
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(2, options.ioThreads() / 4), daemon("load-bot"));
+        this.http = HttpClient.newBuilder()
+            .executor(ioPool)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        String scheme = "https".equals(options.baseUrl().getScheme()) ? "wss" : "ws";
+        this.wsUri = URI.create(scheme + "://" + options.baseUrl().getAuthority() + "/ws");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        System.out.printf("[load] %s matches=%d duration=%ds rate=%.1f actions/s/bot%n",
+            options.baseUrl(), options.matches(), options.durationSeconds(), options.actionsPerSecond());
+        boolean clean = new LoadGenerator(options).run();
+        System.exit(clean ? 0 : 1);
+    }
+
+    private boolean run() throws InterruptedException {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000L, 36);
+        long registerStart = System.nanoTime();
+        BotUser[] users = registerUsers(runId, options.matches() * 2);
+        System.out.printf("[load] registered %d users in %d ms%n",
+            users.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - registerStart));
+
+        long start = System.nanoTime();
+        deadlineNanos = start + TimeUnit.SECONDS.toNanos(options.durationSeconds());
+        Reporter reporter = new Reporter(start);
+        scheduler.scheduleAtFixedRate(reporter, options.reportIntervalSeconds(), options.reportIntervalSeconds(), TimeUnit.SECONDS);
+
+        CountDownLatch pairsDone = new CountDownLatch(options.matches());
+        for (int pair = 0; pair < options.matches(); pair++) {
+            BotUser host = users[2 * pair];
+            BotUser guest = users[2 * pair + 1];
+            if (host == null || guest == null) {
+                pairsDone.countDown();
+                continue;
+            }
+            playUntilDeadline(host, guest, pairsDone);
+        }
+
+        pairsDone.await(options.durationSeconds() + options.matchTimeoutSeconds() + 30L, TimeUnit.SECONDS);
+        reporter.run();
+        printSummary(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        scheduler.shutdownNow();
+        ioPool.shutdownNow();
+        return stats.transportErrors.sum() == 0;
+    }
+
+    // ========== Partidas ==========
+
+    private void playUntilDeadline(BotUser host, BotUser guest, CountDownLatch pairsDone) {
+        if (System.nanoTime() >= deadlineNanos) {
+            pairsDone.countDown();
+            return;
+        }
+        playMatch(host, guest).thenAccept(ok -> {
+            if (ok) {
+                playUntilDeadline(host, guest, pairsDone);
+            } else {
+                // sin pausa una pareja que falla reintentaria en loop contra el servidor
+                scheduler.schedule(() -> playUntilDeadline(host, guest, pairsDone), 1, TimeUnit.SECONDS);
+            }
+        });
+    }
+
+    /** true si la partida termino (normal o por rendicion). */
+    private CompletableFuture<Boolean> playMatch(BotUser host, BotUser guest) {
+        return createLobby(host)
+            .thenCompose(lobbyId -> joinLobby(guest, lobbyId).thenApply(ignored -> lobbyId))
+            .thenCompose(lobbyId -> {
+                stats.matchesStarted.increment();
+                BotClient first = new BotClient(options, stats, scheduler, host.authToken(), lobbyId, "Aereo", seeds.incrementAndGet());
+                BotClient second = new BotClient(options, stats, scheduler, guest.authToken(), lobbyId, "Naval", seeds.incrementAndGet());
+                return CompletableFuture.allOf(first.connect(http, wsUri), second.connect(http, wsUri))
+                    .thenCompose(ignored -> first.finished().applyToEither(second.finished(), forfeited -> forfeited))
+                    .orTimeout(options.matchTimeoutSeconds(), TimeUnit.SECONDS)
+                    .handle((forfeited, error) -> {
+                        first.close();
+                        second.close();
+                        if (error == null) {
+                            stats.matchesFinished.increment();
+                            if (forfeited) {
+                                stats.matchesForfeited.increment();
+                            }
+                            return true;
+                        }
+                        Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                        if (cause instanceof TimeoutException) {
+                            stats.matchesTimedOut.increment();
+                            stats.transportErrors.increment();
+                        } else if (!(cause instanceof IllegalStateException)) {
+                            // handshake fallido; las caidas del socket ya las conto el bot
+                            stats.transportErrors.increment();
+                        }
+                        return false;
+                    });
+            })
+            .exceptionally(error -> {
+                // REST de lobby fallido
+                stats.transportErrors.increment();
+                return false;
+            });
+    }
+
+    // ========== REST ==========
+
+    private BotUser[] registerUsers(String runId, int count) throws InterruptedException {
+        BotUser[] users = new BotUser[count];
+        Semaphore inFlight = new Semaphore(options.registerConcurrency());
+        CountDownLatch done = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            inFlight.acquire();
+            register("lt" + runId + "_" + i).whenComplete((user, error) -> {
+                if (error != null) {
+                    stats.transportErrors.increment();
+                    System.out.printf("[load] register %d failed: %s%n", index, error.getMessage());
+                }
+                users[index] = user;
+                inFlight.release();
+                done.countDown();
+            });
+        }
+        done.await();
+        return users;
+    }
+
+    private CompletableFuture<BotUser> register(String username) {
+        Map<String, Object> body = Map.of("username", username, "email", username + "@load.test", "password", PASSWORD);
+        HttpRequest request = HttpRequest.newBuilder(options.baseUrl().resolve("/api/auth/register"))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json(body)))
+            .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+            JsonNode node = checkOk(response);
+            String token = response.headers().allValues("set-cookie").stream()
+                .filter(cookie -> cookie.startsWith("authToken="))
+                .map(cookie -> cookie.substring("authToken=".length(), cookie.contains(";") ? cookie.indexOf(';') : cookie.length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("register: no authToken cookie"));
+            return new BotUser(node.path("userId").asLong(), username, token);
+        });
+    }
+
+    private CompletableFuture<String> createLobby(BotUser user) {
+        return post(user, "/api/lobby/create").thenApply(node -> node.path("lobbyId").asText());
+    }
+
+    private CompletableFuture<JsonNode> joinLobby(BotUser user, String lobbyId) {
+        return post(user, "/api/lobby/join/" + lobbyId);
+    }
+
+    private CompletableFuture<JsonNode> post(BotUser user, String path) {
+        HttpRequest request = HttpRequest.newBuilder(options.baseUrl().resolve(path))
+            .header("Cookie", "authToken=" + user.authToken())
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(LoadGenerator::checkOk);
+    }
+
+    private static JsonNode checkOk(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.uri().getPath() + " -> " + response.statusCode() + " " + response.body());
+        }
+        try {
+            return MAPPER.readTree(response.body());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String json(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicLong counter = new AtomicLong();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // ========== Reportes ==========
+
+    private final class Reporter implements Runnable {
+
+        private final long start;
+        private long lastAt;
+        private long lastSent;
+        private long lastReceived;
+        private long lastRejected;
+        private long lastErrors;
+
+        Reporter(long start) {
+            this.start = start;
+            this.lastAt = start;
+        }
+
+        @Override
+        public synchronized void run() {
+            long now = System.nanoTime();
+            double seconds = Math.max(1e-3, (now - lastAt) / 1e9);
+            long sent = stats.actionsSent.sum();
+            long received = stats.packetsReceived.sum();
+            long rejected = stats.actionsRejected.sum();
+            long errors = stats.transportErrors.sum();
+            long active = stats.matchesStarted.sum() - stats.matchesFinished.sum() - stats.matchesTimedOut.sum();
+
+            System.out.printf("[load] t=%ds active=%d finished=%d | actions/s=%.0f packets/s=%.0f rejected/s=%.1f errors/s=%.1f | %s%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - start), active, stats.matchesFinished.sum(),
+                (sent - lastSent) / seconds, (received - lastReceived) / seconds,
+                (rejected - lastRejected) / seconds, (errors - lastErrors) / seconds,
+                stats.drainIntervalLatency().summary());
+
+            lastAt = now;
+            lastSent = sent;
+            lastReceived = received;
+            lastRejected = rejected;
+            lastErrors = errors;
+        }
+    }
+
+    private void printSummary(long seconds) {
+        long elapsed = Math.max(1, seconds);
+        System.out.println("[load] ===== summary =====");
+        System.out.printf("[load] matches started=%d finished=%d forfeited=%d timedOut=%d (%.2f finished/s)%n",
+            stats.matchesStarted.sum(), stats.matchesFinished.sum(), stats.matchesForfeited.sum(),
+            stats.matchesTimedOut.sum(), stats.matchesFinished.sum() / (double) elapsed);
+        System.out.printf("[load] actions sent=%d answered=%d rejected=%d (%.2f%%) | %.0f actions/s%n",
+            stats.actionsSent.sum(), stats.actionsAnswered.sum(), stats.actionsRejected.sum(),
+            100.0 * stats.actionsRejected.sum() / Math.max(1, stats.actionsSent.sum()),
+            stats.actionsSent.sum() / (double) elapsed);
+        System.out.printf("[load] packets received=%d (%.0f/s, %.1f MB) transport errors=%d%n",
+            stats.packetsReceived.sum(), stats.packetsReceived.sum() / (double) elapsed,
+            stats.bytesReceived.sum() / 1e6, stats.transportErrors.sum());
+        for (LoadStats.Action action : LoadStats.Action.values()) {
+            System.out.printf("[load] latency %-8s %s%n", action, stats.totalLatency(action).summary());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.proyect.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores compartidos por todos los bots. Los reportes por intervalo restan contra la foto
+ * anterior; las latencias van a un histograma acumulado y a otro que se vacia en cada reporte.
+ */
+final class LoadStats {
+
+    enum Action {
+        MOVE, ATTACK, RECALL, END_TURN, FORFEIT
+    }
+
+    final LongAdder actionsSent = new LongAdder();
+    final LongAdder actionsAnswered = new LongAdder();
+    // paquetes "error" del servidor en respuesta a una accion (jugada rechazada)
+    final LongAdder actionsRejected = new LongAdder();
+    // conexiones caidas, REST fallidos, partidas colgadas
+    final LongAdder transportErrors = new LongAdder();
+    final LongAdder packetsReceived = new LongAdder();
+    final LongAdder bytesReceived = new LongAdder();
+    final LongAdder matchesStarted = new LongAdder();
+    final LongAdder matchesFinished = new LongAdder();
+    final LongAdder matchesForfeited = new LongAdder();
+    final LongAdder matchesTimedOut = new LongAdder();
+
+    private final Map<Action, LatencyHistogram> totalLatency = new EnumMap<>(Action.class);
+    private final LatencyHistogram intervalLatency = new LatencyHistogram();
+
+    LoadStats() {
+        for (Action action : Action.values()) {
+            totalLatency.put(action, new LatencyHistogram());
+        }
+    }
+
+    void recordLatency(Action action, long micros) {
+        totalLatency.get(action).record(micros);
+        intervalLatency.record(micros);
+    }
+
+    LatencyHistogram.Snapshot drainIntervalLatency() {
+        return intervalLatency.snapshot(true);
+    }
+
+    LatencyHistogram.Snapshot totalLatency(Action action) {
+        return totalLatency.get(action).snapshot(false);
+    }
+}
@@ -0,0 +1,354 @@
+/**
+ * BinaryCodec — espejo de BinaryPacketCodec del servidor (subprotocolo "proyect.bin.v1").
+ *
+ * Frame: [tipo: 1 byte][mascara de presencia: varint][campos del layout][extras: mapa generico].
+ * TYPES tiene que respetar el orden de PacketType y LAYOUTS los layouts del servidor.
+ */
+export const SUBPROTOCOL = 'proyect.bin.v1';
+
+const TYPES = [
+    'join', 'selectSide', 'move', 'moveCarrier', 'attack', 'endTurn', 'save', 'forfeitGame',
+    'leaveGame', 'loadGame', 'recall', 'ack',
+    'welcome', 'sideChosen', 'bothReady', 'gameStart', 'turnStart', 'moveDrone', 'carrierMoved',
+    'attackResult', 'playerLeft', 'gameSaved', 'gameForfeited', 'gameLoaded', 'lobbyCreated',
+    'droneRecalled', 'visibilityUpdate', 'stateSnapshot', 'stateDelta', 'error',
+    'spectate', 'spectating',
+    'previewMoves', 'movesPreview', 'previewAttack', 'attackPreview',
+];
+
+const varint = (name) => ({ name, kind: 'varint' });
+const varlong = (name) => ({ name, kind: 'varlong' });
+const float32 = (name) => ({ name, kind: 'float32' });
+const bool = (name) => ({ name, kind: 'bool' });
+const enumOf = (name, ...values) => ({ name, kind: 'enum', values });
+
+const LAYOUTS = {
+    move: [varint('droneIndex'), float32('x'), float32('y')],
+    moveCarrier: [float32('x'), float32('y')],
+    attack: [
+        varint('attackerIndex'), varint('targetPlayer'), varint('targetDrone'),
+        float32('lineX'), float32('lineY'), float32('destinationX'), float32('destinationY'),
+        enumOf('targetType', 'drone', 'carrier'),
+    ],
+    recall: [varint('droneIndex')],
+    ack: [varlong('seq'), bool('resync')],
+
+    turnStart: [varint('activePlayer'), varint('actionsRemaining')],
+    moveDrone: [
+        varint('playerIndex'), varint('droneIndex'), float32('x'), float32('y'),
+        varint('remainingFuel'), bool('destroyedByFuel'),
+    ],
+    carrierMoved: [varint('playerIndex'), float32('x'), float32('y'), varint('actionsRemaining')],
+    attackResult: [
+        varint('attackerPlayer'), varint('attackerDrone'), varint('targetPlayer'), varint('targetDrone'),
+        varint('damage'), varint('remainingHealth'), bool('hit'),
+        float32('lineX'), float32('lineY'), varint('actionsRemaining'),
+        float32('attackerX'), float32('attackerY'),
+        varint('attackerRemainingHealth'), bool('attackerDestroyed'), varint('attackerAmmo'),
+        varint('targetCarrierHealth'), bool('targetCarrierDestroyed'),
+        bool('gameFinished'), varint('winnerPlayerIndex'), bool('isDraw'),
+    ],
+    droneRecalled: [
+        varint('playerIndex'), varint('droneIndex'), varint('fuel'), varint('maxFuel'),
+        varint('missiles'), varint('actionsRemaining'),
+    ],
+    sideChosen: [varint('playerIndex'), enumOf('side', 'Aereo', 'Naval')],
+    stateDelta: [varlong('seq'), varlong('baseSeq')],
+    stateSnapshot: [varlong('seq')],
+};
+
+const TAG_NULL = 0;
+const TAG_FALSE = 1;
+const TAG_TRUE = 2;
+const TAG_INT = 3;
+const TAG_LONG = 4;
+const TAG_FLOAT32 = 5;
+const TAG_FLOAT64 = 6;
+const TAG_STRING = 7;
+const TAG_LIST = 8;
+const TAG_MAP = 9;
+
+const INT32_MIN = -2147483648;
+const INT32_MAX = 2147483647;
+
+const encoder = new TextEncoder();
+const decoder = new TextDecoder();
+
+// zigzag con aritmetica: los numeros de JS no tienen enteros de 64 bits
+const zigzag = (n) => (n >= 0 ? n * 2 : -n * 2 - 1);
+const unzigzag = (n) => (n % 2 === 0 ? n / 2 : -(n + 1) / 2);
+
+function accepts(field, value) {
+    switch (field.kind) {
+        case 'varint': return Number.isInteger(value) && value >= INT32_MIN && value <= INT32_MAX;
+        case 'varlong': return Number.isSafeInteger(value);
+        case 'float32': return typeof value === 'number';
+        case 'bool': return typeof value === 'boolean';
+        case 'enum': return field.values.includes(value);
+        default: return false;
+    }
+}
+
+class Writer {
+    constructor() {
+        this.bytes = new Uint8Array(256);
+        this.view = new DataView(this.bytes.buffer);
+        this.pos = 0;
+        this.keys = new Map();
+    }
+
+    ensure(extra) {
+        if (this.pos + extra <= this.bytes.length) return;
+        const grown = new Uint8Array(Math.max(this.bytes.length * 2, this.pos + extra));
+        grown.set(this.bytes);
+        this.bytes = grown;
+        this.view = new DataView(grown.buffer);
+    }
+
+    byte(value) {
+        this.ensure(1);
+        this.bytes[this.pos++] = value;
+    }
+
+    varuint(value) {
+        this.ensure(10);
+        while (value >= 0x80) {
+            this.bytes[this.pos++] = (value % 0x80) | 0x80;
+            value = Math.floor(value / 0x80);
+        }
+        this.bytes[this.pos++] = value;
+    }
+
+    float32(value) {
+        this.ensure(4);
+        this.view.setFloat32(this.pos, value, true);
+        this.pos += 4;
+    }
+
+    float64(value) {
+        this.ensure(8);
+        this.view.setFloat64(this.pos, value, true);
+        this.pos += 8;
+    }
+
+    string(value) {
+        const bytes = encoder.encode(value);
+        this.varuint(bytes.length);
+        this.ensure(bytes.length);
+        this.bytes.set(bytes, this.pos);
+        this.pos += bytes.length;
+    }
+
+    key(key) {
+        const index = this.keys.get(key);
+        if (index !== undefined) {
+            this.varuint(index + 1);
+            return;
+        }
+        this.keys.set(key, this.keys.size);
+        this.varuint(0);
+        this.string(key);
+    }
+
+    field(field, value) {
+        switch (field.kind) {
+            case 'varint':
+            case 'varlong': this.varuint(zigzag(value)); break;
+            case 'float32': this.float32(value); break;
+            case 'bool': this.byte(value ? 1 : 0); break;
+            case 'enum': this.byte(field.values.indexOf(value)); break;
+        }
+    }
+
+    value(value) {
+        if (value === null || value === undefined) {
+            this.byte(TAG_NULL);
+        } else if (typeof value === 'boolean') {
+            this.byte(value ? TAG_TRUE : TAG_FALSE);
+        } else if (typeof value === 'number') {
+            if (Number.isInteger(value) && value >= INT32_MIN && value <= INT32_MAX) {
+                this.byte(TAG_INT);
+                this.varuint(zigzag(value));
+            } else if (Number.isSafeInteger(value)) {
+                this.byte(TAG_LONG);
+                this.varuint(zigzag(value));
+            } else if (Math.fround(value) === value) {
+                this.byte(TAG_FLOAT32);
+                this.float32(value);
+            } else {
+                this.byte(TAG_FLOAT64);
+                this.float64(value);
+            }
+        } else if (Array.isArray(value)) {
+            this.byte(TAG_LIST);
+            this.varuint(value.length);
+            for (const item of value) this.value(item);
+        } else if (typeof value === 'object') {
+            const entries = Object.entries(value);
+            this.byte(TAG_MAP);
+            this.varuint(entries.length);
+            for (const [key, item] of entries) {
+                this.key(key);
+                this.value(item);
+            }
+        } else {
+            this.byte(TAG_STRING);
+            this.string(String(value));
+        }
+    }
+}
+
+class Reader {
+    constructor(buffer) {
+        this.bytes = new Uint8Array(buffer);
+        this.view = new DataView(this.bytes.buffer, this.bytes.byteOffset, this.bytes.byteLength);
+        this.pos = 0;
+        this.keys = [];
+    }
+
+    byte() {
+        if (this.pos >= this.bytes.length) throw new RangeError('Truncated frame');
+        return this.bytes[this.pos++];
+    }
+
+    varuint() {
+        let result = 0;
+        for (let scale = 1; scale < 2 ** 64; scale *= 0x80) {
+            const b = this.byte();
+            result += (b & 0x7f) * scale;
+            if ((b & 0x80) === 0) return result;
+        }
+        throw new RangeError('Malformed varint');
+    }
+
+    float32() {
+        const value = this.view.getFloat32(this.pos, true);
+        this.pos += 4;
+        return value;
+    }
+
+    float64() {
+        const value = this.view.getFloat64(this.pos, true);
+        this.pos += 8;
+        return value;
+    }
+
+    string() {
+        const length = this.varuint();
+        if (this.pos + length > this.bytes.length) throw new RangeError('Truncated string');
+        const value = decoder.decode(this.bytes.subarray(this.pos, this.pos + length));
+        this.pos += length;
+        return value;
+    }
+
+    key() {
+        const ref = this.varuint();
+        if (ref === 0) {
+            const key = this.string();
+            this.keys.push(key);
+            return key;
+        }
+        return this.keys[ref - 1];
+    }
+
+    field(field) {
+        switch (field.kind) {
+            case 'varint':
+            case 'varlong': return unzigzag(this.varuint());
+            case 'float32': return this.float32();
+            case 'bool': return this.byte() !== 0;
+            case 'enum': return field.values[this.byte()];
+            default: return undefined;
+        }
+    }
+
+    value() {
+        const tag = this.byte();
+        switch (tag) {
+            case TAG_NULL: return null;
+            case TAG_FALSE: return false;
+            case TAG_TRUE: return true;
+            case TAG_INT:
+            case TAG_LONG: return unzigzag(this.varuint());
+            case TAG_FLOAT32: return this.float32();
+            case TAG_FLOAT64: return this.float64();
+            case TAG_STRING: return this.string();
+            case TAG_LIST: {
+                const size = this.varuint();
+                const list = [];
+                for (let i = 0; i < size; i++) list.push(this.value());
+                return list;
+            }
+            case TAG_MAP: {
+                const size = this.varuint();
+                const map = {};
+                for (let i = 0; i < size; i++) {
+                    const key = this.key();
+                    map[key] = this.value();
+                }
+                return map;
+            }
+            default: throw new RangeError(`Unknown tag ${tag}`);
+        }
+    }
+}
+
+/** Codifica un mensaje { type, ...payload } como frame binario. */
+export function encode(msg) {
+    const { type, ...payload } = msg;
+    const typeId = TYPES.indexOf(type);
+    if (typeId < 0) throw new Error(`Unknown packet type: ${type}`);
+
+    const fields = LAYOUTS[type] || [];
+    const out = new Writer();
+    let presence = 0;
+    fields.forEach((field, i) => {
+        if (accepts(field, payload[field.name])) presence += 2 ** i;
+    });
+
+    out.byte(typeId);
+    out.varuint(presence);
+    const extras = [];
+    const sent = new Set();
+    fields.forEach((field, i) => {
+        if (Math.floor(presence / 2 ** i) % 2 === 1) {
+            out.field(field, payload[field.name]);
+            sent.add(field.name);
+        }
+    });
+    for (const [key, value] of Object.entries(payload)) {
+        if (!sent.has(key) && value !== undefined) extras.push([key, value]);
+    }
+    out.varuint(extras.length);
+    for (const [key, value] of extras) {
+        out.key(key);
+        out.value(value);
+    }
+    return out.bytes.slice(0, out.pos);
+}
+
+/** Decodifica un frame binario a { type, ...payload }, o null si esta mal formado. */
+export function decode(buffer) {
+    try {
+        const input = new Reader(buffer);
+        const type = TYPES[input.byte()];
+        if (!type) return null;
+
+        const msg = { type };
+        const presence = input.varuint();
+        (LAYOUTS[type] || []).forEach((field, i) => {
+            if (Math.floor(presence / 2 ** i) % 2 === 1) {
+                msg[field.name] = input.field(field);
+            }
+        });
+        const extras = input.varuint();
+        for (let i = 0; i < extras; i++) {
+            const key = input.key();
+            msg[key] = input.value();
+        }
+        return msg;
+    } catch (err) {
+        console.error('[net] Malformed binary frame:', err);
+        return null;
+    }
+}
@@ -1,4 +1,6 @@
-import { WS_URL } from "../shared/constants.js";
+import { WS_URL, WS_BINARY_PROTOCOL } from "../shared/constants.js";
+import { SUBPROTOCOL, encode, decode } from "./BinaryCodec.js";
+import StateSync from "./StateSync.js";
 
 /**
  * NetworkManager — thin wrapper around WebSocket.
@@ -18,6 +20,8 @@ class NetworkManager {
         this.currentTurn = -1;
         /** Actions remaining in current turn */
         this.actionsRemaining = 0;
+        /** Copia del estado versionado (protocolo de deltas con ack) */
+        this.stateSync = new StateSync((msg) => this.send(msg));
     }
 
     setToken(token) {
@@ -29,10 +33,11 @@ class NetworkManager {
     connect() {
         return new Promise((resolve, reject) => {
             // Connect to WebSocket - browser automatically sends cookies
-            this.ws = new WebSocket(this.url);
+            this.ws = WS_BINARY_PROTOCOL ? new WebSocket(this.url, [SUBPROTOCOL]) : new WebSocket(this.url);
+            this.ws.binaryType = 'arraybuffer';
 
             this.ws.onopen = () => {
-                console.log('[net] connected');
+                console.log('[net] connected', this.ws.protocol ? `(protocol: ${this.ws.protocol})` : '(json)');
                 resolve();
             };
 
@@ -61,7 +66,7 @@ class NetworkManager {
             console.warn('[net] Cannot send, socket not open');
             return;
         }
-        this.ws.send(JSON.stringify(msg));
+        this.ws.send(this.ws.protocol === SUBPROTOCOL ? encode(msg) : JSON.stringify(msg));
     }
 
     join(lobbyId) {
@@ -70,6 +75,29 @@ class NetworkManager {
         this.send({ type: 'join', lobbyId });
     }
 
+    /**
+     * Pasa la sesion al protocolo de deltas. Desde ese momento el servidor deja de mandar gameStart,
+     * moveDrone, carrierMoved, droneRecalled y visibilityUpdate: solo se puede llamar desde una escena
+     * que dibuje a partir de 'stateSynced'. Ninguna escena lo hace todavia.
+     */
+    enableStateSync() {
+        this.stateSync.start();
+    }
+
+    // playerIndex: bando a seguir (con su niebla de guerra); sin el se ve toda la partida
+    spectate(lobbyId, playerIndex = null) {
+        this.send(playerIndex === null ? { type: 'spectate', lobbyId } : { type: 'spectate', lobbyId, playerIndex });
+    }
+
+    // Consultas sin costo de accion: el servidor contesta movesPreview / attackPreview
+    previewMoves(droneIndex) {
+        this.send({ type: 'previewMoves', droneIndex });
+    }
+
+    previewAttack(attackerIndex, targetPlayer, targetDrone, lineX = null, lineY = null, targetType = 'drone') {
+        this.send({ type: 'previewAttack', attackerIndex, targetPlayer, targetDrone, lineX, lineY, targetType });
+    }
+
     requestMove(droneIndex, x, y) {
         this.send({ type: 'move', droneIndex, x, y });
     }
@@ -138,7 +166,8 @@ class NetworkManager {
     }
     
     _onMessage(event) {
-        const msg = JSON.parse(event.data);
+        const msg = event.data instanceof ArrayBuffer ? decode(event.data) : JSON.parse(event.data);
+        if (!msg) return;
         console.log('='.repeat(80));
         console.log('[net] ← RECEIVED MESSAGE:', msg.type);
         console.log('[net] Full message:', msg);
@@ -157,6 +186,16 @@ class NetworkManager {
             console.log('[net] Updated playerIndex:', this.playerIndex);
         }
 
+        if (msg.type === 'stateSnapshot' || msg.type === 'stateDelta') {
+            const applied = msg.type === 'stateSnapshot'
+                ? this.stateSync.onSnapshot(msg)
+                : this.stateSync.onDelta(msg);
+            if (applied && this.handlers.stateSynced) {
+                this._fire('stateSynced', this.stateSync.getState());
+            }
+            return;
+        }
+
         if (msg.type === 'turnStart') {
             this.currentTurn = msg.activePlayer;
             this.actionsRemaining = msg.actionsRemaining;
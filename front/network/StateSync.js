@@ -0,0 +1,116 @@
+/**
+ * StateSync — copia local del estado versionado de la room (protocolo de deltas).
+ *
+ * El servidor manda un stateSnapshot completo al unirse o ante un hueco de secuencia, y despues
+ * stateDelta con solo los campos que cambiaron respecto del ultimo estado confirmado (baseSeq).
+ * Los estados aplicados se confirman con { type: 'ack', seq }; los acks se agrupan y solo se manda
+ * el del ultimo estado (el servidor descarta todo lo anterior al seq confirmado).
+ *
+ * Unidades: "room" (campos generales), "p{i}" (jugador) y "p{i}.d{j}" (dron j del jugador i).
+ */
+const MAX_KEPT_STATES = 64;
+const ACK_DELAY_MS = 50;
+
+export default class StateSync {
+    constructor(send) {
+        this.send = send;
+        this.states = new Map();
+        this.latestSeq = -1;
+        this.ackTimer = null;
+    }
+
+    /** Registra la sesion en el protocolo de deltas; el servidor responde con un snapshot. */
+    start() {
+        this._cancelAck();
+        this.states.clear();
+        this.latestSeq = -1;
+        this.send({ type: 'ack', seq: -1 });
+    }
+
+    onSnapshot(msg) {
+        this._store(msg.seq, msg.units || {});
+        this._scheduleAck();
+        return true;
+    }
+
+    onDelta(msg) {
+        const base = this.states.get(msg.baseSeq);
+        if (!base) {
+            // Hueco de secuencia: pedir el estado completo
+            this._cancelAck();
+            this.send({ type: 'ack', seq: this.latestSeq, resync: true });
+            return false;
+        }
+
+        const next = {};
+        for (const [unitId, fields] of Object.entries(base)) {
+            next[unitId] = { ...fields };
+        }
+        for (const unitId of (msg.removed || [])) {
+            delete next[unitId];
+        }
+        for (const [unitId, fields] of Object.entries(msg.changed || {})) {
+            const unit = next[unitId] ?? (next[unitId] = {});
+            for (const [key, value] of Object.entries(fields)) {
+                if (value === null) {
+                    delete unit[key];
+                } else {
+                    unit[key] = value;
+                }
+            }
+        }
+
+        this._store(msg.seq, next);
+        // Los estados anteriores a la base ya no pueden ser base de un delta
+        for (const seq of this.states.keys()) {
+            if (seq < msg.baseSeq) this.states.delete(seq);
+        }
+        this._scheduleAck();
+        return true;
+    }
+
+    /** Estado actual con la misma forma que toStateMap() del servidor. */
+    getState() {
+        const units = this.states.get(this.latestSeq);
+        if (!units) return null;
+
+        const state = { ...(units.room || {}), players: [] };
+        const players = new Map();
+        for (const [unitId, fields] of Object.entries(units)) {
+            const match = /^p(\d+)(?:\.d(\d+))?$/.exec(unitId);
+            if (!match) continue;
+            const playerIndex = Number(match[1]);
+            if (!players.has(playerIndex)) players.set(playerIndex, { drones: [] });
+            const player = players.get(playerIndex);
+            if (match[2] === undefined) {
+                Object.assign(player, fields);
+            } else {
+                player.drones[Number(match[2])] = { ...fields };
+            }
+        }
+        state.players = [...players.keys()].sort((a, b) => a - b).map((index) => players.get(index));
+        return state;
+    }
+
+    _scheduleAck() {
+        if (this.ackTimer !== null) return;
+        this.ackTimer = setTimeout(() => {
+            this.ackTimer = null;
+            this.send({ type: 'ack', seq: this.latestSeq });
+        }, ACK_DELAY_MS);
+    }
+
+    _cancelAck() {
+        if (this.ackTimer === null) return;
+        clearTimeout(this.ackTimer);
+        this.ackTimer = null;
+    }
+
+    _store(seq, units) {
+        this.states.set(seq, units);
+        this.latestSeq = Math.max(this.latestSeq, seq);
+        while (this.states.size > MAX_KEPT_STATES) {
+            this.states.delete(this.states.keys().next().value);
+        }
+    }
+}
@@ -785,11 +785,18 @@ export default class MainScene extends Phaser.Scene {
                     this.carriers[player.playerIndex].ring.setVisible(false);
                     this.carriers[player.playerIndex].targetRing?.setVisible(false);
                 }
+                // Con niebla de guerra en el servidor el carrier enemigo puede venir sin posicion
+                this.carriers[player.playerIndex].serverHidden = player.carrierHidden === true;
                 this.updateCarrierHealthBar(this.carriers[player.playerIndex]);
             }
 
             for (const d of player.drones) {
-                const hex = this.hexGrid.getNearestCenter(d.x, d.y);
+                // Drones enemigos fuera de vision llegan sin x/y: se ubican en el carrier hasta ser revelados
+                const hasPosition = typeof d.x === 'number' && typeof d.y === 'number';
+                const carrierSprite = this.carriers[player.playerIndex]?.sprite;
+                const hex = hasPosition
+                    ? this.hexGrid.getNearestCenter(d.x, d.y)
+                    : this.hexGrid.getNearestCenter(carrierSprite?.x ?? 0, carrierSprite?.y ?? 0);
                 const droneType = d.droneType ?? side ?? 'Aereo';
                 
                 const drone = new Drone(this, hex.x, hex.y, color, isLocal, {
@@ -806,6 +813,7 @@ export default class MainScene extends Phaser.Scene {
                 });
                 drone.playerIndex = player.playerIndex;
                 drone.droneIndex = this.drones[player.playerIndex].length;
+                drone.serverHidden = d.hidden === true;
 
                 // Restore deployed state from saved game.
                 // Drones that were already on the battlefield must be shown immediately,
@@ -94,6 +94,7 @@ export function attachNetworkHandlers(scene, options = {}) {
         }
 
         if (typeof msg.x === 'number' && typeof msg.y === 'number') {
+            drone.serverHidden = false;
             drone.moveTo(msg.x, msg.y);
         }
 
@@ -133,6 +134,7 @@ export function attachNetworkHandlers(scene, options = {}) {
     Network.on('carrierMoved', (msg) => {
         const carrier = scene.carriers[msg.playerIndex];
         if (!carrier || typeof msg.x !== 'number' || typeof msg.y !== 'number') return;
+        carrier.serverHidden = false;
         scene.moveCarrier(carrier, msg.x, msg.y);
 
         if (typeof msg.actionsRemaining === 'number') {
@@ -144,6 +146,42 @@ export function attachNetworkHandlers(scene, options = {}) {
         }
     });
 
+    // Solo llega con niebla de guerra en el servidor (game.fog-of-war=true)
+    Network.on('visibilityUpdate', (msg) => {
+        for (const unit of (msg.revealed || [])) {
+            if (unit.unit === 'carrier') {
+                const carrier = scene.carriers?.[unit.playerIndex];
+                if (!carrier?.sprite) continue;
+                carrier.serverHidden = false;
+                for (const target of [carrier.sprite, carrier.ring, carrier.targetRing, carrier.healthBarBg]) {
+                    target?.setPosition(unit.x, unit.y);
+                }
+                scene.updateCarrierHealthBar?.(carrier);
+                continue;
+            }
+
+            const drone = scene.drones[unit.playerIndex]?.[unit.droneIndex];
+            if (!drone?.sprite) continue;
+            drone.serverHidden = false;
+            drone.deployed = true;
+            if (!drone.isBusy()) {
+                drone.sprite.setPosition(unit.x, unit.y);
+                drone.syncUIPositions();
+            }
+        }
+
+        for (const unit of (msg.hidden || [])) {
+            const hiddenUnit = unit.unit === 'carrier'
+                ? scene.carriers?.[unit.playerIndex]
+                : scene.drones[unit.playerIndex]?.[unit.droneIndex];
+            if (hiddenUnit) {
+                hiddenUnit.serverHidden = true;
+            }
+        }
+
+        scene.updateVision();
+    });
+
     Network.on('attackResult', (msg) => {
         const targetDrone = scene.drones[msg.targetPlayer]?.[msg.targetDrone];
         const hit = msg.hit !== false;
@@ -72,6 +72,7 @@ function getLocalVisionSources(scene) {
 export function isDroneVisibleToLocal(scene, drone) {
     if (!drone || !drone.isAlive()) return false;
     if (drone.playerIndex === Network.playerIndex) return true;
+    if (drone.serverHidden) return false;
 
     const sources = getLocalVisionSources(scene);
     if (!sources.length) return false;
@@ -94,6 +95,7 @@ export function isDroneVisibleToLocal(scene, drone) {
 export function isCarrierVisibleToLocal(scene, carrier) {
     if (!carrier?.sprite) return false;
     if (carrier.playerIndex === Network.playerIndex) return true;
+    if (carrier.serverHidden) return false;
 
     const sources = getLocalVisionSources(scene);
     if (!sources.length) return false;
@@ -1,4 +1,7 @@
 let refreshInterval = null;
+let lobbyEvents = null;
+// Lista mostrada por lobbyId: el stream manda la primera pagina y despues un evento por lobby cambiado
+let shownLobbies = new Map();
 
 // Fetch and display lobbies
 async function fetchLobbies() {
@@ -18,7 +21,7 @@ async function fetchLobbies() {
         }
 
         const lobbies = await response.json();
-        displayLobbies(lobbies);
+        replaceLobbies(lobbies);
     } catch (error) {
         console.error('Error fetching lobbies:', error);
         document.getElementById('lobbyList').innerHTML = 
@@ -26,6 +29,22 @@ async function fetchLobbies() {
     }
 }
 
+function replaceLobbies(lobbies) {
+    shownLobbies = new Map(lobbies.map(lobby => [lobby.lobbyId, lobby]));
+    displayLobbies([...shownLobbies.values()]);
+}
+
+function upsertLobby(lobby) {
+    shownLobbies.set(lobby.lobbyId, lobby);
+    displayLobbies([...shownLobbies.values()]);
+}
+
+function removeLobby(lobbyId) {
+    if (shownLobbies.delete(lobbyId)) {
+        displayLobbies([...shownLobbies.values()]);
+    }
+}
+
 // Display lobbies in the UI
 function displayLobbies(lobbies) {
     const lobbyList = document.getElementById('lobbyList');
@@ -149,16 +168,45 @@ document.addEventListener('DOMContentLoaded', () => {
         window.location.href = '/menu';
     });
 
-    // Initial fetch
-    fetchLobbies();
+    // La lista inicial y los cambios llegan por el stream de eventos
+    subscribeLobbyEvents();
+});
 
-    // Auto-refresh every 15 seconds 
+// Auto-refresh cada 15 segundos, solo sin EventSource o con el stream cerrado
+function startPolling() {
+    if (refreshInterval) return;
+    fetchLobbies();
     refreshInterval = setInterval(fetchLobbies, 15000);
-});
+}
+
+function subscribeLobbyEvents() {
+    if (typeof EventSource === 'undefined') {
+        startPolling();
+        return;
+    }
+
+    lobbyEvents = new EventSource('/api/lobby/events', { withCredentials: true });
+    lobbyEvents.addEventListener('lobbies', (event) => {
+        replaceLobbies(JSON.parse(event.data));
+    });
+    lobbyEvents.addEventListener('lobbyAdded', (event) => upsertLobby(JSON.parse(event.data)));
+    lobbyEvents.addEventListener('lobbyUpdated', (event) => upsertLobby(JSON.parse(event.data)));
+    lobbyEvents.addEventListener('lobbyRemoved', (event) => removeLobby(JSON.parse(event.data).lobbyId));
+    lobbyEvents.onerror = () => {
+        // EventSource reconecta solo; si quedo cerrado (401, servidor caido) volvemos al polling
+        if (lobbyEvents.readyState === EventSource.CLOSED) {
+            lobbyEvents = null;
+            startPolling();
+        }
+    };
+}
 
 // Cleanup on page unload
 window.addEventListener('beforeunload', () => {
     if (refreshInterval) {
         clearInterval(refreshInterval);
     }
+    if (lobbyEvents) {
+        lobbyEvents.close();
+    }
 });
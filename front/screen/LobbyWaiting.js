@@ -1,4 +1,5 @@
 let checkInterval = null;
+let lobbyEvents = null;
 
 async function checkLobbyStatus() {
     if (!await checkAuth()) return;
@@ -12,33 +13,62 @@ async function checkLobbyStatus() {
             credentials: 'include'
         });
 
-        const result = await response.json();
+        handleLobbyState(await response.json());
+    } catch (error) {
+        console.error('Error checking lobby status:', error);
+    }
+}
 
-        if (!result.inLobby) {
-            window.location.href = '/lobby-browser';
-            return;
-        }
+// Mismo JSON que /api/lobby/my-lobby, llega por polling o por el evento 'myLobby'
+function handleLobbyState(result) {
+    if (!result.inLobby) {
+        window.location.href = '/lobby-browser';
+        return;
+    }
 
-        const expectedLobbyId = sessionStorage.getItem('currentLobbyId');
-        if (expectedLobbyId && result.lobbyId && result.lobbyId !== expectedLobbyId) {
-            console.warn('Lobby mismatch detected. Keeping expected lobby:', expectedLobbyId, 'Server returned:', result.lobbyId);
-            return;
-        }
+    const expectedLobbyId = sessionStorage.getItem('currentLobbyId');
+    if (expectedLobbyId && result.lobbyId && result.lobbyId !== expectedLobbyId) {
+        console.warn('Lobby mismatch detected. Keeping expected lobby:', expectedLobbyId, 'Server returned:', result.lobbyId);
+        return;
+    }
 
-        displayLobbyInfo(result);
+    displayLobbyInfo(result);
 
-        if (result.playerCount >= 2 || result.status === 'READY') {
-            console.log('Lobby ready! Starting game...');
-            if (!expectedLobbyId && result.lobbyId) {
-                sessionStorage.setItem('currentLobbyId', result.lobbyId);
-            }
-            window.location.href = '/game';
+    if (result.playerCount >= 2 || result.status === 'READY') {
+        console.log('Lobby ready! Starting game...');
+        if (!expectedLobbyId && result.lobbyId) {
+            sessionStorage.setItem('currentLobbyId', result.lobbyId);
         }
-    } catch (error) {
-        console.error('Error checking lobby status:', error);
+        window.location.href = '/game';
     }
 }
 
+// Polling cada 2 segundos, solo si el navegador no soporta EventSource o el stream se cerro
+function startPolling() {
+    if (checkInterval) return;
+    checkLobbyStatus();
+    checkInterval = setInterval(checkLobbyStatus, 2000);
+}
+
+function subscribeLobbyEvents() {
+    if (typeof EventSource === 'undefined') {
+        startPolling();
+        return;
+    }
+
+    lobbyEvents = new EventSource('/api/lobby/events', { withCredentials: true });
+    lobbyEvents.addEventListener('myLobby', (event) => {
+        handleLobbyState(JSON.parse(event.data));
+    });
+    lobbyEvents.onerror = () => {
+        // EventSource reconecta solo; si quedo cerrado (401, servidor caido) volvemos al polling
+        if (lobbyEvents.readyState === EventSource.CLOSED) {
+            lobbyEvents = null;
+            startPolling();
+        }
+    };
+}
+
 function displayLobbyInfo(lobbyInfo) {
     const detailsDiv = document.getElementById('lobbyDetails');
 
@@ -94,11 +124,8 @@ document.addEventListener('DOMContentLoaded', () => {
 
     document.getElementById('leaveLobbyBtn').addEventListener('click', leaveLobby);
 
-    // Initial check
-    checkLobbyStatus();
-
-    // Check every 2 seconds
-    checkInterval = setInterval(checkLobbyStatus, 2000);
+    // El estado inicial llega como primer evento del stream
+    subscribeLobbyEvents();
 });
 
 // Cleanup
@@ -106,4 +133,7 @@ window.addEventListener('beforeunload', () => {
     if (checkInterval) {
         clearInterval(checkInterval);
     }
+    if (lobbyEvents) {
+        lobbyEvents.close();
+    }
 });
\ No newline at end of file
@@ -1,5 +1,7 @@
 export const API_BASE = window.location.origin + '/api';
 export const WS_URL = (window.location.protocol === 'https:' ? window.location.origin.replace('https:', 'wss:') : window.location.origin.replace('http:', 'ws:')) + '/ws';
+/** Ofrecer el subprotocolo binario al servidor; si no lo acepta se sigue con JSON */
+export const WS_BINARY_PROTOCOL = true;
 
 export const WORLD_WIDTH = 3200;
 export const WORLD_HEIGHT = 2400;
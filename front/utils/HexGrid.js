@@ -98,13 +98,39 @@ export default class HexGrid {
     }
 
     /**
-     * Calculate approximate hex distance between two pixel positions.
-     * Uses pixel distance divided by hex width as approximation.
+     * Convierte un pixel a la coordenada axial (q, r) del hexágono que lo contiene
+     * (cube rounding). Es la misma cuenta que HexGrid.keyAt del servidor.
+     */
+    pixelToAxial(px, py) {
+        const fq = (Math.sqrt(3) / 3 * px - py / 3) / this.size;
+        const fr = (2 / 3 * py) / this.size;
+        const fs = -fq - fr;
+
+        let q = Math.round(fq);
+        let r = Math.round(fr);
+        const s = Math.round(fs);
+
+        const dq = Math.abs(q - fq);
+        const dr = Math.abs(r - fr);
+        const ds = Math.abs(s - fs);
+        if (dq > dr && dq > ds) {
+            q = -r - s;
+        } else if (dr > ds) {
+            r = -q - s;
+        }
+        return { q, r };
+    }
+
+    /**
+     * Distancia en hexágonos entre dos posiciones en pixeles.
+     * Entera y exacta sobre la grilla, igual que la que valida el servidor.
      */
     getHexDistance(x1, y1, x2, y2) {
-        const pixelDist = Math.sqrt((x2 - x1) ** 2 + (y2 - y1) ** 2);
-        const hexWidth = Math.sqrt(3) * this.size;
-        return Math.round(pixelDist / hexWidth);
+        const a = this.pixelToAxial(x1, y1);
+        const b = this.pixelToAxial(x2, y2);
+        const dq = a.q - b.q;
+        const dr = a.r - b.r;
+        return (Math.abs(dq) + Math.abs(dr) + Math.abs(dq + dr)) / 2;
     }
 
     /**